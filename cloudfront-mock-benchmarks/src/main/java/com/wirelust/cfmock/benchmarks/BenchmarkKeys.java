@@ -0,0 +1,45 @@
+package com.wirelust.cfmock.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import com.wirelust.cfmock.CFKeyPair;
+import com.wirelust.cfmock.exceptions.CFMockException;
+
+/**
+ * Loads the key pair the benchmarks sign and validate with.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class BenchmarkKeys {
+
+	public static final String KEY_PAIR_ID = "benchmark-keypair";
+
+	private static final String PRIVATE_KEY = "keys/private_key.pem";
+
+	private BenchmarkKeys() {
+		// static only class
+	}
+
+	/**
+	 * @return the key pair, the key is copied out of the benchmark jar because key pairs are loaded from files
+	 */
+	public static CFKeyPair load() {
+		try (InputStream in = BenchmarkKeys.class.getClassLoader().getResourceAsStream(PRIVATE_KEY)) {
+			if (in == null) {
+				throw new CFMockException("benchmark key not found:" + PRIVATE_KEY);
+			}
+			File keyFile = File.createTempFile("cfmock-benchmark", ".pem");
+			keyFile.deleteOnExit();
+			Files.copy(in, keyFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			return CFKeyPair.load(KEY_PAIR_ID, keyFile);
+		} catch (IOException e) {
+			throw new CFMockException("unable to load benchmark key", e);
+		}
+	}
+}
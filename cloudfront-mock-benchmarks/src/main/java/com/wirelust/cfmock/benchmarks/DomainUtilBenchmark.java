@@ -0,0 +1,37 @@
+package com.wirelust.cfmock.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.util.DomainUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainUtilBenchmark {
+
+	@Param({"localhost", "wirelust.com", "d111111abcdef8.cloudfront.net", "assets.static.example.co.uk"})
+	String domain;
+
+	@Benchmark
+	public String getTopLevelDomain() {
+		return DomainUtil.getTopLevelDomain(domain);
+	}
+}
@@ -0,0 +1,50 @@
+package com.wirelust.cfmock.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wirelust.cfmock.CFPolicy;
+import com.wirelust.cfmock.web.json.PolicyHelper;
+import com.wirelust.cfmock.web.representations.Policy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolicyHelperBenchmark {
+
+	private static final String POLICY = "{\"Statement\":[{\"Resource\":\"http*://*/web/content/*\","
+		+ "\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":1466966700},"
+		+ "\"DateGreaterThan\":{\"AWS:EpochTime\":1466963100},"
+		+ "\"IpAddress\":{\"AWS:SourceIp\":\"192.0.2.0/24\"}}}]}";
+
+	Policy policy;
+
+	@Setup
+	public void setup() throws IOException {
+		policy = new ObjectMapper().readValue(POLICY, Policy.class);
+	}
+
+	@Benchmark
+	public CFPolicy toCfPolicy() {
+		return PolicyHelper.toCfPolicy(policy);
+	}
+}
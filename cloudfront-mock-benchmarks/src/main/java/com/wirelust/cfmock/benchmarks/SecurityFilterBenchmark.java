@@ -0,0 +1,100 @@
+package com.wirelust.cfmock.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.CFPolicyStatement;
+import com.wirelust.cfmock.CFSigner;
+import com.wirelust.cfmock.CompiledPolicy;
+import com.wirelust.cfmock.PolicyParser;
+import com.wirelust.cfmock.SignatureValidator;
+import com.wirelust.cfmock.cache.PolicyCache;
+import com.wirelust.cfmock.util.CloudFrontBase64;
+import com.wirelust.cfmock.web.util.RequestUrlUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The work the security filter does on each request before validating: decoding and compiling the policy, with and
+ * without the policy cache, and removing the signing parameters from the url.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityFilterBenchmark {
+
+	private static final String URL = "http://localhost:8080/content/moby-dick/OPS/chapter_001.xhtml";
+
+	String policyBase64;
+	String cannedQuery;
+	String customQuery;
+	String mixedQuery;
+	PolicyCache policyCache;
+
+	@Setup
+	public void setup() {
+		CFSigner signer = new CFSigner(BenchmarkKeys.load());
+		long expires = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + TimeUnit.DAYS.toSeconds(1);
+
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setResource("http*://localhost:8080/content/*");
+		statement.setDateLessThanEpochSeconds(expires);
+		statement.setDateGreaterThanEpochSeconds(expires - TimeUnit.DAYS.toSeconds(2));
+		statement.setIpAddress("192.0.2.0/24");
+		policyBase64 = signer.signCookies(statement).get(SignatureValidator.COOKIE_POLICY);
+
+		cannedQuery = signer.signUrl(URL, expires).substring(URL.length() + 1);
+		customQuery = signer.signUrl(URL, statement).substring(URL.length() + 1);
+		mixedQuery = signer.signUrl(URL + "?chapter=1&format=xhtml", expires).substring(URL.length() + 1);
+
+		policyCache = new PolicyCache();
+		policyCache.put(policyBase64, compilePolicy(policyBase64));
+	}
+
+	@Benchmark
+	public CompiledPolicy decodePolicy() {
+		return compilePolicy(policyBase64);
+	}
+
+	@Benchmark
+	public CompiledPolicy decodePolicyCached() {
+		return policyCache.get(policyBase64);
+	}
+
+	@Benchmark
+	public String signedUrlCanned() {
+		return RequestUrlUtil.getSignedUrl(URL, cannedQuery);
+	}
+
+	@Benchmark
+	public String signedUrlCustom() {
+		return RequestUrlUtil.getSignedUrl(URL, customQuery);
+	}
+
+	@Benchmark
+	public String signedUrlWithParameters() {
+		return RequestUrlUtil.getSignedUrl(URL, mixedQuery);
+	}
+
+	/**
+	 * The same steps SecurityFilter takes to compile a policy it has not seen.
+	 */
+	private static CompiledPolicy compilePolicy(final String policyBase64) {
+		byte[] policyJson = CloudFrontBase64.decode(policyBase64);
+		return SignatureValidator.compilePolicy(PolicyParser.parse(policyJson), policyJson);
+	}
+}
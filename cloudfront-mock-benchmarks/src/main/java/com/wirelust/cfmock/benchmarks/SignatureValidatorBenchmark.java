@@ -0,0 +1,139 @@
+package com.wirelust.cfmock.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.CFKeyPair;
+import com.wirelust.cfmock.CFPolicyStatement;
+import com.wirelust.cfmock.CFSigner;
+import com.wirelust.cfmock.CompiledPolicy;
+import com.wirelust.cfmock.PolicyParser;
+import com.wirelust.cfmock.SignatureValidator;
+import com.wirelust.cfmock.SignedRequest;
+import com.wirelust.cfmock.cache.ValidationCache;
+import com.wirelust.cfmock.util.CloudFrontBase64;
+import com.wirelust.cfmock.web.util.RequestUrlUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validating canned and custom policy signatures, sent either in the url or as cookies.
+ *
+ * The url variants also strip the signing parameters from the query string the way the security filter does before
+ * validating. Run with validationCache=false to measure the RSA verification itself.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignatureValidatorBenchmark {
+
+	private static final String URL = "http://localhost:8080/content/moby-dick/OPS/chapter_001.xhtml";
+	private static final String RESOURCE = "http://localhost:8080/content/moby-dick/*";
+	private static final String IP_ADDRESS = "192.0.2.1";
+
+	@Param({"true", "false"})
+	boolean validationCache;
+
+	CFKeyPair keyPair;
+	String expires;
+	String cannedSignature;
+	String cannedQuery;
+	String customSignature;
+	String customQuery;
+	CompiledPolicy customPolicy;
+
+	@Setup
+	public void setup() {
+		keyPair = BenchmarkKeys.load();
+		CFSigner signer = new CFSigner(keyPair);
+		long expiresAt = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + TimeUnit.DAYS.toSeconds(1);
+
+		Map<String, String> canned = signer.signCookies(URL, expiresAt);
+		expires = canned.get(SignatureValidator.COOKIE_EXPIRES);
+		cannedSignature = canned.get(SignatureValidator.COOKIE_SIGNATURE);
+		cannedQuery = signer.signUrl(URL, expiresAt).substring(URL.length() + 1);
+
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setResource(RESOURCE);
+		statement.setDateLessThanEpochSeconds(expiresAt);
+		statement.setIpAddress("192.0.2.0/24");
+		Map<String, String> custom = signer.signCookies(statement);
+		customSignature = custom.get(SignatureValidator.COOKIE_SIGNATURE);
+		customQuery = signer.signUrl(URL, statement).substring(URL.length() + 1);
+		byte[] policyJson = CloudFrontBase64.decode(custom.get(SignatureValidator.COOKIE_POLICY));
+		customPolicy = SignatureValidator.compilePolicy(PolicyParser.parse(policyJson), policyJson);
+
+		SignatureValidator.setValidationCache(validationCache ? new ValidationCache() : null);
+	}
+
+	@TearDown
+	public void tearDown() {
+		SignatureValidator.setValidationCache(new ValidationCache());
+	}
+
+	@Benchmark
+	public boolean cannedUrl() {
+		SignedRequest request = cannedRequest(SignedRequest.Type.REQUEST,
+			RequestUrlUtil.getSignedUrl(URL, cannedQuery));
+		return SignatureValidator.validateSignature(request);
+	}
+
+	@Benchmark
+	public boolean cannedCookie() {
+		return SignatureValidator.validateSignature(cannedRequest(SignedRequest.Type.COOKIE, URL));
+	}
+
+	@Benchmark
+	public boolean customUrl() {
+		SignedRequest request = customRequest(SignedRequest.Type.REQUEST,
+			RequestUrlUtil.getSignedUrl(URL, customQuery));
+		return SignatureValidator.validateSignature(request);
+	}
+
+	@Benchmark
+	public boolean customCookie() {
+		return SignatureValidator.validateSignature(customRequest(SignedRequest.Type.COOKIE, URL));
+	}
+
+	private SignedRequest cannedRequest(final SignedRequest.Type type, final String url) {
+		SignedRequest request = newRequest(type, url);
+		request.setSignature(cannedSignature);
+		request.setExpiresEpochSeconds(Long.parseLong(expires));
+		return request;
+	}
+
+	private SignedRequest customRequest(final SignedRequest.Type type, final String url) {
+		SignedRequest request = newRequest(type, url);
+		request.setSignature(customSignature);
+		request.setCompiledPolicy(customPolicy);
+		request.setPolicy(customPolicy.getPolicy());
+		return request;
+	}
+
+	private SignedRequest newRequest(final SignedRequest.Type type, final String url) {
+		SignedRequest request = new SignedRequest();
+		request.setType(type);
+		request.setUrl(url);
+		request.setKeyId(BenchmarkKeys.KEY_PAIR_ID);
+		request.setKeyPair(keyPair);
+		request.setRemoteIpAddress(IP_ADDRESS);
+		return request;
+	}
+}
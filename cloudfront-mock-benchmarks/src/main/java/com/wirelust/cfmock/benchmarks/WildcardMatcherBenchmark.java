@@ -0,0 +1,66 @@
+package com.wirelust.cfmock.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.util.CompiledWildcard;
+import com.wirelust.cfmock.util.WildcardMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matching urls against policy resources, through the shared cache of compiled patterns and against a pattern that
+ * was compiled up front.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WildcardMatcherBenchmark {
+
+	private static final String URL = "https://localhost:8080/web/content/moby-dick/OPS/chapter_001.xhtml?a=1";
+
+	@Param({
+		"https://localhost:8080/web/content/moby-dick/OPS/chapter_001.xhtml?a=1",
+		"http*://*/web/content/*",
+		"*://localhost:8080/web/content/moby-dick/OPS/chapter_00?.xhtml*",
+		"http*://*/web/other/*"
+	})
+	String pattern;
+
+	CompiledWildcard compiled;
+
+	@Setup
+	public void setup() {
+		compiled = CompiledWildcard.compile(pattern);
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return WildcardMatcher.matches(URL, pattern);
+	}
+
+	@Benchmark
+	public boolean matchesCompiled() {
+		return compiled.matches(URL);
+	}
+
+	@Benchmark
+	public String wildcardToRegex() {
+		return WildcardMatcher.wildcardToRegex(pattern);
+	}
+}
@@ -0,0 +1,261 @@
+package com.wirelust.cfmock.loadgen;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.wirelust.cfmock.CFKeyPair;
+import com.wirelust.cfmock.CFSigner;
+import com.wirelust.cfmock.exceptions.CFMockException;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Sends signed requests to a running cloudfront-mock at a fixed rate over a number of keep-alive connections and
+ * reports throughput and latency.
+ *
+ * Every request has a slot in the schedule, request n is due at start + n / rate. Each connection takes the next
+ * slot, waits for it and sends the request. When the server falls behind the connections are all busy as slots come
+ * due, those requests go out late and their latency counts the time they waited for a connection, the same as a
+ * real client at that rate would see it.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class LoadGenerator {
+
+	private static final int SIGNIFICANT_DIGITS = 3;
+	private static final int READ_BUFFER_SIZE = 8192;
+
+	private final List<LoadRequest> requests;
+	private final int rate;
+	private final int connections;
+	private final long durationNanos;
+	private final int timeoutMillis;
+
+	/**
+	 * @param requests requests to send, they are sent in turn and repeated as often as needed
+	 * @param rate requests per second
+	 * @param connections number of concurrent connections
+	 * @param durationNanos how long to schedule requests for
+	 * @param timeoutMillis connect and read timeout
+	 */
+	public LoadGenerator(final List<LoadRequest> requests, final int rate, final int connections,
+						 final long durationNanos, final int timeoutMillis) {
+		if (requests == null || requests.isEmpty()) {
+			throw new IllegalArgumentException("at least one request is required");
+		}
+		if (rate < 1 || connections < 1 || durationNanos < 1 || timeoutMillis < 1) {
+			throw new IllegalArgumentException("rate, connections, duration and timeout must be positive");
+		}
+		this.requests = new ArrayList<>(requests);
+		this.rate = rate;
+		this.connections = connections;
+		this.durationNanos = durationNanos;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	public static void main(final String[] args) {
+		LoadOptions options;
+		try {
+			options = LoadOptions.parse(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.print(LoadOptions.USAGE);
+			System.exit(2);
+			return;
+		}
+		if (options.isHelp()) {
+			System.out.print(LoadOptions.USAGE);
+			return;
+		}
+
+		// HttpURLConnection only keeps 5 idle connections per host unless told otherwise, this has to be set before
+		// the first connection is made
+		System.setProperty("http.maxConnections", Integer.toString(options.getConnections()));
+
+		try {
+			CFSigner signer = new CFSigner(CFKeyPair.load(options.getKeyPairId(), options.getKeyFile()));
+			long expires = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + options.getExpiresSeconds();
+			List<LoadRequest> requests = RequestPlan.build(signer, options.getUrl(), options.getContent(),
+				options.getMode(), expires);
+
+			System.out.printf("sending %d req/s over %d connections for %ds, %d signed requests (%s)%n",
+				options.getRate(), options.getConnections(), options.getDurationSeconds(), requests.size(),
+				options.getMode().name().toLowerCase(Locale.ROOT));
+
+			LoadReport report = new LoadGenerator(requests, options.getRate(), options.getConnections(),
+				TimeUnit.SECONDS.toNanos(options.getDurationSeconds()), options.getTimeoutMillis()).run();
+			report.print(System.out);
+
+			if (options.getHistogramFile() != null) {
+				try (PrintStream out = new PrintStream(options.getHistogramFile(), "UTF-8")) {
+					report.printLatencyDistribution(out);
+				}
+			}
+		} catch (CFMockException | IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Sends the requests and waits for every scheduled request to complete.
+	 */
+	public LoadReport run() throws InterruptedException {
+		AtomicLong schedule = new AtomicLong();
+		long start = System.nanoTime();
+
+		List<Connection> workers = new ArrayList<>(connections);
+		List<Thread> threads = new ArrayList<>(connections);
+		for (int i = 0; i < connections; i++) {
+			Connection connection = new Connection(schedule, start);
+			Thread thread = new Thread(connection, "cfmock-loadgen-" + i);
+			thread.setDaemon(true);
+			workers.add(connection);
+			threads.add(thread);
+			thread.start();
+		}
+		try {
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		} catch (InterruptedException e) {
+			threads.forEach(Thread::interrupt);
+			throw e;
+		}
+		long elapsed = System.nanoTime() - start;
+
+		Histogram latency = new Histogram(SIGNIFICANT_DIGITS);
+		Histogram serviceTime = new Histogram(SIGNIFICANT_DIGITS);
+		long[] statusClasses = new long[6];
+		long errors = 0;
+		for (Connection worker : workers) {
+			latency.add(worker.latency);
+			serviceTime.add(worker.serviceTime);
+			for (int i = 0; i < statusClasses.length; i++) {
+				statusClasses[i] += worker.statusClasses[i];
+			}
+			errors += worker.errors;
+		}
+		return new LoadReport(rate, elapsed, latency, serviceTime, statusClasses, errors);
+	}
+
+	/**
+	 * @return the time request number sequence is due, relative to the start
+	 */
+	long scheduledAt(final long sequence) {
+		return sequence * TimeUnit.SECONDS.toNanos(1) / rate;
+	}
+
+	/**
+	 * Sends requests one at a time, HttpURLConnection reuses the underlying connection as long as each response is
+	 * read to the end.
+	 */
+	private class Connection implements Runnable {
+
+		private final AtomicLong schedule;
+		private final long start;
+		private final Histogram latency = new Histogram(SIGNIFICANT_DIGITS);
+		private final Histogram serviceTime = new Histogram(SIGNIFICANT_DIGITS);
+		private final long[] statusClasses = new long[6];
+		private final byte[] buffer = new byte[READ_BUFFER_SIZE];
+		private long errors;
+
+		Connection(final AtomicLong schedule, final long start) {
+			this.schedule = schedule;
+			this.start = start;
+		}
+
+		@Override
+		public void run() {
+			while (!Thread.currentThread().isInterrupted()) {
+				long sequence = schedule.getAndIncrement();
+				long offset = scheduledAt(sequence);
+				if (offset >= durationNanos) {
+					return;
+				}
+				long due = start + offset;
+				waitUntil(due);
+
+				long sent = System.nanoTime();
+				int status = send(requests.get((int)(sequence % requests.size())));
+				long done = System.nanoTime();
+
+				latency.recordValue(TimeUnit.NANOSECONDS.toMicros(done - due));
+				serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(done - sent));
+				if (status < 0) {
+					errors++;
+				} else if (status / 100 < statusClasses.length) {
+					statusClasses[status / 100]++;
+				}
+			}
+		}
+
+		/**
+		 * @return the status code, or -1 when no response was received
+		 */
+		private int send(final LoadRequest request) {
+			HttpURLConnection connection = null;
+			try {
+				connection = (HttpURLConnection)request.getUrl().openConnection();
+				connection.setConnectTimeout(timeoutMillis);
+				connection.setReadTimeout(timeoutMillis);
+				connection.setUseCaches(false);
+				connection.setInstanceFollowRedirects(false);
+				if (request.getCookie() != null) {
+					connection.setRequestProperty("Cookie", request.getCookie());
+				}
+
+				int status = connection.getResponseCode();
+				drain(status >= 400 ? connection.getErrorStream() : connection.getInputStream());
+				return status;
+			} catch (FileNotFoundException e) {
+				// thrown for error statuses without a body, the status is still known
+				return statusOf(connection);
+			} catch (IOException e) {
+				if (connection != null) {
+					connection.disconnect();
+				}
+				return -1;
+			}
+		}
+
+		private int statusOf(final HttpURLConnection connection) {
+			try {
+				return connection.getResponseCode();
+			} catch (IOException e) {
+				return -1;
+			}
+		}
+
+		private void drain(final InputStream in) throws IOException {
+			if (in == null) {
+				return;
+			}
+			try (InputStream body = in) {
+				while (body.read(buffer) >= 0) {
+					// discard
+				}
+			}
+		}
+	}
+
+	private static void waitUntil(final long due) {
+		long remaining;
+		while ((remaining = due - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+}
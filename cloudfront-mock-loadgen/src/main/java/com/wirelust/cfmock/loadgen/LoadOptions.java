@@ -0,0 +1,197 @@
+package com.wirelust.cfmock.loadgen;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * Command line options for the load generator.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class LoadOptions {
+
+	public static final String USAGE = "usage: java -jar cloudfront-mock-loadgen-cli.jar --url <base url> "
+		+ "--content <dir> --key <pem file> --key-pair-id <id> [options]\n"
+		+ "\n"
+		+ "  --url <base url>        url the content directory is served from, eg. http://localhost:8080/content\n"
+		+ "  --content <dir>         directory tree to request, every file under it is requested in turn\n"
+		+ "  --key <pem file>        private key to sign the requests with\n"
+		+ "  --key-pair-id <id>      key pair id the mock knows the key by\n"
+		+ "  --mode <mode>           url: canned policy urls (default), policy: custom policy urls,\n"
+		+ "                          cookie: custom policy cookies\n"
+		+ "  --rate <n>              requests per second to send, default 100\n"
+		+ "  --connections <n>       concurrent connections to send them over, default 16\n"
+		+ "  --duration <seconds>    how long to send requests for, default 30\n"
+		+ "  --expires <seconds>     how long the signatures stay valid for, default 3600\n"
+		+ "  --timeout <millis>      connect and read timeout, default 10000\n"
+		+ "  --histogram <file>      write the full latency distribution to the file in hdrhistogram's .hgrm format\n";
+
+	/**
+	 * How requests are signed.
+	 */
+	public enum Mode {
+		URL,
+		POLICY,
+		COOKIE
+	}
+
+	private String url;
+	private File content;
+	private File keyFile;
+	private String keyPairId;
+	private Mode mode = Mode.URL;
+	private int rate = 100;
+	private int connections = 16;
+	private int durationSeconds = 30;
+	private int expiresSeconds = 3600;
+	private int timeoutMillis = 10000;
+	private File histogramFile;
+	private boolean help;
+
+	private LoadOptions() {
+		// use parse
+	}
+
+	/**
+	 * @param args command line arguments
+	 * @return the options
+	 * @throws IllegalArgumentException when an option is unknown, missing or invalid
+	 */
+	public static LoadOptions parse(final String[] args) {
+		LoadOptions options = new LoadOptions();
+		for (int i = 0; i < args.length; i++) {
+			String name = args[i];
+			if ("--help".equals(name) || "-h".equals(name)) {
+				options.help = true;
+				return options;
+			}
+			if (i + 1 >= args.length) {
+				throw new IllegalArgumentException("missing value for option:" + name);
+			}
+			String value = args[++i];
+			switch (name) {
+				case "--url":
+					options.url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+					break;
+				case "--content":
+					options.content = new File(value);
+					break;
+				case "--key":
+					options.keyFile = new File(value);
+					break;
+				case "--key-pair-id":
+					options.keyPairId = value;
+					break;
+				case "--mode":
+					options.mode = parseMode(value);
+					break;
+				case "--rate":
+					options.rate = parsePositive(name, value);
+					break;
+				case "--connections":
+					options.connections = parsePositive(name, value);
+					break;
+				case "--duration":
+					options.durationSeconds = parsePositive(name, value);
+					break;
+				case "--expires":
+					options.expiresSeconds = parsePositive(name, value);
+					break;
+				case "--timeout":
+					options.timeoutMillis = parsePositive(name, value);
+					break;
+				case "--histogram":
+					options.histogramFile = new File(value);
+					break;
+				default:
+					throw new IllegalArgumentException("unknown option:" + name);
+			}
+		}
+
+		require("--url", options.url);
+		require("--content", options.content);
+		require("--key", options.keyFile);
+		require("--key-pair-id", options.keyPairId);
+		if (!options.content.isDirectory()) {
+			throw new IllegalArgumentException("content is not a directory:" + options.content);
+		}
+		return options;
+	}
+
+	private static Mode parseMode(final String value) {
+		try {
+			return Mode.valueOf(value.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("unknown mode:" + value, e);
+		}
+	}
+
+	private static int parsePositive(final String name, final String value) {
+		int number;
+		try {
+			number = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(name + " must be a number:" + value, e);
+		}
+		if (number < 1) {
+			throw new IllegalArgumentException(name + " must be at least 1:" + value);
+		}
+		return number;
+	}
+
+	private static void require(final String name, final Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("missing required option:" + name);
+		}
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public File getContent() {
+		return content;
+	}
+
+	public File getKeyFile() {
+		return keyFile;
+	}
+
+	public String getKeyPairId() {
+		return keyPairId;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public int getRate() {
+		return rate;
+	}
+
+	public int getConnections() {
+		return connections;
+	}
+
+	public int getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	public int getExpiresSeconds() {
+		return expiresSeconds;
+	}
+
+	public int getTimeoutMillis() {
+		return timeoutMillis;
+	}
+
+	public File getHistogramFile() {
+		return histogramFile;
+	}
+
+	public boolean isHelp() {
+		return help;
+	}
+}
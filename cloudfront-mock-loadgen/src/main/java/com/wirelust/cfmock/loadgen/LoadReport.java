@@ -0,0 +1,123 @@
+package com.wirelust.cfmock.loadgen;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Throughput, response counts and latency percentiles of a load run.
+ *
+ * Latency is measured from the time each request was scheduled to be sent rather than when it was actually sent, so
+ * a stalled server is charged for the requests that queued up behind the stall instead of hiding them (coordinated
+ * omission). Service time is measured from when the request was actually sent and is reported alongside it, the gap
+ * between the two shows how far the server fell behind the rate. Both are recorded in microseconds.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class LoadReport {
+
+	static final double[] PERCENTILES = {50, 75, 90, 99, 99.9, 99.99, 100};
+
+	private final int targetRate;
+	private final long elapsedNanos;
+	private final Histogram latency;
+	private final Histogram serviceTime;
+	private final long[] statusClasses;
+	private final long errors;
+
+	/**
+	 * @param statusClasses number of responses by the first digit of their status code, index 0 is unused
+	 */
+	LoadReport(final int targetRate, final long elapsedNanos, final Histogram latency, final Histogram serviceTime,
+			   final long[] statusClasses, final long errors) {
+		this.targetRate = targetRate;
+		this.elapsedNanos = elapsedNanos;
+		this.latency = latency;
+		this.serviceTime = serviceTime;
+		this.statusClasses = statusClasses.clone();
+		this.errors = errors;
+	}
+
+	/**
+	 * @return the number of requests sent, including those that failed
+	 */
+	public long getRequests() {
+		return latency.getTotalCount();
+	}
+
+	/**
+	 * @param statusClass first digit of the status code, eg. 2 for 2xx responses
+	 */
+	public long getResponses(final int statusClass) {
+		if (statusClass < 1 || statusClass >= statusClasses.length) {
+			return 0;
+		}
+		return statusClasses[statusClass];
+	}
+
+	/**
+	 * @return the number of requests that got no response
+	 */
+	public long getErrors() {
+		return errors;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return requests completed per second
+	 */
+	public double getThroughput() {
+		return elapsedNanos == 0 ? 0 : getRequests() * (double)TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+
+	/**
+	 * @return latency corrected for coordinated omission, in microseconds
+	 */
+	public Histogram getLatency() {
+		return latency;
+	}
+
+	/**
+	 * @return time from sending a request to reading its whole response, in microseconds
+	 */
+	public Histogram getServiceTime() {
+		return serviceTime;
+	}
+
+	public void print(final PrintStream out) {
+		double seconds = elapsedNanos / (double)TimeUnit.SECONDS.toNanos(1);
+		out.printf(Locale.ROOT, "requests:     %d in %.2fs, %.1f req/s (target %d req/s)%n",
+			getRequests(), seconds, getThroughput(), targetRate);
+		out.printf(Locale.ROOT, "responses:    1xx=%d 2xx=%d 3xx=%d 4xx=%d 5xx=%d errors=%d%n",
+			getResponses(1), getResponses(2), getResponses(3), getResponses(4), getResponses(5), errors);
+		printPercentiles(out, "latency (corrected for coordinated omission)", latency);
+		printPercentiles(out, "service time (uncorrected)", serviceTime);
+	}
+
+	/**
+	 * Writes the full corrected latency distribution in milliseconds, in the .hgrm format HdrHistogram's plotter
+	 * reads.
+	 */
+	public void printLatencyDistribution(final PrintStream out) {
+		latency.outputPercentileDistribution(out, 1000.0);
+	}
+
+	private static void printPercentiles(final PrintStream out, final String title, final Histogram histogram) {
+		out.printf(Locale.ROOT, "%s, ms:%n", title);
+		for (double percentile : PERCENTILES) {
+			out.printf(Locale.ROOT, "  %7s%%  %10.3f%n", format(percentile),
+				histogram.getValueAtPercentile(percentile) / 1000.0);
+		}
+	}
+
+	private static String format(final double percentile) {
+		return percentile == Math.rint(percentile) ? Long.toString((long)percentile) : Double.toString(percentile);
+	}
+}
@@ -0,0 +1,33 @@
+package com.wirelust.cfmock.loadgen;
+
+import java.net.URL;
+
+/**
+ * A signed request ready to send, signing is done up front so it doesn't skew the timings.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class LoadRequest {
+
+	private final URL url;
+	private final String cookie;
+
+	/**
+	 * @param url the signed url
+	 * @param cookie value of the Cookie header or null when the signature is in the url
+	 */
+	public LoadRequest(final URL url, final String cookie) {
+		this.url = url;
+		this.cookie = cookie;
+	}
+
+	public URL getUrl() {
+		return url;
+	}
+
+	public String getCookie() {
+		return cookie;
+	}
+}
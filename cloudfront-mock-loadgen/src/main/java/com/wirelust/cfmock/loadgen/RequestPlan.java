@@ -0,0 +1,124 @@
+package com.wirelust.cfmock.loadgen;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.wirelust.cfmock.CFPolicyStatement;
+import com.wirelust.cfmock.CFSigner;
+import com.wirelust.cfmock.exceptions.CFMockException;
+
+/**
+ * Builds the signed requests for every file in a content tree.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class RequestPlan {
+
+	private RequestPlan() {
+		// static only class
+	}
+
+	/**
+	 * @param signer signs the requests
+	 * @param baseUrl url the content directory is served from, without a trailing slash
+	 * @param content root of the content tree
+	 * @param mode how the requests are signed
+	 * @param expires time in epoch seconds the signatures expire
+	 * @return a request per file, ordered by path
+	 */
+	public static List<LoadRequest> build(final CFSigner signer, final String baseUrl, final File content,
+										  final LoadOptions.Mode mode, final long expires) {
+		List<String> urls = new ArrayList<>();
+		for (String path : listFiles(content)) {
+			urls.add(baseUrl + path);
+		}
+		if (urls.isEmpty()) {
+			throw new CFMockException("no files found in:" + content);
+		}
+
+		List<LoadRequest> requests = new ArrayList<>(urls.size());
+		switch (mode) {
+			case URL:
+				for (String signedUrl : signer.signUrls(urls, expires)) {
+					requests.add(new LoadRequest(toUrl(signedUrl), null));
+				}
+				break;
+			case POLICY:
+				CFPolicyStatement urlStatement = statement(baseUrl, expires);
+				for (String url : urls) {
+					requests.add(new LoadRequest(toUrl(signer.signUrl(url, urlStatement)), null));
+				}
+				break;
+			case COOKIE:
+				String cookie = toCookieHeader(signer.signCookies(statement(baseUrl, expires)));
+				for (String url : urls) {
+					requests.add(new LoadRequest(toUrl(url), cookie));
+				}
+				break;
+			default:
+				throw new IllegalArgumentException("unknown mode:" + mode);
+		}
+		return requests;
+	}
+
+	/**
+	 * @return the url encoded path of every regular file under the directory, each starting with a slash
+	 */
+	static List<String> listFiles(final File content) {
+		Path root = content.toPath();
+		try (Stream<Path> paths = Files.walk(root)) {
+			return paths.filter(Files::isRegularFile)
+				.map(path -> encodePath(root.relativize(path)))
+				.sorted()
+				.collect(Collectors.toList());
+		} catch (IOException e) {
+			throw new CFMockException("unable to list content in:" + content, e);
+		}
+	}
+
+	private static String encodePath(final Path relative) {
+		StringBuilder path = new StringBuilder();
+		for (Path name : relative) {
+			path.append('/').append(name.toString());
+		}
+		try {
+			return new URI(null, null, path.toString(), null).getRawPath();
+		} catch (URISyntaxException e) {
+			throw new CFMockException("unable to encode path:" + path, e);
+		}
+	}
+
+	private static CFPolicyStatement statement(final String baseUrl, final long expires) {
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setResource(baseUrl + "/*");
+		statement.setDateLessThanEpochSeconds(expires);
+		return statement;
+	}
+
+	private static String toCookieHeader(final Map<String, String> cookies) {
+		return cookies.entrySet().stream()
+			.map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+			.collect(Collectors.joining("; "));
+	}
+
+	private static URL toUrl(final String url) {
+		try {
+			return new URL(url);
+		} catch (MalformedURLException e) {
+			throw new IllegalArgumentException("invalid url:" + url, e);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.wirelust.cfmock.loadgen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class LoadGeneratorTest {
+
+	private static final byte[] BODY = "Call me Ishmael.".getBytes(StandardCharsets.UTF_8);
+
+	HttpServer server;
+	AtomicInteger received = new AtomicInteger();
+	String baseUrl;
+
+	@Before
+	public void init() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", exchange -> {
+			received.incrementAndGet();
+			String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+			if (exchange.getRequestURI().getPath().startsWith("/denied")
+				|| (cookie != null && !cookie.equals("CloudFront-Key-Pair-Id=key1"))) {
+				exchange.sendResponseHeaders(403, -1);
+			} else {
+				exchange.sendResponseHeaders(200, BODY.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(BODY);
+				}
+			}
+			exchange.close();
+		});
+		server.start();
+		baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@After
+	public void destroy() {
+		server.stop(0);
+	}
+
+	@Test
+	public void shouldSendRequestsAtRate() throws Exception {
+		List<LoadRequest> requests = new ArrayList<>();
+		requests.add(new LoadRequest(new URL(baseUrl + "/chapter_001.txt"), null));
+		requests.add(new LoadRequest(new URL(baseUrl + "/denied.txt"), null));
+		requests.add(new LoadRequest(new URL(baseUrl + "/chapter_002.txt"), "CloudFront-Key-Pair-Id=key1"));
+
+		LoadReport report = new LoadGenerator(requests, 200, 4, TimeUnit.MILLISECONDS.toNanos(500), 5000).run();
+
+		assertEquals(100, report.getRequests());
+		assertEquals(100, received.get());
+		assertEquals(67, report.getResponses(2));
+		assertEquals(33, report.getResponses(4));
+		assertEquals(0, report.getErrors());
+		assertTrue(report.getElapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(495));
+		assertTrue(report.getLatency().getMaxValue() >= report.getServiceTime().getMinValue());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		report.print(new PrintStream(out, true, "UTF-8"));
+		String printed = out.toString("UTF-8");
+		assertTrue(printed, printed.contains("requests:     100 in "));
+		assertTrue(printed, printed.contains("2xx=67 3xx=0 4xx=33 5xx=0 errors=0"));
+		assertTrue(printed, printed.contains("99.9%"));
+	}
+
+	@Test
+	public void shouldCountRequestsWithoutResponseAsErrors() throws Exception {
+		server.stop(0);
+		List<LoadRequest> requests = new ArrayList<>();
+		requests.add(new LoadRequest(new URL(baseUrl + "/chapter_001.txt"), null));
+
+		LoadReport report = new LoadGenerator(requests, 100, 2, TimeUnit.MILLISECONDS.toNanos(100), 1000).run();
+
+		assertEquals(10, report.getRequests());
+		assertEquals(10, report.getErrors());
+		assertEquals(0, report.getResponses(2));
+	}
+
+	@Test
+	public void shouldScheduleAtFixedRate() {
+		List<LoadRequest> requests = new ArrayList<>();
+		requests.add(new LoadRequest(null, null));
+		LoadGenerator generator = new LoadGenerator(requests, 3, 1, 1, 1);
+
+		assertEquals(0, generator.scheduledAt(0));
+		assertEquals(333333333, generator.scheduledAt(1));
+		assertEquals(TimeUnit.SECONDS.toNanos(1), generator.scheduledAt(3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRequireRequests() {
+		new LoadGenerator(new ArrayList<>(), 1, 1, 1, 1);
+	}
+}
@@ -0,0 +1,86 @@
+package com.wirelust.cfmock.loadgen;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class LoadOptionsTest {
+
+	String content;
+
+	@Before
+	public void init() throws Exception {
+		content = new File(getClass().getClassLoader().getResource("content").toURI()).getPath();
+	}
+
+	@Test
+	public void shouldUseDefaults() {
+		LoadOptions options = LoadOptions.parse(new String[]{"--url", "http://localhost:8080/content/",
+			"--content", content, "--key", "key.pem", "--key-pair-id", "key1"});
+
+		assertEquals("http://localhost:8080/content", options.getUrl());
+		assertEquals(new File(content), options.getContent());
+		assertEquals(new File("key.pem"), options.getKeyFile());
+		assertEquals("key1", options.getKeyPairId());
+		assertEquals(LoadOptions.Mode.URL, options.getMode());
+		assertEquals(100, options.getRate());
+		assertEquals(16, options.getConnections());
+		assertEquals(30, options.getDurationSeconds());
+		assertEquals(3600, options.getExpiresSeconds());
+		assertEquals(10000, options.getTimeoutMillis());
+		assertNull(options.getHistogramFile());
+	}
+
+	@Test
+	public void shouldParseOptions() {
+		LoadOptions options = LoadOptions.parse(new String[]{"--url", "http://localhost", "--content", content,
+			"--key", "key.pem", "--key-pair-id", "key1", "--mode", "cookie", "--rate", "5000",
+			"--connections", "64", "--duration", "60", "--expires", "60", "--timeout", "500",
+			"--histogram", "latency.hgrm"});
+
+		assertEquals(LoadOptions.Mode.COOKIE, options.getMode());
+		assertEquals(5000, options.getRate());
+		assertEquals(64, options.getConnections());
+		assertEquals(60, options.getDurationSeconds());
+		assertEquals(60, options.getExpiresSeconds());
+		assertEquals(500, options.getTimeoutMillis());
+		assertEquals(new File("latency.hgrm"), options.getHistogramFile());
+	}
+
+	@Test
+	public void shouldRecogniseHelp() {
+		assertTrue(LoadOptions.parse(new String[]{"--help"}).isHelp());
+	}
+
+	@Test
+	public void shouldRejectInvalidOptions() {
+		assertInvalid("missing required option:--url", "--content", content);
+		assertInvalid("missing value for option:--rate", "--rate");
+		assertInvalid("--rate must be at least 1", "--rate", "0");
+		assertInvalid("--connections must be a number", "--connections", "many");
+		assertInvalid("unknown mode:header", "--mode", "header");
+		assertInvalid("unknown option:--method", "--method", "POST");
+		assertInvalid("content is not a directory", "--url", "http://localhost", "--content", "missing",
+			"--key", "key.pem", "--key-pair-id", "key1");
+	}
+
+	private static void assertInvalid(final String message, final String... args) {
+		try {
+			LoadOptions.parse(args);
+			fail("expected to reject:" + String.join(" ", args));
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(message));
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.wirelust.cfmock.loadgen;
+
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+
+import com.wirelust.cfmock.CFKeyPair;
+import com.wirelust.cfmock.CFSigner;
+import com.wirelust.cfmock.SignatureValidator;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class RequestPlanTest {
+
+	private static final String BASE_URL = "http://localhost:8080/content";
+
+	File content;
+	CFSigner signer;
+	long expires;
+
+	@Before
+	public void init() throws Exception {
+		content = new File(getClass().getClassLoader().getResource("content").toURI());
+		signer = new CFSigner(CFKeyPair.load("key1", new File(getClass().getClassLoader()
+			.getResource("keys/private_key.pem").toURI())));
+		expires = System.currentTimeMillis() / 1000 + 3600;
+	}
+
+	/**
+	 * This method simply instantiates a private constructor to ensure code coverage for it so the
+	 * coverage reports aren't diminished
+	 */
+	@Test
+	public void testConstructorIsPrivate() throws Exception {
+		Constructor<RequestPlan> constructor = RequestPlan.class.getDeclaredConstructor();
+		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void shouldListContentTree() {
+		assertEquals(Arrays.asList("/chapter_001.txt", "/sub/chapter_002.txt"), RequestPlan.listFiles(content));
+	}
+
+	@Test
+	public void shouldSignUrlsWithCannedPolicy() {
+		List<LoadRequest> requests = RequestPlan.build(signer, BASE_URL, content, LoadOptions.Mode.URL, expires);
+
+		assertEquals(2, requests.size());
+		assertEquals(signer.signUrl(BASE_URL + "/chapter_001.txt", expires), requests.get(0).getUrl().toString());
+		assertEquals(signer.signUrl(BASE_URL + "/sub/chapter_002.txt", expires), requests.get(1).getUrl().toString());
+		assertNull(requests.get(0).getCookie());
+	}
+
+	@Test
+	public void shouldSignUrlsWithCustomPolicy() {
+		List<LoadRequest> requests = RequestPlan.build(signer, BASE_URL, content, LoadOptions.Mode.POLICY, expires);
+
+		String url = requests.get(1).getUrl().toString();
+		assertTrue(url, url.startsWith(BASE_URL + "/sub/chapter_002.txt?" + SignatureValidator.PARAM_POLICY + "="));
+		assertNull(requests.get(1).getCookie());
+	}
+
+	@Test
+	public void shouldSignCookies() {
+		List<LoadRequest> requests = RequestPlan.build(signer, BASE_URL, content, LoadOptions.Mode.COOKIE, expires);
+
+		assertEquals(BASE_URL + "/chapter_001.txt", requests.get(0).getUrl().toString());
+		String cookie = requests.get(0).getCookie();
+		assertTrue(cookie, cookie.startsWith(SignatureValidator.COOKIE_POLICY + "="));
+		assertTrue(cookie, cookie.contains("; " + SignatureValidator.COOKIE_SIGNATURE + "="));
+		assertTrue(cookie, cookie.endsWith("; " + SignatureValidator.COOKIE_KEY_PAIR_ID + "=key1"));
+	}
+}
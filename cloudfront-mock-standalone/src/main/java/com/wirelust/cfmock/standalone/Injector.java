@@ -0,0 +1,156 @@
+package com.wirelust.cfmock.standalone;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import com.wirelust.cfmock.web.qualifiers.ClasspathResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Just enough dependency injection to run the web module's filter and servlets without a CDI container.
+ *
+ * Fields annotated with {@link Inject} are set with a single shared instance of their type, created with its no
+ * argument constructor and its own fields injected the first time it is needed. {@code @ClasspathResource Properties}
+ * fields are loaded from the classpath the same as the web module's producer does. {@link PostConstruct} methods run
+ * once a bean is injected and {@link PreDestroy} methods run, in the reverse order, when the injector is closed.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class Injector implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(Injector.class);
+
+	private final Map<Class<?>, Object> beans = new LinkedHashMap<>();
+	private final List<Object> created = new ArrayList<>();
+
+	/**
+	 * Makes an existing instance the one injected for its type, it is not post constructed or destroyed.
+	 */
+	public synchronized <T> void register(final Class<T> type, final T bean) {
+		beans.put(type, bean);
+	}
+
+	/**
+	 * @return the shared instance of a type, created and injected when it doesn't exist yet
+	 */
+	public synchronized <T> T getBean(final Class<T> type) {
+		Object bean = beans.get(type);
+		if (bean == null) {
+			bean = instantiate(type);
+			// registered before it is injected so beans that inject each other don't recurse forever
+			beans.put(type, bean);
+			try {
+				inject(bean);
+				invoke(bean, PostConstruct.class);
+			} catch (RuntimeException e) {
+				beans.remove(type);
+				throw e;
+			}
+			created.add(bean);
+		}
+		return type.cast(bean);
+	}
+
+	/**
+	 * Sets the injected fields of an instance the injector didn't create, such as a filter or a servlet.
+	 *
+	 * @return the instance
+	 */
+	public <T> T inject(final T instance) {
+		for (Class<?> type = instance.getClass(); type != Object.class; type = type.getSuperclass()) {
+			for (Field field : type.getDeclaredFields()) {
+				if (!field.isAnnotationPresent(Inject.class) || Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+				Object value;
+				ClasspathResource resource = field.getAnnotation(ClasspathResource.class);
+				if (resource != null && field.getType() == Properties.class) {
+					value = loadProperties(resource.value());
+				} else {
+					value = getBean(field.getType());
+				}
+				field.setAccessible(true);
+				try {
+					field.set(instance, value);
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException("unable to inject " + type.getName() + "." + field.getName(), e);
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Runs the PreDestroy methods of the beans the injector created.
+	 */
+	@Override
+	public synchronized void close() {
+		List<Object> destroyed = new ArrayList<>(created);
+		Collections.reverse(destroyed);
+		for (Object bean : destroyed) {
+			try {
+				invoke(bean, PreDestroy.class);
+			} catch (IllegalStateException e) {
+				LOGGER.warn("unable to destroy bean:{}", bean.getClass().getName(), e);
+			}
+		}
+		beans.clear();
+		created.clear();
+	}
+
+	private static Object instantiate(final Class<?> type) {
+		try {
+			return type.newInstance();
+		} catch (InstantiationException | IllegalAccessException e) {
+			throw new IllegalStateException("unable to create " + type.getName(), e);
+		}
+	}
+
+	private static void invoke(final Object bean, final Class<? extends Annotation> annotation) {
+		for (Class<?> type = bean.getClass(); type != Object.class; type = type.getSuperclass()) {
+			for (Method method : type.getDeclaredMethods()) {
+				if (!method.isAnnotationPresent(annotation) || method.getParameterCount() != 0) {
+					continue;
+				}
+				method.setAccessible(true);
+				try {
+					method.invoke(bean);
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException("unable to call " + type.getName() + "." + method.getName(), e);
+				} catch (InvocationTargetException e) {
+					throw new IllegalStateException(type.getName() + "." + method.getName() + " failed", e.getCause());
+				}
+			}
+		}
+	}
+
+	private static Properties loadProperties(final String name) {
+		Properties properties = new Properties();
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		try (InputStream inputStream = classLoader.getResourceAsStream(name)) {
+			if (inputStream != null) {
+				properties.load(inputStream);
+			}
+		} catch (IOException e) {
+			LOGGER.error("error loading properties file:" + name, e);
+		}
+		return properties;
+	}
+}
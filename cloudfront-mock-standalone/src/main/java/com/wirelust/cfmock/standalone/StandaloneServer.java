@@ -0,0 +1,183 @@
+package com.wirelust.cfmock.standalone;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.Servlet;
+import javax.servlet.ServletException;
+
+import com.wirelust.cfmock.web.metrics.MetricsServlet;
+import com.wirelust.cfmock.web.metrics.SlowRequestsServlet;
+import com.wirelust.cfmock.web.metrics.TimingsServlet;
+import com.wirelust.cfmock.web.servlet.ContentServlet;
+import com.wirelust.cfmock.web.servlet.SecurityFilter;
+import com.wirelust.cfmock.web.services.Configuration;
+import io.undertow.Handlers;
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.resource.FileResourceManager;
+import io.undertow.servlet.Servlets;
+import io.undertow.servlet.api.DeploymentInfo;
+import io.undertow.servlet.api.DeploymentManager;
+import io.undertow.servlet.api.FilterInfo;
+import io.undertow.servlet.api.ServletContainer;
+import io.undertow.servlet.api.ServletInfo;
+import io.undertow.servlet.util.ImmediateInstanceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the security filter, the content servlet and the metrics servlets in an embedded Undertow, for when a whole
+ * application server is more than is needed, such as a mock started next to a test suite.
+ *
+ * The filter and servlets are set up by hand and their dependencies are wired by an {@link Injector}, nothing is
+ * scanned for so the server starts in well under a second. Settings are read from the same file as the war, named by
+ * the app.cfmock.env system property.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class StandaloneServer implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StandaloneServer.class);
+
+	public static final String SETTING_HOST = "standalone.host";
+	public static final String SETTING_PORT = "standalone.port";
+	public static final String SETTING_CONTEXT_PATH = "standalone.context";
+	public static final String SETTING_IO_THREADS = "standalone.io.threads";
+	public static final String SETTING_WORKER_THREADS = "standalone.worker.threads";
+
+	public static final String DEFAULT_HOST = "127.0.0.1";
+	public static final int DEFAULT_PORT = 8080;
+	public static final int DEFAULT_IO_THREADS = 2;
+	public static final int DEFAULT_WORKER_THREADS = 16;
+
+	/**
+	 * Paths the security filter lets through without a signature.
+	 */
+	public static final String PUBLIC_PATHS = "^/_cfmock/.*";
+
+	private static final String DEPLOYMENT_NAME = "cloudfront-mock";
+
+	private static final long RESOURCE_TRANSFER_MIN_SIZE = 100 * 1024;
+
+	private final Injector injector;
+
+	private DeploymentManager deploymentManager;
+	private Undertow undertow;
+	private String host;
+	private int port;
+	private String contextPath;
+
+	/**
+	 * @param injector provides the configuration and metrics, the server closes it when it stops
+	 */
+	public StandaloneServer(final Injector injector) {
+		this.injector = injector;
+	}
+
+	public static void main(String[] args) {
+		StandaloneServer server = new StandaloneServer(new Injector());
+		Runtime.getRuntime().addShutdownHook(new Thread(server::close, "cfmock-shutdown"));
+		server.start();
+		LOGGER.info("cloudfront-mock started in {}ms", ManagementFactory.getRuntimeMXBean().getUptime());
+	}
+
+	/**
+	 * Deploys the filter and servlets and starts listening.
+	 */
+	public synchronized void start() {
+		if (undertow != null) {
+			return;
+		}
+		Configuration configuration = injector.getBean(Configuration.class);
+		host = configuration.getSetting(SETTING_HOST, DEFAULT_HOST);
+		port = configuration.getSettingInt(SETTING_PORT, DEFAULT_PORT);
+		contextPath = configuration.getSetting(SETTING_CONTEXT_PATH, "/");
+
+		DeploymentInfo deployment = Servlets.deployment()
+			.setClassLoader(StandaloneServer.class.getClassLoader())
+			.setDeploymentName(DEPLOYMENT_NAME)
+			.setContextPath(contextPath)
+			// keys are loaded when the filter starts, bad settings fail here rather than on the first request
+			.setEagerFilterInit(true)
+			// paths that would be in the war, root when root.inwar is on and key locations, are under the working
+			// directory
+			.setResourceManager(new FileResourceManager(new File("."), RESOURCE_TRANSFER_MIN_SIZE))
+			.addFilter(filter(SecurityFilter.class.getSimpleName(), new SecurityFilter())
+				.addInitParam(SecurityFilter.PUBLIC_PATHS_PARAM, PUBLIC_PATHS))
+			.addFilterUrlMapping(SecurityFilter.class.getSimpleName(), "/*", DispatcherType.REQUEST)
+			.addServlets(
+				servlet(ContentServlet.class.getSimpleName(), new ContentServlet()).addMapping("/*").setLoadOnStartup(1),
+				servlet(MetricsServlet.class.getSimpleName(), new MetricsServlet()).addMapping(MetricsServlet.PATH),
+				servlet(TimingsServlet.class.getSimpleName(), new TimingsServlet()).addMapping(TimingsServlet.PATH),
+				servlet(SlowRequestsServlet.class.getSimpleName(), new SlowRequestsServlet())
+					.addMapping(SlowRequestsServlet.PATH));
+
+		deploymentManager = ServletContainer.Factory.newInstance().addDeployment(deployment);
+		deploymentManager.deploy();
+		HttpHandler handler;
+		try {
+			handler = deploymentManager.start();
+		} catch (ServletException e) {
+			throw new IllegalStateException("unable to start the servlets", e);
+		}
+		if (!"/".equals(contextPath)) {
+			handler = Handlers.path(Handlers.redirect(contextPath)).addPrefixPath(contextPath, handler);
+		}
+
+		undertow = Undertow.builder()
+			.addHttpListener(port, host)
+			.setIoThreads(configuration.getSettingInt(SETTING_IO_THREADS, DEFAULT_IO_THREADS))
+			.setWorkerThreads(configuration.getSettingInt(SETTING_WORKER_THREADS, DEFAULT_WORKER_THREADS))
+			.setHandler(handler)
+			.build();
+		undertow.start();
+		LOGGER.info("listening on http://{}:{}{}", host, port, contextPath);
+	}
+
+	/**
+	 * Stops listening, destroys the filter and servlets and closes the injector.
+	 */
+	@Override
+	public synchronized void close() {
+		if (undertow != null) {
+			undertow.stop();
+			undertow = null;
+		}
+		if (deploymentManager != null) {
+			try {
+				deploymentManager.stop();
+			} catch (ServletException e) {
+				LOGGER.warn("unable to stop the servlets", e);
+			}
+			deploymentManager.undeploy();
+			deploymentManager = null;
+		}
+		injector.close();
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public String getContextPath() {
+		return contextPath;
+	}
+
+	private FilterInfo filter(final String name, final Filter filter) {
+		return new FilterInfo(name, filter.getClass(), new ImmediateInstanceFactory<>(injector.inject(filter)))
+			.setAsyncSupported(true);
+	}
+
+	private ServletInfo servlet(final String name, final Servlet servlet) {
+		return new ServletInfo(name, servlet.getClass(), new ImmediateInstanceFactory<>(injector.inject(servlet)))
+			.setAsyncSupported(true);
+	}
+}
@@ -0,0 +1,136 @@
+package com.wirelust.cfmock.standalone;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import com.wirelust.cfmock.web.qualifiers.ClasspathResource;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class InjectorTest {
+
+	static final List<String> EVENTS = new ArrayList<>();
+
+	@Test
+	public void shouldShareBeans() {
+		EVENTS.clear();
+		Injector injector = new Injector();
+		Service service = injector.getBean(Service.class);
+		Client client = injector.inject(new Client());
+
+		assertSame(service, client.service);
+		assertSame(service, injector.getBean(Service.class));
+		assertSame(service, service.repository.service);
+		assertEquals("value1", service.settings.getProperty("test.key"));
+		assertTrue(service.constructed);
+
+		injector.close();
+		assertEquals("construct:Repository,construct:Service,destroy:Service,destroy:Repository",
+			String.join(",", EVENTS));
+	}
+
+	@Test
+	public void shouldInjectRegisteredBeans() {
+		EVENTS.clear();
+		Injector injector = new Injector();
+		Service service = new Service();
+		injector.register(Service.class, service);
+
+		Client client = injector.inject(new Client());
+		assertSame(service, client.service);
+		assertNull(client.notInjected);
+		assertNull(service.repository);
+
+		// registered beans were made elsewhere and are not destroyed
+		injector.close();
+		assertTrue(EVENTS.toString(), EVENTS.isEmpty());
+	}
+
+	@Test
+	public void shouldLoadMissingResourceAsEmpty() {
+		Missing missing = new Injector().inject(new Missing());
+		assertNotNull(missing.settings);
+		assertTrue(missing.settings.isEmpty());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldFailWhenPostConstructFails() {
+		new Injector().getBean(Broken.class);
+	}
+
+	static class Client {
+
+		@Inject
+		Service service;
+
+		Service notInjected;
+	}
+
+	public static class Service {
+
+		@Inject
+		Repository repository;
+
+		@Inject
+		@ClasspathResource("injector.properties")
+		Properties settings;
+
+		boolean constructed;
+
+		@PostConstruct
+		void init() {
+			constructed = true;
+			EVENTS.add("construct:Service");
+		}
+
+		@PreDestroy
+		void destroy() {
+			EVENTS.add("destroy:Service");
+		}
+	}
+
+	public static class Repository {
+
+		@Inject
+		Service service;
+
+		@PostConstruct
+		void init() {
+			EVENTS.add("construct:Repository");
+		}
+
+		@PreDestroy
+		void destroy() {
+			EVENTS.add("destroy:Repository");
+		}
+	}
+
+	static class Missing {
+
+		@Inject
+		@ClasspathResource("missing.properties")
+		Properties settings;
+	}
+
+	public static class Broken {
+
+		@PostConstruct
+		void init() {
+			throw new IllegalArgumentException("broken");
+		}
+	}
+}
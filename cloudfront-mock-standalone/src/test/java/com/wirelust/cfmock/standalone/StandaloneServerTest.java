@@ -0,0 +1,363 @@
+package com.wirelust.cfmock.standalone;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.CFKeyPair;
+import com.wirelust.cfmock.CFPolicyStatement;
+import com.wirelust.cfmock.CFSigner;
+import com.wirelust.cfmock.SignatureValidator;
+import com.wirelust.cfmock.cache.ValidationCache;
+import com.wirelust.cfmock.web.metrics.MetricsServlet;
+import com.wirelust.cfmock.web.servlet.ContentServlet;
+import com.wirelust.cfmock.util.ForwardedFor;
+import com.wirelust.cfmock.web.servlet.SecurityFilter;
+import com.wirelust.cfmock.web.services.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class StandaloneServerTest {
+
+	private static final String KEY_PAIR_ID = "key1";
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	File keyFile;
+	Configuration configuration;
+	StandaloneServer server;
+	String baseUrl;
+	CFSigner signer;
+	long expires;
+
+	@Before
+	public void init() throws Exception {
+		keyFile = new File(getClass().getResource("/keys/private_key.pem").toURI());
+		File content = new File(getClass().getResource("/content").toURI());
+
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+
+		configuration = new Configuration();
+		configuration.setSetting(SecurityFilter.SETTING_KEYS, KEY_PAIR_ID);
+		configuration.setSetting("key." + KEY_PAIR_ID + ".location", keyFile.getAbsolutePath());
+		configuration.setSetting(SecurityFilter.SETTING_KEYS_WATCH, "false");
+		configuration.setSetting("root", content.getAbsolutePath());
+		configuration.setSetting(StandaloneServer.SETTING_PORT, Integer.toString(port));
+
+		baseUrl = "http://127.0.0.1:" + port;
+		signer = new CFSigner(CFKeyPair.load(KEY_PAIR_ID, keyFile));
+		expires = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 600;
+	}
+
+	@After
+	public void destroy() {
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	@Test
+	public void shouldServeSignedContent() throws Exception {
+		start();
+
+		HttpURLConnection connection = open(signer.signUrl(baseUrl + "/chapter_001.txt", expires));
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("Call me Ishmael.\n", read(connection));
+		assertTrue(connection.getHeaderField("ETag") != null);
+
+		connection = open(signer.signUrl(baseUrl + "/chapter_001.txt", expires));
+		connection.setRequestProperty("Range", "bytes=0-3");
+		assertEquals(206, connection.getResponseCode());
+		assertEquals("Call", read(connection));
+	}
+
+	@Test
+	public void shouldRejectUnsignedContent() throws Exception {
+		start();
+
+		// an incomplete signature is a bad request, a signature that does not match is forbidden
+		assertEquals(400, open(baseUrl + "/chapter_001.txt").getResponseCode());
+		assertEquals(403, open(signer.signUrl(baseUrl + "/chapter_001.txt", expires)
+			.replace("Signature=", "Signature=x")).getResponseCode());
+	}
+
+	@Test
+	public void shouldMatchForwardedClientAddress() throws Exception {
+		start();
+
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setResource(baseUrl + "/*");
+		statement.setDateLessThanEpochSeconds(expires);
+		statement.setIpAddress("192.0.2.0/24");
+		String url = signer.signUrl(baseUrl + "/chapter_001.txt", statement);
+
+		// the client is the entry added by the one trusted proxy
+		HttpURLConnection connection = open(url);
+		connection.setRequestProperty(ForwardedFor.HEADER, "198.51.100.1, 192.0.2.34:5555");
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("Call me Ishmael.\n", read(connection));
+
+		connection = open(url);
+		connection.setRequestProperty(ForwardedFor.HEADER, "192.0.2.34, 198.51.100.1");
+		assertEquals(403, connection.getResponseCode());
+	}
+
+	@Test
+	public void shouldServeMetricsWithoutSignature() throws Exception {
+		start();
+		open(signer.signUrl(baseUrl + "/chapter_001.txt", expires)).getResponseCode();
+
+		HttpURLConnection connection = open(baseUrl + MetricsServlet.PATH);
+		assertEquals(200, connection.getResponseCode());
+		String metrics = read(connection);
+		assertTrue(metrics, metrics.matches("(?s).*cfmock_requests_total\\{outcome=\"allowed\"} [1-9].*"));
+		assertTrue(metrics, metrics.matches("(?s).*cfmock_requests_total\\{outcome=\"public\"} [1-9].*"));
+	}
+
+	@Test
+	public void shouldValidateAsynchronously() throws Exception {
+		configuration.setSetting(SecurityFilter.SETTING_ASYNC_VALIDATION, "true");
+		configuration.setSetting(SecurityFilter.SETTING_ASYNC_VALIDATION_THREADS, "1");
+		start();
+
+		HttpURLConnection connection = open(signer.signUrl(baseUrl + "/chapter_001.txt", expires));
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("Call me Ishmael.\n", read(connection));
+		assertEquals(403, open(signer.signUrl(baseUrl + "/chapter_001.txt", expires)
+			.replace("Signature=", "Signature=x")).getResponseCode());
+	}
+
+	@Test
+	public void shouldAnswerOnceWhenValidationIsBackedUp() throws Exception {
+		configuration.setSetting(SecurityFilter.SETTING_ASYNC_VALIDATION, "true");
+		configuration.setSetting(SecurityFilter.SETTING_ASYNC_VALIDATION_THREADS, "1");
+		configuration.setSetting(SecurityFilter.SETTING_ASYNC_VALIDATION_QUEUE, "1");
+		configuration.setSetting(SecurityFilter.SETTING_ASYNC_VALIDATION_TIMEOUT, "2000");
+		start();
+
+		// the validator thread reads the clock to check the expiry, it is held there until released
+		Clock clock = SignatureValidator.getClock();
+		CountDownLatch validating = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		SignatureValidator.setClock(new HeldClock(clock, validating, release));
+		ExecutorService clients = Executors.newFixedThreadPool(2);
+		try {
+			String url = signer.signUrl(baseUrl + "/chapter_001.txt", expires);
+			Future<Long> first = clients.submit(() -> timedResponse(url, 503));
+			assertTrue(validating.await(5, TimeUnit.SECONDS));
+
+			// one of these waits in the queue and times out, the other finds the queue full
+			Future<Long> second = clients.submit(() -> timedResponse(url, 503));
+			long third = timedResponse(url, 503);
+			assertTrue(Math.min(second.get(), third) < 1000);
+			assertTrue(first.get() >= 1000);
+
+			// the validations finishing late must not answer the requests again
+			release.countDown();
+			SignatureValidator.setClock(clock);
+			// each late validation looks its signature up in the validation cache once, after that the queue is empty
+			ValidationCache cache = SignatureValidator.getValidationCache();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (cache.getHitCount() + cache.getMissCount() < 2 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			HttpURLConnection connection = open(url);
+			assertEquals(200, connection.getResponseCode());
+			assertEquals("Call me Ishmael.\n", read(connection));
+
+			String metrics = read(open(baseUrl + MetricsServlet.PATH));
+			assertTrue(metrics, metrics.contains("cfmock_requests_total{outcome=\"unavailable\"} 3\n"));
+			assertTrue(metrics, metrics.contains("cfmock_requests_total{outcome=\"allowed\"} 1\n"));
+		} finally {
+			release.countDown();
+			SignatureValidator.setClock(clock);
+			clients.shutdownNow();
+		}
+	}
+
+	@Test
+	public void shouldServeContentAsynchronously() throws Exception {
+		configuration.setSetting(ContentServlet.SETTING_ASYNC_CONTENT, "true");
+		start();
+		assertAsyncContent();
+	}
+
+	@Test
+	public void shouldServeContentAsynchronouslyAfterAsyncValidation() throws Exception {
+		configuration.setSetting(ContentServlet.SETTING_ASYNC_CONTENT, "true");
+		configuration.setSetting(SecurityFilter.SETTING_ASYNC_VALIDATION, "true");
+		configuration.setSetting(SecurityFilter.SETTING_ACCESS_LOG_FILE,
+			new File(tempFolder.getRoot(), "access.log").getAbsolutePath());
+		start();
+		assertAsyncContent();
+
+		HttpURLConnection connection = open(baseUrl + MetricsServlet.PATH);
+		assertEquals(200, connection.getResponseCode());
+		String metrics = read(connection);
+		assertTrue(metrics, metrics.matches("(?s).*cfmock_content_responses_total\\{status=\"2xx\"} [1-9].*"));
+		assertTrue(metrics, metrics.contains("cfmock_access_log_records_total{result=\"dropped\"} 0\n"));
+	}
+
+	private void assertAsyncContent() throws IOException {
+		String url = signer.signUrl(baseUrl + "/chapter_001.txt", expires);
+
+		HttpURLConnection connection = open(url);
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("Call me Ishmael.\n", read(connection));
+		assertEquals("text/plain", connection.getContentType());
+		String eTag = connection.getHeaderField("ETag");
+		assertTrue(eTag != null);
+
+		connection = open(url);
+		connection.setRequestProperty("Range", "bytes=5-6");
+		assertEquals(206, connection.getResponseCode());
+		assertEquals("bytes 5-6/17", connection.getHeaderField("Content-Range"));
+		assertEquals("me", read(connection));
+
+		// more than one range is sent as multipart by the file servlet
+		connection = open(url);
+		connection.setRequestProperty("Range", "bytes=0-3,8-14");
+		assertEquals(206, connection.getResponseCode());
+		String multipart = read(connection);
+		assertTrue(multipart, multipart.contains("Call") && multipart.contains("Ishmael"));
+
+		connection = open(url);
+		connection.setRequestProperty("If-None-Match", eTag);
+		assertEquals(304, connection.getResponseCode());
+	}
+
+	@Test
+	public void shouldExpireValidationsAfterCoarseClockIsClosed() throws Exception {
+		configuration.setSetting(SecurityFilter.SETTING_CLOCK_RESOLUTION, "10");
+		start();
+		assertEquals(200, open(signer.signUrl(baseUrl + "/chapter_001.txt", expires)).getResponseCode());
+		server.close();
+		server = null;
+
+		ValidationCache cache = SignatureValidator.getValidationCache();
+		CFKeyPair keyPair = CFKeyPair.load(KEY_PAIR_ID, keyFile);
+		byte[] policy = "policy".getBytes(StandardCharsets.UTF_8);
+		cache.add(keyPair, policy, "AAAA", System.currentTimeMillis() + 100);
+		assertTrue(cache.verify(keyPair, policy, "AAAA", Long.MAX_VALUE));
+
+		Thread.sleep(300);
+		assertFalse(cache.verify(keyPair, policy, "AAAA", Long.MAX_VALUE));
+	}
+
+	@Test
+	public void shouldServeUnderContextPath() throws Exception {
+		configuration.setSetting(StandaloneServer.SETTING_CONTEXT_PATH, "/cdn");
+		start();
+
+		HttpURLConnection connection = open(signer.signUrl(baseUrl + "/cdn/chapter_001.txt", expires));
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("Call me Ishmael.\n", read(connection));
+		assertEquals(200, open(baseUrl + "/cdn" + MetricsServlet.PATH).getResponseCode());
+	}
+
+	/**
+	 * @return the milliseconds the response took
+	 */
+	private static long timedResponse(final String url, final int expectedStatus) throws IOException {
+		long start = System.nanoTime();
+		assertEquals(expectedStatus, open(url).getResponseCode());
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+	private void start() {
+		Injector injector = new Injector();
+		injector.register(Configuration.class, configuration);
+		server = new StandaloneServer(injector);
+		server.start();
+	}
+
+	private static HttpURLConnection open(final String url) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection)new URL(url).openConnection();
+		connection.setConnectTimeout(5000);
+		connection.setReadTimeout(5000);
+		return connection;
+	}
+
+	private static String read(final HttpURLConnection connection) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (InputStream in = connection.getInputStream()) {
+			byte[] chunk = new byte[4096];
+			int read;
+			while ((read = in.read(chunk)) != -1) {
+				out.write(chunk, 0, read);
+			}
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * A clock that holds every thread reading it until it is released.
+	 */
+	private static class HeldClock extends Clock {
+
+		private final Clock clock;
+		private final CountDownLatch reading;
+		private final CountDownLatch release;
+
+		HeldClock(final Clock clock, final CountDownLatch reading, final CountDownLatch release) {
+			this.clock = clock;
+			this.reading = reading;
+			this.release = release;
+		}
+
+		@Override
+		public long millis() {
+			reading.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return clock.millis();
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis());
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return clock.getZone();
+		}
+
+		@Override
+		public Clock withZone(final ZoneId zone) {
+			return this;
+		}
+	}
+}
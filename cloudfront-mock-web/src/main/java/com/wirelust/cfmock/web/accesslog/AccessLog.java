@@ -0,0 +1,346 @@
+package com.wirelust.cfmock.web.accesslog;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes an access log in the CloudFront standard log file format without holding up requests.
+ *
+ * Request threads copy what the log needs into a record and offer it to a {@link RingBuffer}, when the buffer is full
+ * the record is dropped and counted rather than making the request wait. A single background thread drains the
+ * buffer in batches, formats the records and writes each batch with one write. The file is rotated when it grows past
+ * a size or when an interval boundary passes, the rotated file is renamed with the time of the rotation and gzipped.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class AccessLog implements Closeable {
+
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AccessLog.class);
+
+	private static final int BATCH_SIZE = 512;
+	private static final int OUTPUT_BUFFER_SIZE = 65536;
+	private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+	private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+	private static final DateTimeFormatter ROTATED_SUFFIX =
+		DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss").withZone(ZoneOffset.UTC);
+
+	private final File file;
+	private final RingBuffer<AccessLogRecord> buffer;
+	private final AccessLogFormat format;
+	private final Clock clock;
+
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong rotations = new AtomicLong();
+
+	private volatile long rotateBytes;
+	private volatile long rotateMillis;
+	private volatile boolean gzip = true;
+	private volatile boolean logCookies;
+	private volatile boolean running;
+
+	private Thread writer;
+
+	// only touched by the writer thread
+	private OutputStream out;
+	private long fileBytes;
+	private long fileRecords;
+	private long nextRotation = Long.MAX_VALUE;
+
+	/**
+	 * @param file the log file, records are appended when it exists
+	 * @param capacity the most records waiting to be written before records are dropped
+	 * @param format formats the records
+	 */
+	public AccessLog(final File file, final int capacity, final AccessLogFormat format) {
+		this(file, capacity, format, Clock.systemUTC());
+	}
+
+	/**
+	 * @param clock clock the rotation times are read from
+	 */
+	public AccessLog(final File file, final int capacity, final AccessLogFormat format, final Clock clock) {
+		this.file = file;
+		this.buffer = new RingBuffer<>(capacity);
+		this.format = format;
+		this.clock = clock;
+	}
+
+	/**
+	 * @param rotateBytes rotate the file once it is at least this big, 0 to not rotate by size
+	 */
+	public void setRotateBytes(final long rotateBytes) {
+		this.rotateBytes = rotateBytes;
+	}
+
+	/**
+	 * @param rotateMillis rotate the file every time a multiple of this many millis since the epoch passes, eg. on the
+	 *                     hour for an hour. 0 to not rotate by time
+	 */
+	public void setRotateMillis(final long rotateMillis) {
+		this.rotateMillis = rotateMillis;
+	}
+
+	/**
+	 * @param gzip true to gzip rotated files, the default
+	 */
+	public void setGzip(final boolean gzip) {
+		this.gzip = gzip;
+	}
+
+	/**
+	 * @param logCookies true to log the Cookie header of requests, they are left out by default
+	 */
+	public void setLogCookies(final boolean logCookies) {
+		this.logCookies = logCookies;
+	}
+
+	/**
+	 * Starts the thread writing the log.
+	 */
+	public synchronized void start() {
+		if (writer != null) {
+			return;
+		}
+		running = true;
+		writer = new Thread(this::run, "cfmock-access-log");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Queues a request to be logged, called on the request thread once the response is complete.
+	 *
+	 * @param startNanos System.nanoTime() when the request started
+	 * @return false if the buffer was full and the request was not logged
+	 */
+	public boolean record(final HttpServletRequest request, final HttpServletResponse response,
+						  final long startNanos) {
+		return buffer.offer(AccessLogRecord.of(request, response, startNanos, logCookies));
+	}
+
+	/**
+	 * Queues a record to be logged.
+	 *
+	 * @return false if the buffer was full and the record was dropped
+	 */
+	public boolean record(final AccessLogRecord record) {
+		return buffer.offer(record);
+	}
+
+	/**
+	 * Stops the writer once it has written what is queued and closes the file.
+	 */
+	@Override
+	public synchronized void close() {
+		if (writer == null) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(writer);
+		try {
+			writer.join(CLOSE_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writer = null;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return records written to the log
+	 */
+	public long getWritten() {
+		return written.get();
+	}
+
+	/**
+	 * @return records dropped because the buffer was full
+	 */
+	public long getDropped() {
+		return buffer.getDropped();
+	}
+
+	/**
+	 * @return records lost because they couldn't be written
+	 */
+	public long getFailed() {
+		return failed.get();
+	}
+
+	/**
+	 * @return records waiting to be written
+	 */
+	public long getPending() {
+		return buffer.size();
+	}
+
+	public long getRotations() {
+		return rotations.get();
+	}
+
+	private void run() {
+		List<AccessLogRecord> batch = new ArrayList<>(BATCH_SIZE);
+		StringBuilder lines = new StringBuilder(BATCH_SIZE * 256);
+		while (true) {
+			batch.clear();
+			int count = buffer.drain(batch, BATCH_SIZE);
+			if (count == 0 && !running) {
+				break;
+			}
+			try {
+				rotateIfDue(count > 0);
+				if (count > 0) {
+					write(batch, lines);
+				} else {
+					LockSupport.parkNanos(IDLE_NANOS);
+				}
+			} catch (IOException | RuntimeException e) {
+				LOGGER.warn("unable to write access log:{}", file.getAbsolutePath(), e);
+				failed.addAndGet(count);
+				closeQuietly();
+				if (count == 0) {
+					LockSupport.parkNanos(IDLE_NANOS);
+				}
+			}
+		}
+		closeQuietly();
+	}
+
+	private void write(final List<AccessLogRecord> batch, final StringBuilder lines) throws IOException {
+		if (out == null) {
+			open();
+		}
+		lines.setLength(0);
+		for (AccessLogRecord record : batch) {
+			format.append(record, lines);
+		}
+		byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+		out.write(bytes);
+		out.flush();
+		fileBytes += bytes.length;
+		fileRecords += batch.size();
+		written.addAndGet(batch.size());
+	}
+
+	private void open() throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("unable to create directory:" + parent);
+		}
+		fileBytes = file.length();
+		fileRecords = 0;
+		out = new BufferedOutputStream(new FileOutputStream(file, true), OUTPUT_BUFFER_SIZE);
+		if (fileBytes == 0) {
+			byte[] header = AccessLogFormat.header().getBytes(StandardCharsets.UTF_8);
+			out.write(header);
+			fileBytes = header.length;
+		} else {
+			// records written before a restart count towards the next rotation
+			fileRecords = 1;
+		}
+		scheduleRotation();
+	}
+
+	private void scheduleRotation() {
+		long interval = rotateMillis;
+		if (interval > 0) {
+			nextRotation = (clock.millis() / interval + 1) * interval;
+		} else {
+			nextRotation = Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * @param writing true when records are about to be written, a full file is only rotated to make room for them
+	 */
+	private void rotateIfDue(final boolean writing) throws IOException {
+		if (out == null) {
+			return;
+		}
+		long maxBytes = rotateBytes;
+		boolean full = writing && maxBytes > 0 && fileBytes >= maxBytes;
+		if (!full && clock.millis() < nextRotation) {
+			return;
+		}
+		if (fileRecords == 0) {
+			// nothing but the header was written, there is nothing worth keeping
+			scheduleRotation();
+			return;
+		}
+		out.close();
+		out = null;
+
+		File rotated = rotatedFile();
+		Files.move(file.toPath(), rotated.toPath());
+		if (gzip) {
+			compress(rotated);
+		}
+		rotations.incrementAndGet();
+		open();
+	}
+
+	private File rotatedFile() {
+		String name = file.getName() + "." + ROTATED_SUFFIX.format(Instant.ofEpochMilli(clock.millis()));
+		File rotated = new File(file.getAbsoluteFile().getParentFile(), name);
+		for (int i = 1; rotated.exists() || new File(rotated.getPath() + ".gz").exists(); i++) {
+			rotated = new File(file.getAbsoluteFile().getParentFile(), name + "-" + i);
+		}
+		return rotated;
+	}
+
+	private static void compress(final File rotated) throws IOException {
+		File compressed = new File(rotated.getPath() + ".gz");
+		try (InputStream in = Files.newInputStream(rotated.toPath());
+			 OutputStream gzipOut = new GZIPOutputStream(new FileOutputStream(compressed), OUTPUT_BUFFER_SIZE)) {
+			byte[] chunk = new byte[OUTPUT_BUFFER_SIZE];
+			int read;
+			while ((read = in.read(chunk)) != -1) {
+				gzipOut.write(chunk, 0, read);
+			}
+		}
+		Files.delete(rotated.toPath());
+	}
+
+	private void closeQuietly() {
+		if (out == null) {
+			return;
+		}
+		try {
+			out.close();
+		} catch (IOException e) {
+			LOGGER.warn("unable to close access log:{}", file.getAbsolutePath(), e);
+		}
+		out = null;
+	}
+}
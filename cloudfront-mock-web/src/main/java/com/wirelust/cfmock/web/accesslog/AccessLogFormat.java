@@ -0,0 +1,189 @@
+package com.wirelust.cfmock.web.accesslog;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * Formats access log records in the CloudFront standard log file format, one tab separated line per request with
+ * the fields listed in {@link #FIELDS}. Values that are missing are written as a dash and values that could contain
+ * whitespace are URL encoded, the same as CloudFront does.
+ *
+ * An instance is used by the single thread writing the log and is not thread safe.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class AccessLogFormat {
+
+	public static final String VERSION = "1.0";
+
+	public static final String FIELDS = "date time x-edge-location sc-bytes c-ip cs-method cs(Host) cs-uri-stem "
+		+ "sc-status cs(Referer) cs(User-Agent) cs-uri-query cs(Cookie) x-edge-result-type x-edge-request-id "
+		+ "x-host-header cs-protocol cs-bytes time-taken x-forwarded-for ssl-protocol ssl-cipher "
+		+ "x-edge-response-result-type cs-protocol-version fle-status fle-encrypted-fields c-port time-to-first-byte "
+		+ "x-edge-detailed-result-type sc-content-type sc-content-len sc-range-start sc-range-end";
+
+	public static final String RESULT_HIT = "Hit";
+	public static final String RESULT_ERROR = "Error";
+
+	private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneOffset.UTC);
+	private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneOffset.UTC);
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	// request ids are 40 random bytes, 56 characters of base64 like the ids CloudFront makes
+	private static final int REQUEST_ID_BYTES = 40;
+
+	private final String edgeLocation;
+	private final Random random;
+	private final byte[] requestId = new byte[REQUEST_ID_BYTES];
+
+	private long lastSecond = Long.MIN_VALUE;
+	private String date;
+	private String time;
+
+	/**
+	 * @param edgeLocation the value written as the edge location that served every request
+	 */
+	public AccessLogFormat(final String edgeLocation) {
+		this(edgeLocation, new Random());
+	}
+
+	/**
+	 * @param random source of the request ids
+	 */
+	public AccessLogFormat(final String edgeLocation, final Random random) {
+		this.edgeLocation = edgeLocation;
+		this.random = random;
+	}
+
+	/**
+	 * @return the lines that start every log file
+	 */
+	public static String header() {
+		return "#Version: " + VERSION + "\n#Fields: " + FIELDS + "\n";
+	}
+
+	/**
+	 * Appends the log line of a request, with its line break.
+	 */
+	public void append(final AccessLogRecord record, final StringBuilder out) {
+		long second = record.getTimeMillis() / 1000;
+		if (second != lastSecond) {
+			Instant instant = Instant.ofEpochSecond(second);
+			date = DATE.format(instant);
+			time = TIME.format(instant);
+			lastSecond = second;
+		}
+		String resultType = record.getStatus() < 400 ? RESULT_HIT : RESULT_ERROR;
+		long contentLength = record.getContentLength();
+
+		out.append(date).append('\t');
+		out.append(time).append('\t');
+		value(out, edgeLocation);
+		out.append(Math.max(0, contentLength)).append('\t');
+		value(out, record.getClientIp());
+		value(out, record.getMethod());
+		value(out, record.getServerName());
+		value(out, record.getUri());
+		out.append(record.getStatus()).append('\t');
+		value(out, record.getReferer());
+		value(out, record.getUserAgent());
+		value(out, record.getQuery());
+		value(out, record.getCookie());
+		out.append(resultType).append('\t');
+		random.nextBytes(requestId);
+		out.append(Base64.getEncoder().encodeToString(requestId)).append('\t');
+		value(out, record.getHostHeader());
+		value(out, record.getScheme());
+		out.append(Math.max(0, record.getRequestBytes())).append('\t');
+		seconds(out, record.getTimeTakenNanos());
+		value(out, record.getForwardedFor());
+		// the servlet api has no way to find the tls protocol
+		value(out, null);
+		value(out, record.getSslCipher());
+		out.append(resultType).append('\t');
+		value(out, record.getProtocol());
+		// field level encryption is not supported
+		value(out, null);
+		value(out, null);
+		out.append(record.getClientPort()).append('\t');
+		seconds(out, record.getFirstByteNanos());
+		out.append(resultType).append('\t');
+		value(out, record.getContentType());
+		if (contentLength == AccessLogRecord.UNKNOWN) {
+			out.append('-').append('\t');
+		} else {
+			out.append(contentLength).append('\t');
+		}
+		range(out, record.getContentRange());
+		out.append('\n');
+	}
+
+	private static void seconds(final StringBuilder out, final long nanos) {
+		long millis = Math.max(0, nanos) / 1000000;
+		out.append(millis / 1000).append('.');
+		long fraction = millis % 1000;
+		if (fraction < 100) {
+			out.append('0');
+		}
+		if (fraction < 10) {
+			out.append('0');
+		}
+		out.append(fraction).append('\t');
+	}
+
+	/**
+	 * Writes the start and end of a Content-Range header such as {@code bytes 0-99/1000}, the last two fields of the
+	 * line.
+	 */
+	private static void range(final StringBuilder out, final String contentRange) {
+		if (contentRange != null && contentRange.startsWith("bytes ")) {
+			int dash = contentRange.indexOf('-');
+			int slash = contentRange.indexOf('/');
+			if (dash > 6 && slash > dash + 1) {
+				out.append(contentRange, 6, dash).append('\t').append(contentRange, dash + 1, slash);
+				return;
+			}
+		}
+		out.append('-').append('\t').append('-');
+	}
+
+	/**
+	 * Writes a value followed by a tab, a dash if it is empty. Whitespace, control characters, quotes, backslashes
+	 * and anything that isn't ascii are URL encoded so the value can't break up the line.
+	 */
+	static void value(final StringBuilder out, final String value) {
+		if (value == null || value.isEmpty()) {
+			out.append('-').append('\t');
+			return;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c > ' ' && c < 0x7f && c != '"' && c != '\\') {
+				out.append(c);
+			} else if (c < 0x80) {
+				encode(out, c);
+			} else {
+				int end = i + 1;
+				if (Character.isHighSurrogate(c) && end < value.length()) {
+					end++;
+				}
+				for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+					encode(out, b & 0xff);
+				}
+				i = end - 1;
+			}
+		}
+		out.append('\t');
+	}
+
+	private static void encode(final StringBuilder out, final int b) {
+		out.append('%').append(HEX[b >> 4]).append(HEX[b & 0xf]);
+	}
+}
@@ -0,0 +1,205 @@
+package com.wirelust.cfmock.web.accesslog;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.wirelust.cfmock.util.ForwardedFor;
+import com.wirelust.cfmock.web.metrics.RequestTimings;
+
+/**
+ * What is known about a finished request for its access log entry. Only the values are copied on the request
+ * thread, formatting them is left to the thread writing the log.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class AccessLogRecord {
+
+	/**
+	 * Value of a length that is not known.
+	 */
+	public static final long UNKNOWN = -1;
+
+	private static final String CIPHER_SUITE_ATTRIBUTE = "javax.servlet.request.cipher_suite";
+
+	private long timeMillis;
+	private String clientIp;
+	private int clientPort;
+	private String method;
+	private String serverName;
+	private String uri;
+	private int status;
+	private String referer;
+	private String userAgent;
+	private String query;
+	private String cookie;
+	private String scheme;
+	private String protocol;
+	private String hostHeader;
+	private String forwardedFor;
+	private long requestBytes;
+	private long timeTakenNanos;
+	private long firstByteNanos;
+	private String contentType;
+	private long contentLength;
+	private String contentRange;
+	private String sslCipher;
+
+	/**
+	 * Copies what the log needs from a request that has been answered.
+	 *
+	 * @param startNanos System.nanoTime() when the request started
+	 * @param logCookies true to log the cookie header
+	 * @return the record
+	 */
+	public static AccessLogRecord of(final HttpServletRequest request, final HttpServletResponse response,
+									 final long startNanos, final boolean logCookies) {
+		AccessLogRecord record = new AccessLogRecord();
+		record.timeTakenNanos = System.nanoTime() - startNanos;
+		record.timeMillis = System.currentTimeMillis();
+		record.clientIp = request.getRemoteAddr();
+		record.clientPort = request.getRemotePort();
+		record.method = request.getMethod();
+		record.serverName = request.getServerName();
+		record.uri = request.getRequestURI();
+		record.status = response.getStatus();
+		record.referer = request.getHeader("Referer");
+		record.userAgent = request.getHeader("User-Agent");
+		record.query = request.getQueryString();
+		record.cookie = logCookies ? request.getHeader("Cookie") : null;
+		record.scheme = request.getScheme();
+		record.protocol = request.getProtocol();
+		record.hostHeader = request.getHeader("Host");
+		record.forwardedFor = request.getHeader(ForwardedFor.HEADER);
+		record.requestBytes = request.getContentLengthLong();
+		record.contentType = response.getContentType();
+		record.contentLength = parseLength(response.getHeader("Content-Length"));
+		record.contentRange = response.getHeader("Content-Range");
+		if (request.isSecure()) {
+			Object cipher = request.getAttribute(CIPHER_SUITE_ATTRIBUTE);
+			record.sslCipher = cipher == null ? null : cipher.toString();
+		}
+
+		// the first byte goes out when the content servlet starts on a request the security filter allowed
+		record.firstByteNanos = record.timeTakenNanos;
+		Object timings = request.getAttribute(RequestTimings.ATTRIBUTE);
+		if (timings instanceof RequestTimings && ((RequestTimings)timings).isMarked(RequestTimings.Phase.CONTENT)) {
+			RequestTimings requestTimings = (RequestTimings)timings;
+			record.firstByteNanos = requestTimings.getTotalNanos()
+				- requestTimings.getNanos(RequestTimings.Phase.CONTENT);
+		}
+		return record;
+	}
+
+	private static long parseLength(final String value) {
+		if (value == null) {
+			return UNKNOWN;
+		}
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			return UNKNOWN;
+		}
+	}
+
+	/**
+	 * @return epoch millis when the request finished
+	 */
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	public String getClientIp() {
+		return clientIp;
+	}
+
+	public int getClientPort() {
+		return clientPort;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public String getServerName() {
+		return serverName;
+	}
+
+	public String getUri() {
+		return uri;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public String getReferer() {
+		return referer;
+	}
+
+	public String getUserAgent() {
+		return userAgent;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	public String getCookie() {
+		return cookie;
+	}
+
+	public String getScheme() {
+		return scheme;
+	}
+
+	public String getProtocol() {
+		return protocol;
+	}
+
+	public String getHostHeader() {
+		return hostHeader;
+	}
+
+	public String getForwardedFor() {
+		return forwardedFor;
+	}
+
+	/**
+	 * @return the length of the request body, UNKNOWN if it wasn't sent
+	 */
+	public long getRequestBytes() {
+		return requestBytes;
+	}
+
+	public long getTimeTakenNanos() {
+		return timeTakenNanos;
+	}
+
+	public long getFirstByteNanos() {
+		return firstByteNanos;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * @return the Content-Length of the response, UNKNOWN if it wasn't set
+	 */
+	public long getContentLength() {
+		return contentLength;
+	}
+
+	public String getContentRange() {
+		return contentRange;
+	}
+
+	/**
+	 * @return the cipher of a request made over https, null otherwise
+	 */
+	public String getSslCipher() {
+		return sslCipher;
+	}
+}
@@ -0,0 +1,107 @@
+package com.wirelust.cfmock.web.accesslog;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded queue that many threads offer to and a single thread drains, without locks.
+ *
+ * A producer claims a slot by moving the tail along with a compare and set and then publishes its element into the
+ * slot. When the buffer is full the element is dropped and counted instead of waiting for room, so producers never
+ * block. The consumer takes published elements in order and frees their slots, it stops at a slot that was claimed
+ * but not yet published and picks it up on its next drain.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class RingBuffer<E> {
+
+	private final AtomicReferenceArray<E> slots;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private final LongAdder dropped = new LongAdder();
+	private volatile long head;
+
+	/**
+	 * @param capacity the most elements the buffer holds, rounded up to a power of two
+	 */
+	public RingBuffer(final int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		slots = new AtomicReferenceArray<>(size);
+		mask = size - 1;
+	}
+
+	/**
+	 * Adds an element, may be called from any thread.
+	 *
+	 * @param element the element
+	 * @return false if the buffer was full and the element was dropped
+	 */
+	public boolean offer(final E element) {
+		if (element == null) {
+			throw new IllegalArgumentException("element cannot be null");
+		}
+		long claimed;
+		do {
+			claimed = tail.get();
+			if (claimed - head >= slots.length()) {
+				dropped.increment();
+				return false;
+			}
+		} while (!tail.compareAndSet(claimed, claimed + 1));
+		slots.lazySet((int)claimed & mask, element);
+		return true;
+	}
+
+	/**
+	 * Moves published elements into a list, must only be called from the consuming thread.
+	 *
+	 * @param into the list to add the elements to
+	 * @param max the most elements to take
+	 * @return the number of elements taken
+	 */
+	public int drain(final List<? super E> into, final int max) {
+		long taken = head;
+		int count = 0;
+		while (count < max) {
+			int slot = (int)taken & mask;
+			E element = slots.get(slot);
+			if (element == null) {
+				break;
+			}
+			slots.lazySet(slot, null);
+			into.add(element);
+			taken++;
+			count++;
+		}
+		head = taken;
+		return count;
+	}
+
+	/**
+	 * @return the number of elements offered but not yet drained
+	 */
+	public int size() {
+		return (int)Math.max(0, tail.get() - head);
+	}
+
+	public int capacity() {
+		return slots.length();
+	}
+
+	/**
+	 * @return the number of elements dropped because the buffer was full
+	 */
+	public long getDropped() {
+		return dropped.sum();
+	}
+}
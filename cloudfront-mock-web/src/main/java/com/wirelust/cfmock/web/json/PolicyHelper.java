@@ -47,10 +47,10 @@ public class PolicyHelper {
 		Condition condition = statement.getCondition();
 		if (condition != null) {
 			if (condition.getDateLessThan() != null) {
-				cfPolicyStatement.setDateLessThan(condition.getDateLessThan().getValue());
+				cfPolicyStatement.setDateLessThanEpochSeconds(condition.getDateLessThan().getEpochSeconds());
 			}
 			if (condition.getDateGreaterThan() != null) {
-				cfPolicyStatement.setDateGreaterThan(condition.getDateGreaterThan().getValue());
+				cfPolicyStatement.setDateGreaterThanEpochSeconds(condition.getDateGreaterThan().getEpochSeconds());
 			}
 			if (condition.getIpAddress() != null) {
 				cfPolicyStatement.setIpAddress(condition.getIpAddress().getValue());
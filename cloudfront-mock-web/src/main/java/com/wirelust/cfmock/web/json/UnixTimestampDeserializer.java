@@ -1,8 +1,6 @@
 package com.wirelust.cfmock.web.json;
 
 import java.io.IOException;
-import java.util.Date;
-import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
@@ -13,11 +11,14 @@ import com.fasterxml.jackson.databind.JsonDeserializer;
  *
  * @author T. Curran
  */
-public class UnixTimestampDeserializer extends JsonDeserializer<Date> {
+public class UnixTimestampDeserializer extends JsonDeserializer<Long> {
 
+	/**
+	 * @return the timestamp in epoch seconds
+	 */
 	@Override
-	public Date deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+	public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
 		String unixTimestamp = parser.getText().trim();
-		return new Date(TimeUnit.SECONDS.toMillis(Long.valueOf(unixTimestamp)));
+		return Long.valueOf(unixTimestamp);
 	}
 }
@@ -0,0 +1,71 @@
+package com.wirelust.cfmock.web.metrics;
+
+import com.wirelust.cfmock.cache.NegativeCache;
+import com.wirelust.cfmock.cache.PolicyCache;
+import com.wirelust.cfmock.cache.ValidationCache;
+
+/**
+ * Point in time statistics of one of the caches.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class CacheStatistics {
+
+	private final String name;
+	private final long size;
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final long expirations;
+
+	public CacheStatistics(final String name, final long size, final long hits, final long misses,
+						   final long evictions, final long expirations) {
+		this.name = name;
+		this.size = size;
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.expirations = expirations;
+	}
+
+	public static CacheStatistics of(final String name, final ValidationCache cache) {
+		return new CacheStatistics(name, cache.size(), cache.getHitCount(), cache.getMissCount(),
+			cache.getEvictionCount(), cache.getExpirationCount());
+	}
+
+	public static CacheStatistics of(final String name, final PolicyCache cache) {
+		return new CacheStatistics(name, cache.size(), cache.getHitCount(), cache.getMissCount(),
+			cache.getEvictionCount(), cache.getExpirationCount());
+	}
+
+	public static CacheStatistics of(final String name, final NegativeCache cache) {
+		return new CacheStatistics(name, cache.size(), cache.getHitCount(), cache.getMissCount(),
+			cache.getEvictionCount(), cache.getExpirationCount());
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+
+	public long getExpirations() {
+		return expirations;
+	}
+}
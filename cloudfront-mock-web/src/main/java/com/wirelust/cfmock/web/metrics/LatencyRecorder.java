@@ -0,0 +1,59 @@
+package com.wirelust.cfmock.web.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Records latencies in microseconds from many threads without locking.
+ *
+ * Recording threads write into an HdrHistogram recorder, which swaps out the histogram being written to when a
+ * snapshot is taken, so reading the distribution never holds up a request. Snapshots accumulate everything recorded
+ * since the recorder was created or reset.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class LatencyRecorder {
+
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+	private final LongAdder totalMicros = new LongAdder();
+	private final Histogram accumulated = new Histogram(SIGNIFICANT_DIGITS);
+	private Histogram interval;
+
+	/**
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void record(final long nanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+		recorder.recordValue(micros);
+		totalMicros.add(micros);
+	}
+
+	/**
+	 * @return a copy of the distribution recorded so far, in microseconds
+	 */
+	public synchronized Histogram snapshot() {
+		interval = recorder.getIntervalHistogram(interval);
+		accumulated.add(interval);
+		return accumulated.copy();
+	}
+
+	/**
+	 * @return the sum of all recorded latencies in microseconds
+	 */
+	public long getTotalMicros() {
+		return totalMicros.sum();
+	}
+
+	public synchronized void reset() {
+		recorder.reset();
+		accumulated.reset();
+		totalMicros.reset();
+	}
+}
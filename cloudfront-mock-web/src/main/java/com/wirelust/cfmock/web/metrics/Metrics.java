@@ -0,0 +1,393 @@
+package com.wirelust.cfmock.web.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Named;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.wirelust.cfmock.SignatureValidator;
+import com.wirelust.cfmock.SignedRequest;
+import com.wirelust.cfmock.cache.NegativeCache;
+import com.wirelust.cfmock.cache.PolicyCache;
+import com.wirelust.cfmock.cache.ValidationCache;
+import com.wirelust.cfmock.web.accesslog.AccessLog;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts the outcome of every request and records how long the security filter and the content servlet take, in
+ * total and broken down into the {@link RequestTimings.Phase phases} of a request.
+ *
+ * Counters are LongAdders and latencies go through HdrHistogram recorders so recording is lock free, reading the
+ * metrics does not hold up requests. The metrics are registered as an MXBean and served in the Prometheus text format
+ * by {@link MetricsServlet}. Requests that are slower than a threshold are captured with their phase timings in a
+ * {@link SlowRequestLog} when one is set. The counters of the {@link AccessLog} are served along with the metrics when
+ * access logging is turned on.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@Named
+@ApplicationScoped
+public class Metrics implements MetricsMXBean {
+
+	public static final String OBJECT_NAME = "com.wirelust.cfmock:type=Metrics";
+
+	static final double[] PERCENTILES = {50, 90, 99, 99.9};
+	static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(Metrics.class);
+
+	private static final int STATUS_CLASSES = 6;
+
+	/**
+	 * What the security filter did with a request.
+	 */
+	public enum Outcome {
+		ALLOWED,
+		FORBIDDEN,
+		BAD_REQUEST,
+		ERROR,
+		UNAVAILABLE,
+		REPLAY_REJECTED,
+		PUBLIC;
+
+		public String getLabel() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private final LongAdder[] outcomes = adders(Outcome.values().length);
+	private final LongAdder[] contentResponses = adders(STATUS_CLASSES);
+	private final LatencyRecorder validationLatency = new LatencyRecorder();
+	private final LatencyRecorder contentLatency = new LatencyRecorder();
+	private final LatencyRecorder[] phaseLatency = recorders(RequestTimings.Phase.values().length);
+
+	private volatile PolicyCache policyCache;
+	private volatile NegativeCache negativeCache;
+	private volatile SlowRequestLog slowRequestLog;
+	private volatile AccessLog accessLog;
+
+	private ObjectName objectName;
+
+	@PostConstruct
+	public void init() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			try {
+				server.registerMBean(this, name);
+			} catch (InstanceAlreadyExistsException e) {
+				// left behind by an earlier deployment
+				server.unregisterMBean(name);
+				server.registerMBean(this, name);
+			}
+			objectName = name;
+		} catch (JMException e) {
+			LOGGER.warn("unable to register metrics mbean", e);
+		}
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (objectName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException e) {
+			LOGGER.warn("unable to unregister metrics mbean", e);
+		}
+		objectName = null;
+	}
+
+	/**
+	 * @param outcome what the security filter did with the request
+	 * @param startNanos System.nanoTime() when the filter started on the request
+	 */
+	public void recordRequest(final Outcome outcome, final long startNanos) {
+		outcomes[outcome.ordinal()].increment();
+		if (outcome != Outcome.PUBLIC) {
+			validationLatency.record(System.nanoTime() - startNanos);
+		}
+	}
+
+	/**
+	 * @param status the response status
+	 * @param startNanos System.nanoTime() when the servlet started on the request
+	 */
+	public void recordContent(final int status, final long startNanos) {
+		int statusClass = status / 100;
+		if (statusClass > 0 && statusClass < STATUS_CLASSES) {
+			contentResponses[statusClass].increment();
+		}
+		contentLatency.record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Records the time of each phase the request went through, phases it skipped are not recorded.
+	 *
+	 * @param timings the timings of a finished request
+	 */
+	public void recordPhases(final RequestTimings timings) {
+		for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+			if (timings.isMarked(phase)) {
+				phaseLatency[phase.ordinal()].record(timings.getNanos(phase));
+			}
+		}
+	}
+
+	/**
+	 * Captures the request in the slow request log if it took longer than the threshold of the log, nothing is done
+	 * for requests under the threshold.
+	 *
+	 * @param timings the timings of a finished request
+	 * @param method the http method
+	 * @param signedRequest the request as far as the security filter filled it in
+	 * @param outcome what the security filter did with the request
+	 * @param status the response status
+	 * @param bytes bytes of content served, SlowRequest.NONE when not known
+	 */
+	public void captureIfSlow(final RequestTimings timings, final String method, final SignedRequest signedRequest,
+							  final Outcome outcome, final int status, final long bytes) {
+		SlowRequestLog log = slowRequestLog;
+		if (log == null || !log.isSlow(timings.getTotalNanos())) {
+			return;
+		}
+		String signedBy = signedRequest.getType() == SignedRequest.Type.REQUEST ? "url" : "cookie";
+		String policy = null;
+		if (signedRequest.getSignature() != null) {
+			policy = signedRequest.getPolicy() == null && signedRequest.getCompiledPolicy() == null
+				? "canned" : "custom";
+		}
+		log.capture(new SlowRequest(System.currentTimeMillis(), method, signedRequest.getUrl(),
+			signedRequest.getKeyId(), signedBy, policy, outcome.getLabel(), status, bytes, timings));
+	}
+
+	public long getCount(final Outcome outcome) {
+		return outcomes[outcome.ordinal()].sum();
+	}
+
+	/**
+	 * @param statusClass first digit of the status code, eg. 2 for 2xx responses
+	 */
+	public long getContentResponses(final int statusClass) {
+		if (statusClass < 1 || statusClass >= STATUS_CLASSES) {
+			return 0;
+		}
+		return contentResponses[statusClass].sum();
+	}
+
+	public LatencyRecorder getValidationLatency() {
+		return validationLatency;
+	}
+
+	public LatencyRecorder getContentLatency() {
+		return contentLatency;
+	}
+
+	public LatencyRecorder getPhaseLatency(final RequestTimings.Phase phase) {
+		return phaseLatency[phase.ordinal()];
+	}
+
+	public PolicyCache getPolicyCache() {
+		return policyCache;
+	}
+
+	public void setPolicyCache(final PolicyCache policyCache) {
+		this.policyCache = policyCache;
+	}
+
+	public NegativeCache getNegativeCache() {
+		return negativeCache;
+	}
+
+	public void setNegativeCache(final NegativeCache negativeCache) {
+		this.negativeCache = negativeCache;
+	}
+
+	public SlowRequestLog getSlowRequestLog() {
+		return slowRequestLog;
+	}
+
+	/**
+	 * @param slowRequestLog log to capture slow requests in, null to not capture them
+	 */
+	public void setSlowRequestLog(final SlowRequestLog slowRequestLog) {
+		this.slowRequestLog = slowRequestLog;
+	}
+
+	public AccessLog getAccessLog() {
+		return accessLog;
+	}
+
+	/**
+	 * @param accessLog the access log whose counters are served, null when access logging is off
+	 */
+	public void setAccessLog(final AccessLog accessLog) {
+		this.accessLog = accessLog;
+	}
+
+	/**
+	 * @return statistics of the caches that are turned on
+	 */
+	public List<CacheStatistics> getCaches() {
+		List<CacheStatistics> caches = new ArrayList<>(3);
+		ValidationCache validationCache = SignatureValidator.getValidationCache();
+		if (validationCache != null) {
+			caches.add(CacheStatistics.of("validation", validationCache));
+		}
+		PolicyCache policies = policyCache;
+		if (policies != null) {
+			caches.add(CacheStatistics.of("policy", policies));
+		}
+		NegativeCache rejections = negativeCache;
+		if (rejections != null) {
+			caches.add(CacheStatistics.of("negative", rejections));
+		}
+		return caches;
+	}
+
+	@Override
+	public Map<String, Long> getRequestCounts() {
+		Map<String, Long> counts = new LinkedHashMap<>();
+		for (Outcome outcome : Outcome.values()) {
+			counts.put(outcome.getLabel(), getCount(outcome));
+		}
+		return counts;
+	}
+
+	@Override
+	public Map<String, Long> getContentResponseCounts() {
+		Map<String, Long> counts = new LinkedHashMap<>();
+		for (int statusClass = 1; statusClass < STATUS_CLASSES; statusClass++) {
+			counts.put(statusClass + "xx", getContentResponses(statusClass));
+		}
+		return counts;
+	}
+
+	@Override
+	public Map<String, Double> getValidationLatencyMillis() {
+		return toMillis(validationLatency.snapshot());
+	}
+
+	@Override
+	public Map<String, Double> getContentLatencyMillis() {
+		return toMillis(contentLatency.snapshot());
+	}
+
+	@Override
+	public Map<String, Double> getPhaseLatencyMillis() {
+		Map<String, Double> latency = new LinkedHashMap<>();
+		for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+			for (Map.Entry<String, Double> entry : toMillis(getPhaseLatency(phase).snapshot()).entrySet()) {
+				latency.put(phase.getLabel() + "." + entry.getKey(), entry.getValue());
+			}
+		}
+		return latency;
+	}
+
+	@Override
+	public Map<String, Long> getCacheStatistics() {
+		Map<String, Long> statistics = new LinkedHashMap<>();
+		for (CacheStatistics cache : getCaches()) {
+			statistics.put(cache.getName() + ".size", cache.getSize());
+			statistics.put(cache.getName() + ".hits", cache.getHits());
+			statistics.put(cache.getName() + ".misses", cache.getMisses());
+			statistics.put(cache.getName() + ".evictions", cache.getEvictions());
+			statistics.put(cache.getName() + ".expirations", cache.getExpirations());
+		}
+		return statistics;
+	}
+
+	@Override
+	public long getSlowRequestsCaptured() {
+		SlowRequestLog log = slowRequestLog;
+		return log == null ? 0 : log.getCaptured();
+	}
+
+	@Override
+	public int dumpSlowRequests(final String fileName) throws IOException {
+		SlowRequestLog log = slowRequestLog;
+		if (log == null) {
+			return 0;
+		}
+		int count = log.dump(new File(fileName));
+		LOGGER.info("wrote {} slow requests to {}", count, fileName);
+		return count;
+	}
+
+	@Override
+	public Map<String, Long> getAccessLogStatistics() {
+		Map<String, Long> statistics = new LinkedHashMap<>();
+		AccessLog log = accessLog;
+		if (log != null) {
+			statistics.put("written", log.getWritten());
+			statistics.put("dropped", log.getDropped());
+			statistics.put("failed", log.getFailed());
+			statistics.put("pending", log.getPending());
+			statistics.put("rotations", log.getRotations());
+		}
+		return statistics;
+	}
+
+	@Override
+	public void reset() {
+		for (LongAdder adder : outcomes) {
+			adder.reset();
+		}
+		for (LongAdder adder : contentResponses) {
+			adder.reset();
+		}
+		validationLatency.reset();
+		contentLatency.reset();
+		for (LatencyRecorder recorder : phaseLatency) {
+			recorder.reset();
+		}
+		SlowRequestLog log = slowRequestLog;
+		if (log != null) {
+			log.clear();
+		}
+	}
+
+	static Map<String, Double> toMillis(final Histogram histogram) {
+		Map<String, Double> latency = new LinkedHashMap<>();
+		for (int i = 0; i < PERCENTILES.length; i++) {
+			latency.put(PERCENTILE_NAMES[i], histogram.getValueAtPercentile(PERCENTILES[i]) / 1000.0);
+		}
+		latency.put("mean", histogram.getMean() / 1000.0);
+		latency.put("max", histogram.getMaxValue() / 1000.0);
+		return latency;
+	}
+
+	private static LatencyRecorder[] recorders(final int count) {
+		LatencyRecorder[] recorders = new LatencyRecorder[count];
+		for (int i = 0; i < count; i++) {
+			recorders[i] = new LatencyRecorder();
+		}
+		return recorders;
+	}
+
+	private static LongAdder[] adders(final int count) {
+		LongAdder[] adders = new LongAdder[count];
+		for (int i = 0; i < count; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+}
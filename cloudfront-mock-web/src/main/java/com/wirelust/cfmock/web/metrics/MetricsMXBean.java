@@ -0,0 +1,68 @@
+package com.wirelust.cfmock.web.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The metrics as they are exposed over JMX.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public interface MetricsMXBean {
+
+	/**
+	 * @return requests seen by the security filter by outcome
+	 */
+	Map<String, Long> getRequestCounts();
+
+	/**
+	 * @return content responses by status class, eg. 2xx
+	 */
+	Map<String, Long> getContentResponseCounts();
+
+	/**
+	 * @return percentiles, mean and max of the time the security filter takes to decide on a request
+	 */
+	Map<String, Double> getValidationLatencyMillis();
+
+	/**
+	 * @return percentiles, mean and max of the time taken to serve content
+	 */
+	Map<String, Double> getContentLatencyMillis();
+
+	/**
+	 * @return percentiles, mean and max of each phase of a request, keyed as phase.statistic
+	 */
+	Map<String, Double> getPhaseLatencyMillis();
+
+	/**
+	 * @return size, hits, misses, evictions and expirations of each cache, keyed as cache.statistic
+	 */
+	Map<String, Long> getCacheStatistics();
+
+	/**
+	 * @return requests captured as slow since the start or the last reset, including ones no longer kept
+	 */
+	long getSlowRequestsCaptured();
+
+	/**
+	 * Writes the slow requests that are kept, slowest first, to a file as json.
+	 *
+	 * @param fileName the file to write, it is replaced if it exists
+	 * @return the number of requests written
+	 */
+	int dumpSlowRequests(String fileName) throws IOException;
+
+	/**
+	 * @return records written, dropped, failed and waiting to be written and the rotations of the access log, empty
+	 * when access logging is off
+	 */
+	Map<String, Long> getAccessLogStatistics();
+
+	/**
+	 * Clears the counters, latencies and slow requests, cache statistics are kept by the caches and are not reset.
+	 */
+	void reset();
+}
@@ -0,0 +1,35 @@
+package com.wirelust.cfmock.web.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import javax.inject.Inject;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the metrics for Prometheus to scrape. The path is public, the security filter lets it through unsigned.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@WebServlet(urlPatterns = MetricsServlet.PATH)
+public class MetricsServlet extends HttpServlet {
+
+	public static final String PATH = "/_cfmock/metrics";
+
+	@Inject
+	Metrics metrics;
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		StringWriter body = new StringWriter(4096);
+		PrometheusFormat.write(metrics, body);
+
+		response.setContentType(PrometheusFormat.CONTENT_TYPE);
+		response.setHeader("Cache-Control", "no-cache");
+		response.getWriter().write(body.toString());
+	}
+}
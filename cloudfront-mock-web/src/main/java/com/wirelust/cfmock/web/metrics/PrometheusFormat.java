@@ -0,0 +1,130 @@
+package com.wirelust.cfmock.web.metrics;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import com.wirelust.cfmock.web.accesslog.AccessLog;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Writes the metrics in the Prometheus text exposition format.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class PrometheusFormat {
+
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private static final double MICROS_PER_SECOND = 1000000.0;
+
+	// labels for Metrics.PERCENTILES, written out so they aren't subject to floating point rounding
+	private static final String[] QUANTILES = {"0.5", "0.9", "0.99", "0.999"};
+
+	private PrometheusFormat() {
+		// util class cannot be instantiated
+	}
+
+	public static void write(final Metrics metrics, final Appendable out) throws IOException {
+		family(out, "cfmock_requests_total", "counter", "Requests seen by the security filter by outcome.");
+		for (Metrics.Outcome outcome : Metrics.Outcome.values()) {
+			sample(out, "cfmock_requests_total", "outcome", outcome.getLabel(), metrics.getCount(outcome));
+		}
+
+		summary(out, "cfmock_validation_seconds", "Time the security filter took to allow or reject a request.",
+			metrics.getValidationLatency());
+
+		family(out, "cfmock_content_responses_total", "counter", "Content responses by status class.");
+		for (int statusClass = 1; statusClass <= 5; statusClass++) {
+			sample(out, "cfmock_content_responses_total", "status", statusClass + "xx",
+				metrics.getContentResponses(statusClass));
+		}
+
+		summary(out, "cfmock_content_seconds", "Time taken to serve content.", metrics.getContentLatency());
+
+		family(out, "cfmock_phase_seconds", "summary", "Time spent in each phase of a request.");
+		for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+			quantiles(out, "cfmock_phase_seconds", "phase", phase.getLabel(), metrics.getPhaseLatency(phase));
+		}
+
+		List<CacheStatistics> caches = metrics.getCaches();
+		cache(out, caches, "cfmock_cache_size", "gauge", "Entries in the cache.", CacheStatistics::getSize);
+		cache(out, caches, "cfmock_cache_hits_total", "counter", "Cache lookups that found an entry.",
+			CacheStatistics::getHits);
+		cache(out, caches, "cfmock_cache_misses_total", "counter", "Cache lookups that found no entry.",
+			CacheStatistics::getMisses);
+		cache(out, caches, "cfmock_cache_evictions_total", "counter", "Entries evicted to make room.",
+			CacheStatistics::getEvictions);
+		cache(out, caches, "cfmock_cache_expirations_total", "counter", "Entries dropped because they expired.",
+			CacheStatistics::getExpirations);
+
+		AccessLog accessLog = metrics.getAccessLog();
+		if (accessLog != null) {
+			family(out, "cfmock_access_log_records_total", "counter",
+				"Access log records by whether they were written, dropped because the buffer was full or failed.");
+			sample(out, "cfmock_access_log_records_total", "result", "written", accessLog.getWritten());
+			sample(out, "cfmock_access_log_records_total", "result", "dropped", accessLog.getDropped());
+			sample(out, "cfmock_access_log_records_total", "result", "failed", accessLog.getFailed());
+			family(out, "cfmock_access_log_pending", "gauge", "Access log records waiting to be written.");
+			sample(out, "cfmock_access_log_pending", accessLog.getPending());
+			family(out, "cfmock_access_log_rotations_total", "counter", "Access log files rotated.");
+			sample(out, "cfmock_access_log_rotations_total", accessLog.getRotations());
+		}
+	}
+
+	private static void summary(final Appendable out, final String name, final String help,
+								final LatencyRecorder recorder) throws IOException {
+		family(out, name, "summary", help);
+		quantiles(out, name, null, null, recorder);
+	}
+
+	/**
+	 * @param label label the summary is broken down by, null if it isn't
+	 */
+	private static void quantiles(final Appendable out, final String name, final String label,
+								  final String labelValue, final LatencyRecorder recorder) throws IOException {
+		String labels = label == null ? "" : label + "=\"" + labelValue + "\"";
+		Histogram histogram = recorder.snapshot();
+		for (int i = 0; i < Metrics.PERCENTILES.length; i++) {
+			out.append(name).append('{').append(labels).append(labels.isEmpty() ? "" : ",")
+				.append("quantile=\"").append(QUANTILES[i]).append("\"} ")
+				.append(Double.toString(histogram.getValueAtPercentile(Metrics.PERCENTILES[i]) / MICROS_PER_SECOND))
+				.append('\n');
+		}
+		String suffix = labels.isEmpty() ? " " : "{" + labels + "} ";
+		out.append(name).append("_sum").append(suffix)
+			.append(Double.toString(recorder.getTotalMicros() / MICROS_PER_SECOND)).append('\n');
+		out.append(name).append("_count").append(suffix).append(Long.toString(histogram.getTotalCount()))
+			.append('\n');
+	}
+
+	private static void cache(final Appendable out, final List<CacheStatistics> caches, final String name,
+							  final String type, final String help, final ToLongFunction<CacheStatistics> value)
+		throws IOException {
+		if (caches.isEmpty()) {
+			return;
+		}
+		family(out, name, type, help);
+		for (CacheStatistics cache : caches) {
+			sample(out, name, "cache", cache.getName(), value.applyAsLong(cache));
+		}
+	}
+
+	private static void family(final Appendable out, final String name, final String type, final String help)
+		throws IOException {
+		out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(final Appendable out, final String name, final long value) throws IOException {
+		out.append(name).append(' ').append(Long.toString(value)).append('\n');
+	}
+
+	private static void sample(final Appendable out, final String name, final String label, final String labelValue,
+							   final long value) throws IOException {
+		out.append(name).append('{').append(label).append("=\"").append(labelValue).append("\"} ")
+			.append(Long.toString(value)).append('\n');
+	}
+}
@@ -0,0 +1,140 @@
+package com.wirelust.cfmock.web.metrics;
+
+import java.util.Locale;
+
+/**
+ * Times the phases of a single request.
+ *
+ * Each call to {@link #mark(Phase)} charges the time since the previous mark to a phase, so the phases of a request
+ * add up to the time since it started with a single System.nanoTime() call per phase. A phase can be marked more than
+ * once, its time accumulates. The timings are kept on the request as the {@link #ATTRIBUTE} attribute so the content
+ * servlet can add the content phase after the security filter has let the request through.
+ *
+ * An instance belongs to one request and is not thread safe, requests validated asynchronously hand it from thread to
+ * thread along with the request.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class RequestTimings {
+
+	public static final String ATTRIBUTE = RequestTimings.class.getName();
+
+	public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	/**
+	 * Where the time of a request goes.
+	 */
+	public enum Phase {
+		/** reading the signature, key pair id and expiry from the parameters or cookies */
+		EXTRACT,
+		/** decoding a custom policy, or finding it compiled in the policy cache */
+		DECODE,
+		/** checking the request is complete, with bean validation in strict mode */
+		CHECK,
+		/**
+		 * matching the policy and verifying the RSA signature, or finding it in the validation cache. a custom policy
+		 * that was not cached is parsed and compiled here once its signature is verified
+		 */
+		VERIFY,
+		/** serving the content once the request is allowed */
+		CONTENT;
+
+		public String getLabel() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private final long startNanos;
+	private final long[] phaseNanos = new long[Phase.values().length];
+	private long lastMark;
+	private int marked;
+	private boolean serverTiming;
+
+	public RequestTimings() {
+		this(System.nanoTime());
+	}
+
+	/**
+	 * @param startNanos System.nanoTime() when the request started
+	 */
+	public RequestTimings(final long startNanos) {
+		this.startNanos = startNanos;
+		this.lastMark = startNanos;
+	}
+
+	/**
+	 * Charges the time since the previous mark, or since the request started, to a phase.
+	 *
+	 * @param phase the phase that just ended
+	 */
+	public void mark(final Phase phase) {
+		long now = System.nanoTime();
+		phaseNanos[phase.ordinal()] += now - lastMark;
+		marked |= 1 << phase.ordinal();
+		lastMark = now;
+	}
+
+	/**
+	 * @return true if the phase was marked at least once
+	 */
+	public boolean isMarked(final Phase phase) {
+		return (marked & 1 << phase.ordinal()) != 0;
+	}
+
+	/**
+	 * @return the time charged to the phase in nanoseconds
+	 */
+	public long getNanos(final Phase phase) {
+		return phaseNanos[phase.ordinal()];
+	}
+
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	/**
+	 * @return the time from the start of the request to the last mark in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return lastMark - startNanos;
+	}
+
+	/**
+	 * @return true if the response should carry the timings in a Server-Timing header
+	 */
+	public boolean isServerTiming() {
+		return serverTiming;
+	}
+
+	public void setServerTiming(final boolean serverTiming) {
+		this.serverTiming = serverTiming;
+	}
+
+	/**
+	 * Formats the phases marked so far as the value of a Server-Timing header, eg.
+	 * {@code extract;dur=0.012, verify;dur=0.861, total;dur=0.873}. Durations are in milliseconds.
+	 *
+	 * @return the header value
+	 */
+	public String toServerTiming() {
+		StringBuilder value = new StringBuilder(128);
+		for (Phase phase : Phase.values()) {
+			if (isMarked(phase)) {
+				appendMetric(value, phase.getLabel(), phaseNanos[phase.ordinal()]);
+			}
+		}
+		appendMetric(value, "total", getTotalNanos());
+		return value.toString();
+	}
+
+	private static void appendMetric(final StringBuilder value, final String name, final long nanos) {
+		if (value.length() > 0) {
+			value.append(", ");
+		}
+		value.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_MILLI));
+	}
+}
@@ -0,0 +1,117 @@
+package com.wirelust.cfmock.web.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A request that took longer than the slow request threshold, as captured by {@link SlowRequestLog}.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class SlowRequest {
+
+	/**
+	 * Value of the duration of a phase the request did not go through and of bytes that are not known.
+	 */
+	public static final long NONE = -1;
+
+	private final long timeMillis;
+	private final String method;
+	private final String url;
+	private final String keyPairId;
+	private final String signedBy;
+	private final String policy;
+	private final String outcome;
+	private final int status;
+	private final long bytes;
+	private final long totalNanos;
+	private final long[] phaseNanos;
+
+	/**
+	 * @param timeMillis epoch millis when the request finished
+	 * @param signedBy url or cookie
+	 * @param policy canned or custom, null if the request was rejected before its signature was read
+	 * @param outcome label of the {@link Metrics.Outcome}
+	 * @param bytes bytes of content served, NONE when not known
+	 * @param timings timings of the request, copied
+	 */
+	public SlowRequest(final long timeMillis, final String method, final String url, final String keyPairId,
+					   final String signedBy, final String policy, final String outcome, final int status,
+					   final long bytes, final RequestTimings timings) {
+		this.timeMillis = timeMillis;
+		this.method = method;
+		this.url = url;
+		this.keyPairId = keyPairId;
+		this.signedBy = signedBy;
+		this.policy = policy;
+		this.outcome = outcome;
+		this.status = status;
+		this.bytes = bytes;
+		this.totalNanos = timings.getTotalNanos();
+		this.phaseNanos = new long[RequestTimings.Phase.values().length];
+		for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+			phaseNanos[phase.ordinal()] = timings.isMarked(phase) ? timings.getNanos(phase) : NONE;
+		}
+	}
+
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public String getKeyPairId() {
+		return keyPairId;
+	}
+
+	public String getSignedBy() {
+		return signedBy;
+	}
+
+	public String getPolicy() {
+		return policy;
+	}
+
+	public String getOutcome() {
+		return outcome;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public long getBytes() {
+		return bytes;
+	}
+
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * @return the time spent in the phase in nanoseconds, NONE if the request did not go through it
+	 */
+	public long getPhaseNanos(final RequestTimings.Phase phase) {
+		return phaseNanos[phase.ordinal()];
+	}
+
+	@Override
+	public String toString() {
+		return "SlowRequest{"
+			+ "method=" + method
+			+ ", url=" + url
+			+ ", keyPairId=" + keyPairId
+			+ ", outcome=" + outcome
+			+ ", status=" + status
+			+ ", totalNanos=" + totalNanos
+			+ ", phaseNanos=" + Arrays.toString(phaseNanos)
+			+ '}';
+	}
+}
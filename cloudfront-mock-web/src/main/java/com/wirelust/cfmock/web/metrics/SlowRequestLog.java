@@ -0,0 +1,190 @@
+package com.wirelust.cfmock.web.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the most recent requests that took longer than a threshold so the slowest of them can be looked at along
+ * with where their time went.
+ *
+ * Requests are written into a ring of a fixed number of slots, each capture claims the next slot with a single atomic
+ * increment and overwrites whatever was there, so capturing never locks or allocates beyond the captured request.
+ * Callers check {@link #isSlow(long)} before building a {@link SlowRequest}, a request under the threshold costs one
+ * comparison.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class SlowRequestLog {
+
+	public static final int DEFAULT_SIZE = 100;
+	public static final int DEFAULT_THRESHOLD_MILLIS = 1000;
+
+	private final long thresholdNanos;
+	private final AtomicReferenceArray<SlowRequest> slots;
+	private final AtomicLong next = new AtomicLong();
+	private final LongAdder captured = new LongAdder();
+
+	/**
+	 * @param size the number of slow requests to keep
+	 * @param thresholdNanos requests taking at least this long are captured
+	 */
+	public SlowRequestLog(final int size, final long thresholdNanos) {
+		if (size < 1) {
+			throw new IllegalArgumentException("size must be at least 1");
+		}
+		this.thresholdNanos = thresholdNanos;
+		this.slots = new AtomicReferenceArray<>(size);
+	}
+
+	/**
+	 * @param totalNanos how long the request took
+	 * @return true if the request should be captured
+	 */
+	public boolean isSlow(final long totalNanos) {
+		return totalNanos >= thresholdNanos;
+	}
+
+	/**
+	 * Keeps the request, replacing the oldest kept request when every slot is taken.
+	 */
+	public void capture(final SlowRequest request) {
+		int slot = (int)(next.getAndIncrement() % slots.length());
+		slots.set(slot, request);
+		captured.increment();
+	}
+
+	/**
+	 * @return the kept requests, slowest first
+	 */
+	public List<SlowRequest> getSlowest() {
+		List<SlowRequest> requests = new ArrayList<>(slots.length());
+		for (int i = 0; i < slots.length(); i++) {
+			SlowRequest request = slots.get(i);
+			if (request != null) {
+				requests.add(request);
+			}
+		}
+		requests.sort(Comparator.comparingLong(SlowRequest::getTotalNanos).reversed());
+		return requests;
+	}
+
+	/**
+	 * @return the number of requests captured since the log was created or cleared, including ones since replaced
+	 */
+	public long getCaptured() {
+		return captured.sum();
+	}
+
+	public long getThresholdNanos() {
+		return thresholdNanos;
+	}
+
+	public int getSize() {
+		return slots.length();
+	}
+
+	public void clear() {
+		for (int i = 0; i < slots.length(); i++) {
+			slots.set(i, null);
+		}
+		captured.reset();
+	}
+
+	/**
+	 * Writes the kept requests, slowest first, to a file as json.
+	 *
+	 * @return the number of requests written
+	 */
+	public int dump(final File file) throws IOException {
+		List<SlowRequest> requests = getSlowest();
+		try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+			write(requests, writer);
+		}
+		return requests.size();
+	}
+
+	/**
+	 * Writes requests as a json array. Durations are in milliseconds, phases the request did not go through are left
+	 * out.
+	 */
+	public static void write(final List<SlowRequest> requests, final Appendable out) throws IOException {
+		out.append('[');
+		for (int i = 0; i < requests.size(); i++) {
+			SlowRequest request = requests.get(i);
+			if (i > 0) {
+				out.append(',');
+			}
+			out.append("{\"time\":");
+			string(out, Instant.ofEpochMilli(request.getTimeMillis()).toString());
+			out.append(",\"method\":");
+			string(out, request.getMethod());
+			out.append(",\"url\":");
+			string(out, request.getUrl());
+			out.append(",\"keyPairId\":");
+			string(out, request.getKeyPairId());
+			out.append(",\"signedBy\":");
+			string(out, request.getSignedBy());
+			out.append(",\"policy\":");
+			string(out, request.getPolicy());
+			out.append(",\"outcome\":");
+			string(out, request.getOutcome());
+			out.append(",\"status\":").append(Integer.toString(request.getStatus()));
+			if (request.getBytes() != SlowRequest.NONE) {
+				out.append(",\"bytes\":").append(Long.toString(request.getBytes()));
+			}
+			out.append(",\"totalMillis\":").append(millis(request.getTotalNanos()));
+			out.append(",\"phases\":{");
+			boolean first = true;
+			for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+				long nanos = request.getPhaseNanos(phase);
+				if (nanos == SlowRequest.NONE) {
+					continue;
+				}
+				if (!first) {
+					out.append(',');
+				}
+				first = false;
+				out.append('"').append(phase.getLabel()).append("\":").append(millis(nanos));
+			}
+			out.append("}}");
+		}
+		out.append(']');
+	}
+
+	private static String millis(final long nanos) {
+		return Double.toString(TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0);
+	}
+
+	private static void string(final Appendable out, final String value) throws IOException {
+		if (value == null) {
+			out.append("null");
+			return;
+		}
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				out.append('\\').append(c);
+			} else if (c < ' ') {
+				out.append(String.format("\\u%04x", (int)c));
+			} else {
+				out.append(c);
+			}
+		}
+		out.append('"');
+	}
+}
@@ -0,0 +1,41 @@
+package com.wirelust.cfmock.web.metrics;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import javax.inject.Inject;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the slow requests that are kept, slowest first, as json. The path is public, the security filter lets it
+ * through unsigned.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@WebServlet(urlPatterns = SlowRequestsServlet.PATH)
+public class SlowRequestsServlet extends HttpServlet {
+
+	public static final String PATH = "/_cfmock/slow-requests";
+
+	@Inject
+	Metrics metrics;
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		SlowRequestLog log = metrics.getSlowRequestLog();
+		List<SlowRequest> requests = log == null ? Collections.emptyList() : log.getSlowest();
+
+		StringBuilder body = new StringBuilder(256 * (requests.size() + 1));
+		SlowRequestLog.write(requests, body);
+
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-cache");
+		response.getWriter().write(body.toString());
+	}
+}
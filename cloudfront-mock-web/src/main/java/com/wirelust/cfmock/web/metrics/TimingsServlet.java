@@ -0,0 +1,58 @@
+package com.wirelust.cfmock.web.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Serves the time spent in each phase of a request as json, the count of requests that went through the phase and
+ * the percentiles, mean and max in milliseconds. The path is public, the security filter lets it through unsigned.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@WebServlet(urlPatterns = TimingsServlet.PATH)
+public class TimingsServlet extends HttpServlet {
+
+	public static final String PATH = "/_cfmock/timings";
+
+	@Inject
+	Metrics metrics;
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		StringBuilder body = new StringBuilder(1024);
+		write(metrics, body);
+
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-cache");
+		response.getWriter().write(body.toString());
+	}
+
+	/**
+	 * Writes the phase timings as a json object keyed by phase.
+	 */
+	public static void write(final Metrics metrics, final StringBuilder out) {
+		out.append('{');
+		for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+			if (phase.ordinal() > 0) {
+				out.append(',');
+			}
+			Histogram histogram = metrics.getPhaseLatency(phase).snapshot();
+			out.append('"').append(phase.getLabel()).append("\":{\"count\":").append(histogram.getTotalCount());
+			for (Map.Entry<String, Double> entry : Metrics.toMillis(histogram).entrySet()) {
+				out.append(",\"").append(entry.getKey()).append("\":").append(entry.getValue());
+			}
+			out.append('}');
+		}
+		out.append('}');
+	}
+}
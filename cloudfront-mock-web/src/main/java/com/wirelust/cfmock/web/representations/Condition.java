@@ -1,7 +1,9 @@
 package com.wirelust.cfmock.web.representations;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.wirelust.cfmock.web.json.UnixTimestampDeserializer;
@@ -49,28 +51,48 @@ public class Condition {
 	public class DateLessThan {
 		@JsonProperty("AWS:EpochTime")
 		@JsonDeserialize(using = UnixTimestampDeserializer.class)
-		Date value;
+		long epochSeconds;
 
+		public long getEpochSeconds() {
+			return epochSeconds;
+		}
+
+		public void setEpochSeconds(long epochSeconds) {
+			this.epochSeconds = epochSeconds;
+		}
+
+		@JsonIgnore
 		public Date getValue() {
-			return value;
+			return new Date(TimeUnit.SECONDS.toMillis(epochSeconds));
 		}
 
+		@JsonIgnore
 		public void setValue(Date value) {
-			this.value = value;
+			this.epochSeconds = TimeUnit.MILLISECONDS.toSeconds(value.getTime());
 		}
 	}
 
 	public class DateGreaterThan {
 		@JsonProperty("AWS:EpochTime")
 		@JsonDeserialize(using = UnixTimestampDeserializer.class)
-		Date value;
+		long epochSeconds;
 
+		public long getEpochSeconds() {
+			return epochSeconds;
+		}
+
+		public void setEpochSeconds(long epochSeconds) {
+			this.epochSeconds = epochSeconds;
+		}
+
+		@JsonIgnore
 		public Date getValue() {
-			return value;
+			return new Date(TimeUnit.SECONDS.toMillis(epochSeconds));
 		}
 
+		@JsonIgnore
 		public void setValue(Date value) {
-			this.value = value;
+			this.epochSeconds = TimeUnit.MILLISECONDS.toSeconds(value.getTime());
 		}
 	}
 
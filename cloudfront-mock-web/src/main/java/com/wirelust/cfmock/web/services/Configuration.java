@@ -36,10 +36,13 @@ public class Configuration implements Serializable {
 	@ClasspathResource("defaults.properties")
 	Properties defaultProperties;
 
-	Properties configuredProperties = new Properties();
+	volatile Properties configuredProperties = new Properties();
 
 	boolean loaded = false;
 
+	File propertyFile;
+	long propertyFileLastModified;
+
 	@PostConstruct
 	public void init() {
 		String configFileName = System.getProperty(ENV_FILE_NAME);
@@ -50,7 +53,7 @@ public class Configuration implements Serializable {
 			return;
 		}
 
-		File propertyFile = new File(configFileName);
+		propertyFile = new File(configFileName);
 
 		loadPropertyFile(propertyFile);
 
@@ -125,9 +128,35 @@ public class Configuration implements Serializable {
 		return loaded;
 	}
 
+	/**
+	 * @return the file the configuration was loaded from or null if only defaults are used
+	 */
+	public File getPropertyFile() {
+		return propertyFile;
+	}
+
+	/**
+	 * Loads the configuration file again if it was modified since it was last loaded. Settings changed with
+	 * {@link #setSetting(String, String)} are replaced by what is in the file.
+	 *
+	 * @return true if the configuration was reloaded
+	 */
+	public synchronized boolean reloadIfModified() {
+		if (propertyFile == null || propertyFile.lastModified() == propertyFileLastModified) {
+			return false;
+		}
+		loadPropertyFile(propertyFile);
+		LOGGER.info("env properties reloaded:{}", configuredProperties.toString());
+		return true;
+	}
+
 	private void loadPropertyFile(File propertyFile) {
+		long lastModified = propertyFile.lastModified();
+		Properties properties = new Properties();
 		try (InputStream inputStream = new FileInputStream(propertyFile)) {
-			configuredProperties.load(inputStream);
+			properties.load(inputStream);
+			configuredProperties = properties;
+			propertyFileLastModified = lastModified;
 			loaded = true;
 		} catch (IOException e) {
 			throw new ServiceException(e);
@@ -0,0 +1,167 @@
+package com.wirelust.cfmock.web.servlet;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes a range of a file to a response without blocking, for the response of a request in async mode.
+ *
+ * The container calls {@link #onWritePossible()} whenever the client can take more. Each call reads chunks of the
+ * file into a pooled buffer and writes them until the output stream isn't ready, then returns the thread to the
+ * container, so a slow client holds a buffer rather than a thread. Reads are positional so the channel is never
+ * shared between threads through its position. The async context is completed once the last chunk has been taken by
+ * the container or the response fails, whichever happens first, and the completion is told exactly once.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class AsyncFileWriter implements WriteListener, AsyncListener {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsyncFileWriter.class);
+
+	private final AsyncContext asyncContext;
+	private final ServletOutputStream output;
+	private final FileChannel channel;
+	private final BufferPool bufferPool;
+	private final Consumer<Throwable> completion;
+	private final AtomicBoolean finished = new AtomicBoolean();
+
+	private ByteBuffer buffer;
+	private long position;
+	private long remaining;
+
+	/**
+	 * @param asyncContext the async context of the request, completed when the range has been written
+	 * @param output       the output stream of the response
+	 * @param channel      the file, closed when the writer finishes
+	 * @param position     the first byte of the range
+	 * @param length       the number of bytes in the range
+	 * @param bufferPool   where the buffer the file is read into comes from
+	 * @param completion   told null once the range is written, or the error the response failed with
+	 */
+	public AsyncFileWriter(final AsyncContext asyncContext, final ServletOutputStream output, final FileChannel channel,
+						   final long position, final long length, final BufferPool bufferPool,
+						   final Consumer<Throwable> completion) {
+		this.asyncContext = asyncContext;
+		this.output = output;
+		this.channel = channel;
+		this.position = position;
+		this.remaining = length;
+		this.bufferPool = bufferPool;
+		this.completion = completion;
+	}
+
+	/**
+	 * Starts writing, the container calls back when the output stream is ready.
+	 */
+	public void start() {
+		asyncContext.addListener(this);
+		output.setWriteListener(this);
+	}
+
+	@Override
+	public void onWritePossible() {
+		try {
+			while (output.isReady()) {
+				if (remaining == 0) {
+					// the container has taken the last chunk
+					if (finish(null)) {
+						complete();
+					}
+					return;
+				}
+				if (buffer == null) {
+					buffer = bufferPool.acquire();
+				}
+				buffer.clear();
+				if (remaining < buffer.capacity()) {
+					buffer.limit((int)remaining);
+				}
+				int read = channel.read(buffer, position);
+				if (read < 0) {
+					throw new EOFException("file ended " + remaining + " bytes before the end of the range");
+				}
+				position += read;
+				remaining -= read;
+				output.write(buffer.array(), buffer.arrayOffset(), read);
+			}
+		} catch (IOException | RuntimeException e) {
+			LOGGER.warn("unable to write file", e);
+			if (finish(e)) {
+				complete();
+			}
+		}
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		LOGGER.debug("unable to write file", throwable);
+		if (finish(throwable)) {
+			complete();
+		}
+	}
+
+	@Override
+	public void onComplete(AsyncEvent event) {
+		finish(new EOFException("response completed with " + remaining + " bytes of the range unwritten"));
+	}
+
+	@Override
+	public void onTimeout(AsyncEvent event) {
+		if (finish(new IOException("response timed out with " + remaining + " bytes of the range unwritten"))) {
+			complete();
+		}
+	}
+
+	@Override
+	public void onError(AsyncEvent event) {
+		onError(event.getThrowable());
+	}
+
+	@Override
+	public void onStartAsync(AsyncEvent event) {
+		// the writer only lives for one async cycle
+	}
+
+	/**
+	 * @return true if this call finished the writer, false if it had already finished
+	 */
+	private boolean finish(final Throwable error) {
+		if (!finished.compareAndSet(false, true)) {
+			return false;
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			LOGGER.warn("unable to close file", e);
+		}
+		// after a failure the container may still hold the last chunk, so the buffer is not reused
+		if (error == null) {
+			bufferPool.release(buffer);
+		}
+		buffer = null;
+		completion.accept(error);
+		return true;
+	}
+
+	private void complete() {
+		try {
+			asyncContext.complete();
+		} catch (IllegalStateException e) {
+			LOGGER.debug("async context already completed", e);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.wirelust.cfmock.web.servlet;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Buffers of one size that are handed back once used so file reads don't allocate a new buffer for every download.
+ *
+ * The buffers are heap buffers because a servlet output stream only takes byte arrays. When the pool is empty a new
+ * buffer is allocated and when it already holds as many as it keeps a released buffer is left to the garbage
+ * collector, so acquiring never waits.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class BufferPool {
+
+	public static final int DEFAULT_BUFFER_SIZE = 32 * 1024;
+	public static final int DEFAULT_MAX_POOLED = 256;
+
+	private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pooled = new AtomicInteger();
+	private final int bufferSize;
+	private final int maxPooled;
+
+	/**
+	 * @param bufferSize the size of each buffer in bytes
+	 * @param maxPooled  the most released buffers kept for reuse
+	 */
+	public BufferPool(final int bufferSize, final int maxPooled) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("bufferSize must be greater than 0");
+		}
+		if (maxPooled < 0) {
+			throw new IllegalArgumentException("maxPooled cannot be negative");
+		}
+		this.bufferSize = bufferSize;
+		this.maxPooled = maxPooled;
+	}
+
+	/**
+	 * @return a cleared buffer, taken from the pool or newly allocated
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = buffers.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocate(bufferSize);
+		}
+		pooled.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Hands a buffer back for reuse, it must not be used by the caller afterwards.
+	 */
+	public void release(final ByteBuffer buffer) {
+		if (buffer == null || buffer.capacity() != bufferSize || buffer.isDirect()) {
+			return;
+		}
+		if (pooled.incrementAndGet() > maxPooled) {
+			pooled.decrementAndGet();
+			return;
+		}
+		buffers.offer(buffer);
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * @return the number of buffers waiting to be reused
+	 */
+	public int getPooled() {
+		return pooled.get();
+	}
+}
@@ -1,10 +1,22 @@
 package com.wirelust.cfmock.web.servlet;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import javax.inject.Inject;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 
+import com.wirelust.cfmock.SignedRequest;
+import com.wirelust.cfmock.web.metrics.Metrics;
+import com.wirelust.cfmock.web.metrics.RequestTimings;
+import com.wirelust.cfmock.web.metrics.SlowRequest;
+import com.wirelust.cfmock.web.metrics.SlowRequestLog;
 import com.wirelust.cfmock.web.services.Configuration;
 import org.omnifaces.servlet.FileServlet;
 import org.slf4j.Logger;
@@ -15,14 +27,153 @@ import org.slf4j.LoggerFactory;
  *
  * @author T. Curran
  */
-@WebServlet("/*")
+@WebServlet(urlPatterns = "/*", asyncSupported = true)
 public class ContentServlet extends FileServlet {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ContentServlet.class);
 
+	public static final String SETTING_ASYNC_CONTENT = "async.content";
+
+	private static final String RANGE_HEADER = "Range";
+	private static final String CONTENT_RANGE_HEADER = "Content-Range";
+
+	private static final long UNKNOWN_LENGTH = -1;
+
 	@Inject
 	Configuration configuration;
 
+	@Inject
+	Metrics metrics;
+
+	private final BufferPool bufferPool = new BufferPool(BufferPool.DEFAULT_BUFFER_SIZE, BufferPool.DEFAULT_MAX_POOLED);
+
+	@Override
+	protected void service(HttpServletRequest request, HttpServletResponse response)
+		throws ServletException, IOException {
+		long start = System.nanoTime();
+		// left by the security filter on requests it allowed
+		RequestTimings timings = (RequestTimings)request.getAttribute(RequestTimings.ATTRIBUTE);
+		HttpServletResponse servedResponse = response;
+		if (timings != null && timings.isServerTiming()) {
+			servedResponse = new ServerTimingResponse(response, timings.toServerTiming());
+		}
+		boolean failed = true;
+		boolean async = false;
+		try {
+			if ("GET".equals(request.getMethod()) && request.isAsyncSupported()
+				&& configuration.getSettingBool(SETTING_ASYNC_CONTENT, false)) {
+				async = serveAsync(request, servedResponse, start, timings);
+			} else {
+				super.service(request, servedResponse);
+			}
+			failed = false;
+		} finally {
+			// a file written asynchronously is recorded when the writer finishes
+			if (!async) {
+				record(request, response, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(),
+					start, timings);
+			}
+		}
+	}
+
+	/**
+	 * Lets the file servlet answer the request as if it were a HEAD, which sets the status and every header including
+	 * the range, ETag and content type, then writes the body without blocking. Requests for more than one range are
+	 * sent as multipart/byteranges by the file servlet on the container thread.
+	 *
+	 * @return true if the body is being written asynchronously
+	 */
+	private boolean serveAsync(HttpServletRequest request, HttpServletResponse response, long start,
+							   RequestTimings timings) throws ServletException, IOException {
+		String range = request.getHeader(RANGE_HEADER);
+		if (range != null && range.indexOf(',') >= 0) {
+			super.doGet(request, response);
+			return false;
+		}
+
+		super.doHead(request, response);
+		int status = response.getStatus();
+		if (status != HttpServletResponse.SC_OK && status != HttpServletResponse.SC_PARTIAL_CONTENT) {
+			// not modified, a failed precondition or an error, there is no body
+			return false;
+		}
+		long position = 0;
+		if (status == HttpServletResponse.SC_PARTIAL_CONTENT) {
+			position = getRangeStart(response.getHeader(CONTENT_RANGE_HEADER));
+		}
+		long length = getContentLength(response);
+		if (position < 0 || length == UNKNOWN_LENGTH) {
+			throw new ServletException("no usable Content-Length or Content-Range for a single range response");
+		}
+		if (length == 0) {
+			return false;
+		}
+
+		FileChannel channel = FileChannel.open(getFile(request).toPath(), StandardOpenOption.READ);
+		AsyncContext asyncContext;
+		try {
+			asyncContext = request.startAsync();
+			// a download takes as long as the client needs, a client that goes away fails the write
+			asyncContext.setTimeout(0);
+			new AsyncFileWriter(asyncContext, response.getOutputStream(), channel, position, length, bufferPool,
+				error -> record(request, response,
+					error == null ? status : HttpServletResponse.SC_INTERNAL_SERVER_ERROR, start, timings)).start();
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		return true;
+	}
+
+	private void record(HttpServletRequest request, HttpServletResponse response, int status, long start,
+						RequestTimings timings) {
+		metrics.recordContent(status, start);
+		if (timings != null) {
+			timings.mark(RequestTimings.Phase.CONTENT);
+			metrics.recordPhases(timings);
+			SlowRequestLog slowRequests = metrics.getSlowRequestLog();
+			if (slowRequests != null && slowRequests.isSlow(timings.getTotalNanos())) {
+				long length = getContentLength(response);
+				metrics.captureIfSlow(timings, request.getMethod(),
+					(SignedRequest)request.getAttribute(SecurityFilter.SIGNED_REQUEST_ATTRIBUTE),
+					Metrics.Outcome.ALLOWED, status, length == UNKNOWN_LENGTH ? SlowRequest.NONE : length);
+			}
+		}
+	}
+
+	/**
+	 * @return the first byte of a "bytes first-last/length" content range, or -1 if there isn't one
+	 */
+	private static long getRangeStart(String contentRange) {
+		if (contentRange == null || !contentRange.startsWith("bytes ")) {
+			return -1;
+		}
+		int dash = contentRange.indexOf('-');
+		if (dash < 0) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(contentRange.substring("bytes ".length(), dash));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * @return the Content-Length header of the response, or UNKNOWN_LENGTH if there isn't a valid one
+	 */
+	private static long getContentLength(HttpServletResponse response) {
+		String contentLength = response.getHeader("Content-Length");
+		if (contentLength == null) {
+			return UNKNOWN_LENGTH;
+		}
+		try {
+			return Long.parseLong(contentLength);
+		} catch (NumberFormatException e) {
+			return UNKNOWN_LENGTH;
+		}
+	}
+
 	@Override
 	protected File getFile(HttpServletRequest httpServletRequest) {
 
@@ -44,4 +195,25 @@ public class ContentServlet extends FileServlet {
 
 		return file;
 	}
+
+	/**
+	 * Adds the Server-Timing header of the security filter phases, and adds it again after the file servlet resets
+	 * the response.
+	 */
+	private static class ServerTimingResponse extends HttpServletResponseWrapper {
+
+		private final String serverTiming;
+
+		ServerTimingResponse(HttpServletResponse response, String serverTiming) {
+			super(response);
+			this.serverTiming = serverTiming;
+			response.setHeader(RequestTimings.SERVER_TIMING_HEADER, serverTiming);
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			setHeader(RequestTimings.SERVER_TIMING_HEADER, serverTiming);
+		}
+	}
 }
@@ -2,12 +2,25 @@ package com.wirelust.cfmock.web.servlet;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.util.Date;
+import java.time.Clock;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletContext;
@@ -20,23 +33,37 @@ import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import com.amazonaws.util.Base64;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
-import com.wirelust.cfmock.CFPolicy;
+import com.wirelust.cfmock.AsyncSignatureValidator;
+import com.wirelust.cfmock.CompiledPolicy;
+import com.wirelust.cfmock.KeyRegistry;
+import com.wirelust.cfmock.KeyWatcher;
 import com.wirelust.cfmock.SignatureValidator;
 import com.wirelust.cfmock.SignedRequest;
+import com.wirelust.cfmock.ValidationResult;
+import com.wirelust.cfmock.cache.NegativeCache;
+import com.wirelust.cfmock.cache.PolicyCache;
+import com.wirelust.cfmock.cache.ValidationCache;
 import com.wirelust.cfmock.exceptions.CFMockException;
+import com.wirelust.cfmock.util.CloudFrontBase64;
+import com.wirelust.cfmock.util.CoarseClock;
+import com.wirelust.cfmock.util.ForwardedFor;
+import com.wirelust.cfmock.web.accesslog.AccessLog;
+import com.wirelust.cfmock.web.accesslog.AccessLogFormat;
 import com.wirelust.cfmock.web.exceptions.ServiceException;
-import com.wirelust.cfmock.web.json.PolicyHelper;
-import com.wirelust.cfmock.web.representations.Policy;
+import com.wirelust.cfmock.web.metrics.Metrics;
+import com.wirelust.cfmock.web.metrics.RequestTimings;
+import com.wirelust.cfmock.web.metrics.SlowRequest;
+import com.wirelust.cfmock.web.metrics.SlowRequestLog;
 import com.wirelust.cfmock.web.services.Configuration;
+import com.wirelust.cfmock.web.util.RequestUrlUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static com.wirelust.cfmock.web.servlet.SecurityFilter.PUBLIC_PATHS_PARAM;
 import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static javax.servlet.http.HttpServletResponse.SC_FORBIDDEN;
+import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
 
 /**
  * Date: 18-Jun-2016
@@ -44,8 +71,9 @@ import static javax.servlet.http.HttpServletResponse.SC_FORBIDDEN;
  * @author T. Curran
  */
 @WebFilter(urlPatterns = {"/*"},
+			asyncSupported = true,
 			initParams = {
-				@WebInitParam(name = PUBLIC_PATHS_PARAM, value = "^/ArquillianServletRunner/*"),
+				@WebInitParam(name = PUBLIC_PATHS_PARAM, value = "^/ArquillianServletRunner/*,^/_cfmock/.*"),
 		}
 )
 public class SecurityFilter extends AbstractPathAwareFilter {
@@ -54,29 +82,167 @@ public class SecurityFilter extends AbstractPathAwareFilter {
 
 	public static final String PUBLIC_PATHS_PARAM = "publicPaths";
 
+	/**
+	 * Request attribute holding the SignedRequest of a request the filter allowed.
+	 */
+	public static final String SIGNED_REQUEST_ATTRIBUTE = SignedRequest.class.getName();
+
+	public static final String SETTING_KEYS = "keys";
+	public static final String SETTING_KEYS_WATCH = "keys.watch";
+	public static final String SETTING_VALIDATION_CACHE_SIZE = "cache.validation.size";
+	public static final String SETTING_VALIDATION_CACHE_TTL = "cache.validation.ttl";
+	public static final String SETTING_NEGATIVE_CACHE_SIZE = "cache.negative.size";
+	public static final String SETTING_NEGATIVE_CACHE_TTL = "cache.negative.ttl";
+	public static final String SETTING_POLICY_CACHE_MEMORY = "cache.policy.memory";
+	public static final String SETTING_POLICY_CACHE_TTL = "cache.policy.ttl";
+	public static final String SETTING_FORWARDED_HOPS = "forwarded.hops";
+	public static final String SETTING_VALIDATION_STRICT = "validation.strict";
+	public static final String SETTING_ASYNC_VALIDATION = "async.validation";
+	public static final String SETTING_ASYNC_VALIDATION_THREADS = "async.validation.threads";
+	public static final String SETTING_ASYNC_VALIDATION_QUEUE = "async.validation.queue";
+	public static final String SETTING_ASYNC_VALIDATION_TIMEOUT = "async.validation.timeout";
+	public static final String SETTING_CLOCK_RESOLUTION = "clock.resolution";
+	public static final String SETTING_TIMING_HEADER_SAMPLE = "timing.header.sample";
+	public static final String SETTING_SLOW_SIZE = "slow.size";
+	public static final String SETTING_SLOW_THRESHOLD = "slow.threshold";
+	public static final String SETTING_ACCESS_LOG_FILE = "accesslog.file";
+	public static final String SETTING_ACCESS_LOG_BUFFER = "accesslog.buffer";
+	public static final String SETTING_ACCESS_LOG_ROTATE_SIZE = "accesslog.rotate.size";
+	public static final String SETTING_ACCESS_LOG_ROTATE_INTERVAL = "accesslog.rotate.interval";
+	public static final String SETTING_ACCESS_LOG_GZIP = "accesslog.gzip";
+	public static final String SETTING_ACCESS_LOG_COOKIES = "accesslog.cookies";
+	public static final String SETTING_ACCESS_LOG_EDGE_LOCATION = "accesslog.edge.location";
+
+	public static final String DEFAULT_EDGE_LOCATION = "MOCK1-C1";
+	public static final int DEFAULT_VALIDATION_QUEUE = 1000;
+	public static final int DEFAULT_VALIDATION_TIMEOUT_MILLIS = 30000;
+
 	@Inject
 	Configuration configuration;
 
-	HashMap<String, File> keys = new HashMap<>();
+	@Inject
+	Metrics metrics;
+
+	KeyRegistry keyRegistry = new KeyRegistry();
+
+	KeyWatcher keyWatcher;
+
+	NegativeCache negativeCache;
+
+	PolicyCache policyCache;
+
+	int forwardedHops = 1;
+
+	AsyncSignatureValidator asyncValidator;
+
+	private ExecutorService validationExecutor;
+
+	private long validationTimeoutMillis = DEFAULT_VALIDATION_TIMEOUT_MILLIS;
+
+	private CoarseClock coarseClock;
+
+	private AccessLog accessLog;
+
+	private ServletContext servletContext;
 
 	private Pattern[] publicPaths = new Pattern[0];
 
+	// one in this many requests gets a Server-Timing header, 0 for none
+	private int timingHeaderSample;
+
 	@Override
 	public void init(FilterConfig filterConfig) throws ServletException {
 		super.init(filterConfig);
-		String keysString = configuration.getSetting("keys");
+		servletContext = filterConfig.getServletContext();
 
-		String[] keyIds = keysString.split(",");
-		if (keyIds.length == 0) {
-			throw new IllegalStateException("no keys are configured");
+		Clock clock = Clock.systemUTC();
+		int clockResolution = configuration.getSettingInt(SETTING_CLOCK_RESOLUTION, 0);
+		if (clockResolution > 0) {
+			coarseClock = new CoarseClock(clock, clockResolution);
+			clock = coarseClock;
+		}
+		SignatureValidator.setClock(clock);
+
+		int validationCacheSize = configuration.getSettingInt(SETTING_VALIDATION_CACHE_SIZE,
+			ValidationCache.DEFAULT_MAX_SIZE);
+		if (validationCacheSize > 0) {
+			long ttlSeconds = configuration.getSettingInt(SETTING_VALIDATION_CACHE_TTL,
+				(int)TimeUnit.MILLISECONDS.toSeconds(ValidationCache.DEFAULT_TTL_MILLIS));
+			SignatureValidator.setValidationCache(new ValidationCache(validationCacheSize,
+				TimeUnit.SECONDS.toMillis(ttlSeconds), clock));
+		} else {
+			SignatureValidator.setValidationCache(null);
 		}
 
-		for (String keyId : keyIds) {
-			String keyLocation = configuration.getSetting("key." + keyId + ".location");
+		int negativeCacheSize = configuration.getSettingInt(SETTING_NEGATIVE_CACHE_SIZE,
+			NegativeCache.DEFAULT_MAX_SIZE);
+		if (negativeCacheSize > 0) {
+			long ttlSeconds = configuration.getSettingInt(SETTING_NEGATIVE_CACHE_TTL,
+				(int)TimeUnit.MILLISECONDS.toSeconds(NegativeCache.DEFAULT_TTL_MILLIS));
+			negativeCache = new NegativeCache(negativeCacheSize, TimeUnit.SECONDS.toMillis(ttlSeconds), clock);
+		}
 
-			if (!findKeyFile(filterConfig.getServletContext(), keyId, keyLocation)) {
-				LOGGER.error("unable to find key file id:{} location:{}", keyId, keyLocation);
+		int policyCacheMegabytes = configuration.getSettingInt(SETTING_POLICY_CACHE_MEMORY,
+			(int)(PolicyCache.DEFAULT_MAX_BYTES / (1024 * 1024)));
+		if (policyCacheMegabytes > 0) {
+			long ttlSeconds = configuration.getSettingInt(SETTING_POLICY_CACHE_TTL,
+				(int)TimeUnit.MILLISECONDS.toSeconds(PolicyCache.DEFAULT_TTL_MILLIS));
+			policyCache = new PolicyCache(policyCacheMegabytes * 1024L * 1024L, TimeUnit.SECONDS.toMillis(ttlSeconds),
+				clock);
+		}
+		metrics.setNegativeCache(negativeCache);
+		metrics.setPolicyCache(policyCache);
+
+		int slowSize = configuration.getSettingInt(SETTING_SLOW_SIZE, SlowRequestLog.DEFAULT_SIZE);
+		if (slowSize > 0) {
+			int thresholdMillis = configuration.getSettingInt(SETTING_SLOW_THRESHOLD,
+				SlowRequestLog.DEFAULT_THRESHOLD_MILLIS);
+			metrics.setSlowRequestLog(new SlowRequestLog(slowSize, TimeUnit.MILLISECONDS.toNanos(thresholdMillis)));
+		} else {
+			metrics.setSlowRequestLog(null);
+		}
+
+		String accessLogFile = configuration.getSetting(SETTING_ACCESS_LOG_FILE);
+		if (accessLogFile != null && !accessLogFile.trim().isEmpty()) {
+			accessLog = createAccessLog(new File(accessLogFile.trim()));
+			accessLog.start();
+			LOGGER.info("writing access log to:{}", accessLog.getFile().getAbsolutePath());
+		}
+		metrics.setAccessLog(accessLog);
+
+		forwardedHops = configuration.getSettingInt(SETTING_FORWARDED_HOPS, 1);
+		timingHeaderSample = Math.max(0, configuration.getSettingInt(SETTING_TIMING_HEADER_SAMPLE, 0));
+		SignatureValidator.setStrictValidation(configuration.getSettingBool(SETTING_VALIDATION_STRICT, false));
+
+		if (configuration.getSettingBool(SETTING_ASYNC_VALIDATION, false)) {
+			int threads = configuration.getSettingInt(SETTING_ASYNC_VALIDATION_THREADS,
+				Runtime.getRuntime().availableProcessors());
+			int queueSize = configuration.getSettingInt(SETTING_ASYNC_VALIDATION_QUEUE, DEFAULT_VALIDATION_QUEUE);
+			validationTimeoutMillis = configuration.getSettingInt(SETTING_ASYNC_VALIDATION_TIMEOUT,
+				DEFAULT_VALIDATION_TIMEOUT_MILLIS);
+			AtomicInteger threadCount = new AtomicInteger();
+			// once the queue is full requests are turned away instead of piling up waiting for a validator thread
+			validationExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+					Thread thread = new Thread(runnable, "cfmock-validator-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+			asyncValidator = new AsyncSignatureValidator(validationExecutor);
+		}
+
+		if (configuration.getSettingBool(SETTING_KEYS_WATCH, true)) {
+			List<File> configFiles = new ArrayList<>();
+			if (configuration.getPropertyFile() != null) {
+				configFiles.add(configuration.getPropertyFile());
 			}
+			keyWatcher = new KeyWatcher(keyRegistry, () -> {
+				configuration.reloadIfModified();
+				return findKeyFiles();
+			}, configFiles);
+			keyWatcher.start();
+		} else {
+			keyRegistry.reload(findKeyFiles());
 		}
 	}
 
@@ -91,142 +257,373 @@ public class SecurityFilter extends AbstractPathAwareFilter {
 
 		HttpServletRequest request = (HttpServletRequest)servletRequest;
 		HttpServletResponse response = (HttpServletResponse)servletResponse;
+		long start = System.nanoTime();
+
+		try {
+			filter(request, response, filterChain, start);
+		} finally {
+			if (accessLog != null) {
+				if (request.isAsyncStarted()) {
+					// a request validated or served asynchronously is logged when its async context completes
+					request.getAsyncContext().addListener(new AccessLogListener(request, response, start));
+				} else {
+					accessLog.record(request, response, start);
+				}
+			}
+		}
+	}
+
+	private void filter(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+						long start) throws IOException, ServletException {
 
 		if (pathMatches(request, publicPaths)) {
-			filterChain.doFilter(request, servletResponse);
+			metrics.recordRequest(Metrics.Outcome.PUBLIC, start);
+			filterChain.doFilter(request, response);
 			return;
 		}
 
+		RequestTimings timings = new RequestTimings(start);
+		timings.setServerTiming(timingHeaderSample > 0
+			&& ThreadLocalRandom.current().nextInt(timingHeaderSample) == 0);
 		SignedRequest signedRequest = new SignedRequest();
 
-		String ipAddress = request.getHeader("X-FORWARDED-FOR");
-		if (ipAddress == null) {
-			ipAddress = request.getRemoteAddr();
+		// a forwarded address is matched where it is in the header and the header stands in for it in the rejection
+		// key, it would be the same address for the same header
+		String addressKey = null;
+		if (forwardedHops > 0) {
+			String forwardedFor = request.getHeader(ForwardedFor.HEADER);
+			long range = ForwardedFor.clientAddressRange(forwardedFor, forwardedHops);
+			if (range != ForwardedFor.NONE) {
+				addressKey = forwardedFor;
+				signedRequest.setRemoteIpAddress(forwardedFor, ForwardedFor.start(range), ForwardedFor.end(range));
+			}
+		}
+		if (addressKey == null) {
+			addressKey = request.getRemoteAddr();
+			signedRequest.setRemoteIpAddress(addressKey);
 		}
-		signedRequest.setRemoteIpAddress(ipAddress);
 
-		String keyId = servletRequest.getParameter(SignatureValidator.PARAM_KEY_PAIR_ID);
-		if (keyId != null) {
-			populateSignedRequestFromUrl(signedRequest, request);
-		} else {
-			populateSignedRequestFromCookies(signedRequest, request);
+		String keyId = request.getParameter(SignatureValidator.PARAM_KEY_PAIR_ID);
+		boolean signedUrl = keyId != null;
+		String url = getRequestUrl(request);
+		signedRequest.setUrl(url);
+
+		// replays of recently rejected credentials are turned away before anything is decoded
+		NegativeCache.Key rejectionKey = getRejectionKey(request, signedUrl, url, addressKey);
+		Integer rejectedStatus = negativeCache == null ? null : negativeCache.getRejection(rejectionKey);
+		if (rejectedStatus != null) {
+			timings.mark(RequestTimings.Phase.EXTRACT);
+			signedRequest.setType(signedUrl ? SignedRequest.Type.REQUEST : SignedRequest.Type.COOKIE);
+			signedRequest.setKeyId(keyId);
+			metrics.recordRequest(Metrics.Outcome.REPLAY_REJECTED, start);
+			metrics.recordPhases(timings);
+			metrics.captureIfSlow(timings, request.getMethod(), signedRequest, Metrics.Outcome.REPLAY_REJECTED,
+				rejectedStatus, SlowRequest.NONE);
+			response.sendError(rejectedStatus);
+			return;
 		}
-		signedRequest.setUrl(getRequestUrl(request));
 
 		try {
-			if (SignatureValidator.validateSignature(signedRequest)) {
-				filterChain.doFilter(servletRequest, servletResponse);
+			String policyBase64;
+			if (signedUrl) {
+				policyBase64 = populateSignedRequestFromUrl(signedRequest, request, timings);
+			} else {
+				policyBase64 = populateSignedRequestFromCookies(signedRequest, request, timings);
+			}
+			timings.mark(RequestTimings.Phase.EXTRACT);
+
+			if (asyncValidator != null && request.isAsyncSupported()) {
+				validateAsync(request, response, signedRequest, policyBase64, rejectionKey, timings);
+				return;
+			}
+
+			SignatureValidator.checkRequest(signedRequest);
+			timings.mark(RequestTimings.Phase.CHECK);
+			boolean valid = SignatureValidator.verifySignature(signedRequest);
+			timings.mark(RequestTimings.Phase.VERIFY);
+			if (valid) {
+				allow(request, signedRequest, policyBase64, timings);
+				filterChain.doFilter(request, response);
 				return;
 			}
 		} catch (CFMockException e) {
 			LOGGER.error("unable to validate request", e);
-			response.sendError(SC_BAD_REQUEST);
+			reject(request, response, signedRequest, rejectionKey, SC_BAD_REQUEST, timings);
 			return;
 		}
 
-		response.sendError(SC_FORBIDDEN);
+		reject(request, response, signedRequest, rejectionKey, SC_FORBIDDEN, timings);
 	}
 
 	@Override
 	public void destroy() {
-		// do nothing
+		if (keyWatcher != null) {
+			keyWatcher.close();
+			keyWatcher = null;
+		}
+		if (validationExecutor != null) {
+			validationExecutor.shutdown();
+			validationExecutor = null;
+		}
+		metrics.setNegativeCache(null);
+		metrics.setPolicyCache(null);
+		metrics.setSlowRequestLog(null);
+		metrics.setAccessLog(null);
+		if (accessLog != null) {
+			accessLog.close();
+			accessLog = null;
+		}
+		if (coarseClock != null) {
+			// the validation cache reads the coarse clock too, it would never expire anything once the clock stops
+			SignatureValidator.setClock(Clock.systemUTC());
+			SignatureValidator.setValidationCache(new ValidationCache());
+			coarseClock.close();
+			coarseClock = null;
+		}
+	}
+
+	/**
+	 * Hands the validation to the validator threads and frees the container thread. A valid request is dispatched
+	 * back to the container to be served, async dispatches don't pass through this filter again. The check and the
+	 * signature verification both happen on the validator thread so the verify phase covers them both, along with the
+	 * time the request waited for a validator thread.
+	 *
+	 * A request is answered once, whichever comes first of the validation finishing and the async context timing
+	 * out. A request that times out or finds the validation queue full gets a 503.
+	 */
+	private void validateAsync(HttpServletRequest request, HttpServletResponse response, SignedRequest signedRequest,
+							   String policyBase64, NegativeCache.Key rejectionKey, RequestTimings timings) {
+		AsyncContext asyncContext = request.startAsync();
+		asyncContext.setTimeout(validationTimeoutMillis);
+		AtomicBoolean answered = new AtomicBoolean();
+		asyncContext.addListener(new ValidationTimeoutListener(request, response, signedRequest, timings, answered));
+
+		CompletableFuture<ValidationResult> validation;
+		try {
+			validation = asyncValidator.validate(signedRequest);
+		} catch (RejectedExecutionException e) {
+			answered.set(true);
+			LOGGER.warn("validation queue is full, rejecting request");
+			timings.mark(RequestTimings.Phase.VERIFY);
+			try {
+				fail(request, response, signedRequest, SC_SERVICE_UNAVAILABLE, timings);
+			} catch (IOException ioe) {
+				LOGGER.warn("unable to send response", ioe);
+			} finally {
+				complete(asyncContext);
+			}
+			return;
+		}
+
+		validation.whenComplete((result, throwable) -> {
+			if (!answered.compareAndSet(false, true)) {
+				LOGGER.debug("validation finished after the request timed out");
+				return;
+			}
+			timings.mark(RequestTimings.Phase.VERIFY);
+			try {
+				if (throwable == null && result.isValid()) {
+					allow(request, signedRequest, policyBase64, timings);
+					try {
+						asyncContext.dispatch();
+					} catch (IllegalStateException e) {
+						LOGGER.warn("request was completed before it could be dispatched", e);
+					}
+					return;
+				}
+				try {
+					if (throwable != null) {
+						LOGGER.error("unable to validate request", throwable);
+						fail(request, response, signedRequest, SC_INTERNAL_SERVER_ERROR, timings);
+					} else if (result.getError() instanceof CFMockException) {
+						LOGGER.error("unable to validate request", result.getError());
+						reject(request, response, signedRequest, rejectionKey, SC_BAD_REQUEST, timings);
+					} else if (result.isError()) {
+						LOGGER.error("unable to validate request", result.getError());
+						fail(request, response, signedRequest, SC_INTERNAL_SERVER_ERROR, timings);
+					} else {
+						reject(request, response, signedRequest, rejectionKey, SC_FORBIDDEN, timings);
+					}
+				} catch (IOException e) {
+					LOGGER.warn("unable to send response", e);
+				} finally {
+					complete(asyncContext);
+				}
+			} catch (RuntimeException e) {
+				// nothing waits on this future, anything thrown here would be lost
+				LOGGER.error("unable to finish validated request", e);
+			}
+		});
+	}
+
+	/**
+	 * Completes the async context, which the container may already have completed if the client went away.
+	 */
+	private static void complete(AsyncContext asyncContext) {
+		try {
+			asyncContext.complete();
+		} catch (IllegalStateException e) {
+			LOGGER.debug("async context was already completed", e);
+		}
+	}
+
+	private AccessLog createAccessLog(File file) {
+		AccessLog log = new AccessLog(file,
+			configuration.getSettingInt(SETTING_ACCESS_LOG_BUFFER, AccessLog.DEFAULT_CAPACITY),
+			new AccessLogFormat(configuration.getSetting(SETTING_ACCESS_LOG_EDGE_LOCATION, DEFAULT_EDGE_LOCATION)));
+		log.setRotateBytes(configuration.getSettingInt(SETTING_ACCESS_LOG_ROTATE_SIZE, 100) * 1024L * 1024L);
+		log.setRotateMillis(TimeUnit.MINUTES.toMillis(
+			configuration.getSettingInt(SETTING_ACCESS_LOG_ROTATE_INTERVAL, 60)));
+		log.setGzip(configuration.getSettingBool(SETTING_ACCESS_LOG_GZIP, true));
+		log.setLogCookies(configuration.getSettingBool(SETTING_ACCESS_LOG_COOKIES, false));
+		return log;
+	}
+
+	private NegativeCache.Key getRejectionKey(HttpServletRequest request, boolean signedUrl, String url,
+											  String addressKey) {
+		if (negativeCache == null) {
+			return null;
+		}
+		String keyId;
+		String signature;
+		String policy;
+		String expires;
+		if (signedUrl) {
+			keyId = request.getParameter(SignatureValidator.PARAM_KEY_PAIR_ID);
+			signature = request.getParameter(SignatureValidator.PARAM_SIGNATURE);
+			policy = request.getParameter(SignatureValidator.PARAM_POLICY);
+			expires = request.getParameter(SignatureValidator.PARAM_EXPIRES);
+		} else {
+			keyId = getCookieValue(request, SignatureValidator.COOKIE_KEY_PAIR_ID);
+			signature = getCookieValue(request, SignatureValidator.COOKIE_SIGNATURE);
+			policy = getCookieValue(request, SignatureValidator.COOKIE_POLICY);
+			expires = getCookieValue(request, SignatureValidator.COOKIE_EXPIRES);
+		}
+		return NegativeCache.key(keyRegistry.get(keyId), keyId, signature, policy, expires, url, addressKey);
+	}
+
+	/**
+	 * The phases of an allowed request are recorded, the Server-Timing header added and a slow request captured by
+	 * the content servlet. A policy that was decoded for this request is only cached now its signature is verified.
+	 */
+	private void allow(HttpServletRequest request, SignedRequest signedRequest, String policyBase64,
+					   RequestTimings timings) {
+		if (policyCache != null && policyBase64 != null && signedRequest.getCompiledPolicy() != null) {
+			policyCache.put(policyBase64, signedRequest.getCompiledPolicy());
+		}
+		metrics.recordRequest(Metrics.Outcome.ALLOWED, timings.getStartNanos());
+		request.setAttribute(RequestTimings.ATTRIBUTE, timings);
+		request.setAttribute(SIGNED_REQUEST_ATTRIBUTE, signedRequest);
 	}
 
-	private void populateSignedRequestFromUrl(SignedRequest signedRequest, HttpServletRequest request) {
+	private void reject(HttpServletRequest request, HttpServletResponse response, SignedRequest signedRequest,
+						NegativeCache.Key rejectionKey, int status, RequestTimings timings) throws IOException {
+		Metrics.Outcome outcome = status == SC_BAD_REQUEST ? Metrics.Outcome.BAD_REQUEST : Metrics.Outcome.FORBIDDEN;
+		metrics.recordRequest(outcome, timings.getStartNanos());
+		metrics.recordPhases(timings);
+		metrics.captureIfSlow(timings, request.getMethod(), signedRequest, outcome, status, SlowRequest.NONE);
+		if (negativeCache != null) {
+			negativeCache.reject(rejectionKey, status);
+		}
+		if (timings.isServerTiming()) {
+			response.setHeader(RequestTimings.SERVER_TIMING_HEADER, timings.toServerTiming());
+		}
+		response.sendError(status);
+	}
+
+	private void fail(HttpServletRequest request, HttpServletResponse response, SignedRequest signedRequest,
+					  int status, RequestTimings timings) throws IOException {
+		Metrics.Outcome outcome = status == SC_SERVICE_UNAVAILABLE ? Metrics.Outcome.UNAVAILABLE
+			: Metrics.Outcome.ERROR;
+		metrics.recordRequest(outcome, timings.getStartNanos());
+		metrics.recordPhases(timings);
+		metrics.captureIfSlow(timings, request.getMethod(), signedRequest, outcome, status, SlowRequest.NONE);
+		response.sendError(status);
+	}
+
+	/**
+	 * @return the policy parameter if it had to be decoded, null if there is none or it was cached
+	 */
+	private String populateSignedRequestFromUrl(SignedRequest signedRequest, HttpServletRequest request,
+												RequestTimings timings) {
 
 		signedRequest.setType(SignedRequest.Type.REQUEST);
 		signedRequest.setSignature(request.getParameter(SignatureValidator.PARAM_SIGNATURE));
 		String keyId = request.getParameter(SignatureValidator.PARAM_KEY_PAIR_ID);
 		signedRequest.setKeyId(keyId);
-		signedRequest.setKeyFile(keys.get(keyId));
+		signedRequest.setKeyPair(keyRegistry.get(keyId));
 
 		String policyBase64 = request.getParameter(SignatureValidator.PARAM_POLICY);
-		signedRequest.setPolicy(decodePolicy(policyBase64));
+		boolean decoded = decodePolicy(signedRequest, policyBase64, timings);
 
-		if (signedRequest.getPolicy() == null) {
+		if (policyBase64 == null) {
 			String expiresString = request.getParameter(SignatureValidator.PARAM_EXPIRES);
 			if (expiresString != null) {
 				try {
-					signedRequest.setExpires(new Date(Long.parseLong(expiresString)*1000));
+					signedRequest.setExpiresEpochSeconds(Long.parseLong(expiresString));
 				} catch (NumberFormatException e) {
 					throw new ServiceException("expires cookie is invalid:" + expiresString);
 				}
 			}
 		}
+		return decoded ? policyBase64 : null;
 	}
 
-	private void populateSignedRequestFromCookies(SignedRequest signedRequest, HttpServletRequest request) {
+	/**
+	 * @return the policy cookie if it had to be decoded, null if there is none or it was cached
+	 */
+	private String populateSignedRequestFromCookies(SignedRequest signedRequest, HttpServletRequest request,
+													RequestTimings timings) {
 		String keyId = getCookieValue(request, SignatureValidator.COOKIE_KEY_PAIR_ID);
-		signedRequest.setKeyFile(keys.get(keyId));
+		signedRequest.setKeyPair(keyRegistry.get(keyId));
 		signedRequest.setType(SignedRequest.Type.COOKIE);
 		signedRequest.setKeyId(keyId);
 		signedRequest.setSignature(getCookieValue(request, SignatureValidator.COOKIE_SIGNATURE));
-		populateSignedRequestPolicyFromCookies(signedRequest, request);
+		String policyBase64 = getCookieValue(request, SignatureValidator.COOKIE_POLICY);
+		boolean decoded = decodePolicy(signedRequest, policyBase64, timings);
 
 		String expiresString = getCookieValue(request, SignatureValidator.COOKIE_EXPIRES);
 		if (expiresString != null) {
 			try {
-				signedRequest.setExpires(new Date(Long.parseLong(expiresString)*1000));
+				signedRequest.setExpiresEpochSeconds(Long.parseLong(expiresString));
 			} catch (NumberFormatException e) {
 				throw new ServiceException("expires cookie is invalid:" + expiresString);
 			}
 		}
-
+		return decoded ? policyBase64 : null;
 	}
 
-	private void populateSignedRequestPolicyFromCookies(SignedRequest signedRequest, HttpServletRequest request) {
-		String policyBase64 = getCookieValue(request, SignatureValidator.COOKIE_POLICY);
+	/**
+	 * Takes the compiled policy from the policy cache, otherwise only decodes the base64. The policy is parsed once
+	 * its signature has been verified against the decoded bytes, so a policy nobody signed is never parsed or cached.
+	 *
+	 * @return true if the policy was decoded, false if there is none or it was cached
+	 */
+	private boolean decodePolicy(SignedRequest signedRequest, String policyBase64, RequestTimings timings) {
 		if (policyBase64 == null) {
-			return;
+			return false;
 		}
-		signedRequest.setPolicy(decodePolicy(policyBase64));
-	}
-
-	private CFPolicy decodePolicy(String policyBase64) {
-		if (policyBase64 == null) {
-			return null;
+		timings.mark(RequestTimings.Phase.EXTRACT);
+		CompiledPolicy compiledPolicy = policyCache == null ? null : policyCache.get(policyBase64);
+		if (compiledPolicy != null) {
+			signedRequest.setCompiledPolicy(compiledPolicy);
+			signedRequest.setPolicy(compiledPolicy.getPolicy());
+			timings.mark(RequestTimings.Phase.DECODE);
+			return false;
 		}
+
 		LOGGER.debug("decoding base64:{}", policyBase64);
 		try {
-			String policyJson = new String(Base64.decode(policyBase64.replaceAll("_", "=")));
-
-			ObjectReader objectReader = new ObjectMapper().readerFor(Policy.class);
-
-			Policy policy = objectReader.readValue(policyJson);
-			return PolicyHelper.toCfPolicy(policy);
-		} catch (IOException e) {
-			throw new ServiceException("unable to decode policyBase64:" + policyBase64, e);
+			signedRequest.setRawPolicy(CloudFrontBase64.decode(policyBase64));
+		} catch (IllegalArgumentException e) {
+			throw new CFMockException("unable to decode policy", e);
 		}
+		timings.mark(RequestTimings.Phase.DECODE);
+		return true;
 	}
 
 	private String getRequestUrl(final HttpServletRequest request) {
-		String requestUrl = request.getRequestURL().toString();
-
-		String queryString = request.getQueryString();
-		if (queryString == null || queryString.isEmpty()) {
-			return requestUrl;
-		}
-
-		StringBuilder filteredQueryParams = new StringBuilder();
-		String[] pairs = queryString.split("&");
-		for (String pair : pairs) {
-			int idx = pair.indexOf('=');
-			try {
-				String key = URLDecoder.decode(pair.substring(0, idx), "UTF-8");
-				if (!key.equals(SignatureValidator.PARAM_EXPIRES)
-					&& !key.equals(SignatureValidator.PARAM_SIGNATURE)
-					&& !key.equals(SignatureValidator.PARAM_KEY_PAIR_ID)
-					&& !key.equals(SignatureValidator.PARAM_POLICY)) {
-
-					filteredQueryParams.append(filteredQueryParams.length() == 0 ? "?" : "&");
-					filteredQueryParams.append(pair);
-				}
-			} catch (UnsupportedEncodingException e) {
-				throw new CFMockException(e);
-			}
-		}
-
-		return requestUrl + filteredQueryParams;
+		return RequestUrlUtil.getSignedUrl(request.getRequestURL().toString(), request.getQueryString());
 	}
 
 	private String getCookieValue(final HttpServletRequest request, final String name) {
@@ -242,22 +639,141 @@ public class SecurityFilter extends AbstractPathAwareFilter {
 		return null;
 	}
 
-	private boolean findKeyFile(ServletContext servletContext, String keyId, String keyLocation) {
+	private Map<String, File> findKeyFiles() {
+		String keysString = configuration.getSetting(SETTING_KEYS);
+		if (keysString == null || keysString.trim().isEmpty()) {
+			throw new IllegalStateException("no keys are configured");
+		}
+
+		Map<String, File> keyFiles = new HashMap<>();
+		for (String keyId : keysString.split(",")) {
+			String keyLocation = configuration.getSetting("key." + keyId + ".location");
+
+			File keyFile = findKeyFile(keyLocation);
+			if (keyFile == null) {
+				LOGGER.error("unable to find key file id:{} location:{}", keyId, keyLocation);
+			} else {
+				keyFiles.put(keyId, keyFile);
+			}
+		}
+		return keyFiles;
+	}
+
+	private File findKeyFile(String keyLocation) {
+		if (keyLocation == null) {
+			return null;
+		}
 
 		File keyFile = new File(keyLocation);
 		if (keyFile.exists()) {
-			keys.put(keyId, keyFile);
-			return true;
+			return keyFile;
 		}
 
-		keyFile = new File(servletContext.getRealPath(keyLocation));
+		String realPath = servletContext.getRealPath(keyLocation);
+		if (realPath == null) {
+			return null;
+		}
+		keyFile = new File(realPath);
 		LOGGER.info("looking for key at:{}", keyFile.getAbsolutePath());
 		if (keyFile.exists()) {
-			keys.put(keyId, keyFile);
-			return true;
+			return keyFile;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Answers a request whose validation did not finish before its async context timed out. The validation may
+	 * still finish later, it is ignored once the request has been answered.
+	 */
+	private class ValidationTimeoutListener implements AsyncListener {
+
+		private final HttpServletRequest request;
+		private final HttpServletResponse response;
+		private final SignedRequest signedRequest;
+		private final RequestTimings timings;
+		private final AtomicBoolean answered;
+
+		ValidationTimeoutListener(HttpServletRequest request, HttpServletResponse response,
+								  SignedRequest signedRequest, RequestTimings timings, AtomicBoolean answered) {
+			this.request = request;
+			this.response = response;
+			this.signedRequest = signedRequest;
+			this.timings = timings;
+			this.answered = answered;
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			if (!answered.compareAndSet(false, true)) {
+				return;
+			}
+			LOGGER.warn("validation did not finish within {}ms", validationTimeoutMillis);
+			timings.mark(RequestTimings.Phase.VERIFY);
+			try {
+				fail(request, response, signedRequest, SC_SERVICE_UNAVAILABLE, timings);
+			} catch (IOException e) {
+				LOGGER.warn("unable to send response", e);
+			} finally {
+				complete(event.getAsyncContext());
+			}
 		}
 
-		return false;
+		@Override
+		public void onError(AsyncEvent event) {
+			// the container completes the request, a validation finishing later must not dispatch it
+			answered.set(true);
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			// nothing to clean up
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+			// the content servlet's async cycle is not a validation
+		}
 	}
 
+	/**
+	 * Logs a request once its async context completes. A request validated asynchronously is dispatched back to the
+	 * content servlet, which may start a second async cycle to write the file, so the listener follows it to the new
+	 * context and the request is logged when it is finally complete.
+	 */
+	private class AccessLogListener implements AsyncListener {
+
+		private final HttpServletRequest request;
+		private final HttpServletResponse response;
+		private final long start;
+
+		AccessLogListener(HttpServletRequest request, HttpServletResponse response, long start) {
+			this.request = request;
+			this.response = response;
+			this.start = start;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			AccessLog log = accessLog;
+			if (log != null) {
+				log.record(request, response, start);
+			}
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			// the request is logged when the container completes it
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			// the request is logged when the container completes it
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+			event.getAsyncContext().addListener(this);
+		}
+	}
 }
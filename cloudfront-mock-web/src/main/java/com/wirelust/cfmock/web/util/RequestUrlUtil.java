@@ -0,0 +1,52 @@
+package com.wirelust.cfmock.web.util;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+
+import com.wirelust.cfmock.SignatureValidator;
+import com.wirelust.cfmock.exceptions.CFMockException;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class RequestUrlUtil {
+
+	private RequestUrlUtil() {
+		// util class cannot be instantiated
+	}
+
+	/**
+	 * @param requestUrl the request url without the query string
+	 * @param queryString the raw query string, may be null
+	 * @return the url the signature was made for, the request url with the query string minus the parameters
+	 * CloudFront adds when signing
+	 */
+	public static String getSignedUrl(final String requestUrl, final String queryString) {
+		if (queryString == null || queryString.isEmpty()) {
+			return requestUrl;
+		}
+
+		StringBuilder filteredQueryParams = new StringBuilder();
+		String[] pairs = queryString.split("&");
+		for (String pair : pairs) {
+			int idx = pair.indexOf('=');
+			try {
+				String key = URLDecoder.decode(pair.substring(0, idx), "UTF-8");
+				if (!key.equals(SignatureValidator.PARAM_EXPIRES)
+					&& !key.equals(SignatureValidator.PARAM_SIGNATURE)
+					&& !key.equals(SignatureValidator.PARAM_KEY_PAIR_ID)
+					&& !key.equals(SignatureValidator.PARAM_POLICY)) {
+
+					filteredQueryParams.append(filteredQueryParams.length() == 0 ? "?" : "&");
+					filteredQueryParams.append(pair);
+				}
+			} catch (UnsupportedEncodingException e) {
+				throw new CFMockException(e);
+			}
+		}
+
+		return requestUrl + filteredQueryParams;
+	}
+}
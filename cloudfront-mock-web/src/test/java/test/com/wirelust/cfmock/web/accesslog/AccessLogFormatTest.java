@@ -0,0 +1,161 @@
+package test.com.wirelust.cfmock.web.accesslog;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.wirelust.cfmock.web.accesslog.AccessLogFormat;
+import com.wirelust.cfmock.web.accesslog.AccessLogRecord;
+import com.wirelust.cfmock.web.metrics.RequestTimings;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AccessLogFormatTest {
+
+	@Mock
+	HttpServletRequest request;
+
+	@Mock
+	HttpServletResponse response;
+
+	AccessLogFormat format;
+
+	@Before
+	public void init() {
+		format = new AccessLogFormat("TEST1-C1", new Random(1));
+
+		when(request.getRemoteAddr()).thenReturn("192.0.2.10");
+		when(request.getRemotePort()).thenReturn(54321);
+		when(request.getMethod()).thenReturn("GET");
+		when(request.getServerName()).thenReturn("localhost");
+		when(request.getRequestURI()).thenReturn("/cfmock/content/file.txt");
+		when(request.getQueryString()).thenReturn("Key-Pair-Id=key1&Signature=abc");
+		when(request.getHeader("User-Agent")).thenReturn("Mozilla/5.0 (X11)");
+		when(request.getHeader("Host")).thenReturn("localhost:8080");
+		when(request.getHeader("Cookie")).thenReturn("CloudFront-Key-Pair-Id=key1");
+		when(request.getScheme()).thenReturn("http");
+		when(request.getProtocol()).thenReturn("HTTP/1.1");
+		when(request.getContentLengthLong()).thenReturn(-1L);
+		when(response.getStatus()).thenReturn(206);
+		when(response.getContentType()).thenReturn("text/plain");
+		when(response.getHeader("Content-Length")).thenReturn("100");
+		when(response.getHeader("Content-Range")).thenReturn("bytes 0-99/1000");
+	}
+
+	@Test
+	public void shouldWriteHeader() {
+		String header = AccessLogFormat.header();
+		assertTrue(header.startsWith("#Version: 1.0\n#Fields: date time x-edge-location sc-bytes "));
+		assertTrue(header.endsWith(" sc-range-start sc-range-end\n"));
+	}
+
+	@Test
+	public void shouldWriteAllFields() {
+		RequestTimings timings = new RequestTimings(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5));
+		timings.mark(RequestTimings.Phase.VERIFY);
+		timings.mark(RequestTimings.Phase.CONTENT);
+		when(request.getAttribute(RequestTimings.ATTRIBUTE)).thenReturn(timings);
+
+		AccessLogRecord record = AccessLogRecord.of(request, response, timings.getStartNanos(), false);
+		assertTrue(record.getFirstByteNanos() <= record.getTimeTakenNanos());
+
+		StringBuilder out = new StringBuilder();
+		format.append(record, out);
+		String line = out.toString();
+		assertTrue(line.endsWith("\n"));
+
+		String[] fields = line.substring(0, line.length() - 1).split("\t", -1);
+		assertEquals(AccessLogFormat.FIELDS.split(" ").length, fields.length);
+		assertTrue(fields[0], fields[0].matches("\\d{4}-\\d{2}-\\d{2}"));
+		assertTrue(fields[1], fields[1].matches("\\d{2}:\\d{2}:\\d{2}"));
+		assertEquals("TEST1-C1", fields[2]);
+		assertEquals("100", fields[3]);
+		assertEquals("192.0.2.10", fields[4]);
+		assertEquals("GET", fields[5]);
+		assertEquals("localhost", fields[6]);
+		assertEquals("/cfmock/content/file.txt", fields[7]);
+		assertEquals("206", fields[8]);
+		assertEquals("-", fields[9]);
+		assertEquals("Mozilla/5.0%20(X11)", fields[10]);
+		assertEquals("Key-Pair-Id=key1&Signature=abc", fields[11]);
+		// cookies are only logged when asked for
+		assertEquals("-", fields[12]);
+		assertEquals(AccessLogFormat.RESULT_HIT, fields[13]);
+		assertEquals(56, fields[14].length());
+		assertEquals("localhost:8080", fields[15]);
+		assertEquals("http", fields[16]);
+		assertEquals("0", fields[17]);
+		assertTrue(fields[18], fields[18].matches("0\\.00[5-9]|0\\.0[1-9][0-9]|[0-9]+\\.[0-9]{3}"));
+		assertEquals("-", fields[19]);
+		assertEquals("-", fields[20]);
+		assertEquals("-", fields[21]);
+		assertEquals(AccessLogFormat.RESULT_HIT, fields[22]);
+		assertEquals("HTTP/1.1", fields[23]);
+		assertEquals("-", fields[24]);
+		assertEquals("-", fields[25]);
+		assertEquals("54321", fields[26]);
+		assertTrue(fields[27], fields[27].matches("[0-9]+\\.[0-9]{3}"));
+		assertEquals(AccessLogFormat.RESULT_HIT, fields[28]);
+		assertEquals("text/plain", fields[29]);
+		assertEquals("100", fields[30]);
+		assertEquals("0", fields[31]);
+		assertEquals("99", fields[32]);
+	}
+
+	@Test
+	public void shouldMarkErrorsAndMissingValues() {
+		when(response.getStatus()).thenReturn(403);
+		when(response.getContentType()).thenReturn(null);
+		when(response.getHeader("Content-Length")).thenReturn(null);
+		when(response.getHeader("Content-Range")).thenReturn(null);
+
+		StringBuilder out = new StringBuilder();
+		format.append(AccessLogRecord.of(request, response, System.nanoTime(), true), out);
+		String[] fields = out.toString().split("\t", -1);
+
+		assertEquals("0", fields[3]);
+		assertEquals("CloudFront-Key-Pair-Id=key1", fields[12]);
+		assertEquals(AccessLogFormat.RESULT_ERROR, fields[13]);
+		assertEquals(AccessLogFormat.RESULT_ERROR, fields[22]);
+		assertEquals(AccessLogFormat.RESULT_ERROR, fields[28]);
+		assertEquals("-", fields[29]);
+		assertEquals("-", fields[30]);
+		assertEquals("-", fields[31]);
+		assertEquals("-\n", fields[32]);
+	}
+
+	@Test
+	public void shouldGiveEachRequestItsOwnId() {
+		AccessLogRecord record = AccessLogRecord.of(request, response, System.nanoTime(), false);
+		StringBuilder first = new StringBuilder();
+		format.append(record, first);
+		StringBuilder second = new StringBuilder();
+		format.append(record, second);
+		String firstId = first.toString().split("\t")[14];
+		String secondId = second.toString().split("\t")[14];
+		assertTrue(firstId, !firstId.equals(secondId));
+	}
+
+	@Test
+	public void shouldEncodeValues() {
+		when(request.getHeader("User-Agent")).thenReturn("a\tb\"c\\d\u00e9\ud83d\ude00");
+
+		StringBuilder out = new StringBuilder();
+		format.append(AccessLogRecord.of(request, response, System.nanoTime(), false), out);
+		assertEquals("a%09b%22c%5Cd%C3%A9%F0%9F%98%80", out.toString().split("\t")[10]);
+	}
+}
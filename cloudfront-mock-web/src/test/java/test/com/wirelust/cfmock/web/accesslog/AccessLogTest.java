@@ -0,0 +1,217 @@
+package test.com.wirelust.cfmock.web.accesslog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.wirelust.cfmock.web.accesslog.AccessLog;
+import com.wirelust.cfmock.web.accesslog.AccessLogFormat;
+import com.wirelust.cfmock.web.accesslog.AccessLogRecord;
+import com.wirelust.cfmock.web.metrics.Metrics;
+import com.wirelust.cfmock.web.metrics.PrometheusFormat;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class AccessLogTest {
+
+	private static final long WAIT_MILLIS = 5000;
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	AccessLogRecord record;
+
+	@Before
+	public void init() {
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		when(request.getMethod()).thenReturn("GET");
+		when(request.getRequestURI()).thenReturn("/content/file.txt");
+		when(response.getStatus()).thenReturn(200);
+		record = AccessLogRecord.of(request, response, System.nanoTime(), false);
+	}
+
+	@Test
+	public void shouldWriteHeaderAndRecords() throws Exception {
+		File file = new File(tempFolder.getRoot(), "logs/access.log");
+		AccessLog log = new AccessLog(file, 16, new AccessLogFormat("TEST1-C1"));
+		log.start();
+		for (int i = 0; i < 3; i++) {
+			assertTrue(log.record(record));
+		}
+		waitForWritten(log, 3);
+		log.close();
+
+		String[] lines = read(file).split("\n");
+		assertEquals(5, lines.length);
+		assertEquals("#Version: 1.0", lines[0]);
+		assertTrue(lines[1].startsWith("#Fields: "));
+		assertTrue(lines[2].contains("\tGET\t-\t/content/file.txt\t200\t"));
+		assertEquals(0, log.getDropped());
+		assertEquals(0, log.getFailed());
+		assertEquals(0, log.getPending());
+
+		// a restarted log appends without writing the header again
+		AccessLog restarted = new AccessLog(file, 16, new AccessLogFormat("TEST1-C1"));
+		restarted.start();
+		restarted.record(record);
+		restarted.close();
+		assertEquals(1, restarted.getWritten());
+		assertEquals(6, read(file).split("\n").length);
+	}
+
+	@Test
+	public void shouldDropRecordsWhenFull() {
+		AccessLog log = new AccessLog(new File(tempFolder.getRoot(), "access.log"), 2, new AccessLogFormat("TEST1-C1"));
+		assertTrue(log.record(record));
+		assertTrue(log.record(record));
+		assertFalse(log.record(record));
+		assertEquals(1, log.getDropped());
+		assertEquals(2, log.getPending());
+
+		// records queued before the log starts are written once it does
+		log.start();
+		log.close();
+		assertEquals(2, log.getWritten());
+	}
+
+	@Test
+	public void shouldRotateBySizeAndGzip() throws Exception {
+		File file = new File(tempFolder.getRoot(), "access.log");
+		AccessLog log = new AccessLog(file, 16, new AccessLogFormat("TEST1-C1"));
+		log.setRotateBytes(1);
+		log.start();
+		log.record(record);
+		waitForWritten(log, 1);
+		log.record(record);
+		waitForWritten(log, 2);
+		log.close();
+
+		assertEquals(1, log.getRotations());
+		File[] rotated = tempFolder.getRoot().listFiles((dir, name) -> name.startsWith("access.log."));
+		assertEquals(Arrays.toString(rotated), 1, rotated.length);
+		assertTrue(rotated[0].getName(),
+			rotated[0].getName().matches("access\\.log\\.\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}-\\d{2}\\.gz"));
+
+		String first = gunzip(rotated[0]);
+		assertTrue(first.startsWith("#Version: 1.0\n"));
+		assertEquals(3, first.split("\n").length);
+		String current = read(file);
+		assertTrue(current.startsWith("#Version: 1.0\n"));
+		assertEquals(3, current.split("\n").length);
+	}
+
+	@Test
+	public void shouldRotateByTimeWithoutGzip() throws Exception {
+		File file = new File(tempFolder.getRoot(), "access.log");
+		MutableClock clock = new MutableClock(Instant.parse("2026-10-18T10:59:00Z"));
+		AccessLog log = new AccessLog(file, 16, new AccessLogFormat("TEST1-C1"), clock);
+		log.setRotateMillis(TimeUnit.HOURS.toMillis(1));
+		log.setGzip(false);
+		log.start();
+		log.record(record);
+		waitForWritten(log, 1);
+
+		clock.instant = Instant.parse("2026-10-18T11:00:00Z");
+		log.record(record);
+		waitForWritten(log, 2);
+		log.close();
+
+		assertEquals(1, log.getRotations());
+		File rotated = new File(tempFolder.getRoot(), "access.log.2026-10-18-11-00-00");
+		assertTrue(rotated.exists());
+		assertEquals(3, read(rotated).split("\n").length);
+		assertEquals(3, read(file).split("\n").length);
+	}
+
+	@Test
+	public void shouldServeCountersWithMetrics() throws Exception {
+		Metrics metrics = new Metrics();
+		assertTrue(metrics.getAccessLogStatistics().isEmpty());
+
+		AccessLog log = new AccessLog(new File(tempFolder.getRoot(), "access.log"), 1, new AccessLogFormat("TEST1-C1"));
+		log.record(record);
+		log.record(record);
+		metrics.setAccessLog(log);
+
+		assertEquals(Long.valueOf(1), metrics.getAccessLogStatistics().get("dropped"));
+		assertEquals(Long.valueOf(1), metrics.getAccessLogStatistics().get("pending"));
+		StringBuilder out = new StringBuilder();
+		PrometheusFormat.write(metrics, out);
+		String text = out.toString();
+		assertTrue(text, text.contains("cfmock_access_log_records_total{result=\"dropped\"} 1\n"));
+		assertTrue(text, text.contains("cfmock_access_log_pending 1\n"));
+	}
+
+	private static void waitForWritten(final AccessLog log, final long written) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		while (log.getWritten() < written && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(written, log.getWritten());
+	}
+
+	private static String read(final File file) throws Exception {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	private static String gunzip(final File file) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+			byte[] chunk = new byte[4096];
+			int read;
+			while ((read = in.read(chunk)) != -1) {
+				out.write(chunk, 0, read);
+			}
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static class MutableClock extends Clock {
+
+		volatile Instant instant;
+
+		MutableClock(final Instant instant) {
+			this.instant = instant;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(final ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
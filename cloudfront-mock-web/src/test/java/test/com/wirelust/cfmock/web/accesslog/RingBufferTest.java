@@ -0,0 +1,114 @@
+package test.com.wirelust.cfmock.web.accesslog;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.web.accesslog.RingBuffer;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class RingBufferTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRequireCapacity() {
+		new RingBuffer<String>(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldNotAcceptNull() {
+		new RingBuffer<String>(1).offer(null);
+	}
+
+	@Test
+	public void shouldRoundCapacityToPowerOfTwo() {
+		assertEquals(1, new RingBuffer<String>(1).capacity());
+		assertEquals(8, new RingBuffer<String>(5).capacity());
+		assertEquals(8, new RingBuffer<String>(8).capacity());
+	}
+
+	@Test
+	public void shouldDrainInOrderAndDropWhenFull() {
+		RingBuffer<Integer> buffer = new RingBuffer<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(buffer.offer(i));
+		}
+		assertFalse(buffer.offer(4));
+		assertEquals(1, buffer.getDropped());
+		assertEquals(4, buffer.size());
+
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(3, buffer.drain(drained, 3));
+		assertEquals(1, buffer.size());
+
+		// the freed slots are reused as the buffer wraps around
+		assertTrue(buffer.offer(5));
+		assertTrue(buffer.offer(6));
+		assertEquals(3, buffer.drain(drained, 10));
+		assertEquals(0, buffer.drain(drained, 10));
+
+		List<Integer> expected = new ArrayList<>();
+		expected.add(0);
+		expected.add(1);
+		expected.add(2);
+		expected.add(3);
+		expected.add(5);
+		expected.add(6);
+		assertEquals(expected, drained);
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	public void shouldNotLoseOffersFromManyThreads() throws Exception {
+		int threads = 4;
+		int perThread = 10000;
+		RingBuffer<Integer> buffer = new RingBuffer<>(1024);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch startLatch = new CountDownLatch(1);
+		CountDownLatch doneLatch = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			int first = t * perThread;
+			executor.execute(() -> {
+				try {
+					startLatch.await();
+					for (int i = first; i < first + perThread; i++) {
+						buffer.offer(i);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					doneLatch.countDown();
+				}
+			});
+		}
+
+		Set<Integer> seen = new HashSet<>();
+		List<Integer> batch = new ArrayList<>();
+		startLatch.countDown();
+		while (doneLatch.getCount() > 0 || buffer.size() > 0) {
+			batch.clear();
+			buffer.drain(batch, 256);
+			for (Integer element : batch) {
+				assertTrue("drained twice:" + element, seen.add(element));
+			}
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		// every offer was either drained once or counted as dropped
+		assertEquals(threads * perThread, seen.size() + buffer.getDropped());
+	}
+}
@@ -0,0 +1,227 @@
+package test.com.wirelust.cfmock.web.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.wirelust.cfmock.SignatureValidator;
+import com.wirelust.cfmock.cache.PolicyCache;
+import com.wirelust.cfmock.cache.ValidationCache;
+import com.wirelust.cfmock.web.metrics.LatencyRecorder;
+import com.wirelust.cfmock.web.metrics.Metrics;
+import com.wirelust.cfmock.web.metrics.PrometheusFormat;
+import com.wirelust.cfmock.web.metrics.RequestTimings;
+import com.wirelust.cfmock.web.metrics.TimingsServlet;
+import org.HdrHistogram.Histogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class MetricsTest {
+
+	Metrics metrics;
+
+	@Before
+	public void init() {
+		metrics = new Metrics();
+		SignatureValidator.setValidationCache(new ValidationCache());
+	}
+
+	@After
+	public void destroy() {
+		metrics.destroy();
+	}
+
+	/**
+	 * This method simply instantiates a private constructor to ensure code coverage for it so the
+	 * coverage reports aren't diminished
+	 */
+	@Test
+	public void testConstructorIsPrivate() throws Exception {
+		Constructor<PrometheusFormat> constructor = PrometheusFormat.class.getDeclaredConstructor();
+		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void shouldCountOutcomes() {
+		long start = System.nanoTime();
+		metrics.recordRequest(Metrics.Outcome.ALLOWED, start);
+		metrics.recordRequest(Metrics.Outcome.ALLOWED, start);
+		metrics.recordRequest(Metrics.Outcome.FORBIDDEN, start);
+		metrics.recordRequest(Metrics.Outcome.PUBLIC, start);
+
+		assertEquals(2, metrics.getCount(Metrics.Outcome.ALLOWED));
+		assertEquals(1, metrics.getCount(Metrics.Outcome.FORBIDDEN));
+		assertEquals(0, metrics.getCount(Metrics.Outcome.BAD_REQUEST));
+		// public paths aren't validated so they don't count towards the validation latency
+		assertEquals(3, metrics.getValidationLatency().snapshot().getTotalCount());
+
+		Map<String, Long> counts = metrics.getRequestCounts();
+		assertEquals(Long.valueOf(2), counts.get("allowed"));
+		assertEquals(Long.valueOf(1), counts.get("public"));
+	}
+
+	@Test
+	public void shouldCountContentResponsesByStatusClass() {
+		long start = System.nanoTime();
+		metrics.recordContent(200, start);
+		metrics.recordContent(206, start);
+		metrics.recordContent(304, start);
+		metrics.recordContent(404, start);
+		metrics.recordContent(0, start);
+
+		assertEquals(2, metrics.getContentResponses(2));
+		assertEquals(1, metrics.getContentResponses(3));
+		assertEquals(1, metrics.getContentResponses(4));
+		assertEquals(0, metrics.getContentResponses(5));
+		assertEquals(0, metrics.getContentResponses(9));
+		assertEquals(5, metrics.getContentLatency().snapshot().getTotalCount());
+		assertEquals(Long.valueOf(2), metrics.getContentResponseCounts().get("2xx"));
+	}
+
+	@Test
+	public void shouldAccumulateLatencySnapshots() {
+		LatencyRecorder recorder = new LatencyRecorder();
+		recorder.record(TimeUnit.MILLISECONDS.toNanos(1));
+		assertEquals(1, recorder.snapshot().getTotalCount());
+
+		recorder.record(TimeUnit.MILLISECONDS.toNanos(3));
+		recorder.record(-1);
+		Histogram snapshot = recorder.snapshot();
+		assertEquals(3, snapshot.getTotalCount());
+		assertEquals(3000, snapshot.getMaxValue(), 3);
+		assertEquals(4000, recorder.getTotalMicros());
+
+		recorder.reset();
+		assertEquals(0, recorder.snapshot().getTotalCount());
+		assertEquals(0, recorder.getTotalMicros());
+	}
+
+	@Test
+	public void shouldResetCounters() {
+		metrics.recordRequest(Metrics.Outcome.ALLOWED, System.nanoTime());
+		metrics.recordContent(200, System.nanoTime());
+		metrics.reset();
+
+		assertEquals(0, metrics.getCount(Metrics.Outcome.ALLOWED));
+		assertEquals(0, metrics.getContentResponses(2));
+		assertEquals(0, metrics.getValidationLatency().snapshot().getTotalCount());
+	}
+
+	@Test
+	public void shouldWritePrometheusFormat() throws Exception {
+		long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(2);
+		metrics.recordRequest(Metrics.Outcome.ALLOWED, start);
+		metrics.recordRequest(Metrics.Outcome.BAD_REQUEST, start);
+		metrics.recordContent(200, start);
+		metrics.setPolicyCache(new PolicyCache());
+
+		StringBuilder out = new StringBuilder();
+		PrometheusFormat.write(metrics, out);
+		String text = out.toString();
+
+		assertTrue(text, text.contains("# TYPE cfmock_requests_total counter\n"));
+		assertTrue(text, text.contains("cfmock_requests_total{outcome=\"allowed\"} 1\n"));
+		assertTrue(text, text.contains("cfmock_requests_total{outcome=\"bad_request\"} 1\n"));
+		assertTrue(text, text.contains("cfmock_requests_total{outcome=\"forbidden\"} 0\n"));
+		assertTrue(text, text.contains("# TYPE cfmock_validation_seconds summary\n"));
+		assertTrue(text, text.contains("cfmock_validation_seconds{quantile=\"0.999\"} "));
+		assertTrue(text, text.contains("cfmock_validation_seconds_count 2\n"));
+		assertTrue(text, text.contains("cfmock_content_responses_total{status=\"2xx\"} 1\n"));
+		assertTrue(text, text.contains("cfmock_content_seconds_count 1\n"));
+		assertTrue(text, text.contains("cfmock_phase_seconds{phase=\"verify\",quantile=\"0.5\"} "));
+		assertTrue(text, text.contains("cfmock_phase_seconds_count{phase=\"content\"} 0\n"));
+		assertTrue(text, text.contains("cfmock_cache_hits_total{cache=\"validation\"} 0\n"));
+		assertTrue(text, text.contains("cfmock_cache_size{cache=\"policy\"} 0\n"));
+		assertFalse(text, text.contains("cache=\"negative\""));
+
+		for (String line : text.split("\n")) {
+			assertTrue(line, line.startsWith("# HELP cfmock_") || line.startsWith("# TYPE cfmock_")
+				|| line.matches("cfmock_[a-z_]+(\\{[a-z]+=\"[a-z0-9._]+\"(,[a-z]+=\"[a-z0-9._]+\")?\\})? [0-9.E-]+"));
+		}
+	}
+
+	@Test
+	public void shouldTimePhases() throws Exception {
+		long start = System.nanoTime();
+		RequestTimings timings = new RequestTimings(start);
+		assertFalse(timings.isMarked(RequestTimings.Phase.EXTRACT));
+
+		timings.mark(RequestTimings.Phase.EXTRACT);
+		Thread.sleep(2);
+		timings.mark(RequestTimings.Phase.VERIFY);
+		Thread.sleep(1);
+		timings.mark(RequestTimings.Phase.EXTRACT);
+
+		assertTrue(timings.isMarked(RequestTimings.Phase.EXTRACT));
+		assertTrue(timings.isMarked(RequestTimings.Phase.VERIFY));
+		assertFalse(timings.isMarked(RequestTimings.Phase.DECODE));
+		assertTrue(timings.getNanos(RequestTimings.Phase.VERIFY) >= TimeUnit.MILLISECONDS.toNanos(2));
+		assertTrue(timings.getNanos(RequestTimings.Phase.EXTRACT) >= TimeUnit.MILLISECONDS.toNanos(1));
+		assertEquals(start, timings.getStartNanos());
+		assertEquals(timings.getTotalNanos(), timings.getNanos(RequestTimings.Phase.EXTRACT)
+			+ timings.getNanos(RequestTimings.Phase.VERIFY));
+
+		String header = timings.toServerTiming();
+		assertTrue(header, header.matches("extract;dur=[0-9]+\\.[0-9]{3}, verify;dur=[0-9]+\\.[0-9]{3}, "
+			+ "total;dur=[0-9]+\\.[0-9]{3}"));
+
+		metrics.recordPhases(timings);
+		assertEquals(1, metrics.getPhaseLatency(RequestTimings.Phase.EXTRACT).snapshot().getTotalCount());
+		assertEquals(1, metrics.getPhaseLatency(RequestTimings.Phase.VERIFY).snapshot().getTotalCount());
+		assertEquals(0, metrics.getPhaseLatency(RequestTimings.Phase.DECODE).snapshot().getTotalCount());
+		assertTrue(metrics.getPhaseLatencyMillis().get("verify.max") >= 2.0);
+
+		metrics.reset();
+		assertEquals(0, metrics.getPhaseLatency(RequestTimings.Phase.VERIFY).snapshot().getTotalCount());
+	}
+
+	@Test
+	public void shouldWriteTimingsAsJson() {
+		RequestTimings timings = new RequestTimings();
+		timings.mark(RequestTimings.Phase.CHECK);
+		metrics.recordPhases(timings);
+
+		StringBuilder out = new StringBuilder();
+		TimingsServlet.write(metrics, out);
+		String json = out.toString();
+
+		assertTrue(json, json.startsWith("{\"extract\":{\"count\":0,\"p50\":0.0,"));
+		assertTrue(json, json.contains("\"check\":{\"count\":1,\"p50\":"));
+		assertTrue(json, json.endsWith(",\"max\":0.0}}"));
+		assertTrue(json, json.matches("\\{(\"[a-z]+\":\\{(\"[a-z0-9]+\":[0-9.E]+,?)+},?)+}"));
+	}
+
+	@Test
+	public void shouldRegisterMBean() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+
+		metrics.init();
+		metrics.recordRequest(Metrics.Outcome.FORBIDDEN, System.nanoTime());
+		assertTrue(server.isRegistered(name));
+		assertTrue(server.getAttribute(name, "RequestCounts") != null);
+
+		// a second deployment takes over the name
+		Metrics other = new Metrics();
+		other.init();
+		assertTrue(server.isRegistered(name));
+		other.destroy();
+		assertFalse(server.isRegistered(name));
+	}
+}
@@ -0,0 +1,168 @@
+package test.com.wirelust.cfmock.web.metrics;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.CFPolicy;
+import com.wirelust.cfmock.SignedRequest;
+import com.wirelust.cfmock.web.metrics.Metrics;
+import com.wirelust.cfmock.web.metrics.RequestTimings;
+import com.wirelust.cfmock.web.metrics.SlowRequest;
+import com.wirelust.cfmock.web.metrics.SlowRequestLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class SlowRequestLogTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRequireASlot() {
+		new SlowRequestLog(0, 0);
+	}
+
+	@Test
+	public void shouldOnlyCaptureAboveThreshold() {
+		SlowRequestLog log = new SlowRequestLog(4, TimeUnit.MILLISECONDS.toNanos(5));
+		assertFalse(log.isSlow(TimeUnit.MILLISECONDS.toNanos(4)));
+		assertTrue(log.isSlow(TimeUnit.MILLISECONDS.toNanos(5)));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(5), log.getThresholdNanos());
+		assertEquals(4, log.getSize());
+	}
+
+	@Test
+	public void shouldKeepMostRecentSlowestFirst() {
+		SlowRequestLog log = new SlowRequestLog(3, 0);
+		for (int i = 1; i <= 5; i++) {
+			log.capture(request("/" + i, TimeUnit.MILLISECONDS.toNanos(i == 4 ? 50 : i)));
+		}
+
+		List<SlowRequest> slowest = log.getSlowest();
+		assertEquals(3, slowest.size());
+		assertEquals("/4", slowest.get(0).getUrl());
+		assertEquals("/5", slowest.get(1).getUrl());
+		assertEquals("/3", slowest.get(2).getUrl());
+		assertEquals(5, log.getCaptured());
+
+		log.clear();
+		assertTrue(log.getSlowest().isEmpty());
+		assertEquals(0, log.getCaptured());
+	}
+
+	@Test
+	public void shouldWriteJson() throws Exception {
+		SlowRequest request = new SlowRequest(0, "GET", "http://localhost/a\"b\\c\u0001", null, "url", "canned",
+			"forbidden", 403, SlowRequest.NONE, timings(TimeUnit.MILLISECONDS.toNanos(2)));
+
+		StringBuilder out = new StringBuilder();
+		SlowRequestLog.write(Collections.singletonList(request), out);
+		String json = out.toString();
+
+		assertTrue(json, json.startsWith("[{\"time\":\"1970-01-01T00:00:00Z\",\"method\":\"GET\","
+			+ "\"url\":\"http://localhost/a\\\"b\\\\c\\u0001\",\"keyPairId\":null,\"signedBy\":\"url\","
+			+ "\"policy\":\"canned\",\"outcome\":\"forbidden\",\"status\":403,\"totalMillis\":"));
+		assertTrue(json, json.contains(",\"phases\":{\"extract\":"));
+		assertFalse(json, json.contains("\"decode\""));
+		assertFalse(json, json.contains("\"bytes\""));
+		assertTrue(json, json.endsWith("}}]"));
+
+		out.setLength(0);
+		SlowRequestLog.write(Collections.emptyList(), out);
+		assertEquals("[]", out.toString());
+	}
+
+	@Test
+	public void shouldCaptureThroughMetrics() throws Exception {
+		Metrics metrics = new Metrics();
+		RequestTimings timings = timings(TimeUnit.MILLISECONDS.toNanos(1));
+		SignedRequest signedRequest = new SignedRequest();
+		signedRequest.setUrl("http://localhost/content");
+
+		// nothing is captured without a log
+		metrics.captureIfSlow(timings, "GET", signedRequest, Metrics.Outcome.REPLAY_REJECTED, 403, SlowRequest.NONE);
+		assertEquals(0, metrics.getSlowRequestsCaptured());
+		assertEquals(0, metrics.dumpSlowRequests(new File(tempFolder.getRoot(), "none.json").getPath()));
+
+		metrics.setSlowRequestLog(new SlowRequestLog(10, TimeUnit.MILLISECONDS.toNanos(1)));
+		metrics.captureIfSlow(new RequestTimings(), "GET", signedRequest, Metrics.Outcome.ALLOWED, 200, 10);
+		assertEquals(0, metrics.getSlowRequestsCaptured());
+
+		metrics.captureIfSlow(timings, "GET", signedRequest, Metrics.Outcome.REPLAY_REJECTED, 403, SlowRequest.NONE);
+		signedRequest.setType(SignedRequest.Type.COOKIE);
+		signedRequest.setKeyId("key1");
+		signedRequest.setSignature("signature");
+		metrics.captureIfSlow(timings, "HEAD", signedRequest, Metrics.Outcome.FORBIDDEN, 403, SlowRequest.NONE);
+		signedRequest.setType(SignedRequest.Type.REQUEST);
+		signedRequest.setPolicy(new CFPolicy());
+		metrics.captureIfSlow(timings, "GET", signedRequest, Metrics.Outcome.ALLOWED, 200, 1234);
+		assertEquals(3, metrics.getSlowRequestsCaptured());
+
+		List<SlowRequest> slowest = metrics.getSlowRequestLog().getSlowest();
+		SlowRequest replay = find(slowest, "replay_rejected");
+		assertEquals("cookie", replay.getSignedBy());
+		assertNull(replay.getPolicy());
+		assertNull(replay.getKeyPairId());
+		SlowRequest cookie = find(slowest, "forbidden");
+		assertEquals("cookie", cookie.getSignedBy());
+		assertEquals("canned", cookie.getPolicy());
+		assertEquals("key1", cookie.getKeyPairId());
+		assertEquals("HEAD", cookie.getMethod());
+		SlowRequest allowed = find(slowest, "allowed");
+		assertEquals("url", allowed.getSignedBy());
+		assertEquals("custom", allowed.getPolicy());
+		assertEquals(1234, allowed.getBytes());
+		assertEquals(200, allowed.getStatus());
+		assertEquals(SlowRequest.NONE, allowed.getPhaseNanos(RequestTimings.Phase.CONTENT));
+		assertTrue(allowed.getPhaseNanos(RequestTimings.Phase.EXTRACT) >= TimeUnit.MILLISECONDS.toNanos(1));
+		assertTrue(allowed.toString().contains("url=http://localhost/content"));
+
+		File dump = new File(tempFolder.getRoot(), "slow.json");
+		assertEquals(3, metrics.dumpSlowRequests(dump.getPath()));
+		String json = new String(Files.readAllBytes(dump.toPath()), StandardCharsets.UTF_8);
+		assertTrue(json, json.contains("\"outcome\":\"replay_rejected\""));
+		assertTrue(json, json.contains("\"bytes\":1234"));
+
+		metrics.reset();
+		assertEquals(0, metrics.getSlowRequestsCaptured());
+		assertTrue(metrics.getSlowRequestLog().getSlowest().isEmpty());
+	}
+
+	private static SlowRequest find(final List<SlowRequest> requests, final String outcome) {
+		for (SlowRequest request : requests) {
+			if (request.getOutcome().equals(outcome)) {
+				return request;
+			}
+		}
+		throw new AssertionError("no request with outcome " + outcome);
+	}
+
+	private static SlowRequest request(final String url, final long totalNanos) {
+		return new SlowRequest(System.currentTimeMillis(), "GET", url, "key1", "url", "canned", "allowed", 200, 0,
+			timings(totalNanos));
+	}
+
+	/**
+	 * @return timings with the extract phase taking at least the time given
+	 */
+	private static RequestTimings timings(final long nanos) {
+		RequestTimings timings = new RequestTimings(System.nanoTime() - nanos);
+		timings.mark(RequestTimings.Phase.EXTRACT);
+		return timings;
+	}
+}
@@ -0,0 +1,190 @@
+package test.com.wirelust.cfmock.web.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import com.wirelust.cfmock.web.servlet.AsyncFileWriter;
+import com.wirelust.cfmock.web.servlet.BufferPool;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncFileWriterTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Mock
+	AsyncContext asyncContext;
+
+	TestOutput output;
+	BufferPool pool;
+	FileChannel channel;
+	List<Throwable> completions;
+
+	@Before
+	public void init() throws Exception {
+		File file = tempFolder.newFile("chapter_001.txt");
+		Files.write(file.toPath(), "Call me Ishmael.".getBytes(StandardCharsets.UTF_8));
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		output = new TestOutput();
+		pool = new BufferPool(4, 1);
+		completions = new ArrayList<>();
+	}
+
+	@Test
+	public void shouldWriteRangeInChunks() throws Exception {
+		AsyncFileWriter writer = writer(5, 10);
+		writer.start();
+		verify(asyncContext).addListener(writer);
+		assertSame(writer, output.listener);
+
+		output.listener.onWritePossible();
+		assertEquals("me Ishmael", output.toString());
+		assertEquals(3, output.writes);
+		assertEquals(1, completions.size());
+		assertNull(completions.get(0));
+		assertFalse(channel.isOpen());
+		verify(asyncContext).complete();
+		assertEquals(1, pool.getPooled());
+	}
+
+	@Test
+	public void shouldStopWhenOutputIsNotReady() throws Exception {
+		AsyncFileWriter writer = writer(0, 16);
+		writer.start();
+
+		// the container takes one chunk at a time
+		output.readyWrites = 1;
+		output.listener.onWritePossible();
+		assertEquals("Call", output.toString());
+		assertTrue(completions.isEmpty());
+
+		output.readyWrites = 1;
+		output.listener.onWritePossible();
+		assertEquals("Call me ", output.toString());
+		assertTrue(completions.isEmpty());
+		verify(asyncContext, never()).complete();
+
+		output.readyWrites = Integer.MAX_VALUE;
+		output.listener.onWritePossible();
+		assertEquals("Call me Ishmael.", output.toString());
+		assertEquals(1, completions.size());
+		verify(asyncContext).complete();
+	}
+
+	@Test
+	public void shouldFailWhenFileIsShorterThanRange() throws Exception {
+		writer(10, 10).start();
+		output.listener.onWritePossible();
+
+		assertEquals("hmael.", output.toString());
+		assertEquals(1, completions.size());
+		assertTrue(completions.get(0) instanceof EOFException);
+		assertFalse(channel.isOpen());
+		verify(asyncContext).complete();
+		// the container may still hold the last chunk
+		assertEquals(0, pool.getPooled());
+	}
+
+	@Test
+	public void shouldFinishOnce() throws Exception {
+		AsyncFileWriter writer = writer(0, 16);
+		writer.start();
+
+		IOException error = new IOException("connection reset");
+		writer.onError(error);
+		writer.onError(new IOException("again"));
+		writer.onComplete(null);
+		output.listener.onWritePossible();
+
+		assertEquals(1, completions.size());
+		assertSame(error, completions.get(0));
+		assertEquals("", output.toString());
+		assertFalse(channel.isOpen());
+		verify(asyncContext, times(1)).complete();
+	}
+
+	@Test
+	public void shouldFailWhenCompletedEarly() {
+		AsyncFileWriter writer = writer(0, 16);
+		writer.start();
+		writer.onComplete(null);
+
+		assertEquals(1, completions.size());
+		assertTrue(completions.get(0) instanceof EOFException);
+		verify(asyncContext, never()).complete();
+	}
+
+	private AsyncFileWriter writer(long position, long length) {
+		return new AsyncFileWriter(asyncContext, output, channel, position, length, pool, completions::add);
+	}
+
+	/**
+	 * Collects what is written and is ready for a set number of writes.
+	 */
+	static class TestOutput extends ServletOutputStream {
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		WriteListener listener;
+		int readyWrites = Integer.MAX_VALUE;
+		int writes;
+
+		@Override
+		public boolean isReady() {
+			return readyWrites > 0;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			listener = writeListener;
+		}
+
+		@Override
+		public void write(int b) {
+			bytes.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			bytes.write(b, off, len);
+			writes++;
+			readyWrites--;
+		}
+
+		@Override
+		public String toString() {
+			return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package test.com.wirelust.cfmock.web.servlet;
+
+import java.nio.ByteBuffer;
+
+import com.wirelust.cfmock.web.servlet.BufferPool;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class BufferPoolTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRequireBufferSize() {
+		new BufferPool(0, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldNotAcceptNegativeMaxPooled() {
+		new BufferPool(1, -1);
+	}
+
+	@Test
+	public void shouldReuseReleasedBuffers() {
+		BufferPool pool = new BufferPool(16, 2);
+		ByteBuffer buffer = pool.acquire();
+		assertEquals(16, buffer.capacity());
+		assertEquals(0, pool.getPooled());
+
+		buffer.put((byte)1).flip();
+		pool.release(buffer);
+		assertEquals(1, pool.getPooled());
+
+		ByteBuffer reused = pool.acquire();
+		assertSame(buffer, reused);
+		assertEquals(0, reused.position());
+		assertEquals(16, reused.limit());
+		assertEquals(0, pool.getPooled());
+		assertNotSame(reused, pool.acquire());
+	}
+
+	@Test
+	public void shouldKeepAtMostMaxPooled() {
+		BufferPool pool = new BufferPool(16, 2);
+		ByteBuffer first = pool.acquire();
+		ByteBuffer second = pool.acquire();
+		ByteBuffer third = pool.acquire();
+
+		pool.release(first);
+		pool.release(second);
+		pool.release(third);
+		assertEquals(2, pool.getPooled());
+	}
+
+	@Test
+	public void shouldIgnoreForeignBuffers() {
+		BufferPool pool = new BufferPool(16, 2);
+		pool.release(null);
+		pool.release(ByteBuffer.allocate(8));
+		pool.release(ByteBuffer.allocateDirect(16));
+		assertEquals(0, pool.getPooled());
+	}
+}
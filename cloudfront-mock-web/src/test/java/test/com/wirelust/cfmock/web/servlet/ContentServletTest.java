@@ -10,6 +10,7 @@ import javax.ws.rs.core.Response;
 import com.amazonaws.services.cloudfront.CloudFrontCookieSigner;
 import com.amazonaws.services.cloudfront.CloudFrontUrlSigner;
 import com.wirelust.cfmock.web.services.Configuration;
+import com.wirelust.cfmock.web.servlet.ContentServlet;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpEntity;
@@ -22,6 +23,7 @@ import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.cookie.BasicClientCookie;
+import org.apache.http.util.EntityUtils;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
@@ -115,6 +117,7 @@ public class ContentServletTest {
 
 		configuration.setSetting("root", "/");
 		configuration.setSetting("root.inwar", "true");
+		configuration.setSetting(ContentServlet.SETTING_ASYNC_CONTENT, "false");
 	}
 
 	@Test
@@ -176,6 +179,22 @@ public class ContentServletTest {
 		assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatusLine().getStatusCode());
 	}
 
+	@Test
+	public void shouldRejectReplayedSignedUrlWithSameStatus() throws Exception {
+
+		String url = ROOT_URL + "/web/content/moby-dick/OPS/toc.xhtml";
+
+		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
+			null, keyFile, url, KEY_PAIR_ID_2, expiresDate);
+
+		for (int i = 0; i < 3; i++) {
+			HttpGet get = new HttpGet(signedUrl);
+			HttpResponse response = client.execute(get);
+			EntityUtils.consume(response.getEntity());
+			assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatusLine().getStatusCode());
+		}
+	}
+
 	@Test
 	public void shouldNotBeAbleToAccessSignedUrlWithoutContent() throws Exception {
 		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
@@ -265,6 +284,167 @@ public class ContentServletTest {
 	}
 
 
+	@Test
+	public void shouldRejectPolicyCookieNotSignedBySignature() throws Exception {
+
+		String url = ROOT_URL + "/web/content/moby-dick/OPS/toc.xhtml";
+
+		HttpGet get = new HttpGet(url);
+
+		CloudFrontCookieSigner.CookiesForCustomPolicy signedCookies =
+			CloudFrontCookieSigner.getCookiesForCustomPolicy(null, null, keyFile,
+				"http*://*/web/content2/*", KEY_PAIR_ID_1, expiresDate, new Date(), null);
+		CloudFrontCookieSigner.CookiesForCustomPolicy swappedCookies =
+			CloudFrontCookieSigner.getCookiesForCustomPolicy(null, null, keyFile,
+				"http*://*/web/content/*", KEY_PAIR_ID_1, expiresDate, new Date(), null);
+
+		// a policy that would allow the request, with the signature of one that doesn't
+		addToCookieStore(cookieStore, signedCookies);
+		cookieStore.addCookie(getCookie(swappedCookies.getPolicy()));
+
+		HttpResponse response = client.execute(get);
+		assertEquals(Response.Status.FORBIDDEN.getStatusCode(), response.getStatusLine().getStatusCode());
+	}
+
+	@Test
+	public void shouldServeMetricsWithoutSignature() throws Exception {
+
+		String url = ROOT_URL + "/web/content/moby-dick/OPS/toc.xhtml";
+
+		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
+			null, keyFile, url, KEY_PAIR_ID_1, expiresDate);
+
+		HttpResponse response = client.execute(new HttpGet(signedUrl));
+		EntityUtils.consume(response.getEntity());
+		assertEquals(Response.Status.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+
+		response = client.execute(new HttpGet(ROOT_URL + "/_cfmock/metrics"));
+		assertEquals(Response.Status.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+		assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith("text/plain"));
+
+		String metrics = IOUtils.toString(response.getEntity().getContent(), DEFAULT_CHARSET);
+		assertTrue(metrics, metrics.matches("(?s).*cfmock_requests_total\\{outcome=\"allowed\"} [1-9].*"));
+		assertTrue(metrics, metrics.matches("(?s).*cfmock_content_responses_total\\{status=\"2xx\"} [1-9].*"));
+		assertTrue(metrics, metrics.contains("cfmock_validation_seconds{quantile=\"0.99\"} "));
+	}
+
+	@Test
+	public void shouldReportPhaseTimings() throws Exception {
+
+		String url = ROOT_URL + "/web/content/moby-dick/OPS/toc.xhtml";
+
+		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCustomPolicy(null,
+			null, keyFile, url, KEY_PAIR_ID_1, expiresDate, null, null);
+
+		HttpResponse response = client.execute(new HttpGet(signedUrl));
+		EntityUtils.consume(response.getEntity());
+		assertEquals(Response.Status.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+
+		// the test configuration puts the header on every request
+		String serverTiming = response.getFirstHeader("Server-Timing").getValue();
+		assertTrue(serverTiming, serverTiming.matches("extract;dur=[0-9.]+, decode;dur=[0-9.]+, check;dur=[0-9.]+, "
+			+ "verify;dur=[0-9.]+, total;dur=[0-9.]+"));
+
+		response = client.execute(new HttpGet(ROOT_URL + "/_cfmock/timings"));
+		assertEquals(Response.Status.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+		assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith("application/json"));
+
+		String timings = IOUtils.toString(response.getEntity().getContent(), DEFAULT_CHARSET);
+		assertTrue(timings, timings.matches("(?s).*\"decode\":\\{\"count\":[1-9].*"));
+		assertTrue(timings, timings.matches("(?s).*\"content\":\\{\"count\":[1-9].*"));
+	}
+
+	@Test
+	public void shouldCaptureSlowRequests() throws Exception {
+
+		String url = ROOT_URL + "/web/content/moby-dick/OPS/toc.xhtml?capture=slow";
+
+		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
+			null, keyFile, url, KEY_PAIR_ID_1, expiresDate);
+
+		HttpResponse response = client.execute(new HttpGet(signedUrl));
+		EntityUtils.consume(response.getEntity());
+		assertEquals(Response.Status.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+
+		// the test configuration captures every request
+		response = client.execute(new HttpGet(ROOT_URL + "/_cfmock/slow-requests"));
+		assertEquals(Response.Status.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+		assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith("application/json"));
+
+		String slowRequests = IOUtils.toString(response.getEntity().getContent(), DEFAULT_CHARSET);
+		assertTrue(slowRequests, slowRequests.contains("\"url\":\"" + url + "\",\"keyPairId\":\"key1\","
+			+ "\"signedBy\":\"url\",\"policy\":\"canned\",\"outcome\":\"allowed\",\"status\":200,\"bytes\":"));
+	}
+
+	@Test
+	public void shouldWriteAccessLog() throws Exception {
+
+		String url = ROOT_URL + "/web/content/moby-dick/OPS/toc.xhtml";
+
+		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
+			null, keyFile, url, KEY_PAIR_ID_1, expiresDate);
+
+		HttpResponse response = client.execute(new HttpGet(signedUrl));
+		EntityUtils.consume(response.getEntity());
+		assertEquals(Response.Status.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+
+		// the test configuration turns the access log on, records are written by a background thread
+		String written = "(?s).*cfmock_access_log_records_total\\{result=\"written\"} [1-9].*";
+		String metrics = "";
+		for (int i = 0; i < 50 && !metrics.matches(written); i++) {
+			Thread.sleep(100);
+			response = client.execute(new HttpGet(ROOT_URL + "/_cfmock/metrics"));
+			metrics = IOUtils.toString(response.getEntity().getContent(), DEFAULT_CHARSET);
+		}
+		assertTrue(metrics, metrics.matches(written));
+		assertTrue(metrics, metrics.contains("cfmock_access_log_records_total{result=\"dropped\"} 0\n"));
+	}
+
+	@Test
+	public void shouldServeContentAsynchronously() throws Exception {
+
+		String url = ROOT_URL + "/web/content/moby-dick/OPS/toc.xhtml";
+
+		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
+			null, keyFile, url, KEY_PAIR_ID_1, expiresDate);
+
+		HttpResponse response = client.execute(new HttpGet(signedUrl));
+		assertEquals(Response.Status.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+		String blockingContent = IOUtils.toString(response.getEntity().getContent(), DEFAULT_CHARSET);
+		String eTag = response.getFirstHeader("ETag").getValue();
+		String contentType = response.getFirstHeader("Content-Type").getValue();
+
+		configuration.setSetting(ContentServlet.SETTING_ASYNC_CONTENT, "true");
+
+		response = client.execute(new HttpGet(signedUrl));
+		assertEquals(Response.Status.OK.getStatusCode(), response.getStatusLine().getStatusCode());
+		assertEquals(blockingContent, IOUtils.toString(response.getEntity().getContent(), DEFAULT_CHARSET));
+		assertEquals(eTag, response.getFirstHeader("ETag").getValue());
+		assertEquals(contentType, response.getFirstHeader("Content-Type").getValue());
+
+		HttpGet get = new HttpGet(signedUrl);
+		get.setHeader("Range", "bytes=10-19");
+		response = client.execute(get);
+		assertEquals(Response.Status.PARTIAL_CONTENT.getStatusCode(), response.getStatusLine().getStatusCode());
+		assertEquals(blockingContent.substring(10, 20),
+			IOUtils.toString(response.getEntity().getContent(), DEFAULT_CHARSET));
+
+		get = new HttpGet(signedUrl);
+		get.setHeader("Range", "bytes=0-3,10-19");
+		response = client.execute(get);
+		assertEquals(Response.Status.PARTIAL_CONTENT.getStatusCode(), response.getStatusLine().getStatusCode());
+		assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith("multipart/byteranges"));
+		String multipart = IOUtils.toString(response.getEntity().getContent(), DEFAULT_CHARSET);
+		assertTrue(multipart, multipart.contains(blockingContent.substring(0, 4)));
+		assertTrue(multipart, multipart.contains(blockingContent.substring(10, 20)));
+
+		get = new HttpGet(signedUrl);
+		get.setHeader("If-None-Match", eTag);
+		response = client.execute(get);
+		EntityUtils.consume(response.getEntity());
+		assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatusLine().getStatusCode());
+	}
+
 	private void addToCookieStore(CookieStore cookieStore, CloudFrontCookieSigner.SignedCookies signedCookies) {
 		ClientCookie signatureCookie = getCookie(signedCookies.getSignature());
 		cookieStore.addCookie(signatureCookie);
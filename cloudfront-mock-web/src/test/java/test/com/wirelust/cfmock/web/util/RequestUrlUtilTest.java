@@ -0,0 +1,47 @@
+package test.com.wirelust.cfmock.web.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+
+import com.wirelust.cfmock.web.util.RequestUrlUtil;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class RequestUrlUtilTest {
+
+	private static final String URL = "http://localhost/content/chapter_001.xhtml";
+
+	/**
+	 * This method simply instantiates a private constructor to ensure code coverage for it so the
+	 * coverage reports aren't diminished
+	 */
+	@Test
+	public void testConstructorIsPrivate() throws Exception {
+		Constructor<RequestUrlUtil> constructor = RequestUrlUtil.class.getDeclaredConstructor();
+		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void shouldReturnUrlWithoutQuery() {
+		assertEquals(URL, RequestUrlUtil.getSignedUrl(URL, null));
+		assertEquals(URL, RequestUrlUtil.getSignedUrl(URL, ""));
+	}
+
+	@Test
+	public void shouldRemoveSigningParameters() {
+		assertEquals(URL, RequestUrlUtil.getSignedUrl(URL,
+			"Expires=1466966700&Signature=abc~&Key-Pair-Id=key1"));
+		assertEquals(URL, RequestUrlUtil.getSignedUrl(URL, "Policy=eyJ9&Signature=abc~&Key%2DPair%2DId=key1"));
+		assertEquals(URL + "?a=1&b=%20", RequestUrlUtil.getSignedUrl(URL,
+			"a=1&Expires=1466966700&b=%20&Signature=abc~&Key-Pair-Id=key1"));
+	}
+}
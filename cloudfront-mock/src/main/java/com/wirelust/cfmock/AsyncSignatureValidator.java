@@ -0,0 +1,41 @@
+package com.wirelust.cfmock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Validates signed requests on an executor so the calling thread is not held up by the RSA verification. This lets
+ * async servlets and other non blocking servers hand validation off their I/O threads.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class AsyncSignatureValidator {
+
+	private final Executor executor;
+
+	/**
+	 * @param executor runs the validations, the caller owns it and is responsible for shutting it down
+	 */
+	public AsyncSignatureValidator(final Executor executor) {
+		if (executor == null) {
+			throw new IllegalArgumentException("executor may not be null");
+		}
+		this.executor = executor;
+	}
+
+	/**
+	 * @param signedRequest the request, it must not be modified until the returned future completes
+	 * @return a future completed with the result on the executor. a request that can't be validated completes the
+	 * future normally with an error result
+	 * @throws java.util.concurrent.RejectedExecutionException if the executor turns the validation away
+	 */
+	public CompletableFuture<ValidationResult> validate(final SignedRequest signedRequest) {
+		return CompletableFuture.supplyAsync(() -> SignatureValidator.validate(signedRequest), executor);
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+}
@@ -0,0 +1,128 @@
+package com.wirelust.cfmock;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.List;
+
+import com.amazonaws.auth.PEM;
+import com.amazonaws.auth.PEMObject;
+import com.amazonaws.auth.RSA;
+import com.wirelust.cfmock.exceptions.CFMockException;
+
+/**
+ * A CloudFront key pair with its keys already parsed. Instances are immutable and safe to share between threads.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class CFKeyPair {
+
+	private static final String KEY_ALGORITHM = "RSA";
+
+	private final String id;
+	private final PublicKey publicKey;
+	private final PrivateKey privateKey;
+	private final File file;
+	private final long lastModified;
+
+	public CFKeyPair(final String id, final PublicKey publicKey, final PrivateKey privateKey) {
+		this(id, publicKey, privateKey, null, 0);
+	}
+
+	private CFKeyPair(final String id, final PublicKey publicKey, final PrivateKey privateKey, final File file,
+					  final long lastModified) {
+		if (publicKey == null) {
+			throw new CFMockException("public key is required for key pair:" + id);
+		}
+		this.id = id;
+		this.publicKey = publicKey;
+		this.privateKey = privateKey;
+		this.file = file;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Loads a key pair from a pem file. The file may either contain the private key, in which case the public key
+	 * is derived from it, or only the public key which is all that is needed to validate signatures.
+	 *
+	 * @param id the key pair id
+	 * @param keyFile pem key file
+	 * @return the parsed key pair
+	 */
+	public static CFKeyPair load(final String id, final File keyFile) {
+		long lastModified = keyFile.lastModified();
+		try (InputStream inputStream = new FileInputStream(keyFile)) {
+			List<PEMObject> pemObjects = PEM.readPEMObjects(inputStream);
+			for (PEMObject pemObject : pemObjects) {
+				PrivateKey privateKey;
+				switch (pemObject.getPEMObjectType()) {
+					case PRIVATE_KEY_PKCS1:
+						privateKey = RSA.privateKeyFromPKCS1(pemObject.getDerBytes());
+						return new CFKeyPair(id, toPublicKey(privateKey), privateKey, keyFile, lastModified);
+					case PRIVATE_KEY_PKCS8:
+						privateKey = RSA.privateKeyFromPKCS8(pemObject.getDerBytes());
+						return new CFKeyPair(id, toPublicKey(privateKey), privateKey, keyFile, lastModified);
+					case PUBLIC_KEY_X509:
+						return new CFKeyPair(id, RSA.publicKeyFrom(pemObject.getDerBytes()), null, keyFile,
+							lastModified);
+					default:
+						break;
+				}
+			}
+		} catch (IOException | GeneralSecurityException e) {
+			throw new CFMockException("unable to load key:" + keyFile.getAbsolutePath(), e);
+		}
+		throw new CFMockException("no RSA key found in:" + keyFile.getAbsolutePath());
+	}
+
+	public static PublicKey toPublicKey(final PrivateKey privateKey) {
+		if (!(privateKey instanceof RSAPrivateCrtKey)) {
+			throw new CFMockException("unable to derive public key from:" + privateKey.getAlgorithm());
+		}
+		RSAPrivateCrtKey crtKey = (RSAPrivateCrtKey)privateKey;
+		try {
+			return KeyFactory.getInstance(KEY_ALGORITHM)
+				.generatePublic(new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent()));
+		} catch (GeneralSecurityException e) {
+			throw new CFMockException("unable to derive public key", e);
+		}
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public PublicKey getPublicKey() {
+		return publicKey;
+	}
+
+	/**
+	 * @return the private key or null when the key pair was loaded from a public key
+	 */
+	public PrivateKey getPrivateKey() {
+		return privateKey;
+	}
+
+	/**
+	 * @return the file the key pair was loaded from or null if it was not loaded from a file
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return modification time of the key file when it was loaded
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+}
@@ -1,6 +1,7 @@
 package com.wirelust.cfmock;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import javax.validation.constraints.Pattern;
 
 /**
@@ -10,11 +11,14 @@ import javax.validation.constraints.Pattern;
  */
 public class CFPolicyStatement {
 
+	public static final String IP_ADDRESS_PATTERN =
+		"((\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})|[0-9a-fA-F.]*:[0-9a-fA-F:.]*)/(\\d{1,3})";
+
 	String resource;
-	Date dateLessThan;
-	Date dateGreaterThan;
+	long dateLessThan = Constants.NO_EPOCH_TIME;
+	long dateGreaterThan = Constants.NO_EPOCH_TIME;
 
-	@Pattern(regexp = "(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})/(\\d{1,3})")
+	@Pattern(regexp = IP_ADDRESS_PATTERN)
 	String ipAddress;
 
 	public String getResource() {
@@ -25,22 +29,44 @@ public class CFPolicyStatement {
 		this.resource = resource;
 	}
 
-	public Date getDateLessThan() {
+	/**
+	 * @return the time in epoch seconds the statement expires, {@link Constants#NO_EPOCH_TIME} if it has no expiry
+	 */
+	public long getDateLessThanEpochSeconds() {
 		return dateLessThan;
 	}
 
-	public void setDateLessThan(Date dateLessThan) {
+	public void setDateLessThanEpochSeconds(long dateLessThan) {
 		this.dateLessThan = dateLessThan;
 	}
 
-	public Date getDateGreaterThan() {
+	/**
+	 * @return the time in epoch seconds the statement is valid from, {@link Constants#NO_EPOCH_TIME} if it has none
+	 */
+	public long getDateGreaterThanEpochSeconds() {
 		return dateGreaterThan;
 	}
 
-	public void setDateGreaterThan(Date dateGreaterThan) {
+	public void setDateGreaterThanEpochSeconds(long dateGreaterThan) {
 		this.dateGreaterThan = dateGreaterThan;
 	}
 
+	public Date getDateLessThan() {
+		return toDate(dateLessThan);
+	}
+
+	public void setDateLessThan(Date dateLessThan) {
+		this.dateLessThan = toEpochSeconds(dateLessThan);
+	}
+
+	public Date getDateGreaterThan() {
+		return toDate(dateGreaterThan);
+	}
+
+	public void setDateGreaterThan(Date dateGreaterThan) {
+		this.dateGreaterThan = toEpochSeconds(dateGreaterThan);
+	}
+
 	public String getIpAddress() {
 		return ipAddress;
 	}
@@ -48,4 +74,15 @@ public class CFPolicyStatement {
 	public void setIpAddress(String ipAddress) {
 		this.ipAddress = ipAddress;
 	}
+
+	static Date toDate(final long epochSeconds) {
+		return epochSeconds == Constants.NO_EPOCH_TIME ? null : new Date(TimeUnit.SECONDS.toMillis(epochSeconds));
+	}
+
+	/**
+	 * Policies only hold whole seconds, the date is truncated the same way the AWS SDK truncates it when signing.
+	 */
+	static long toEpochSeconds(final Date date) {
+		return date == null ? Constants.NO_EPOCH_TIME : TimeUnit.MILLISECONDS.toSeconds(date.getTime());
+	}
 }
@@ -0,0 +1,198 @@
+package com.wirelust.cfmock;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import javax.validation.constraints.NotNull;
+
+import com.amazonaws.services.cloudfront.util.SignerUtils;
+import com.wirelust.cfmock.exceptions.CFMockException;
+import com.wirelust.cfmock.util.CloudFrontBase64;
+
+/**
+ * Signs urls and cookies the same way CloudFront's signers do, for generating signed requests in tests and load
+ * tests.
+ *
+ * The key pair is parsed once, and each thread keeps its own {@link Signature} initialised with the private key so
+ * signing does not have to set one up every time. Signers are safe to share between threads.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class CFSigner {
+
+	private final CFKeyPair keyPair;
+	private final ThreadLocal<Signature> signatures;
+
+	/**
+	 * @param keyPair key pair to sign with, it must hold the private key
+	 */
+	public CFSigner(@NotNull final CFKeyPair keyPair) {
+		if (keyPair == null) {
+			throw new IllegalArgumentException("keyPair may not be null");
+		}
+		if (keyPair.getPrivateKey() == null) {
+			throw new CFMockException("private key is required to sign with key pair:" + keyPair.getId());
+		}
+		this.keyPair = keyPair;
+		this.signatures = ThreadLocal.withInitial(this::newSignature);
+	}
+
+	public CFKeyPair getKeyPair() {
+		return keyPair;
+	}
+
+	/**
+	 * @param policy policy bytes to sign
+	 * @return the CloudFront-safe base64 signature
+	 */
+	public String sign(final byte[] policy) {
+		return sign(policy, policy.length);
+	}
+
+	/**
+	 * Signs a url with a canned policy.
+	 *
+	 * @param url the url to sign
+	 * @param expires time in epoch seconds the url expires
+	 * @return the url with the Expires, Signature and Key-Pair-Id parameters added
+	 */
+	public String signUrl(final String url, final long expires) {
+		StringBuilder signedUrl = new StringBuilder(url.length() + 256).append(url)
+			.append(url.indexOf('?') >= 0 ? '&' : '?')
+			.append(SignatureValidator.PARAM_EXPIRES).append('=').append(expires);
+		return appendSignature(signedUrl, signCanned(url, expires)).toString();
+	}
+
+	/**
+	 * Signs a url with a custom policy.
+	 *
+	 * @param url the url to sign
+	 * @param statement the policy statement, its resource may use wildcards to match the url
+	 * @return the url with the Policy, Signature and Key-Pair-Id parameters added
+	 */
+	public String signUrl(final String url, final CFPolicyStatement statement) {
+		byte[] policy = buildCustomPolicy(statement);
+		StringBuilder signedUrl = new StringBuilder(url.length() + policy.length * 2 + 256).append(url)
+			.append(url.indexOf('?') >= 0 ? '&' : '?')
+			.append(SignatureValidator.PARAM_POLICY).append('=').append(CloudFrontBase64.encode(policy));
+		return appendSignature(signedUrl, sign(policy)).toString();
+	}
+
+	/**
+	 * @param url the url the cookies give access to
+	 * @param expires time in epoch seconds the cookies expire
+	 * @return the CloudFront-Expires, CloudFront-Signature and CloudFront-Key-Pair-Id cookie values by name
+	 */
+	public Map<String, String> signCookies(final String url, final long expires) {
+		Map<String, String> cookies = new LinkedHashMap<>();
+		cookies.put(SignatureValidator.COOKIE_EXPIRES, Long.toString(expires));
+		cookies.put(SignatureValidator.COOKIE_SIGNATURE, signCanned(url, expires));
+		cookies.put(SignatureValidator.COOKIE_KEY_PAIR_ID, keyPair.getId());
+		return cookies;
+	}
+
+	/**
+	 * @param statement the policy statement the cookies give access to
+	 * @return the CloudFront-Policy, CloudFront-Signature and CloudFront-Key-Pair-Id cookie values by name
+	 */
+	public Map<String, String> signCookies(final CFPolicyStatement statement) {
+		byte[] policy = buildCustomPolicy(statement);
+		Map<String, String> cookies = new LinkedHashMap<>();
+		cookies.put(SignatureValidator.COOKIE_POLICY, CloudFrontBase64.encode(policy));
+		cookies.put(SignatureValidator.COOKIE_SIGNATURE, sign(policy));
+		cookies.put(SignatureValidator.COOKIE_KEY_PAIR_ID, keyPair.getId());
+		return cookies;
+	}
+
+	/**
+	 * Signs a batch of urls with canned policies using every available processor.
+	 *
+	 * @see #signUrls(Collection, long, int)
+	 */
+	public List<String> signUrls(@NotNull final Collection<String> urls, final long expires) {
+		return signUrls(urls, expires, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Signs a batch of urls with canned policies in parallel.
+	 *
+	 * @param urls urls to sign
+	 * @param expires time in epoch seconds the urls expire
+	 * @param parallelism number of threads to sign with
+	 * @return the signed urls in the order the collection returned them
+	 */
+	public List<String> signUrls(@NotNull final Collection<String> urls, final long expires,
+								 final int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be at least 1");
+		}
+		String[] unsigned = urls.toArray(new String[urls.size()]);
+		String[] signed = new String[unsigned.length];
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.submit(() -> IntStream.range(0, unsigned.length).parallel()
+				.forEach(i -> signed[i] = signUrl(unsigned[i], expires))).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CFMockException("interrupted signing urls", e);
+		} catch (ExecutionException e) {
+			throw new CFMockException("unable to sign urls", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		return Arrays.asList(signed);
+	}
+
+	private String signCanned(final String url, final long expires) {
+		int length = CannedPolicy.length(url, expires);
+		byte[] policy = CannedPolicy.buffer(length);
+		CannedPolicy.write(url, expires, policy);
+		return sign(policy, length);
+	}
+
+	private String sign(final byte[] policy, final int length) {
+		Signature signature = signatures.get();
+		try {
+			// signing leaves the signature ready to sign again with the same key
+			signature.update(policy, 0, length);
+			return CloudFrontBase64.encode(signature.sign());
+		} catch (GeneralSecurityException e) {
+			signatures.remove();
+			throw new CFMockException("unable to sign policy", e);
+		}
+	}
+
+	private StringBuilder appendSignature(final StringBuilder url, final String signature) {
+		return url.append('&').append(SignatureValidator.PARAM_SIGNATURE).append('=').append(signature)
+			.append('&').append(SignatureValidator.PARAM_KEY_PAIR_ID).append('=').append(keyPair.getId());
+	}
+
+	private Signature newSignature() {
+		try {
+			Signature signature = Signature.getInstance(SignatureVerifier.SIGNATURE_ALGORITHM);
+			signature.initSign(keyPair.getPrivateKey());
+			return signature;
+		} catch (GeneralSecurityException e) {
+			throw new CFMockException("unable to initialise signature for key pair:" + keyPair.getId(), e);
+		}
+	}
+
+	private static byte[] buildCustomPolicy(final CFPolicyStatement statement) {
+		if (statement.getDateLessThanEpochSeconds() == Constants.NO_EPOCH_TIME) {
+			throw new CFMockException("dateLessThan is required to sign a policy");
+		}
+		return SignerUtils.buildCustomPolicy(statement.getResource(), statement.getDateLessThan(),
+			statement.getDateGreaterThan(), statement.getIpAddress()).getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,130 @@
+package com.wirelust.cfmock;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the canned policy a signature is checked against, byte for byte the same as SignerUtils.buildCannedPolicy
+ * builds it.
+ *
+ * The constant parts of the policy are encoded once, only the url and the expiry digits are written per request.
+ * Policies are normally written into a buffer kept per thread so checking a canned signature creates no garbage,
+ * unless the url contains characters outside of ascii.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+final class CannedPolicy {
+
+	private static final byte[] PREFIX = "{\"Statement\":[{\"Resource\":\"".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] CONDITION = "\",\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":"
+		.getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SUFFIX = "}}}]}".getBytes(StandardCharsets.UTF_8);
+
+	private static final int FIXED_LENGTH = PREFIX.length + CONDITION.length + SUFFIX.length;
+
+	private static final int INITIAL_BUFFER_SIZE = 1024;
+
+	// buffers are only kept up to this size so a thread that once saw a huge url doesn't hold on to it
+	private static final int MAX_BUFFER_SIZE = 16384;
+
+	private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+	private CannedPolicy() {
+		// static only class
+	}
+
+	/**
+	 * @return a new array holding the policy
+	 */
+	static byte[] build(final String url, final long expires) {
+		byte[] policy = new byte[length(url, expires)];
+		write(url, expires, policy);
+		return policy;
+	}
+
+	/**
+	 * @param length number of bytes needed
+	 * @return a buffer of at least the length, the same buffer is returned to the thread every time so it is only
+	 * valid until the thread asks for it again
+	 */
+	static byte[] buffer(final int length) {
+		byte[] buffer = BUFFER.get();
+		if (buffer.length >= length) {
+			return buffer;
+		}
+		buffer = new byte[Math.max(length, buffer.length * 2)];
+		if (buffer.length <= MAX_BUFFER_SIZE) {
+			BUFFER.set(buffer);
+		}
+		return buffer;
+	}
+
+	/**
+	 * @return the length of the policy in bytes
+	 */
+	static int length(final String url, final long expires) {
+		int urlLength = url.length();
+		for (int i = 0; i < url.length(); i++) {
+			if (url.charAt(i) >= 0x80) {
+				urlLength = url.getBytes(StandardCharsets.UTF_8).length;
+				break;
+			}
+		}
+		return FIXED_LENGTH + urlLength + digits(expires);
+	}
+
+	/**
+	 * @param buffer buffer at least {@link #length(String, long)} bytes long
+	 * @return the number of bytes written
+	 */
+	static int write(final String url, final long expires, final byte[] buffer) {
+		int position = copy(PREFIX, buffer, 0);
+		position = writeUrl(url, buffer, position);
+		position = copy(CONDITION, buffer, position);
+		position = writeDigits(expires, buffer, position);
+		return copy(SUFFIX, buffer, position);
+	}
+
+	private static int writeUrl(final String url, final byte[] buffer, final int start) {
+		int position = start;
+		for (int i = 0; i < url.length(); i++) {
+			char c = url.charAt(i);
+			if (c >= 0x80) {
+				// rare enough to leave encoding, including surrogate pairs and invalid characters, to the jdk
+				return copy(url.getBytes(StandardCharsets.UTF_8), buffer, start);
+			}
+			buffer[position++] = (byte)c;
+		}
+		return position;
+	}
+
+	private static int writeDigits(final long value, final byte[] buffer, final int start) {
+		if (value < 0) {
+			return copy(Long.toString(value).getBytes(StandardCharsets.US_ASCII), buffer, start);
+		}
+		int end = start + digits(value);
+		long remaining = value;
+		for (int position = end - 1; position >= start; position--) {
+			buffer[position] = (byte)('0' + remaining % 10);
+			remaining /= 10;
+		}
+		return end;
+	}
+
+	private static int digits(final long value) {
+		if (value < 0) {
+			return Long.toString(value).length();
+		}
+		int digits = 1;
+		for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+			digits++;
+		}
+		return digits;
+	}
+
+	private static int copy(final byte[] source, final byte[] buffer, final int position) {
+		System.arraycopy(source, 0, buffer, position, source.length);
+		return position + source.length;
+	}
+}
@@ -0,0 +1,243 @@
+package com.wirelust.cfmock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.amazonaws.services.cloudfront.util.SignerUtils;
+import com.wirelust.cfmock.exceptions.CFMockException;
+import com.wirelust.cfmock.util.CidrMatcher;
+import com.wirelust.cfmock.util.CompiledWildcard;
+import com.wirelust.cfmock.util.WildcardMatcher;
+
+/**
+ * A custom policy prepared for validating requests against. The resource matcher, ip range and dates of every
+ * statement are worked out once, along with the exact policy bytes the signature is checked against, so a policy
+ * that is used for many requests is only decoded and compiled once. Statements are indexed by their resource so
+ * policies with many statements are as quick to check as policies with one.
+ *
+ * Instances are immutable and safe to share between threads. They are created with
+ * {@link SignatureValidator#compilePolicy(CFPolicy, byte[])} which checks the policy is well formed.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class CompiledPolicy {
+
+	private final CFPolicy policy;
+	private final byte[] signedPolicy;
+	private final List<CompiledStatement> statements;
+	private final StatementIndex index;
+	private final long expiresAt;
+	private final long validFrom;
+
+	CompiledPolicy(final CFPolicy policy, final byte[] rawPolicy) {
+		this.policy = policy;
+
+		List<CompiledStatement> compiled = new ArrayList<>(policy.getStatements().size());
+		long latestExpiry = Long.MIN_VALUE;
+		long earliestStart = Long.MAX_VALUE;
+		for (CFPolicyStatement statement : policy.getStatements()) {
+			CompiledStatement compiledStatement = new CompiledStatement(statement);
+			compiled.add(compiledStatement);
+			latestExpiry = Math.max(latestExpiry, compiledStatement.dateLessThan);
+			earliestStart = Math.min(earliestStart, compiledStatement.dateGreaterThan);
+		}
+		this.statements = Collections.unmodifiableList(compiled);
+		this.index = new StatementIndex(compiled);
+		this.expiresAt = latestExpiry;
+		this.validFrom = earliestStart;
+
+		if (rawPolicy != null) {
+			this.signedPolicy = rawPolicy.clone();
+		} else if (policy.getStatements().size() == 1
+			&& policy.getStatements().get(0).getDateLessThanEpochSeconds() != Constants.NO_EPOCH_TIME) {
+			// without an expiry the statement can never validate, there is nothing to sign
+			CFPolicyStatement statement = policy.getStatements().get(0);
+			this.signedPolicy = SignerUtils.buildCustomPolicy(statement.getResource(), statement.getDateLessThan(),
+				statement.getDateGreaterThan(), statement.getIpAddress()).getBytes(StandardCharsets.UTF_8);
+		} else {
+			this.signedPolicy = null;
+		}
+	}
+
+	/**
+	 * @return the policy this was compiled from, it must not be modified
+	 */
+	public CFPolicy getPolicy() {
+		return policy;
+	}
+
+	public List<CompiledStatement> getStatements() {
+		return statements;
+	}
+
+	/**
+	 * @return the time in epoch seconds after which none of the statements are valid
+	 */
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
+	/**
+	 * @return the time in epoch seconds before which none of the statements are valid,
+	 * {@link Constants#NO_EPOCH_TIME} if a statement has no start time
+	 */
+	public long getValidFrom() {
+		return validFrom;
+	}
+
+	/**
+	 * @return true if every statement expired before the given time in epoch seconds
+	 */
+	public boolean isExpiredAt(final long time) {
+		return expiresAt < time;
+	}
+
+	/**
+	 * @return true if no statement is valid yet at the given time in epoch seconds
+	 */
+	public boolean isNotYetValidAt(final long time) {
+		return validFrom > time;
+	}
+
+	/**
+	 * Finds a statement that allows the request, only the statements whose resource could match the url are
+	 * checked.
+	 *
+	 * @param url the url requested
+	 * @param remoteIp the client address, null if it is not known
+	 * @param time the time in epoch seconds
+	 * @return a statement that is valid at the time and matches the url and address or null if there is none
+	 */
+	public CompiledStatement findStatement(final String url, final String remoteIp, final long time) {
+		return findStatement(url, remoteIp, 0, remoteIp == null ? 0 : remoteIp.length(), time);
+	}
+
+	/**
+	 * Finds a statement that allows the request with the client address found between start and end, such as an
+	 * address in a forwarded header.
+	 *
+	 * @see #findStatement(String, String, long)
+	 */
+	public CompiledStatement findStatement(final String url, final CharSequence remoteIp, final int start,
+										   final int end, final long time) {
+		return index.find(url, remoteIp, start, end, time);
+	}
+
+	/**
+	 * @return a copy of the policy bytes the signature is checked against
+	 */
+	public byte[] getSignedPolicy() {
+		return signedPolicy == null ? null : signedPolicy.clone();
+	}
+
+	/**
+	 * @return the number of policy bytes the signature is checked against, 0 if there are none
+	 */
+	public int getSignedPolicyLength() {
+		return signedPolicy == null ? 0 : signedPolicy.length;
+	}
+
+	/**
+	 * the policy bytes without copying them, callers must not modify them
+	 */
+	byte[] signedPolicy() {
+		return signedPolicy;
+	}
+
+	/**
+	 * A policy statement with its resource pattern, ip range and dates ready to check requests against.
+	 */
+	public static final class CompiledStatement {
+
+		private final CFPolicyStatement statement;
+		private final CompiledWildcard resourcePattern;
+		private final CidrMatcher subnet;
+		private final long dateLessThan;
+		private final long dateGreaterThan;
+
+		CompiledStatement(final CFPolicyStatement statement) {
+			this.statement = statement;
+
+			String resource = statement.getResource();
+			this.resourcePattern = resource == null ? null : WildcardMatcher.compile(resource);
+
+			String ipAddress = statement.getIpAddress();
+			if (ipAddress == null) {
+				this.subnet = null;
+			} else {
+				try {
+					this.subnet = CidrMatcher.compile(ipAddress);
+				} catch (IllegalArgumentException e) {
+					throw new CFMockException("invalid ipAddress:" + ipAddress, e);
+				}
+			}
+
+			this.dateLessThan = statement.getDateLessThanEpochSeconds();
+			this.dateGreaterThan = statement.getDateGreaterThanEpochSeconds();
+		}
+
+		/**
+		 * @return the statement this was compiled from, it must not be modified
+		 */
+		public CFPolicyStatement getStatement() {
+			return statement;
+		}
+
+		/**
+		 * @return true if the statement has no resource or the url matches it
+		 */
+		public boolean matchesResource(final String url) {
+			return resourcePattern == null || resourcePattern.matches(url);
+		}
+
+		/**
+		 * @return true if the statement has no ip range, the ip address is unknown or it is in the range
+		 */
+		public boolean matchesIpAddress(final String ipAddress) {
+			return subnet == null || ipAddress == null || subnet.matches(ipAddress);
+		}
+
+		/**
+		 * Matches the ip address found between start and end.
+		 *
+		 * @return true if the statement has no ip range, the ip address is unknown or it is in the range
+		 */
+		public boolean matchesIpAddress(final CharSequence ipAddress, final int start, final int end) {
+			return subnet == null || ipAddress == null || subnet.matches(ipAddress, start, end);
+		}
+
+		/**
+		 * @return true if the statement expired before the given time in epoch seconds
+		 */
+		public boolean isExpiredAt(final long time) {
+			return dateLessThan < time;
+		}
+
+		/**
+		 * @return true if the statement only becomes valid after the given time in epoch seconds
+		 */
+		public boolean isNotYetValidAt(final long time) {
+			return dateGreaterThan > time;
+		}
+
+		/**
+		 * @return the time in epoch seconds the statement expires, {@link Constants#NO_EPOCH_TIME} if it has no
+		 * expiry
+		 */
+		public long getDateLessThan() {
+			return dateLessThan;
+		}
+
+		/**
+		 * @return the time in epoch seconds the statement is valid from, {@link Constants#NO_EPOCH_TIME} if it has
+		 * none
+		 */
+		public long getDateGreaterThan() {
+			return dateGreaterThan;
+		}
+	}
+}
@@ -12,6 +12,11 @@ public class Constants {
 	public static final String SIGNATURE_VALID_AT = "Signature is not valid until: %1$tm/%1$td/%1$tY %1$tH:%1$tM:%1$tS";
 	public static final String SIGNATURE_IS_EXPIRED = "Signature is expired";
 
+	/**
+	 * Stands in for a time in epoch seconds that was not given.
+	 */
+	public static final long NO_EPOCH_TIME = Long.MIN_VALUE;
+
 	private Constants() {
 		// static only class
 	}
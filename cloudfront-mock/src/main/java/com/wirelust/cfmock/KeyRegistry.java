@@ -0,0 +1,133 @@
+package com.wirelust.cfmock;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.wirelust.cfmock.exceptions.CFMockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the key pairs that signatures can be validated against, keyed by key pair id.
+ *
+ * Keys are parsed once when they are registered so looking one up on a request is a map lookup. The keys are kept
+ * in an immutable snapshot that is replaced as a whole when keys change, readers never take a lock and always see
+ * a consistent set of keys.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class KeyRegistry {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(KeyRegistry.class);
+
+	private volatile Map<String, CFKeyPair> keys = Collections.emptyMap();
+
+	/**
+	 * Parses the key file and registers it under the given id, replacing any key already registered with it.
+	 *
+	 * @param keyId key pair id
+	 * @param keyFile pem key file
+	 * @return the registered key pair
+	 */
+	public CFKeyPair register(final String keyId, final File keyFile) {
+		CFKeyPair keyPair = CFKeyPair.load(keyId, keyFile);
+		register(keyPair);
+		return keyPair;
+	}
+
+	public synchronized void register(final CFKeyPair keyPair) {
+		Map<String, CFKeyPair> snapshot = new HashMap<>(keys);
+		snapshot.put(keyPair.getId(), keyPair);
+		keys = Collections.unmodifiableMap(snapshot);
+	}
+
+	public synchronized CFKeyPair remove(final String keyId) {
+		if (keyId == null || !keys.containsKey(keyId)) {
+			return null;
+		}
+		Map<String, CFKeyPair> snapshot = new HashMap<>(keys);
+		CFKeyPair removed = snapshot.remove(keyId);
+		keys = Collections.unmodifiableMap(snapshot);
+		return removed;
+	}
+
+	/**
+	 * Replaces the registered keys with the given key files. Files that have not been modified since they were
+	 * loaded are not parsed again. When a file can't be parsed, for example because it is being written, the
+	 * previously loaded key for that id is kept.
+	 *
+	 * @param keyFiles key files by key pair id
+	 * @return true if the registered keys changed
+	 */
+	public synchronized boolean reload(final Map<String, File> keyFiles) {
+		Map<String, CFKeyPair> current = keys;
+		Map<String, CFKeyPair> snapshot = new HashMap<>();
+		boolean changed = false;
+
+		for (Map.Entry<String, File> entry : keyFiles.entrySet()) {
+			String keyId = entry.getKey();
+			File keyFile = entry.getValue();
+			CFKeyPair existing = current.get(keyId);
+
+			if (existing != null && keyFile.equals(existing.getFile())
+				&& keyFile.lastModified() == existing.getLastModified()) {
+				snapshot.put(keyId, existing);
+				continue;
+			}
+
+			try {
+				snapshot.put(keyId, CFKeyPair.load(keyId, keyFile));
+				changed = true;
+				LOGGER.info("loaded key id:{} file:{}", keyId, keyFile.getAbsolutePath());
+			} catch (CFMockException e) {
+				LOGGER.error("unable to load key id:{} file:{}", keyId, keyFile.getAbsolutePath(), e);
+				if (existing != null) {
+					snapshot.put(keyId, existing);
+				}
+			}
+		}
+
+		if (!snapshot.keySet().equals(current.keySet())) {
+			changed = true;
+		}
+		if (changed) {
+			keys = Collections.unmodifiableMap(snapshot);
+		}
+		return changed;
+	}
+
+	/**
+	 * @param keyId key pair id
+	 * @return the key pair or null if no key pair is registered with the id
+	 */
+	public CFKeyPair get(final String keyId) {
+		if (keyId == null) {
+			return null;
+		}
+		return keys.get(keyId);
+	}
+
+	public boolean contains(final String keyId) {
+		return keyId != null && keys.containsKey(keyId);
+	}
+
+	public Set<String> getKeyIds() {
+		return keys.keySet();
+	}
+
+	/**
+	 * @return the current keys, the returned map is immutable and will not change when keys are reloaded
+	 */
+	public Map<String, CFKeyPair> getKeys() {
+		return keys;
+	}
+
+	public int size() {
+		return keys.size();
+	}
+}
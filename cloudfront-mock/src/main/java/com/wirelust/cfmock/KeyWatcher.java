@@ -0,0 +1,190 @@
+package com.wirelust.cfmock;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.exceptions.CFMockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Watches key files for changes and reloads them into a {@link KeyRegistry} on a background thread.
+ *
+ * The directories containing the key files are watched, along with the directories of any extra files such as the
+ * configuration file that lists the keys. When something changes the {@link KeySource} is asked for the current key
+ * files and the registry is reloaded. Request threads keep reading the previous key snapshot until the new one is
+ * swapped in.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class KeyWatcher implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(KeyWatcher.class);
+
+	private static final long DEFAULT_SETTLE_MILLIS = 250;
+
+	/**
+	 * Supplies the key files that should be registered, by key pair id.
+	 */
+	public interface KeySource {
+		Map<String, File> getKeyFiles();
+	}
+
+	private final KeyRegistry keyRegistry;
+	private final KeySource keySource;
+	private final Collection<File> extraFiles;
+	private final Map<Path, WatchKey> watchedDirectories = new HashMap<>();
+
+	private long settleMillis = DEFAULT_SETTLE_MILLIS;
+	private WatchService watchService;
+	private Thread thread;
+
+	public KeyWatcher(final KeyRegistry keyRegistry, final KeySource keySource) {
+		this(keyRegistry, keySource, new ArrayList<File>());
+	}
+
+	/**
+	 * @param keyRegistry registry to reload
+	 * @param keySource supplies the key files
+	 * @param extraFiles other files, such as configuration, which when changed should trigger a reload
+	 */
+	public KeyWatcher(final KeyRegistry keyRegistry, final KeySource keySource, final Collection<File> extraFiles) {
+		this.keyRegistry = keyRegistry;
+		this.keySource = keySource;
+		this.extraFiles = new ArrayList<>(extraFiles);
+	}
+
+	/**
+	 * Loads the keys and starts watching for changes.
+	 */
+	public synchronized void start() {
+		if (thread != null) {
+			return;
+		}
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+		} catch (IOException e) {
+			throw new CFMockException("unable to create watch service", e);
+		}
+
+		Map<String, File> keyFiles = keySource.getKeyFiles();
+		keyRegistry.reload(keyFiles);
+		watchDirectories(keyFiles);
+
+		thread = new Thread(this::run, "cfmock-key-watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Reloads the keys from the key source and watches any new directories.
+	 *
+	 * @return true if the registered keys changed
+	 */
+	public boolean reload() {
+		Map<String, File> keyFiles = keySource.getKeyFiles();
+		boolean changed = keyRegistry.reload(keyFiles);
+		watchDirectories(keyFiles);
+		return changed;
+	}
+
+	@Override
+	public synchronized void close() {
+		if (watchService != null) {
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				LOGGER.warn("error closing watch service", e);
+			}
+		}
+		if (thread != null) {
+			thread.interrupt();
+			thread = null;
+		}
+	}
+
+	public void setSettleMillis(long settleMillis) {
+		this.settleMillis = settleMillis;
+	}
+
+	private void run() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				WatchKey watchKey = watchService.take();
+				drain(watchKey);
+
+				// files are often written in several steps, wait for them to settle before reading them
+				WatchKey next = watchService.poll(settleMillis, TimeUnit.MILLISECONDS);
+				while (next != null) {
+					drain(next);
+					next = watchService.poll(settleMillis, TimeUnit.MILLISECONDS);
+				}
+
+				try {
+					if (reload()) {
+						LOGGER.info("keys reloaded:{}", keyRegistry.getKeyIds());
+					}
+				} catch (RuntimeException e) {
+					LOGGER.error("unable to reload keys", e);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ClosedWatchServiceException e) {
+			LOGGER.debug("key watcher closed");
+		}
+	}
+
+	private void drain(final WatchKey watchKey) {
+		watchKey.pollEvents();
+		if (!watchKey.reset()) {
+			synchronized (watchedDirectories) {
+				watchedDirectories.values().remove(watchKey);
+			}
+		}
+	}
+
+	private void watchDirectories(final Map<String, File> keyFiles) {
+		List<File> files = new ArrayList<>(keyFiles.values());
+		files.addAll(extraFiles);
+
+		synchronized (watchedDirectories) {
+			for (File file : files) {
+				File directory = file.getAbsoluteFile().getParentFile();
+				if (directory == null || !directory.isDirectory()) {
+					LOGGER.debug("not watching missing directory for:{}", file.getAbsolutePath());
+					continue;
+				}
+				Path path = directory.toPath();
+				if (watchedDirectories.containsKey(path)) {
+					continue;
+				}
+				try {
+					watchedDirectories.put(path, path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY,
+						ENTRY_DELETE));
+					LOGGER.info("watching for key changes in:{}", path);
+				} catch (IOException | ClosedWatchServiceException e) {
+					LOGGER.warn("unable to watch directory:{}", path, e);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package com.wirelust.cfmock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.wirelust.cfmock.exceptions.CFMockException;
+
+/**
+ * Reads custom policy json straight into a {@link CFPolicy}.
+ *
+ * The policy is streamed token by token against the CloudFront policy grammar, no intermediate objects are bound
+ * and no reflection is involved. Only the fields CloudFront defines are accepted, anything else, a field given
+ * twice or content after the policy is rejected. Policies longer than {@link #MAX_POLICY_LENGTH} bytes or with more
+ * than {@link #MAX_STATEMENTS} statements are rejected before they are read any further.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class PolicyParser {
+
+	public static final int MAX_POLICY_LENGTH = 16384;
+	public static final int MAX_STATEMENTS = 1000;
+
+	static final String STATEMENT = "Statement";
+	static final String RESOURCE = "Resource";
+	static final String CONDITION = "Condition";
+	static final String DATE_LESS_THAN = "DateLessThan";
+	static final String DATE_GREATER_THAN = "DateGreaterThan";
+	static final String IP_ADDRESS = "IpAddress";
+	static final String EPOCH_TIME = "AWS:EpochTime";
+	static final String SOURCE_IP = "AWS:SourceIp";
+
+	// factories are thread safe and share their symbol tables and buffers between parsers
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private PolicyParser() {
+		// static only class
+	}
+
+	/**
+	 * @param json the policy json
+	 * @return the policy
+	 * @throws CFMockException if the policy is not valid policy json or is too large
+	 */
+	public static CFPolicy parse(final byte[] json) {
+		return parse(json, 0, json.length);
+	}
+
+	/**
+	 * @param json buffer holding the policy json
+	 * @param offset start of the policy in the buffer
+	 * @param length length of the policy
+	 * @return the policy
+	 * @throws CFMockException if the policy is not valid policy json or is too large
+	 */
+	public static CFPolicy parse(final byte[] json, final int offset, final int length) {
+		if (length > MAX_POLICY_LENGTH) {
+			throw new CFMockException("policy is longer than " + MAX_POLICY_LENGTH + " bytes");
+		}
+		try (JsonParser parser = JSON_FACTORY.createParser(json, offset, length)) {
+			CFPolicy policy = readPolicy(parser);
+			if (parser.nextToken() != null) {
+				throw invalid(parser, "unexpected content after policy");
+			}
+			return policy;
+		} catch (IOException e) {
+			throw new CFMockException("unable to parse policy", e);
+		}
+	}
+
+	private static CFPolicy readPolicy(final JsonParser parser) throws IOException {
+		expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+		List<CFPolicyStatement> statements = null;
+
+		String field;
+		while ((field = parser.nextFieldName()) != null) {
+			if (!STATEMENT.equals(field) || statements != null) {
+				throw unexpectedField(parser, field);
+			}
+			expect(parser, parser.nextToken(), JsonToken.START_ARRAY);
+			statements = new ArrayList<>();
+			JsonToken token;
+			while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+				if (statements.size() == MAX_STATEMENTS) {
+					throw invalid(parser, "policy has more than " + MAX_STATEMENTS + " statements");
+				}
+				expect(parser, token, JsonToken.START_OBJECT);
+				statements.add(readStatement(parser));
+			}
+		}
+		expect(parser, parser.getCurrentToken(), JsonToken.END_OBJECT);
+
+		CFPolicy policy = new CFPolicy();
+		policy.setStatements(statements == null ? new ArrayList<>() : statements);
+		return policy;
+	}
+
+	private static CFPolicyStatement readStatement(final JsonParser parser) throws IOException {
+		CFPolicyStatement statement = new CFPolicyStatement();
+		boolean resource = false;
+		boolean condition = false;
+
+		String field;
+		while ((field = parser.nextFieldName()) != null) {
+			if (RESOURCE.equals(field) && !resource) {
+				resource = true;
+				statement.setResource(readString(parser));
+			} else if (CONDITION.equals(field) && !condition) {
+				condition = true;
+				readCondition(parser, statement);
+			} else {
+				throw unexpectedField(parser, field);
+			}
+		}
+		expect(parser, parser.getCurrentToken(), JsonToken.END_OBJECT);
+		return statement;
+	}
+
+	private static void readCondition(final JsonParser parser, final CFPolicyStatement statement)
+		throws IOException {
+		expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+		boolean dateLessThan = false;
+		boolean dateGreaterThan = false;
+		boolean ipAddress = false;
+
+		String field;
+		while ((field = parser.nextFieldName()) != null) {
+			if (DATE_LESS_THAN.equals(field) && !dateLessThan) {
+				dateLessThan = true;
+				statement.setDateLessThanEpochSeconds(readEpochTime(parser));
+			} else if (DATE_GREATER_THAN.equals(field) && !dateGreaterThan) {
+				dateGreaterThan = true;
+				statement.setDateGreaterThanEpochSeconds(readEpochTime(parser));
+			} else if (IP_ADDRESS.equals(field) && !ipAddress) {
+				ipAddress = true;
+				expectSingleField(parser, SOURCE_IP);
+				statement.setIpAddress(readString(parser));
+				expect(parser, parser.nextToken(), JsonToken.END_OBJECT);
+			} else {
+				throw unexpectedField(parser, field);
+			}
+		}
+		expect(parser, parser.getCurrentToken(), JsonToken.END_OBJECT);
+	}
+
+	/**
+	 * Reads an epoch time condition, CloudFront accepts the time as a number or a string.
+	 */
+	private static long readEpochTime(final JsonParser parser) throws IOException {
+		expectSingleField(parser, EPOCH_TIME);
+		long epochSeconds;
+		JsonToken token = parser.nextToken();
+		if (token == JsonToken.VALUE_NUMBER_INT) {
+			epochSeconds = parser.getLongValue();
+		} else if (token == JsonToken.VALUE_STRING) {
+			String value = parser.getText().trim();
+			try {
+				epochSeconds = Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				throw invalid(parser, "invalid " + EPOCH_TIME + ":" + value);
+			}
+		} else {
+			throw invalid(parser, "expected " + EPOCH_TIME + " to be a number but was " + token);
+		}
+		expect(parser, parser.nextToken(), JsonToken.END_OBJECT);
+		return epochSeconds;
+	}
+
+	private static String readString(final JsonParser parser) throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		expect(parser, token, JsonToken.VALUE_STRING);
+		return parser.getText();
+	}
+
+	private static void expectSingleField(final JsonParser parser, final String name) throws IOException {
+		expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+		String field = parser.nextFieldName();
+		if (field == null) {
+			throw invalid(parser, "expected field:" + name);
+		}
+		if (!name.equals(field)) {
+			throw unexpectedField(parser, field);
+		}
+	}
+
+	private static void expect(final JsonParser parser, final JsonToken actual, final JsonToken expected) {
+		if (actual != expected) {
+			throw invalid(parser, "expected " + expected + " but was " + actual);
+		}
+	}
+
+	private static CFMockException unexpectedField(final JsonParser parser, final String field) {
+		return invalid(parser, "unexpected field:" + field);
+	}
+
+	private static CFMockException invalid(final JsonParser parser, final String message) {
+		return new CFMockException("invalid policy, " + message + " at offset "
+			+ parser.getCurrentLocation().getByteOffset());
+	}
+}
@@ -0,0 +1,155 @@
+package com.wirelust.cfmock;
+
+/**
+ * Checks signed requests and policy statements against the same rules as their javax.validation annotations,
+ * without going through a bean validator. Nothing is allocated unless a check fails.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+final class Preconditions {
+
+	private static final String MAY_NOT_BE_NULL = " may not be null";
+	private static final String MUST_MATCH = " must match ";
+
+	private Preconditions() {
+		// static only class
+	}
+
+	/**
+	 * @return the errors found or null if the request is valid
+	 */
+	static String checkSignedRequest(final SignedRequest signedRequest) {
+		StringBuilder errors = null;
+		if (signedRequest.getType() == null) {
+			errors = append(errors, "type", MAY_NOT_BE_NULL);
+		}
+		if (signedRequest.getKeyId() == null) {
+			errors = append(errors, "keyId", MAY_NOT_BE_NULL);
+		}
+		if (signedRequest.getKeyPair() == null) {
+			errors = append(errors, "keyPair", MAY_NOT_BE_NULL);
+		}
+		if (signedRequest.getSignature() == null) {
+			errors = append(errors, "signature", MAY_NOT_BE_NULL);
+		}
+		String remoteIpSource = signedRequest.getRemoteIpSource();
+		if (remoteIpSource != null
+			&& !isAddress(remoteIpSource, signedRequest.getRemoteIpStart(), signedRequest.getRemoteIpEnd(), true)) {
+			errors = append(errors, "remoteIpAddress", MUST_MATCH + quote(SignedRequest.REMOTE_IP_ADDRESS_PATTERN));
+		}
+		return errors == null ? null : errors.toString();
+	}
+
+	/**
+	 * @return the errors found or null if the statement is valid
+	 */
+	static String checkStatement(final CFPolicyStatement statement) {
+		String ipAddress = statement.getIpAddress();
+		if (ipAddress != null && !isCidr(ipAddress)) {
+			return "ipAddress" + MUST_MATCH + quote(CFPolicyStatement.IP_ADDRESS_PATTERN);
+		}
+		return null;
+	}
+
+	/**
+	 * Same as {@link CFPolicyStatement#IP_ADDRESS_PATTERN}, an address followed by a one to three digit prefix.
+	 */
+	static boolean isCidr(final String value) {
+		int slash = value.lastIndexOf('/');
+		return slash >= 0
+			&& isAddress(value, 0, slash, false)
+			&& isDigits(value, slash + 1, value.length());
+	}
+
+	/**
+	 * Same as {@link SignedRequest#REMOTE_IP_ADDRESS_PATTERN}, four groups of one to three digits separated by dots
+	 * or hex digits, dots and at least one colon optionally followed by a zone id.
+	 */
+	static boolean isAddress(final String value, final int start, final int end, final boolean allowZone) {
+		if (isDottedQuad(value, start, end)) {
+			return true;
+		}
+
+		int addressEnd = end;
+		if (allowZone) {
+			int percent = value.indexOf('%', start);
+			if (percent >= 0 && percent < end) {
+				if (percent + 1 == end) {
+					return false;
+				}
+				for (int i = percent + 1; i < end; i++) {
+					char c = value.charAt(i);
+					if (!(isAsciiLetterOrDigit(c) || c == '.' || c == '_' || c == '-')) {
+						return false;
+					}
+				}
+				addressEnd = percent;
+			}
+		}
+
+		boolean colon = false;
+		for (int i = start; i < addressEnd; i++) {
+			char c = value.charAt(i);
+			if (c == ':') {
+				colon = true;
+			} else if (c != '.' && !isAsciiHexDigit(c)) {
+				return false;
+			}
+		}
+		return colon;
+	}
+
+	private static boolean isDottedQuad(final String value, final int start, final int end) {
+		int groups = 0;
+		int groupStart = start;
+		for (int i = start; i <= end; i++) {
+			if (i == end || value.charAt(i) == '.') {
+				if (!isDigits(value, groupStart, i) || ++groups > 4) {
+					return false;
+				}
+				groupStart = i + 1;
+			}
+		}
+		return groups == 4;
+	}
+
+	/**
+	 * @return true if there are one to three ascii digits between start and end
+	 */
+	private static boolean isDigits(final String value, final int start, final int end) {
+		if (start >= end || end - start > 3) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAsciiHexDigit(final char c) {
+		return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+	}
+
+	private static boolean isAsciiLetterOrDigit(final char c) {
+		return c >= '0' && c <= '9' || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+	}
+
+	private static String quote(final String pattern) {
+		return "\"" + pattern + "\"";
+	}
+
+	private static StringBuilder append(final StringBuilder errors, final String property, final String message) {
+		StringBuilder builder = errors;
+		if (builder == null) {
+			builder = new StringBuilder();
+		} else {
+			builder.append(", ");
+		}
+		return builder.append(property).append(message);
+	}
+}
@@ -1,20 +1,27 @@
 package com.wirelust.cfmock;
 
-import java.io.File;
-import java.io.IOException;
-import java.security.spec.InvalidKeySpecException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
 import javax.validation.ValidatorFactory;
 import javax.validation.constraints.NotNull;
 
-import com.amazonaws.services.cloudfront.CloudFrontCookieSigner;
+import com.wirelust.cfmock.cache.ValidationCache;
 import com.wirelust.cfmock.exceptions.CFMockException;
-import com.wirelust.cfmock.util.WildcardMatcher;
-import org.apache.commons.net.util.SubnetUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,131 +39,413 @@ public class SignatureValidator {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(SignatureValidator.class);
 
-	private static final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-	private static final Validator validator = factory.getValidator();
+	private static volatile ValidationCache validationCache = new ValidationCache();
+
+	private static volatile boolean strictValidation;
+
+	private static volatile Clock clock = Clock.systemUTC();
 
 	private SignatureValidator() {
 		// static only class
 	}
 
 	/**
+	 * The bean validator is only created when strict validation is first used.
+	 */
+	private static final class ValidatorHolder {
+		private static final ValidatorFactory FACTORY = Validation.buildDefaultValidatorFactory();
+		private static final Validator VALIDATOR = FACTORY.getValidator();
+	}
+
+	/**
+	 * @return true if requests and policies are checked with bean validation
+	 */
+	public static boolean isStrictValidation() {
+		return strictValidation;
+	}
+
+	/**
+	 * Requests and policy statements are normally checked against the rules of their javax.validation annotations
+	 * by hand. Strict validation runs a bean validator over them instead, which also reports violations of any
+	 * other constraints on them.
 	 *
-	 * @param keyFile pem key file
+	 * @param strict true to check requests and policies with bean validation
+	 */
+	public static void setStrictValidation(final boolean strict) {
+		strictValidation = strict;
+	}
+
+	public static Clock getClock() {
+		return clock;
+	}
+
+	/**
+	 * Sets the clock the expiry and start times of signatures are checked against. A coarse clock such as
+	 * {@link com.wirelust.cfmock.util.CoarseClock} saves reading the system time on every request, a fixed clock lets
+	 * tests control the time.
+	 *
+	 * @param validationClock clock to read the current time from
+	 */
+	public static void setClock(@NotNull final Clock validationClock) {
+		if (validationClock == null) {
+			throw new IllegalArgumentException("clock may not be null");
+		}
+		clock = validationClock;
+	}
+
+	/**
+	 * @return the cache of verified signatures or null if verifications are not cached
+	 */
+	public static ValidationCache getValidationCache() {
+		return validationCache;
+	}
+
+	/**
+	 * @param cache cache to remember verified signatures in, null to verify every signature
+	 */
+	public static void setValidationCache(final ValidationCache cache) {
+		validationCache = cache;
+	}
+
+	/**
+	 *
+	 * @param keyPair key pair the signature was made with
 	 * @param keyId id of the key
 	 * @param expires date when the signature expires
 	 * @param signature signature
 	 * @return true if the signature is valid
 	 */
 	public static boolean validateSignature(@NotNull final String url,
-											@NotNull final File keyFile,
+											@NotNull final CFKeyPair keyPair,
 											@NotNull final String keyId,
 											@NotNull final Date expires,
 											@NotNull final String signature) {
-		try {
-			Date now = new Date();
-			if (expires != null && expires.getTime() < now.getTime()) {
-				throw new CFMockException(Constants.SIGNATURE_IS_EXPIRED);
-			}
-
-			CloudFrontCookieSigner.CookiesForCannedPolicy cookiesForCannedPolicy =
-				CloudFrontCookieSigner.getCookiesForCannedPolicy(null, null, keyFile, url, keyId, expires);
+		return validateSignature(url, keyPair, keyId, CFPolicyStatement.toEpochSeconds(expires), signature);
+	}
 
-			return signature.equals(cookiesForCannedPolicy.getSignature().getValue());
-		} catch (InvalidKeySpecException | IOException e) {
-			throw new CFMockException("unable to validate cookie", e);
+	/**
+	 * Validates a request signed with a canned policy.
+	 *
+	 * @param expires time in epoch seconds when the signature expires
+	 */
+	public static boolean validateSignature(@NotNull final String url,
+											@NotNull final CFKeyPair keyPair,
+											@NotNull final String keyId,
+											final long expires,
+											@NotNull final String signature) {
+		if (expires < nowEpochSeconds()) {
+			throw new CFMockException(Constants.SIGNATURE_IS_EXPIRED);
 		}
 
+		// the policy is written into a buffer owned by this thread, it is only read until verify returns
+		int length = CannedPolicy.length(url, expires);
+		byte[] cannedPolicy = CannedPolicy.buffer(length);
+		CannedPolicy.write(url, expires, cannedPolicy);
+
+		return verify(keyPair, cannedPolicy, length, signature, expires);
 	}
 
 	public static boolean validateSignature(@NotNull final String url,
 											@NotNull final String remoteIp,
-											@NotNull final File keyFile,
+											@NotNull final CFKeyPair keyPair,
 											@NotNull final String keyId,
 											@NotNull final CFPolicy policy,
 											@NotNull final String signature) {
-		try {
-
-		if (policy.getStatements().isEmpty() || policy.getStatements().size() > 1) {
-			throw new CFMockException("Only one policy statement supported at this time");
-		}
-
-		CFPolicyStatement statement = policy.getStatements().get(0);
-		validateStatement(statement);
+		return validateSignature(url, remoteIp, keyPair, keyId, policy, null, signature);
+	}
 
-		if (statement.getIpAddress() != null && remoteIp != null) {
-			SubnetUtils subnetUtils = new SubnetUtils(statement.getIpAddress());
-			if (!subnetUtils.getInfo().isInRange(remoteIp)) {
-				return false;
-			}
-		}
+	/**
+	 *
+	 * @param rawPolicy the policy json exactly as it was signed. when null the policy is rebuilt from the
+	 *                  statement the same way the AWS SDK builds it
+	 */
+	public static boolean validateSignature(@NotNull final String url,
+											@NotNull final String remoteIp,
+											@NotNull final CFKeyPair keyPair,
+											@NotNull final String keyId,
+											@NotNull final CFPolicy policy,
+											final byte[] rawPolicy,
+											@NotNull final String signature) {
+		return validateSignature(url, remoteIp, keyPair, keyId, compilePolicy(policy, rawPolicy), signature);
+	}
 
-		if (statement.getResource() != null && !WildcardMatcher.matches(url, statement.getResource())) {
-			LOGGER.debug("url:{} does not match:{}", url, statement.getResource());
+	/**
+	 * Validates a request against a policy that was already compiled, the same compiled policy can be used to
+	 * validate any number of requests. The request is allowed when any statement of the policy allows it.
+	 */
+	public static boolean validateSignature(@NotNull final String url,
+											@NotNull final String remoteIp,
+											@NotNull final CFKeyPair keyPair,
+											@NotNull final String keyId,
+											@NotNull final CompiledPolicy policy,
+											@NotNull final String signature) {
+		if (!allows(url, remoteIp, 0, remoteIp == null ? 0 : remoteIp.length(), policy)) {
 			return false;
 		}
+		byte[] signedPolicy = policy.signedPolicy();
+		return verify(keyPair, signedPolicy, signedPolicy.length, signature, policy.getExpiresAt());
+	}
 
-		CloudFrontCookieSigner.CookiesForCustomPolicy cookiesForCustomPolicy =
-			CloudFrontCookieSigner.getCookiesForCustomPolicy(null, null, keyFile,
-				statement.getResource(), keyId, statement.getDateLessThan(), statement.getDateGreaterThan(),
-				statement.getIpAddress());
-
-			return signature.equals(cookiesForCustomPolicy.getSignature().getValue());
-		} catch (InvalidKeySpecException | IOException e) {
-			throw new CFMockException("unable to validate cookie", e);
+	/**
+	 * Checks the policy is well formed and compiles it so it can be used to validate requests.
+	 *
+	 * @param policy the policy
+	 * @param rawPolicy the policy json exactly as it was signed. when null the policy is rebuilt from the
+	 *                  statement the same way the AWS SDK builds it, which is only possible for a single statement
+	 * @return the compiled policy
+	 */
+	public static CompiledPolicy compilePolicy(@NotNull final CFPolicy policy, final byte[] rawPolicy) {
+		if (policy.getStatements().isEmpty()) {
+			throw new CFMockException("Policy must have at least one statement");
 		}
-
+		if (policy.getStatements().size() > 1 && rawPolicy == null) {
+			throw new CFMockException("Policy with more than one statement can only be validated against the raw "
+				+ "policy as it was signed");
+		}
+		for (CFPolicyStatement statement : policy.getStatements()) {
+			validateParameters(statement);
+		}
+		return new CompiledPolicy(policy, rawPolicy);
 	}
 
 
 	public static boolean validateSignature(@NotNull final SignedRequest signedRequest) {
-		checkForNulls(signedRequest);
+		checkRequest(signedRequest);
+		return verifySignature(signedRequest);
+	}
 
-		if (signedRequest.getPolicy() == null) {
-			return validateSignature(signedRequest.getUrl(),
-				signedRequest.getKeyFile(),
-				signedRequest.getKeyId(),
-				signedRequest.getExpires(),
-				signedRequest.getSignature());
+	/**
+	 * Checks the request has everything needed to validate it, with bean validation when strict validation is on.
+	 * This is the first half of {@link #validateSignature(SignedRequest)}, it is separate so callers can time it.
+	 *
+	 * @param signedRequest the request
+	 * @throws CFMockException when the request is incomplete
+	 */
+	public static void checkRequest(@NotNull final SignedRequest signedRequest) {
+		String errors;
+		if (strictValidation) {
+			errors = beanValidate(signedRequest);
 		} else {
+			errors = Preconditions.checkSignedRequest(signedRequest);
+		}
+		if (errors != null) {
+			throw new CFMockException("Error validating signed request. errors: " + errors);
+		}
+		if (signedRequest.getExpiresEpochSeconds() == Constants.NO_EPOCH_TIME && signedRequest.getPolicy() == null
+			&& signedRequest.getCompiledPolicy() == null && signedRequest.getRawPolicy() == null) {
+			throw new CFMockException("either expires or policy must be set");
+		}
+	}
+
+	/**
+	 * Checks the request against its policy and verifies the signature. This is the second half of
+	 * {@link #validateSignature(SignedRequest)}, the request must already have passed {@link #checkRequest}.
+	 *
+	 * A request with only the raw policy bytes has its signature verified before the policy is parsed, once it is
+	 * verified the compiled policy is set on the request so the caller can keep it.
+	 *
+	 * @param signedRequest a request that passed checkRequest
+	 * @return true if the signature is valid
+	 */
+	public static boolean verifySignature(@NotNull final SignedRequest signedRequest) {
+		if (signedRequest.getCompiledPolicy() != null) {
+			return verifyCompiledPolicy(signedRequest, signedRequest.getCompiledPolicy());
+		} else if (signedRequest.getPolicy() == null && signedRequest.getRawPolicy() != null) {
+			return verifyRawPolicy(signedRequest);
+		} else if (signedRequest.getPolicy() == null) {
 			return validateSignature(signedRequest.getUrl(),
-				signedRequest.getRemoteIpAddress(),
-				signedRequest.getKeyFile(),
+				signedRequest.getKeyPair(),
 				signedRequest.getKeyId(),
-				signedRequest.getPolicy(),
+				signedRequest.getExpiresEpochSeconds(),
 				signedRequest.getSignature());
+		} else {
+			return verifyCompiledPolicy(signedRequest,
+				compilePolicy(signedRequest.getPolicy(), signedRequest.getRawPolicy()));
 		}
 	}
 
-	private static void checkForNulls(@NotNull final SignedRequest signedRequest) {
-		Set<ConstraintViolation<SignedRequest>> violations = validator.validate(signedRequest);
-		if (!violations.isEmpty()) {
-			throw new CFMockException("Error validating signed request. errors: " + buildValidationError(violations));
+	/**
+	 * Validates a request, reporting a request that can't be validated in the result instead of throwing.
+	 *
+	 * @param signedRequest the request
+	 * @return the result of validating the request
+	 */
+	public static ValidationResult validate(@NotNull final SignedRequest signedRequest) {
+		try {
+			return ValidationResult.of(signedRequest, validateSignature(signedRequest));
+		} catch (RuntimeException e) {
+			return ValidationResult.error(signedRequest, e);
 		}
-		if (signedRequest.getExpires() == null && signedRequest.getPolicy() == null) {
-			throw new CFMockException("either expires or policy must be set");
+	}
+
+	/**
+	 * Validates a batch of requests using every available processor.
+	 *
+	 * @see #validateAll(Collection, int)
+	 */
+	public static List<ValidationResult> validateAll(@NotNull final Collection<SignedRequest> signedRequests) {
+		return validateAll(signedRequests, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Validates a batch of requests in parallel. Requests that share a policy share its compiled form, each distinct
+	 * policy is only compiled once for the batch. A request that can't be validated does not stop the others, its
+	 * result holds the error instead.
+	 *
+	 * @param signedRequests requests to validate
+	 * @param parallelism number of threads to validate with
+	 * @return a result for every request in the order the collection returned them
+	 */
+	public static List<ValidationResult> validateAll(@NotNull final Collection<SignedRequest> signedRequests,
+													 final int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be at least 1");
+		}
+		SignedRequest[] requests = signedRequests.toArray(new SignedRequest[signedRequests.size()]);
+		ValidationResult[] results = new ValidationResult[requests.length];
+		Map<Object, CompiledPolicy> compiledPolicies = new ConcurrentHashMap<>();
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.submit(() -> IntStream.range(0, requests.length).parallel()
+				.forEach(i -> results[i] = validate(requests[i], compiledPolicies))).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CFMockException("interrupted validating requests", e);
+		} catch (ExecutionException e) {
+			throw new CFMockException("unable to validate requests", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		return Arrays.asList(results);
+	}
+
+	private static ValidationResult validate(final SignedRequest signedRequest,
+											 final Map<Object, CompiledPolicy> compiledPolicies) {
+		if (signedRequest.getCompiledPolicy() != null || signedRequest.getPolicy() == null) {
+			return validate(signedRequest);
+		}
+		try {
+			checkRequest(signedRequest);
+			// identical raw policies compare equal, policies without raw bytes are shared by instance
+			byte[] rawPolicy = signedRequest.getRawPolicy();
+			Object key = rawPolicy == null ? signedRequest.getPolicy() : ByteBuffer.wrap(rawPolicy);
+			CompiledPolicy compiledPolicy = compiledPolicies.get(key);
+			if (compiledPolicy == null) {
+				compiledPolicy = compilePolicy(signedRequest.getPolicy(), rawPolicy);
+				compiledPolicies.putIfAbsent(key, compiledPolicy);
+			}
+
+			return ValidationResult.of(signedRequest, verifyCompiledPolicy(signedRequest, compiledPolicy));
+		} catch (RuntimeException e) {
+			return ValidationResult.error(signedRequest, e);
 		}
 	}
 
-	private static void validateStatement(@NotNull final CFPolicyStatement statement) {
+	/**
+	 * The signature is checked against the bytes as they were received, so a policy that was not signed with the key
+	 * is rejected without being parsed. A verified policy is remembered in the validation cache, the next request
+	 * with the same policy finds it there once the caller has cached the compiled policy.
+	 */
+	private static boolean verifyRawPolicy(final SignedRequest signedRequest) {
+		byte[] rawPolicy = signedRequest.getRawPolicy();
+		CFKeyPair keyPair = signedRequest.getKeyPair();
+		String signature = signedRequest.getSignature();
+		if (!SignatureVerifier.verify(rawPolicy, rawPolicy.length, signature, keyPair.getPublicKey())) {
+			LOGGER.debug("policy signature does not match key:{}", signedRequest.getKeyId());
+			return false;
+		}
 
-		validateParameters(statement);
+		CompiledPolicy compiledPolicy = compilePolicy(PolicyParser.parse(rawPolicy), rawPolicy);
+		signedRequest.setCompiledPolicy(compiledPolicy);
+		signedRequest.setPolicy(compiledPolicy.getPolicy());
+		ValidationCache cache = validationCache;
+		if (cache != null) {
+			cache.add(keyPair, compiledPolicy.signedPolicy(), signature,
+				TimeUnit.SECONDS.toMillis(compiledPolicy.getExpiresAt()));
+		}
+		return allows(signedRequest, compiledPolicy);
+	}
 
-		Date now = new Date();
-		if (statement.getDateLessThan() == null || statement.getDateLessThan().getTime() < now.getTime()) {
+	/**
+	 * Validates a request against a compiled policy, the client address is matched where the request holds it.
+	 */
+	private static boolean verifyCompiledPolicy(final SignedRequest signedRequest, final CompiledPolicy policy) {
+		if (!allows(signedRequest, policy)) {
+			return false;
+		}
+		byte[] signedPolicy = policy.signedPolicy();
+		return verify(signedRequest.getKeyPair(), signedPolicy, signedPolicy.length, signedRequest.getSignature(),
+			policy.getExpiresAt());
+	}
+
+	private static boolean allows(final SignedRequest signedRequest, final CompiledPolicy policy) {
+		return allows(signedRequest.getUrl(), signedRequest.getRemoteIpSource(), signedRequest.getRemoteIpStart(),
+			signedRequest.getRemoteIpEnd(), policy);
+	}
+
+	/**
+	 * Checks the policy is valid now and has a statement matching the url and the address between start and end.
+	 */
+	private static boolean allows(final String url, final CharSequence remoteIp, final int start, final int end,
+								  final CompiledPolicy policy) {
+		long now = nowEpochSeconds();
+		if (policy.isExpiredAt(now)) {
 			throw new CFMockException(Constants.SIGNATURE_IS_EXPIRED);
 		}
+		if (policy.isNotYetValidAt(now)) {
+			throw new CFMockException(String.format(Constants.SIGNATURE_VALID_AT,
+				CFPolicyStatement.toDate(policy.getValidFrom())));
+		}
+
+		CompiledPolicy.CompiledStatement statement = policy.findStatement(url, remoteIp, start, end, now);
+		if (statement == null) {
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("url:{} ip:{} does not match any policy statement", url,
+					remoteIp == null ? null : remoteIp.subSequence(start, end));
+			}
+			return false;
+		}
+		return true;
+	}
 
-		if (statement.getDateGreaterThan() != null && statement.getDateGreaterThan().getTime() > now.getTime()) {
-			throw new CFMockException(String.format(Constants.SIGNATURE_VALID_AT, statement.getDateGreaterThan()));
+	/**
+	 * @param policy buffer starting with the policy bytes
+	 * @param length length of the policy
+	 * @param expiresAt time in epoch seconds the policy expires
+	 */
+	private static boolean verify(final CFKeyPair keyPair, final byte[] policy, final int length,
+								  final String signature, final long expiresAt) {
+		ValidationCache cache = validationCache;
+		if (cache == null) {
+			return SignatureVerifier.verify(policy, length, signature, keyPair.getPublicKey());
 		}
+		return cache.verify(keyPair, policy, length, signature, TimeUnit.SECONDS.toMillis(expiresAt));
 	}
 
+	private static long nowEpochSeconds() {
+		return TimeUnit.MILLISECONDS.toSeconds(clock.millis());
+	}
+
+
+	private static void validateParameters(final CFPolicyStatement statement) {
+		String errors;
+		if (strictValidation) {
+			errors = beanValidate(statement);
+		} else {
+			errors = Preconditions.checkStatement(statement);
+		}
+		if (errors != null) {
+			throw new CFMockException("Error validating policy. errors: " + errors);
+		}
+	}
 
-	private static <T> void validateParameters(T object) {
-		Set<ConstraintViolation<T>> violations = validator.validate(object);
-		if (!violations.isEmpty()) {
-			throw new CFMockException("Error validating policy. errors: " + buildValidationError(violations));
+	private static <T> String beanValidate(final T object) {
+		Set<ConstraintViolation<T>> violations = ValidatorHolder.VALIDATOR.validate(object);
+		if (violations.isEmpty()) {
+			return null;
 		}
+		return buildValidationError(violations);
 	}
 
 	private static <T> String buildValidationError(Set<ConstraintViolation<T>> violations) {
@@ -0,0 +1,81 @@
+package com.wirelust.cfmock;
+
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+
+import com.wirelust.cfmock.exceptions.CFMockException;
+import com.wirelust.cfmock.util.CloudFrontBase64;
+
+/**
+ * Verifies CloudFront signatures with the RSA public key of a key pair.
+ *
+ * CloudFront signs the policy bytes with SHA1withRSA and encodes the result with a url-safe variant of base64
+ * where '+' is replaced with '-', '=' with '_' and '/' with '~'.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class SignatureVerifier {
+
+	public static final String SIGNATURE_ALGORITHM = "SHA1withRSA";
+
+	// large enough for the signature of a 4096 bit key, longer signatures get a buffer of their own
+	private static final int SIGNATURE_BUFFER_SIZE = 512;
+
+	private static final ThreadLocal<byte[]> SIGNATURE_BUFFER =
+		ThreadLocal.withInitial(() -> new byte[SIGNATURE_BUFFER_SIZE]);
+
+	private SignatureVerifier() {
+		// static only class
+	}
+
+	/**
+	 * @param policy the exact policy bytes that were signed
+	 * @param signature CloudFront-safe base64 signature
+	 * @param publicKey public key of the key pair the policy was signed with
+	 * @return true if the signature was made over the policy by the private half of the key pair
+	 */
+	public static boolean verify(final byte[] policy, final String signature, final PublicKey publicKey) {
+		return verify(policy, policy.length, signature, publicKey);
+	}
+
+	/**
+	 * @param policy buffer starting with the exact policy bytes that were signed
+	 * @param length length of the policy in the buffer
+	 * @param signature CloudFront-safe base64 signature
+	 * @param publicKey public key of the key pair the policy was signed with
+	 * @return true if the signature was made over the policy by the private half of the key pair
+	 */
+	public static boolean verify(final byte[] policy, final int length, final String signature,
+								 final PublicKey publicKey) {
+		byte[] signatureBytes;
+		int signatureLength;
+		try {
+			signatureLength = CloudFrontBase64.decodedLength(signature);
+			signatureBytes = signatureLength <= SIGNATURE_BUFFER_SIZE ? SIGNATURE_BUFFER.get()
+				: new byte[signatureLength];
+			CloudFrontBase64.decode(signature, signatureBytes, 0);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+
+		try {
+			Signature verifier = Signature.getInstance(SIGNATURE_ALGORITHM);
+			verifier.initVerify(publicKey);
+			verifier.update(policy, 0, length);
+			return verifier.verify(signatureBytes, 0, signatureLength);
+		} catch (SignatureException e) {
+			// the signature decoded but can't be an RSA signature for the key, such as having the wrong length
+			return false;
+		} catch (GeneralSecurityException e) {
+			throw new CFMockException("unable to verify signature", e);
+		}
+	}
+
+	public static byte[] decodeSignature(final String signature) {
+		return CloudFrontBase64.decode(signature);
+	}
+}
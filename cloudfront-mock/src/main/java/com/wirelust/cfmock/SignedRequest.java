@@ -1,6 +1,5 @@
 package com.wirelust.cfmock;
 
-import java.io.File;
 import java.util.Date;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
@@ -12,6 +11,9 @@ import javax.validation.constraints.Pattern;
  */
 public class SignedRequest {
 
+	public static final String REMOTE_IP_ADDRESS_PATTERN =
+		"(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})|[0-9a-fA-F.]*:[0-9a-fA-F:.]*(%[0-9A-Za-z._-]+)?";
+
 	public enum Type {
 		REQUEST, COOKIE
 	}
@@ -23,16 +25,21 @@ public class SignedRequest {
 	String keyId;
 
 	@NotNull
-	File keyFile;
+	CFKeyPair keyPair;
 	String url;
-	Date expires;
+	long expires = Constants.NO_EPOCH_TIME;
 
 	@NotNull
 	String signature;
 	CFPolicy policy;
+	byte[] rawPolicy;
+	CompiledPolicy compiledPolicy;
 
-	@Pattern(regexp = "(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})")
+	// the address may be part of a longer string such as a forwarded header, it is only copied out when asked for
 	String remoteIpAddress;
+	String remoteIpSource;
+	int remoteIpStart;
+	int remoteIpEnd;
 
 	public Type getType() {
 		return type;
@@ -50,12 +57,15 @@ public class SignedRequest {
 		this.keyId = keyId;
 	}
 
-	public File getKeyFile() {
-		return keyFile;
+	/**
+	 * @return the registered key pair matching the key id of the request
+	 */
+	public CFKeyPair getKeyPair() {
+		return keyPair;
 	}
 
-	public void setKeyFile(File keyFile) {
-		this.keyFile = keyFile;
+	public void setKeyPair(CFKeyPair keyPair) {
+		this.keyPair = keyPair;
 	}
 
 	public String getUrl() {
@@ -66,14 +76,25 @@ public class SignedRequest {
 		this.url = url;
 	}
 
-	public Date getExpires() {
+	/**
+	 * @return the time in epoch seconds a canned policy expires, {@link Constants#NO_EPOCH_TIME} if it is not set
+	 */
+	public long getExpiresEpochSeconds() {
 		return expires;
 	}
 
-	public void setExpires(Date expires) {
+	public void setExpiresEpochSeconds(long expires) {
 		this.expires = expires;
 	}
 
+	public Date getExpires() {
+		return CFPolicyStatement.toDate(expires);
+	}
+
+	public void setExpires(Date expires) {
+		this.expires = CFPolicyStatement.toEpochSeconds(expires);
+	}
+
 	public String getSignature() {
 		return signature;
 	}
@@ -90,11 +111,73 @@ public class SignedRequest {
 		this.policy = policy;
 	}
 
+	/**
+	 * @return the decoded policy json exactly as it was received, this is what the signature is checked against
+	 */
+	public byte[] getRawPolicy() {
+		return rawPolicy;
+	}
+
+	public void setRawPolicy(byte[] rawPolicy) {
+		this.rawPolicy = rawPolicy;
+	}
+
+	/**
+	 * @return the compiled policy, when set it is used instead of compiling the policy and raw policy
+	 */
+	public CompiledPolicy getCompiledPolicy() {
+		return compiledPolicy;
+	}
+
+	public void setCompiledPolicy(CompiledPolicy compiledPolicy) {
+		this.compiledPolicy = compiledPolicy;
+	}
+
+	@Pattern(regexp = REMOTE_IP_ADDRESS_PATTERN)
 	public String getRemoteIpAddress() {
+		if (remoteIpAddress == null && remoteIpSource != null) {
+			remoteIpAddress = remoteIpSource.substring(remoteIpStart, remoteIpEnd);
+		}
 		return remoteIpAddress;
 	}
 
 	public void setRemoteIpAddress(String remoteIpAddress) {
 		this.remoteIpAddress = remoteIpAddress;
+		this.remoteIpSource = remoteIpAddress;
+		this.remoteIpStart = 0;
+		this.remoteIpEnd = remoteIpAddress == null ? 0 : remoteIpAddress.length();
+	}
+
+	/**
+	 * Sets the client address to part of a longer string without copying it, the address is matched against policy
+	 * ip ranges where it is.
+	 *
+	 * @param source string holding the address, such as an X-Forwarded-For header
+	 * @param start index of the first character of the address
+	 * @param end index after the last character of the address
+	 */
+	public void setRemoteIpAddress(String source, int start, int end) {
+		if (start < 0 || end > source.length() || start > end) {
+			throw new IllegalArgumentException("address range is outside the source");
+		}
+		this.remoteIpAddress = start == 0 && end == source.length() ? source : null;
+		this.remoteIpSource = source;
+		this.remoteIpStart = start;
+		this.remoteIpEnd = end;
+	}
+
+	/**
+	 * @return the string holding the client address, null if the address is not known
+	 */
+	public String getRemoteIpSource() {
+		return remoteIpSource;
+	}
+
+	public int getRemoteIpStart() {
+		return remoteIpStart;
+	}
+
+	public int getRemoteIpEnd() {
+		return remoteIpEnd;
 	}
 }
@@ -0,0 +1,159 @@
+package com.wirelust.cfmock;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Finds the statements of a policy that allow a request without trying every statement's resource pattern.
+ *
+ * Statements are grouped by the literal start of their resource, the part before the first wildcard, and each
+ * distinct start is kept once in a hash table keyed by its hash code and length. A lookup works out the hash code of
+ * the url's first characters as it goes and, at each length some start has, checks the one group that can match with
+ * {@link String#regionMatches}, so the cost of a lookup depends on the length of the url rather than the number of
+ * statements and the index takes space in proportion to the number of statements rather than the length of their
+ * resources. Statements without a resource or starting with a wildcard are always checked first, then groups from the
+ * shortest start to the longest. The index is immutable once built.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+final class StatementIndex {
+
+	private static final CompiledPolicy.CompiledStatement[] NO_STATEMENTS = new CompiledPolicy.CompiledStatement[0];
+
+	private final CompiledPolicy.CompiledStatement[] unprefixed;
+	private final int[] lengths;
+	private final Group[] table;
+	private final int mask;
+
+	StatementIndex(final List<CompiledPolicy.CompiledStatement> statements) {
+		List<CompiledPolicy.CompiledStatement> withoutPrefix = new ArrayList<>();
+		Map<String, List<CompiledPolicy.CompiledStatement>> byPrefix = new LinkedHashMap<>();
+		TreeSet<Integer> prefixLengths = new TreeSet<>();
+		for (CompiledPolicy.CompiledStatement statement : statements) {
+			String resource = statement.getStatement().getResource();
+			int prefixLength = resource == null ? 0 : literalPrefixLength(resource);
+			if (prefixLength == 0) {
+				withoutPrefix.add(statement);
+			} else {
+				byPrefix.computeIfAbsent(resource.substring(0, prefixLength), prefix -> new ArrayList<>())
+					.add(statement);
+				prefixLengths.add(prefixLength);
+			}
+		}
+		this.unprefixed = toArray(withoutPrefix);
+
+		this.lengths = new int[prefixLengths.size()];
+		int i = 0;
+		for (Integer prefixLength : prefixLengths) {
+			lengths[i++] = prefixLength;
+		}
+
+		// at most half full so probes stay short
+		int size = Integer.highestOneBit(Math.max(1, byPrefix.size()) * 4 - 1);
+		this.table = new Group[size];
+		this.mask = size - 1;
+		for (Map.Entry<String, List<CompiledPolicy.CompiledStatement>> entry : byPrefix.entrySet()) {
+			Group group = new Group(entry.getKey(), toArray(entry.getValue()));
+			int slot = slot(group.hash, group.prefix.length());
+			while (table[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = group;
+		}
+	}
+
+	/**
+	 * @see #find(String, CharSequence, int, int, long)
+	 */
+	CompiledPolicy.CompiledStatement find(final String url, final String remoteIp, final long now) {
+		return find(url, remoteIp, 0, remoteIp == null ? 0 : remoteIp.length(), now);
+	}
+
+	/**
+	 * @param url the url requested, when null only statements without a resource can match
+	 * @param remoteIp holds the client address between ipStart and ipEnd, null if it is not known
+	 * @param now the time in epoch seconds
+	 * @return the first statement that allows the request or null if none do
+	 */
+	CompiledPolicy.CompiledStatement find(final String url, final CharSequence remoteIp, final int ipStart,
+										  final int ipEnd, final long now) {
+		CompiledPolicy.CompiledStatement found = first(unprefixed, url, remoteIp, ipStart, ipEnd, now);
+		if (found != null || url == null) {
+			return found;
+		}
+		int hash = 0;
+		int depth = 0;
+		for (int length : lengths) {
+			if (length > url.length()) {
+				break;
+			}
+			while (depth < length) {
+				hash = 31 * hash + url.charAt(depth++);
+			}
+			for (int slot = slot(hash, length); table[slot] != null; slot = (slot + 1) & mask) {
+				Group group = table[slot];
+				if (group.hash == hash && group.prefix.length() == length
+					&& url.regionMatches(0, group.prefix, 0, length)) {
+					found = first(group.statements, url, remoteIp, ipStart, ipEnd, now);
+					if (found != null) {
+						return found;
+					}
+					// only one start of this length can match the url
+					break;
+				}
+			}
+		}
+		return null;
+	}
+
+	private int slot(final int hash, final int length) {
+		int h = hash * 31 + length;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	private static CompiledPolicy.CompiledStatement first(final CompiledPolicy.CompiledStatement[] statements,
+														  final String url, final CharSequence remoteIp,
+														  final int ipStart, final int ipEnd, final long now) {
+		for (CompiledPolicy.CompiledStatement statement : statements) {
+			if (!statement.isExpiredAt(now)
+				&& !statement.isNotYetValidAt(now)
+				&& statement.matchesIpAddress(remoteIp, ipStart, ipEnd)
+				&& (url != null || statement.getStatement().getResource() == null)
+				&& statement.matchesResource(url)) {
+				return statement;
+			}
+		}
+		return null;
+	}
+
+	private static CompiledPolicy.CompiledStatement[] toArray(final List<CompiledPolicy.CompiledStatement> list) {
+		return list.isEmpty() ? NO_STATEMENTS : list.toArray(new CompiledPolicy.CompiledStatement[list.size()]);
+	}
+
+	private static int literalPrefixLength(final String resource) {
+		for (int i = 0; i < resource.length(); i++) {
+			char c = resource.charAt(i);
+			if (c == '*' || c == '?') {
+				return i;
+			}
+		}
+		return resource.length();
+	}
+
+	private static final class Group {
+		private final String prefix;
+		private final int hash;
+		private final CompiledPolicy.CompiledStatement[] statements;
+
+		Group(final String prefix, final CompiledPolicy.CompiledStatement[] statements) {
+			this.prefix = prefix;
+			this.hash = prefix.hashCode();
+			this.statements = statements;
+		}
+	}
+}
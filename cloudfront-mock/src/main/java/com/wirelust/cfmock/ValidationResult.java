@@ -0,0 +1,63 @@
+package com.wirelust.cfmock;
+
+/**
+ * The outcome of validating one signed request. A request is either valid, rejected because its signature, resource
+ * or ip address did not match, or could not be validated at all, for example because it is expired or incomplete.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class ValidationResult {
+
+	private final SignedRequest request;
+	private final boolean valid;
+	private final RuntimeException error;
+
+	private ValidationResult(final SignedRequest request, final boolean valid, final RuntimeException error) {
+		this.request = request;
+		this.valid = valid;
+		this.error = error;
+	}
+
+	public static ValidationResult of(final SignedRequest request, final boolean valid) {
+		return new ValidationResult(request, valid, null);
+	}
+
+	public static ValidationResult error(final SignedRequest request, final RuntimeException error) {
+		return new ValidationResult(request, false, error);
+	}
+
+	public SignedRequest getRequest() {
+		return request;
+	}
+
+	/**
+	 * @return true if the request is allowed
+	 */
+	public boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * @return true if the request could not be validated, {@link #getError()} says why
+	 */
+	public boolean isError() {
+		return error != null;
+	}
+
+	/**
+	 * @return the reason the request could not be validated or null if it was
+	 */
+	public RuntimeException getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		if (error != null) {
+			return "ValidationResult{error=" + error.getMessage() + "}";
+		}
+		return "ValidationResult{valid=" + valid + "}";
+	}
+}
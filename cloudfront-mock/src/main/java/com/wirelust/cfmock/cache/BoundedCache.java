@@ -0,0 +1,363 @@
+package com.wirelust.cfmock.cache;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * A concurrent cache bounded in size where every entry expires at a fixed time.
+ *
+ * Reads go straight to a {@link ConcurrentHashMap}. The bound is hard: a thread adding an entry first reserves its
+ * weight, by default every entry weighs 1, and while the cache would be over its maximum it evicts entries itself
+ * before adding its own. If nothing can be evicted the new entry is rejected rather than let the cache grow, so a
+ * flood of new keys cannot push it past its bound however many threads add at once.
+ *
+ * Eviction follows the clock algorithm. Entries are queued in the order they were added and a read marks an entry
+ * as referenced. The entry at the head of the queue is dropped if it has expired or was not referenced since it was
+ * last passed, otherwise it is unmarked and moved to the back, so an eviction costs a constant amount of work on
+ * average instead of sorting the whole cache.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class BoundedCache<K, V> {
+
+	private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+	private final ConcurrentLinkedQueue<Entry<K, V>> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger queued = new AtomicInteger();
+	private final AtomicLong weight = new AtomicLong();
+	private final AtomicBoolean purging = new AtomicBoolean();
+	private final long maxWeight;
+	private final ToIntFunction<? super V> weigher;
+	private final long ttlMillis;
+	private final Clock clock;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+	private final LongAdder rejections = new LongAdder();
+
+	/**
+	 * @param maxSize maximum number of entries to keep
+	 * @param ttlMillis longest time an entry is kept after being added
+	 */
+	public BoundedCache(final int maxSize, final long ttlMillis) {
+		this(maxSize, ttlMillis, Clock.systemUTC());
+	}
+
+	/**
+	 * @param maxSize maximum number of entries to keep
+	 * @param ttlMillis longest time an entry is kept after being added
+	 * @param clock clock entries are expired against
+	 */
+	public BoundedCache(final int maxSize, final long ttlMillis, final Clock clock) {
+		this(checkMaxSize(maxSize), value -> 1, ttlMillis, clock);
+	}
+
+	/**
+	 * @param maxWeight maximum total weight of the entries kept
+	 * @param weigher works out the weight of a value, such as its size in bytes, called once when it is added. an
+	 *                entry weighs at least 1
+	 * @param ttlMillis longest time an entry is kept after being added
+	 * @param clock clock entries are expired against
+	 */
+	public BoundedCache(final long maxWeight, final ToIntFunction<? super V> weigher, final long ttlMillis,
+						final Clock clock) {
+		if (maxWeight < 1) {
+			throw new IllegalArgumentException("maxWeight must be at least 1");
+		}
+		if (weigher == null) {
+			throw new IllegalArgumentException("weigher may not be null");
+		}
+		if (ttlMillis < 1) {
+			throw new IllegalArgumentException("ttlMillis must be at least 1");
+		}
+		if (clock == null) {
+			throw new IllegalArgumentException("clock may not be null");
+		}
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+		this.ttlMillis = ttlMillis;
+		this.clock = clock;
+	}
+
+	/**
+	 * @return the cached value or null if it is not cached or has expired
+	 */
+	public V get(final K key) {
+		Entry<K, V> entry = entries.get(key);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		if (entry.expiresAt <= now()) {
+			if (remove(entry)) {
+				expirations.increment();
+			}
+			misses.increment();
+			return null;
+		}
+		// only written when it changes so hits on a popular entry don't all write to it
+		if (!entry.referenced) {
+			entry.referenced = true;
+		}
+		hits.increment();
+		return entry.value;
+	}
+
+	/**
+	 * Gets the cached value, loading and caching it when it is not cached. Concurrent callers may load the same
+	 * value more than once.
+	 *
+	 * @return the value, null if the loader returned null
+	 */
+	public V get(final K key, final Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value == null) {
+			value = loader.apply(key);
+			if (value != null) {
+				put(key, value);
+			}
+		}
+		return value;
+	}
+
+	public boolean contains(final K key) {
+		return get(key) != null;
+	}
+
+	public void put(final K key, final V value) {
+		put(key, value, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param expiresAt time in epoch millis after which the entry is no longer returned. the entry never lives longer
+	 *                  than the ttl of the cache
+	 * @return false if the entry was not added, because it had already expired, weighs more than the whole cache or
+	 *         nothing could be evicted to make room for it
+	 */
+	public boolean put(final K key, final V value, final long expiresAt) {
+		long now = now();
+		long expires = Math.min(expiresAt, now + ttlMillis);
+		if (expires <= now) {
+			return false;
+		}
+		Entry<K, V> entry = new Entry<>(key, value, expires, Math.max(1, weigher.applyAsInt(value)));
+		if (entry.weight > maxWeight) {
+			rejections.increment();
+			return false;
+		}
+
+		weight.addAndGet(entry.weight);
+		while (weight.get() > maxWeight) {
+			if (!evictOne(now)) {
+				weight.addAndGet(-entry.weight);
+				rejections.increment();
+				return false;
+			}
+		}
+		Entry<K, V> replaced = entries.put(key, entry);
+		if (replaced != null) {
+			release(replaced);
+		}
+		queue.offer(entry);
+		// replaced and invalidated entries stay queued until the clock passes them, they are dropped in bulk when
+		// they start to outnumber the live ones
+		if (queued.incrementAndGet() > 2 * entries.size() + 16) {
+			purge(now);
+		}
+		return true;
+	}
+
+	public void invalidate(final K key) {
+		Entry<K, V> entry = entries.get(key);
+		if (entry != null) {
+			remove(entry);
+		}
+	}
+
+	public void invalidateAll() {
+		for (Entry<K, V> entry : entries.values()) {
+			remove(entry);
+		}
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the maximum total weight, the maximum number of entries when entries are not weighed
+	 */
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * @return the total weight of the entries, along with any being added
+	 */
+	public long getWeight() {
+		return weight.get();
+	}
+
+	public long getTtlMillis() {
+		return ttlMillis;
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	public long getExpirationCount() {
+		return expirations.sum();
+	}
+
+	/**
+	 * @return the number of entries not added because the cache was full and nothing could be evicted
+	 */
+	public long getRejectionCount() {
+		return rejections.sum();
+	}
+
+	protected long now() {
+		return clock.millis();
+	}
+
+	private static int checkMaxSize(final int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("maxSize must be at least 1");
+		}
+		return maxSize;
+	}
+
+	/**
+	 * Moves the clock hand until one entry has been dropped, then drops any expired entries directly behind it.
+	 *
+	 * @return false if every queued entry was passed without one being dropped
+	 */
+	private boolean evictOne(final long now) {
+		// every entry is passed at most twice, once to unmark it and once to drop it
+		int limit = 2 * queued.get() + 1;
+		for (int i = 0; i < limit; i++) {
+			Entry<K, V> entry = queue.poll();
+			if (entry == null) {
+				return false;
+			}
+			queued.decrementAndGet();
+			if (entry.removed) {
+				continue;
+			}
+			if (entry.expiresAt <= now) {
+				if (remove(entry)) {
+					expirations.increment();
+					dropExpiredHead(now);
+					return true;
+				}
+				continue;
+			}
+			if (entry.referenced) {
+				entry.referenced = false;
+				queue.offer(entry);
+				queued.incrementAndGet();
+				continue;
+			}
+			if (remove(entry)) {
+				evictions.increment();
+				dropExpiredHead(now);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void dropExpiredHead(final long now) {
+		for (Entry<K, V> head = queue.peek(); head != null && (head.removed || head.expiresAt <= now);
+			 head = queue.peek()) {
+			if (!queue.remove(head)) {
+				return;
+			}
+			queued.decrementAndGet();
+			if (remove(head)) {
+				expirations.increment();
+			}
+		}
+	}
+
+	/**
+	 * Passes over the queue once, dropping entries that are no longer cached and expired entries.
+	 */
+	private void purge(final long now) {
+		if (!purging.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			for (int i = queued.get(); i > 0; i--) {
+				Entry<K, V> entry = queue.poll();
+				if (entry == null) {
+					return;
+				}
+				queued.decrementAndGet();
+				if (entry.removed) {
+					continue;
+				}
+				if (entry.expiresAt <= now) {
+					if (remove(entry)) {
+						expirations.increment();
+					}
+					continue;
+				}
+				queue.offer(entry);
+				queued.incrementAndGet();
+			}
+		} finally {
+			purging.set(false);
+		}
+	}
+
+	private boolean remove(final Entry<K, V> entry) {
+		if (entries.remove(entry.key, entry)) {
+			release(entry);
+			return true;
+		}
+		return false;
+	}
+
+	private void release(final Entry<K, V> entry) {
+		entry.removed = true;
+		weight.addAndGet(-entry.weight);
+	}
+
+	private static final class Entry<K, V> {
+		final K key;
+		final V value;
+		final long expiresAt;
+		final int weight;
+
+		volatile boolean referenced;
+		volatile boolean removed;
+
+		Entry(final K key, final V value, final long expiresAt, final int weight) {
+			this.key = key;
+			this.value = value;
+			this.expiresAt = expiresAt;
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.wirelust.cfmock.cache;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.CFKeyPair;
+
+/**
+ * Remembers recently rejected credentials so a replayed forged or expired signature can be turned away without
+ * decoding, parsing or verifying it again.
+ *
+ * Entries are keyed on the key pair along with the raw credential values exactly as they were received, such as the
+ * signature, policy, url and ip address. The value is the response status the request was rejected with so a
+ * replayed request gets the same answer. Credentials longer than {@link #MAX_KEY_LENGTH} characters are never
+ * remembered, together with the maximum size this bounds the memory an attacker can make the cache use.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class NegativeCache {
+
+	public static final int DEFAULT_MAX_SIZE = 10000;
+	public static final long DEFAULT_TTL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+	public static final int MAX_KEY_LENGTH = 16384;
+
+	private final BoundedCache<Key, Integer> cache;
+
+	public NegativeCache() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+	}
+
+	public NegativeCache(final int maxSize, final long ttlMillis) {
+		this(maxSize, ttlMillis, Clock.systemUTC());
+	}
+
+	public NegativeCache(final int maxSize, final long ttlMillis, final Clock clock) {
+		cache = new BoundedCache<>(maxSize, ttlMillis, clock);
+	}
+
+	/**
+	 * @param keyPair key pair registered for the key id, null if there is none. a key pair that is reloaded does
+	 *                not match rejections recorded against the old one
+	 * @param values raw credential values, nulls are allowed
+	 * @return a key for the credentials or null if they are too long to remember
+	 */
+	public static Key key(final CFKeyPair keyPair, final String... values) {
+		int length = 0;
+		for (String value : values) {
+			if (value != null) {
+				length += value.length();
+			}
+		}
+		if (length > MAX_KEY_LENGTH) {
+			return null;
+		}
+		return new Key(keyPair, values.clone());
+	}
+
+	/**
+	 * @return the status the credentials were rejected with or null if they were not recently rejected
+	 */
+	public Integer getRejection(final Key key) {
+		if (key == null) {
+			return null;
+		}
+		return cache.get(key);
+	}
+
+	/**
+	 * @param status response status the credentials were rejected with
+	 */
+	public void reject(final Key key, final int status) {
+		if (key != null) {
+			cache.put(key, status);
+		}
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	public long getMissCount() {
+		return cache.getMissCount();
+	}
+
+	public long getEvictionCount() {
+		return cache.getEvictionCount();
+	}
+
+	public long getExpirationCount() {
+		return cache.getExpirationCount();
+	}
+
+	/**
+	 * Key pairs are compared by identity, the credential values by equality.
+	 */
+	public static final class Key {
+		private final CFKeyPair keyPair;
+		private final String[] values;
+		private final int hash;
+
+		Key(final CFKeyPair keyPair, final String[] values) {
+			this.keyPair = keyPair;
+			this.values = values;
+			this.hash = 31 * System.identityHashCode(keyPair) + Arrays.hashCode(values);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key)o;
+			return hash == other.hash
+				&& keyPair == other.keyPair
+				&& Arrays.equals(values, other.values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
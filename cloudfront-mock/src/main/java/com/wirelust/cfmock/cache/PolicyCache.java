@@ -0,0 +1,111 @@
+package com.wirelust.cfmock.cache;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.CompiledPolicy;
+
+/**
+ * Keeps compiled policies keyed by the base64 policy exactly as it was received, a policy cookie is usually the same
+ * for every request in a session so it only has to be decoded, parsed and compiled once.
+ *
+ * Only policies whose signature has been verified should be added, otherwise anyone could fill the cache with
+ * policies nobody signed. The cache is bounded by an estimate of the memory its policies hold rather than their
+ * number, so a few very large policies can't take more room than many small ones. An entry is dropped once every
+ * statement in the policy has expired.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class PolicyCache {
+
+	public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+	public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	// rough cost of the map entry, the compiled policy and each compiled statement apart from their text
+	private static final int ENTRY_BYTES = 256;
+	private static final int STATEMENT_BYTES = 256;
+
+	private final BoundedCache<String, CompiledPolicy> cache;
+
+	public PolicyCache() {
+		this(DEFAULT_MAX_BYTES, DEFAULT_TTL_MILLIS);
+	}
+
+	public PolicyCache(final long maxBytes, final long ttlMillis) {
+		this(maxBytes, ttlMillis, Clock.systemUTC());
+	}
+
+	/**
+	 * @param maxBytes the most memory the cached policies may hold, as estimated by {@link #weigh(CompiledPolicy)}
+	 * @param ttlMillis longest time a policy is kept after being added
+	 * @param clock clock entries are expired against
+	 */
+	public PolicyCache(final long maxBytes, final long ttlMillis, final Clock clock) {
+		cache = new BoundedCache<>(maxBytes, PolicyCache::weigh, ttlMillis, clock);
+	}
+
+	/**
+	 * @param policyBase64 the policy as it was received
+	 * @return the compiled policy or null if it is not cached
+	 */
+	public CompiledPolicy get(final String policyBase64) {
+		return cache.get(policyBase64);
+	}
+
+	/**
+	 * @param policyBase64 the policy as it was received
+	 * @param compiledPolicy the policy, compiled from the verified bytes
+	 * @return false if the policy was not cached because it has expired or is too large
+	 */
+	public boolean put(final String policyBase64, final CompiledPolicy compiledPolicy) {
+		return cache.put(policyBase64, compiledPolicy, TimeUnit.SECONDS.toMillis(compiledPolicy.getExpiresAt()));
+	}
+
+	/**
+	 * Estimates the memory held by a cached policy. The base64 key takes two bytes a character and is a third longer
+	 * than the policy, the signed bytes are kept once and the parsed statements hold about another copy of the text.
+	 */
+	static int weigh(final CompiledPolicy compiledPolicy) {
+		long bytes = ENTRY_BYTES
+			+ 6L * compiledPolicy.getSignedPolicyLength()
+			+ (long)STATEMENT_BYTES * compiledPolicy.getStatements().size();
+		return (int)Math.min(Integer.MAX_VALUE, bytes);
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	public long getMaxBytes() {
+		return cache.getMaxWeight();
+	}
+
+	/**
+	 * @return the estimated memory held by the cached policies
+	 */
+	public long getBytes() {
+		return cache.getWeight();
+	}
+
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	public long getMissCount() {
+		return cache.getMissCount();
+	}
+
+	public long getEvictionCount() {
+		return cache.getEvictionCount();
+	}
+
+	public long getExpirationCount() {
+		return cache.getExpirationCount();
+	}
+}
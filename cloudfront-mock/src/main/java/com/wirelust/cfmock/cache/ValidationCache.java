@@ -0,0 +1,164 @@
+package com.wirelust.cfmock.cache;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.CFKeyPair;
+import com.wirelust.cfmock.SignatureVerifier;
+
+/**
+ * Remembers signatures that were successfully verified so the RSA verification does not have to be repeated when
+ * the same signed cookie or url is used again.
+ *
+ * Entries are keyed on the key pair, the signature and the exact policy bytes that were signed, for canned policies
+ * these contain the url and expiry time. An entry never outlives the policy it was verified for. Only successful
+ * verifications are cached, the resource, ip address and time checks still run on every request.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class ValidationCache {
+
+	public static final int DEFAULT_MAX_SIZE = 10000;
+	public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private final BoundedCache<Key, Boolean> cache;
+
+	public ValidationCache() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+	}
+
+	public ValidationCache(final int maxSize, final long ttlMillis) {
+		this(maxSize, ttlMillis, Clock.systemUTC());
+	}
+
+	public ValidationCache(final int maxSize, final long ttlMillis, final Clock clock) {
+		cache = new BoundedCache<>(maxSize, ttlMillis, clock);
+	}
+
+	/**
+	 * Verifies the signature, skipping the RSA verification if the same signature was already verified.
+	 *
+	 * @param keyPair key pair the policy was signed with
+	 * @param policy the exact policy bytes that were signed
+	 * @param signature CloudFront-safe base64 signature
+	 * @param expiresAt time in epoch millis when the policy expires
+	 * @return true if the signature is valid
+	 */
+	public boolean verify(final CFKeyPair keyPair, final byte[] policy, final String signature,
+						  final long expiresAt) {
+		return verify(keyPair, policy, policy.length, signature, expiresAt);
+	}
+
+	/**
+	 * Verifies a policy held at the start of a larger buffer.
+	 *
+	 * @param length length of the policy in the buffer
+	 * @see #verify(CFKeyPair, byte[], String, long)
+	 */
+	public boolean verify(final CFKeyPair keyPair, final byte[] policy, final int length, final String signature,
+						  final long expiresAt) {
+		Key key = new Key(keyPair, signature, policy, length);
+		if (cache.get(key) != null) {
+			return true;
+		}
+
+		boolean valid = SignatureVerifier.verify(policy, length, signature, keyPair.getPublicKey());
+		if (valid) {
+			// the caller owns the policy buffer, keep a copy so the entry can't change under us
+			cache.put(new Key(keyPair, signature, Arrays.copyOf(policy, length), length), Boolean.TRUE, expiresAt);
+		}
+		return valid;
+	}
+
+	/**
+	 * Remembers a signature the caller has already verified against the policy.
+	 *
+	 * @param policy the exact policy bytes that were signed, they must not be modified afterwards
+	 * @see #verify(CFKeyPair, byte[], String, long)
+	 */
+	public void add(final CFKeyPair keyPair, final byte[] policy, final String signature, final long expiresAt) {
+		cache.put(new Key(keyPair, signature, policy, policy.length), Boolean.TRUE, expiresAt);
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	public long getMissCount() {
+		return cache.getMissCount();
+	}
+
+	public long getEvictionCount() {
+		return cache.getEvictionCount();
+	}
+
+	public long getExpirationCount() {
+		return cache.getExpirationCount();
+	}
+
+	/**
+	 * Compares the full signature and policy so a hash collision can never let an unverified signature through.
+	 * Key pairs are compared by identity, a reloaded key pair does not match entries verified with the old one.
+	 */
+	static final class Key {
+		private final CFKeyPair keyPair;
+		private final String signature;
+		private final byte[] policy;
+		private final int length;
+		private final int hash;
+
+		Key(final CFKeyPair keyPair, final String signature, final byte[] policy, final int length) {
+			this.keyPair = keyPair;
+			this.signature = signature;
+			this.policy = policy;
+			this.length = length;
+			int h = System.identityHashCode(keyPair);
+			h = 31 * h + signature.hashCode();
+			for (int i = 0; i < length; i++) {
+				h = 31 * h + policy[i];
+			}
+			this.hash = h;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key)o;
+			return hash == other.hash
+				&& keyPair == other.keyPair
+				&& length == other.length
+				&& signature.equals(other.signature)
+				&& policyEquals(other);
+		}
+
+		private boolean policyEquals(final Key other) {
+			for (int i = 0; i < length; i++) {
+				if (policy[i] != other.policy[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,310 @@
+package com.wirelust.cfmock.util;
+
+/**
+ * An ip address range in CIDR notation compiled for matching, for example {@code 192.0.2.0/24} or
+ * {@code 2001:db8::/32}.
+ *
+ * Addresses are held as 128 bit values in two longs, IPv4 addresses are mapped into {@code ::ffff:0:0/96} so an
+ * IPv4 range also matches IPv4-mapped IPv6 addresses. Addresses are parsed straight from the characters given,
+ * matching does not allocate. Every address in the range matches, including the network and broadcast addresses.
+ * Instances are immutable and safe to share between threads.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class CidrMatcher {
+
+	private static final long IPV4_MAPPED = 0x0000ffff00000000L;
+	private static final int IPV4_PREFIX_OFFSET = 96;
+
+	/**
+	 * Receives a parsed 128 bit address.
+	 */
+	private interface AddressConsumer {
+		boolean accept(long high, long low);
+	}
+
+	private final String cidr;
+	private final AddressConsumer inRange = this::inRange;
+	private final long networkHigh;
+	private final long networkLow;
+	private final long maskHigh;
+	private final long maskLow;
+
+	private CidrMatcher(final String cidr, final long high, final long low, final int prefix) {
+		this.cidr = cidr;
+		this.maskHigh = prefix == 0 ? 0 : prefix >= 64 ? -1L : -1L << (64 - prefix);
+		this.maskLow = prefix <= 64 ? 0 : prefix == 128 ? -1L : -1L << (128 - prefix);
+		this.networkHigh = high & maskHigh;
+		this.networkLow = low & maskLow;
+	}
+
+	/**
+	 * @param cidr the range, an address without a prefix length is a range of one address
+	 * @return the compiled range
+	 * @throws IllegalArgumentException if the range is not valid
+	 */
+	public static CidrMatcher compile(final String cidr) {
+		if (cidr == null) {
+			throw new IllegalArgumentException("cidr may not be null");
+		}
+		int slash = cidr.indexOf('/');
+		int end = slash < 0 ? cidr.length() : slash;
+
+		boolean ipv4 = isIpv4(cidr, 0, end);
+		long high;
+		long low;
+		if (ipv4) {
+			long address = parseIpv4(cidr, 0, end);
+			if (address < 0) {
+				throw new IllegalArgumentException("invalid address:" + cidr);
+			}
+			high = 0;
+			low = IPV4_MAPPED | address;
+		} else {
+			long[] parsed = new long[2];
+			boolean valid = parseIpv6(cidr, 0, end, (parsedHigh, parsedLow) -> {
+				parsed[0] = parsedHigh;
+				parsed[1] = parsedLow;
+				return true;
+			});
+			if (!valid) {
+				throw new IllegalArgumentException("invalid address:" + cidr);
+			}
+			high = parsed[0];
+			low = parsed[1];
+		}
+
+		int maxPrefix = ipv4 ? 32 : 128;
+		int prefix = maxPrefix;
+		if (slash >= 0) {
+			prefix = parseDecimal(cidr, slash + 1, cidr.length(), maxPrefix);
+			if (prefix < 0) {
+				throw new IllegalArgumentException("invalid prefix length:" + cidr);
+			}
+		}
+		return new CidrMatcher(cidr, high, low, ipv4 ? prefix + IPV4_PREFIX_OFFSET : prefix);
+	}
+
+	/**
+	 * @return true if the address is in the range, false if it is not or is not a valid address
+	 */
+	public boolean matches(final CharSequence address) {
+		return address != null && matches(address, 0, address.length());
+	}
+
+	/**
+	 * Matches the address found between start and end, surrounding whitespace is ignored.
+	 *
+	 * @return true if the address is in the range, false if it is not or is not a valid address
+	 */
+	public boolean matches(final CharSequence address, final int start, final int end) {
+		int from = start;
+		int to = end;
+		while (from < to && Character.isWhitespace(address.charAt(from))) {
+			from++;
+		}
+		while (to > from && Character.isWhitespace(address.charAt(to - 1))) {
+			to--;
+		}
+		if (from == to) {
+			return false;
+		}
+
+		if (isIpv4(address, from, to)) {
+			long ipv4 = parseIpv4(address, from, to);
+			return ipv4 >= 0 && inRange(0, IPV4_MAPPED | ipv4);
+		}
+
+		// a zone id is local to the host, it never affects which range the address is in
+		for (int i = from; i < to; i++) {
+			if (address.charAt(i) == '%') {
+				to = i;
+				break;
+			}
+		}
+		return parseIpv6(address, from, to, inRange);
+	}
+
+	public String getCidr() {
+		return cidr;
+	}
+
+	@Override
+	public String toString() {
+		return cidr;
+	}
+
+	private boolean inRange(final long high, final long low) {
+		return (high & maskHigh) == networkHigh && (low & maskLow) == networkLow;
+	}
+
+	private static boolean isIpv4(final CharSequence value, final int start, final int end) {
+		for (int i = start; i < end; i++) {
+			if (value.charAt(i) == ':') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the address as an unsigned 32 bit value or -1 if it is not a valid dotted quad
+	 */
+	private static long parseIpv4(final CharSequence value, final int start, final int end) {
+		long address = 0;
+		int octets = 0;
+		int octetStart = start;
+		for (int i = start; i <= end; i++) {
+			if (i == end || value.charAt(i) == '.') {
+				int octet = parseDecimal(value, octetStart, i, 255);
+				if (octet < 0 || ++octets > 4) {
+					return -1;
+				}
+				address = (address << 8) | octet;
+				octetStart = i + 1;
+			}
+		}
+		return octets == 4 ? address : -1;
+	}
+
+	/**
+	 * @return the decimal number or -1 if it is empty, longer than three digits, not a number or above max
+	 */
+	private static int parseDecimal(final CharSequence value, final int start, final int end, final int max) {
+		if (start >= end || end - start > 3) {
+			return -1;
+		}
+		int number = 0;
+		for (int i = start; i < end; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			number = number * 10 + (c - '0');
+		}
+		return number > max ? -1 : number;
+	}
+
+	/**
+	 * Parses an IPv6 address, including compressed {@code ::} forms and a trailing dotted quad. The groups before
+	 * and after {@code ::} are collected separately as 128 bit values and joined at the end.
+	 *
+	 * @param consumer given the parsed address
+	 * @return false if the address is not valid, otherwise the result of the consumer
+	 */
+	private static boolean parseIpv6(final CharSequence value, final int start, final int end,
+									 final AddressConsumer consumer) {
+		long headHigh = 0;
+		long headLow = 0;
+		int headGroups = 0;
+		long tailHigh = 0;
+		long tailLow = 0;
+		int tailGroups = 0;
+		boolean compressed = false;
+
+		int i = start;
+		if (end - start >= 2 && value.charAt(start) == ':' && value.charAt(start + 1) == ':') {
+			compressed = true;
+			i = start + 2;
+		} else if (end > start && value.charAt(start) == ':') {
+			return false;
+		}
+
+		while (i < end) {
+			int groupEnd = i;
+			boolean dotted = false;
+			while (groupEnd < end && value.charAt(groupEnd) != ':') {
+				if (value.charAt(groupEnd) == '.') {
+					dotted = true;
+				}
+				groupEnd++;
+			}
+
+			long group;
+			int groups;
+			if (dotted) {
+				if (groupEnd != end) {
+					return false;
+				}
+				group = parseIpv4(value, i, groupEnd);
+				groups = 2;
+			} else {
+				group = parseHexGroup(value, i, groupEnd);
+				groups = 1;
+			}
+			if (group < 0) {
+				return false;
+			}
+
+			int bits = 16 * groups;
+			if (compressed) {
+				tailHigh = (tailHigh << bits) | (tailLow >>> (64 - bits));
+				tailLow = (tailLow << bits) | group;
+				tailGroups += groups;
+			} else {
+				headHigh = (headHigh << bits) | (headLow >>> (64 - bits));
+				headLow = (headLow << bits) | group;
+				headGroups += groups;
+			}
+			if (headGroups + tailGroups > 8) {
+				return false;
+			}
+
+			if (groupEnd == end) {
+				break;
+			}
+			// skip the separator, a second one marks the compressed groups
+			i = groupEnd + 1;
+			if (i < end && value.charAt(i) == ':') {
+				if (compressed) {
+					return false;
+				}
+				compressed = true;
+				i++;
+			} else if (i == end) {
+				return false;
+			}
+		}
+
+		if (compressed ? headGroups + tailGroups > 7 : headGroups != 8) {
+			return false;
+		}
+		int shift = 16 * (8 - headGroups);
+		long resultHigh;
+		long resultLow;
+		if (shift >= 128) {
+			resultHigh = 0;
+			resultLow = 0;
+		} else if (shift >= 64) {
+			resultHigh = headLow << (shift - 64);
+			resultLow = 0;
+		} else if (shift > 0) {
+			resultHigh = (headHigh << shift) | (headLow >>> (64 - shift));
+			resultLow = headLow << shift;
+		} else {
+			resultHigh = headHigh;
+			resultLow = headLow;
+		}
+		return consumer.accept(resultHigh | tailHigh, resultLow | tailLow);
+	}
+
+	/**
+	 * @return the group as an unsigned 16 bit value or -1 if it is not one to four hex digits
+	 */
+	private static long parseHexGroup(final CharSequence value, final int start, final int end) {
+		if (start >= end || end - start > 4) {
+			return -1;
+		}
+		long group = 0;
+		for (int i = start; i < end; i++) {
+			int digit = Character.digit(value.charAt(i), 16);
+			if (digit < 0) {
+				return -1;
+			}
+			group = (group << 4) | digit;
+		}
+		return group;
+	}
+}
@@ -0,0 +1,164 @@
+package com.wirelust.cfmock.util;
+
+import java.util.Arrays;
+
+/**
+ * Encodes and decodes the url-safe variant of base64 CloudFront uses for policies and signatures, where '+' is
+ * replaced with '-', '=' with '_' and '/' with '~'.
+ *
+ * Decoding reads the characters in a single pass straight into the output bytes without building any intermediate
+ * strings. The standard base64 characters are accepted as well and padding is optional, a value may even mix the
+ * two alphabets.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class CloudFrontBase64 {
+
+	private static final char[] ALPHABET =
+		"ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-~".toCharArray();
+
+	private static final byte INVALID = -1;
+	private static final byte PADDING = -2;
+
+	private static final byte[] DECODE = new byte[128];
+
+	static {
+		Arrays.fill(DECODE, INVALID);
+		for (int i = 0; i < ALPHABET.length; i++) {
+			DECODE[ALPHABET[i]] = (byte)i;
+		}
+		DECODE['+'] = 62;
+		DECODE['/'] = 63;
+		DECODE['_'] = PADDING;
+		DECODE['='] = PADDING;
+	}
+
+	private CloudFrontBase64() {
+		// static only class
+	}
+
+	/**
+	 * @param bytes bytes to encode
+	 * @return the bytes encoded with the CloudFront alphabet, padded with '_'
+	 */
+	public static String encode(final byte[] bytes) {
+		char[] encoded = new char[(bytes.length + 2) / 3 * 4];
+		int out = 0;
+		int i = 0;
+		for (; i + 2 < bytes.length; i += 3) {
+			int block = (bytes[i] & 0xff) << 16 | (bytes[i + 1] & 0xff) << 8 | bytes[i + 2] & 0xff;
+			encoded[out++] = ALPHABET[block >>> 18];
+			encoded[out++] = ALPHABET[block >>> 12 & 0x3f];
+			encoded[out++] = ALPHABET[block >>> 6 & 0x3f];
+			encoded[out++] = ALPHABET[block & 0x3f];
+		}
+		int remaining = bytes.length - i;
+		if (remaining > 0) {
+			int block = (bytes[i] & 0xff) << 16 | (remaining == 2 ? (bytes[i + 1] & 0xff) << 8 : 0);
+			encoded[out++] = ALPHABET[block >>> 18];
+			encoded[out++] = ALPHABET[block >>> 12 & 0x3f];
+			encoded[out++] = remaining == 2 ? ALPHABET[block >>> 6 & 0x3f] : '_';
+			encoded[out] = '_';
+		}
+		return new String(encoded);
+	}
+
+	/**
+	 * @param encoded base64 value
+	 * @return the decoded bytes
+	 * @throws IllegalArgumentException if the value is not valid base64
+	 */
+	public static byte[] decode(final CharSequence encoded) {
+		byte[] decoded = new byte[decodedLength(encoded)];
+		decode(encoded, decoded, 0);
+		return decoded;
+	}
+
+	/**
+	 * Decodes into a buffer supplied by the caller, a buffer can be reused for any number of values.
+	 *
+	 * @param encoded base64 value
+	 * @param buffer buffer to decode into
+	 * @param offset where in the buffer to start writing
+	 * @return the number of bytes decoded
+	 * @throws IllegalArgumentException if the value is not valid base64 or the buffer is too small
+	 */
+	public static int decode(final CharSequence encoded, final byte[] buffer, final int offset) {
+		int end = dataLength(encoded);
+		int length = decodedLength(end);
+		if (offset < 0 || buffer.length - offset < length) {
+			throw new IllegalArgumentException("buffer is too small to decode " + length + " bytes");
+		}
+
+		int out = offset;
+		int block = 0;
+		int count = 0;
+		for (int i = 0; i < end; i++) {
+			int value = value(encoded.charAt(i), i);
+			if (value == PADDING) {
+				throw new IllegalArgumentException("unexpected padding at:" + i);
+			}
+			block = block << 6 | value;
+			if (++count == 4) {
+				buffer[out++] = (byte)(block >>> 16);
+				buffer[out++] = (byte)(block >>> 8);
+				buffer[out++] = (byte)block;
+				block = 0;
+				count = 0;
+			}
+		}
+		if (count == 3) {
+			buffer[out++] = (byte)(block >>> 10);
+			buffer[out++] = (byte)(block >>> 2);
+		} else if (count == 2) {
+			buffer[out++] = (byte)(block >>> 4);
+		}
+		return out - offset;
+	}
+
+	/**
+	 * @param encoded base64 value
+	 * @return the number of bytes the value decodes to
+	 * @throws IllegalArgumentException if the value has a length base64 can't have
+	 */
+	public static int decodedLength(final CharSequence encoded) {
+		return decodedLength(dataLength(encoded));
+	}
+
+	private static int decodedLength(final int dataLength) {
+		if (dataLength % 4 == 1) {
+			throw new IllegalArgumentException("invalid base64 length:" + dataLength);
+		}
+		return dataLength / 4 * 3 + Math.max(0, dataLength % 4 - 1);
+	}
+
+	/**
+	 * @return the length of the value without its padding
+	 */
+	private static int dataLength(final CharSequence encoded) {
+		int end = encoded.length();
+		int padding = 0;
+		while (end > 0 && padding < 2) {
+			char c = encoded.charAt(end - 1);
+			if (c != '_' && c != '=') {
+				break;
+			}
+			end--;
+			padding++;
+		}
+		if (padding > 0 && (end + padding) % 4 != 0) {
+			throw new IllegalArgumentException("invalid base64 padding");
+		}
+		return end;
+	}
+
+	private static int value(final char c, final int index) {
+		int value = c < DECODE.length ? DECODE[c] : INVALID;
+		if (value == INVALID) {
+			throw new IllegalArgumentException("invalid base64 character at:" + index);
+		}
+		return value;
+	}
+}
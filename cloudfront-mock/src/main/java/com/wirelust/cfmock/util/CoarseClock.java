@@ -0,0 +1,130 @@
+package com.wirelust.cfmock.util;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * A clock that only reads the time from its source every so often and otherwise returns the last time it read.
+ *
+ * Signatures and cache entries are only checked to the second, so under load most requests can share a time that is
+ * a few milliseconds old instead of each reading the system clock. The time is refreshed on a daemon thread which is
+ * stopped when the clock is closed, after that the clock keeps returning the last time it read.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class CoarseClock extends Clock implements Closeable {
+
+	public static final long DEFAULT_RESOLUTION_MILLIS = 10;
+
+	private final Clock source;
+	private final long resolutionMillis;
+	private final Thread thread;
+
+	private volatile long millis;
+	private volatile boolean closed;
+
+	public CoarseClock() {
+		this(Clock.systemUTC(), DEFAULT_RESOLUTION_MILLIS);
+	}
+
+	/**
+	 * @param source clock to read the time from
+	 * @param resolutionMillis how often the time is read from the source
+	 */
+	public CoarseClock(final Clock source, final long resolutionMillis) {
+		if (source == null) {
+			throw new IllegalArgumentException("source may not be null");
+		}
+		if (resolutionMillis < 1) {
+			throw new IllegalArgumentException("resolutionMillis must be at least 1");
+		}
+		this.source = source;
+		this.resolutionMillis = resolutionMillis;
+		this.millis = source.millis();
+
+		thread = new Thread(this::run, "cfmock-coarse-clock");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public long millis() {
+		return millis;
+	}
+
+	@Override
+	public Instant instant() {
+		return Instant.ofEpochMilli(millis);
+	}
+
+	@Override
+	public ZoneId getZone() {
+		return source.getZone();
+	}
+
+	/**
+	 * @return a clock in the given zone that shares the time of this clock
+	 */
+	@Override
+	public Clock withZone(final ZoneId zone) {
+		if (zone.equals(getZone())) {
+			return this;
+		}
+		return new ZonedView(this, zone);
+	}
+
+	public long getResolutionMillis() {
+		return resolutionMillis;
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		thread.interrupt();
+	}
+
+	private void run() {
+		try {
+			while (!closed) {
+				Thread.sleep(resolutionMillis);
+				millis = source.millis();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final class ZonedView extends Clock {
+		private final CoarseClock clock;
+		private final ZoneId zone;
+
+		ZonedView(final CoarseClock clock, final ZoneId zone) {
+			this.clock = clock;
+			this.zone = zone;
+		}
+
+		@Override
+		public long millis() {
+			return clock.millis();
+		}
+
+		@Override
+		public Instant instant() {
+			return clock.instant();
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return zone;
+		}
+
+		@Override
+		public Clock withZone(final ZoneId zone) {
+			return clock.withZone(zone);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.wirelust.cfmock.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A wildcard pattern compiled for matching, {@code *} matches any number of characters and {@code ?} matches
+ * exactly one character, every other character matches itself.
+ *
+ * The pattern is split on {@code *} into segments when it is compiled. Matching checks the first segment against
+ * the start of the input and the last segment against the end, then finds each segment in between at its leftmost
+ * position after the previous one. Taking the leftmost position is always safe with only {@code *} between segments
+ * so nothing is ever backtracked, and matching does not allocate. Instances are immutable and safe to share between
+ * threads.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public final class CompiledWildcard {
+
+	private static final char ANY = '*';
+	private static final char ONE = '?';
+
+	private final String pattern;
+	private final boolean hasAny;
+	private final String[] segments;
+	private final boolean[] segmentHasOne;
+	private final int minLength;
+
+	private CompiledWildcard(final String pattern) {
+		this.pattern = pattern;
+
+		List<String> parts = new ArrayList<>();
+		int start = 0;
+		for (int i = 0; i < pattern.length(); i++) {
+			if (pattern.charAt(i) == ANY) {
+				parts.add(pattern.substring(start, i));
+				start = i + 1;
+			}
+		}
+		parts.add(pattern.substring(start));
+
+		this.hasAny = parts.size() > 1;
+		this.segments = parts.toArray(new String[parts.size()]);
+		this.segmentHasOne = new boolean[segments.length];
+		int length = 0;
+		for (int i = 0; i < segments.length; i++) {
+			segmentHasOne[i] = segments[i].indexOf(ONE) >= 0;
+			length += segments[i].length();
+		}
+		this.minLength = length;
+	}
+
+	public static CompiledWildcard compile(final String pattern) {
+		if (pattern == null) {
+			throw new IllegalArgumentException("pattern may not be null");
+		}
+		return new CompiledWildcard(pattern);
+	}
+
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * @return true if the whole input matches the pattern
+	 */
+	public boolean matches(final CharSequence input) {
+		int length = input.length();
+		if (!hasAny) {
+			return length == minLength && regionMatches(input, 0, 0);
+		}
+		if (length < minLength) {
+			return false;
+		}
+
+		int last = segments.length - 1;
+		int end = length - segments[last].length();
+		if (!regionMatches(input, 0, 0) || !regionMatches(input, end, last)) {
+			return false;
+		}
+
+		int position = segments[0].length();
+		for (int i = 1; i < last; i++) {
+			if (segments[i].isEmpty()) {
+				continue;
+			}
+			int found = indexOf(input, i, position, end);
+			if (found < 0) {
+				return false;
+			}
+			position = found + segments[i].length();
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+
+	/**
+	 * @return the leftmost position of the segment that ends at or before the limit, -1 if there is none
+	 */
+	private int indexOf(final CharSequence input, final int segment, final int from, final int limit) {
+		int segmentLength = segments[segment].length();
+		if (!segmentHasOne[segment] && input instanceof String) {
+			int found = ((String)input).indexOf(segments[segment], from);
+			return found >= 0 && found + segmentLength <= limit ? found : -1;
+		}
+		for (int i = from; i + segmentLength <= limit; i++) {
+			if (regionMatches(input, i, segment)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean regionMatches(final CharSequence input, final int offset, final int segment) {
+		String value = segments[segment];
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c != ONE && c != input.charAt(offset + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,117 @@
+package com.wirelust.cfmock.util;
+
+/**
+ * Picks the client address out of an {@code X-Forwarded-For} header.
+ *
+ * Every proxy appends the address it received the request from, so the header reads
+ * {@code client, proxy1, proxy2} and only the entries added by proxies we trust can be believed. With one trusted
+ * proxy in front of the server the client is the rightmost entry, with two it is the second from the right and so
+ * on. The header is scanned in place, {@link #clientAddressRange} finds the address without creating any string so it
+ * can be matched where it is with {@link CidrMatcher#matches(CharSequence, int, int)}.
+ *
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class ForwardedFor {
+
+	public static final String HEADER = "X-Forwarded-For";
+
+	/**
+	 * Returned by {@link #clientAddressRange} when the header holds no address.
+	 */
+	public static final long NONE = -1;
+
+	private ForwardedFor() {
+		// static only class
+	}
+
+	/**
+	 * @param header the X-Forwarded-For header
+	 * @param trustedHops number of trusted proxies in front of the server, at least 1
+	 * @return the client address without any port or brackets, the leftmost address if the header has fewer
+	 * entries than trusted hops, null if the header is empty
+	 */
+	public static String clientAddress(final String header, final int trustedHops) {
+		long range = clientAddressRange(header, trustedHops);
+		if (range == NONE) {
+			return null;
+		}
+		int start = start(range);
+		int end = end(range);
+		if (start == 0 && end == header.length()) {
+			return header;
+		}
+		return header.substring(start, end);
+	}
+
+	/**
+	 * Finds the client address without copying it out of the header.
+	 *
+	 * @param header the X-Forwarded-For header
+	 * @param trustedHops number of trusted proxies in front of the server, at least 1
+	 * @return the start and end of the client address in the header, read with {@link #start} and {@link #end}, or
+	 * {@link #NONE} if the header is empty
+	 */
+	public static long clientAddressRange(final String header, final int trustedHops) {
+		if (header == null) {
+			return NONE;
+		}
+		if (trustedHops < 1) {
+			throw new IllegalArgumentException("trustedHops must be at least 1");
+		}
+
+		int end = header.length();
+		int start = header.lastIndexOf(',', end - 1) + 1;
+		for (int hop = 1; hop < trustedHops && start > 0; hop++) {
+			end = start - 1;
+			start = header.lastIndexOf(',', end - 1) + 1;
+		}
+
+		while (start < end && Character.isWhitespace(header.charAt(start))) {
+			start++;
+		}
+		while (end > start && Character.isWhitespace(header.charAt(end - 1))) {
+			end--;
+		}
+		if (start == end) {
+			return NONE;
+		}
+
+		if (header.charAt(start) == '[') {
+			// [2001:db8::1]:8080
+			int close = header.indexOf(']', start);
+			if (close > 0 && close < end) {
+				start++;
+				end = close;
+			}
+		} else {
+			// 192.0.2.1:8080, an IPv6 address always has more than one colon
+			int colon = header.indexOf(':', start);
+			if (colon >= 0 && colon < end) {
+				int next = header.indexOf(':', colon + 1);
+				if (next < 0 || next >= end) {
+					end = colon;
+				}
+			}
+		}
+
+		return (long)start << 32 | end;
+	}
+
+	/**
+	 * @param range a range returned by {@link #clientAddressRange}
+	 * @return the index of the first character of the address
+	 */
+	public static int start(final long range) {
+		return (int)(range >>> 32);
+	}
+
+	/**
+	 * @param range a range returned by {@link #clientAddressRange}
+	 * @return the index after the last character of the address
+	 */
+	public static int end(final long range) {
+		return (int)range;
+	}
+}
@@ -1,7 +1,8 @@
 package com.wirelust.cfmock.util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+
+import com.wirelust.cfmock.cache.BoundedCache;
 
 /**
  * Date: 27-Jun-2016
@@ -10,14 +11,25 @@ import java.util.regex.Pattern;
  */
 public class WildcardMatcher {
 
+	private static final int CACHE_SIZE = 1000;
+	private static final long CACHE_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+	private static final BoundedCache<String, CompiledWildcard> COMPILED =
+		new BoundedCache<>(CACHE_SIZE, CACHE_TTL_MILLIS);
+
 	private WildcardMatcher() {
 		// static class can't be instantiated
 	}
 
 	public static boolean matches(final String input, final String pattern) {
-		Pattern regexPattern = Pattern.compile(wildcardToRegex(pattern));
-		Matcher matcher = regexPattern.matcher(input);
-		return matcher.matches();
+		return compile(pattern).matches(input);
+	}
+
+	/**
+	 * @return the compiled pattern, recently used patterns are only compiled once
+	 */
+	public static CompiledWildcard compile(final String pattern) {
+		return COMPILED.get(pattern, CompiledWildcard::compile);
 	}
 
 	public static String wildcardToRegex(final String input) {
@@ -0,0 +1,99 @@
+package com.wirelust.cfmock;
+
+import java.io.File;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.amazonaws.services.cloudfront.CloudFrontCookieSigner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class AsyncSignatureValidatorTest {
+
+	private static final String KEY_PAIR_ID = "test-keypair";
+	private static final String TEST_URL = "http://localhost/test/url.html";
+
+	File keyFile;
+	CFKeyPair keyPair;
+	Date expiresDate;
+	ExecutorService executor;
+	AsyncSignatureValidator asyncValidator;
+
+	@Before
+	public void init() throws Exception {
+		keyFile = new File(getClass().getClassLoader().getResource("keys/private_key.pem").toURI());
+		keyPair = CFKeyPair.load(KEY_PAIR_ID, keyFile);
+		expiresDate = new Date(System.currentTimeMillis() + 3600000);
+		executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "validator-test"));
+		asyncValidator = new AsyncSignatureValidator(executor);
+	}
+
+	@After
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void shouldValidateOnExecutor() throws Exception {
+		CloudFrontCookieSigner.CookiesForCannedPolicy cookies = CloudFrontCookieSigner.getCookiesForCannedPolicy(
+			null, null, keyFile, TEST_URL, KEY_PAIR_ID, expiresDate);
+
+		SignedRequest signedRequest = new SignedRequest();
+		signedRequest.setKeyPair(keyPair);
+		signedRequest.setKeyId(KEY_PAIR_ID);
+		signedRequest.setUrl(TEST_URL);
+		signedRequest.setExpires(new Date(Long.parseLong(cookies.getExpires().getValue()) * 1000));
+		signedRequest.setSignature(cookies.getSignature().getValue());
+
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		asyncValidator = new AsyncSignatureValidator(runnable -> executor.execute(() -> {
+			thread.set(Thread.currentThread());
+			runnable.run();
+		}));
+		ValidationResult result = asyncValidator.validate(signedRequest).get(30, TimeUnit.SECONDS);
+
+		assertTrue(result.isValid());
+		assertFalse(result.isError());
+		assertEquals("validator-test", thread.get().getName());
+	}
+
+	@Test
+	public void shouldCompleteWithError() throws Exception {
+		SignedRequest signedRequest = new SignedRequest();
+		signedRequest.setKeyPair(keyPair);
+		signedRequest.setKeyId(KEY_PAIR_ID);
+		signedRequest.setUrl(TEST_URL);
+		signedRequest.setExpires(new Date(System.currentTimeMillis() - 10000));
+		signedRequest.setSignature("signature");
+
+		ValidationResult result = asyncValidator.validate(signedRequest).get(30, TimeUnit.SECONDS);
+
+		assertFalse(result.isValid());
+		assertTrue(result.isError());
+		assertEquals(Constants.SIGNATURE_IS_EXPIRED, result.getError().getMessage());
+	}
+
+	@Test
+	public void shouldRequireExecutor() {
+		try {
+			new AsyncSignatureValidator(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("executor may not be null", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.wirelust.cfmock;
+
+import java.io.File;
+
+import com.wirelust.cfmock.exceptions.CFMockException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class CFKeyPairTest {
+
+	File privateKeyFile;
+	File publicKeyFile;
+
+	@Before
+	public void init() throws Exception {
+		privateKeyFile = new File(getClass().getClassLoader().getResource("keys/private_key.pem").toURI());
+		publicKeyFile = new File(getClass().getClassLoader().getResource("keys/public_key.pem").toURI());
+	}
+
+	@Test
+	public void shouldDerivePublicKeyFromPrivateKey() {
+		CFKeyPair fromPrivate = CFKeyPair.load("key1", privateKeyFile);
+		CFKeyPair fromPublic = CFKeyPair.load("key1", publicKeyFile);
+
+		assertEquals("key1", fromPrivate.getId());
+		assertNotNull(fromPrivate.getPrivateKey());
+		assertEquals(fromPublic.getPublicKey(), fromPrivate.getPublicKey());
+		assertEquals(privateKeyFile, fromPrivate.getFile());
+		assertEquals(privateKeyFile.lastModified(), fromPrivate.getLastModified());
+	}
+
+	@Test
+	public void shouldLoadPublicKeyOnly() {
+		CFKeyPair keyPair = CFKeyPair.load("key1", publicKeyFile);
+
+		assertNotNull(keyPair.getPublicKey());
+		assertNull(keyPair.getPrivateKey());
+	}
+
+	@Test
+	public void shouldFailToLoadMissingKey() {
+		try {
+			CFKeyPair.load("key1", new File("/path/to/nothing.pem"));
+			fail();
+		} catch (CFMockException e) {
+			assertTrue(e.getMessage().contains("unable to load key"));
+		}
+	}
+
+	@Test
+	public void shouldRequirePublicKey() {
+		try {
+			new CFKeyPair("key1", null, null);
+			fail();
+		} catch (CFMockException e) {
+			assertTrue(e.getMessage().contains("public key is required"));
+		}
+	}
+}
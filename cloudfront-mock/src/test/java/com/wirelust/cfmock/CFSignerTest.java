@@ -0,0 +1,139 @@
+package com.wirelust.cfmock;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.cloudfront.CloudFrontCookieSigner;
+import com.amazonaws.services.cloudfront.CloudFrontUrlSigner;
+import com.amazonaws.services.cloudfront.util.SignerUtils;
+import com.wirelust.cfmock.exceptions.CFMockException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class CFSignerTest {
+
+	private static final String KEY_PAIR_ID = "test-keypair";
+	private static final String URL = "http://localhost/test/url.html";
+
+	File keyFile;
+	CFKeyPair keyPair;
+	CFSigner signer;
+	Date expiresDate;
+	long expires;
+
+	@Before
+	public void init() throws Exception {
+		keyFile = new File(getClass().getClassLoader().getResource("keys/private_key.pem").toURI());
+		keyPair = CFKeyPair.load(KEY_PAIR_ID, keyFile);
+		signer = new CFSigner(keyPair);
+		expires = System.currentTimeMillis() / 1000 + 3600;
+		expiresDate = new Date(expires * 1000);
+	}
+
+	@Test
+	public void shouldSignUrlLikeAwsSdk() throws Exception {
+		assertEquals(CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null, null, keyFile, URL, KEY_PAIR_ID,
+			expiresDate), signer.signUrl(URL, expires));
+
+		String withQuery = URL + "?a=1";
+		assertEquals(CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null, null, keyFile, withQuery, KEY_PAIR_ID,
+			expiresDate), signer.signUrl(withQuery, expires));
+	}
+
+	@Test
+	public void shouldSignUrlWithCustomPolicyLikeAwsSdk() throws Exception {
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setResource("http://localhost/test/*");
+		statement.setDateLessThan(expiresDate);
+		statement.setIpAddress("192.0.2.0/24");
+
+		String policy = SignerUtils.buildCustomPolicy(statement.getResource(), expiresDate, null,
+			statement.getIpAddress());
+		assertEquals(CloudFrontUrlSigner.getSignedURLWithCustomPolicy(URL, KEY_PAIR_ID,
+			SignerUtils.loadPrivateKey(keyFile), policy), signer.signUrl(URL, statement));
+	}
+
+	@Test
+	public void shouldSignCookiesLikeAwsSdk() throws Exception {
+		CloudFrontCookieSigner.CookiesForCannedPolicy canned = CloudFrontCookieSigner.getCookiesForCannedPolicy(
+			null, null, keyFile, URL, KEY_PAIR_ID, expiresDate);
+		Map<String, String> cookies = signer.signCookies(URL, expires);
+		assertEquals(canned.getExpires().getValue(), cookies.get(SignatureValidator.COOKIE_EXPIRES));
+		assertEquals(canned.getSignature().getValue(), cookies.get(SignatureValidator.COOKIE_SIGNATURE));
+		assertEquals(KEY_PAIR_ID, cookies.get(SignatureValidator.COOKIE_KEY_PAIR_ID));
+
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setResource("http*://localhost/*");
+		statement.setDateLessThan(expiresDate);
+		CloudFrontCookieSigner.CookiesForCustomPolicy custom = CloudFrontCookieSigner.getCookiesForCustomPolicy(
+			null, null, keyFile, statement.getResource(), KEY_PAIR_ID, expiresDate, null, null);
+		cookies = signer.signCookies(statement);
+		assertEquals(custom.getPolicy().getValue(), cookies.get(SignatureValidator.COOKIE_POLICY));
+		assertEquals(custom.getSignature().getValue(), cookies.get(SignatureValidator.COOKIE_SIGNATURE));
+		assertEquals(KEY_PAIR_ID, cookies.get(SignatureValidator.COOKIE_KEY_PAIR_ID));
+	}
+
+	@Test
+	public void shouldValidateSignedCookies() {
+		Map<String, String> cookies = signer.signCookies(URL, expires);
+
+		assertTrue(SignatureValidator.validateSignature(URL, keyPair, KEY_PAIR_ID, expires,
+			cookies.get(SignatureValidator.COOKIE_SIGNATURE)));
+	}
+
+	@Test
+	public void shouldSignUrlsInParallel() {
+		List<String> urls = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			urls.add("http://localhost/content/" + i + ".html");
+		}
+
+		List<String> signed = signer.signUrls(urls, expires, 4);
+
+		assertEquals(urls.size(), signed.size());
+		for (int i = 0; i < urls.size(); i++) {
+			assertEquals(signer.signUrl(urls.get(i), expires), signed.get(i));
+		}
+	}
+
+	@Test
+	public void shouldNotSignWithoutPrivateKey() throws Exception {
+		CFKeyPair publicOnly = CFKeyPair.load("public", new File(getClass().getClassLoader()
+			.getResource("keys/public_key.pem").toURI()));
+		try {
+			new CFSigner(publicOnly);
+			fail();
+		} catch (CFMockException e) {
+			assertTrue(e.getMessage().contains("private key is required"));
+		}
+	}
+
+	@Test
+	public void shouldNotSignPolicyWithoutExpiry() {
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setResource(URL);
+		try {
+			signer.signUrl(URL, statement);
+			fail();
+		} catch (CFMockException e) {
+			assertTrue(e.getMessage().contains("dateLessThan is required"));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldNotAllowZeroParallelism() {
+		signer.signUrls(new ArrayList<>(), expires, 0);
+	}
+}
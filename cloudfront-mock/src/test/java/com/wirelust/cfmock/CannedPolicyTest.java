@@ -0,0 +1,96 @@
+package com.wirelust.cfmock;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+
+import com.amazonaws.services.cloudfront.util.SignerUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class CannedPolicyTest {
+
+	private static final String[] URLS = {
+		"http://localhost/test/url.html",
+		"",
+		"https://localhost/content/caf\u00e9.html?a=1&b=\"2\"",
+		"http://localhost/\ud83d\udc33.html",
+		"http://localhost/broken-\ud83d.html",
+	};
+
+	private static final long[] TIMES = {0, 9, 10, 99, 1466966700, 9999999999L, Long.MAX_VALUE};
+
+	/**
+	 * This method simply instantiates a private constructor to ensure code coverage for it so the
+	 * coverage reports aren't diminished
+	 */
+	@Test
+	public void testConstructorIsPrivate() throws Exception {
+		Constructor<CannedPolicy> constructor = CannedPolicy.class.getDeclaredConstructor();
+		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void shouldMatchAwsSdkPolicy() {
+		for (String url : URLS) {
+			for (long time : TIMES) {
+				byte[] expected = SignerUtils.buildCannedPolicy(url, new Date(time * 1000))
+					.getBytes(StandardCharsets.UTF_8);
+				if (time > Long.MAX_VALUE / 1000) {
+					expected = ("{\"Statement\":[{\"Resource\":\"" + url
+						+ "\",\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":" + time + "}}}]}")
+						.getBytes(StandardCharsets.UTF_8);
+				}
+				assertArrayEquals(url + " " + time, expected, CannedPolicy.build(url, time));
+				assertEquals(expected.length, CannedPolicy.length(url, time));
+			}
+		}
+	}
+
+	@Test
+	public void shouldWriteNegativeTimes() {
+		assertTrue(new String(CannedPolicy.build("http://localhost/", -12), StandardCharsets.UTF_8)
+			.contains("\"AWS:EpochTime\":-12}"));
+		assertTrue(new String(CannedPolicy.build("http://localhost/", Long.MIN_VALUE), StandardCharsets.UTF_8)
+			.contains("\"AWS:EpochTime\":" + Long.MIN_VALUE + "}"));
+	}
+
+	@Test
+	public void shouldWriteIntoBuffer() {
+		String url = "http://localhost/test/url.html";
+		int length = CannedPolicy.length(url, 1466966700);
+		byte[] buffer = CannedPolicy.buffer(length);
+		Arrays.fill(buffer, (byte)'x');
+
+		assertEquals(length, CannedPolicy.write(url, 1466966700, buffer));
+		assertArrayEquals(CannedPolicy.build(url, 1466966700), Arrays.copyOf(buffer, length));
+		assertEquals('x', buffer[length]);
+	}
+
+	@Test
+	public void shouldReuseBufferPerThread() {
+		byte[] buffer = CannedPolicy.buffer(10);
+		assertSame(buffer, CannedPolicy.buffer(buffer.length));
+
+		byte[] larger = CannedPolicy.buffer(buffer.length + 1);
+		assertTrue(larger.length > buffer.length);
+		assertSame(larger, CannedPolicy.buffer(10));
+
+		byte[] huge = CannedPolicy.buffer(1000000);
+		assertNotSame(huge, CannedPolicy.buffer(1000000));
+	}
+}
@@ -0,0 +1,110 @@
+package com.wirelust.cfmock;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class KeyWatcherTest {
+
+	private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	File keyFile;
+	File keyDirectory;
+	KeyRegistry keyRegistry;
+	KeyWatcher keyWatcher;
+
+	@Before
+	public void init() throws Exception {
+		keyFile = new File(getClass().getClassLoader().getResource("keys/private_key.pem").toURI());
+		keyDirectory = tempFolder.newFolder("keys");
+		Files.copy(keyFile.toPath(), new File(keyDirectory, "key1.pem").toPath());
+
+		keyRegistry = new KeyRegistry();
+
+		// every pem file in the directory is a key named after the file
+		keyWatcher = new KeyWatcher(keyRegistry, () -> {
+			Map<String, File> keyFiles = new HashMap<>();
+			File[] files = keyDirectory.listFiles();
+			if (files != null) {
+				for (File file : files) {
+					keyFiles.put(file.getName().replace(".pem", ""), file);
+				}
+			}
+			return keyFiles;
+		});
+		keyWatcher.setSettleMillis(50);
+	}
+
+	@After
+	public void destroy() {
+		keyWatcher.close();
+	}
+
+	@Test
+	public void shouldLoadKeysOnStart() {
+		keyWatcher.start();
+
+		assertTrue(keyRegistry.contains("key1"));
+		assertFalse(keyRegistry.contains("key2"));
+	}
+
+	@Test
+	public void shouldPickUpNewAndRemovedKeys() throws Exception {
+		keyWatcher.start();
+
+		Files.copy(keyFile.toPath(), new File(keyDirectory, "key2.pem").toPath());
+		waitFor(() -> keyRegistry.contains("key2"));
+
+		assertTrue(new File(keyDirectory, "key1.pem").delete());
+		waitFor(() -> !keyRegistry.contains("key1"));
+
+		assertTrue(keyRegistry.contains("key2"));
+	}
+
+	@Test
+	public void shouldReloadModifiedKey() throws Exception {
+		keyWatcher.start();
+		CFKeyPair original = keyRegistry.get("key1");
+
+		File key1 = new File(keyDirectory, "key1.pem");
+		Files.write(key1.toPath(), Files.readAllBytes(keyFile.toPath()));
+		assertTrue(key1.setLastModified(original.getLastModified() + 2000));
+		waitFor(() -> keyRegistry.get("key1") != original);
+
+		assertNotSame(original, keyRegistry.get("key1"));
+	}
+
+	private void waitFor(final Condition condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (!condition.isMet()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new AssertionError("condition not met within " + TIMEOUT + "ms");
+			}
+			Thread.sleep(20);
+		}
+	}
+
+	private interface Condition {
+		boolean isMet();
+	}
+}
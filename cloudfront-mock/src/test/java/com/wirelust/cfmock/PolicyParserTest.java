@@ -0,0 +1,153 @@
+package com.wirelust.cfmock;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import com.amazonaws.services.cloudfront.util.SignerUtils;
+import com.wirelust.cfmock.exceptions.CFMockException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class PolicyParserTest {
+
+	private static final String POLICY = "{\n"
+		+ "\t\"Statement\": [\n"
+		+ "\t\t{\n"
+		+ "\t\t\t\"Resource\": \"http*://*/web/content/*\",\n"
+		+ "\t\t\t\"Condition\": {\n"
+		+ "\t\t\t\t\"DateLessThan\": {\"AWS:EpochTime\": 1466966700},\n"
+		+ "\t\t\t\t\"DateGreaterThan\": {\"AWS:EpochTime\": \"1466963100\"},\n"
+		+ "\t\t\t\t\"IpAddress\": {\"AWS:SourceIp\": \"192.0.2.0/24\"}\n"
+		+ "\t\t\t}\n"
+		+ "\t\t}\n"
+		+ "\t]\n"
+		+ "}";
+
+	/**
+	 * This method simply instantiates a private constructor to ensure code coverage for it so the
+	 * coverage reports aren't diminished
+	 */
+	@Test
+	public void testConstructorIsPrivate() throws Exception {
+		Constructor<PolicyParser> constructor = PolicyParser.class.getDeclaredConstructor();
+		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void shouldParsePolicy() {
+		CFPolicy policy = parse(POLICY);
+
+		assertEquals(1, policy.getStatements().size());
+		CFPolicyStatement statement = policy.getStatements().get(0);
+		assertEquals("http*://*/web/content/*", statement.getResource());
+		assertEquals(1466966700L, statement.getDateLessThanEpochSeconds());
+		assertEquals(1466963100L, statement.getDateGreaterThanEpochSeconds());
+		assertEquals("192.0.2.0/24", statement.getIpAddress());
+	}
+
+	@Test
+	public void shouldParsePolicyBuiltByAwsSdk() {
+		Date expires = new Date(1466966700000L);
+		CFPolicy policy = parse(SignerUtils.buildCustomPolicy("http://localhost/*", expires, null, null));
+
+		CFPolicyStatement statement = policy.getStatements().get(0);
+		assertEquals("http://localhost/*", statement.getResource());
+		assertEquals(expires, statement.getDateLessThan());
+		assertEquals(Constants.NO_EPOCH_TIME, statement.getDateGreaterThanEpochSeconds());
+		assertNull(statement.getIpAddress());
+	}
+
+	@Test
+	public void shouldParseMultipleStatements() {
+		CFPolicy policy = parse("{\"Statement\":["
+			+ "{\"Resource\":\"http://localhost/a/*\",\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":1}}},"
+			+ "{\"Resource\":null},"
+			+ "{}]}");
+
+		assertEquals(3, policy.getStatements().size());
+		assertEquals("http://localhost/a/*", policy.getStatements().get(0).getResource());
+		assertNull(policy.getStatements().get(1).getResource());
+		assertEquals(Constants.NO_EPOCH_TIME, policy.getStatements().get(2).getDateLessThanEpochSeconds());
+	}
+
+	@Test
+	public void shouldParsePolicyWithoutStatements() {
+		assertTrue(parse("{}").getStatements().isEmpty());
+		assertTrue(parse("{\"Statement\":[]}").getStatements().isEmpty());
+	}
+
+	@Test
+	public void shouldParseFromOffset() {
+		byte[] json = ("xx" + POLICY + "yy").getBytes(StandardCharsets.UTF_8);
+
+		CFPolicy policy = PolicyParser.parse(json, 2, json.length - 4);
+		assertEquals("http*://*/web/content/*", policy.getStatements().get(0).getResource());
+	}
+
+	@Test
+	public void shouldRejectInvalidPolicies() {
+		assertInvalid("", "expected START_OBJECT");
+		assertInvalid("[]", "expected START_OBJECT");
+		assertInvalid("{\"Statement\":{}}", "expected START_ARRAY");
+		assertInvalid("{\"Statement\":[null]}", "expected START_OBJECT");
+		assertInvalid("{\"Version\":\"2012-10-17\",\"Statement\":[]}", "unexpected field:Version");
+		assertInvalid("{\"Statement\":[],\"Statement\":[]}", "unexpected field:Statement");
+		assertInvalid("{\"Statement\":[{\"Resource\":\"a\",\"Resource\":\"b\"}]}", "unexpected field:Resource");
+		assertInvalid("{\"Statement\":[{\"Resource\":1}]}", "expected VALUE_STRING");
+		assertInvalid("{\"Statement\":[{\"Condition\":{\"DateLessThan\":{}}}]}", "expected field:AWS:EpochTime");
+		assertInvalid("{\"Statement\":[{\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":\"soon\"}}}]}",
+			"invalid AWS:EpochTime:soon");
+		assertInvalid("{\"Statement\":[{\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":1.5}}}]}",
+			"to be a number");
+		assertInvalid("{\"Statement\":[{\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":1,\"x\":2}}}]}",
+			"expected END_OBJECT");
+		assertInvalid("{\"Statement\":[{\"Condition\":{\"IpAddress\":{\"AWS:SourceIp\":\"192.0.2.0/24\"},"
+			+ "\"IpAddress\":{\"AWS:SourceIp\":\"10.0.0.0/8\"}}}]}", "unexpected field:IpAddress");
+		assertInvalid("{\"Statement\":[]} {}", "unexpected content after policy");
+		assertInvalid("{\"Statement\":[", "unable to parse policy");
+	}
+
+	@Test
+	public void shouldRejectLargePolicies() {
+		StringBuilder json = new StringBuilder("{\"Statement\":[");
+		for (int i = 0; i <= PolicyParser.MAX_STATEMENTS; i++) {
+			json.append(i == 0 ? "{}" : ",{}");
+		}
+		json.append("]}");
+		assertInvalid(json.toString(), "more than " + PolicyParser.MAX_STATEMENTS + " statements");
+
+		byte[] tooLong = new byte[PolicyParser.MAX_POLICY_LENGTH + 1];
+		try {
+			PolicyParser.parse(tooLong);
+			fail();
+		} catch (CFMockException e) {
+			assertTrue(e.getMessage().contains("longer than"));
+		}
+	}
+
+	private static CFPolicy parse(final String json) {
+		return PolicyParser.parse(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void assertInvalid(final String json, final String message) {
+		try {
+			parse(json);
+			fail("expected " + json + " to be rejected");
+		} catch (CFMockException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(message));
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.wirelust.cfmock;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class PreconditionsTest {
+
+	private static final Pattern REMOTE_IP_ADDRESS = Pattern.compile(SignedRequest.REMOTE_IP_ADDRESS_PATTERN);
+	private static final Pattern IP_ADDRESS = Pattern.compile(CFPolicyStatement.IP_ADDRESS_PATTERN);
+
+	/**
+	 * This method simply instantiates a private constructor to ensure code coverage for it so the
+	 * coverage reports aren't diminished
+	 */
+	@Test
+	public void testConstructorIsPrivate() throws Exception {
+		Constructor<Preconditions> constructor = Preconditions.class.getDeclaredConstructor();
+		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void shouldReportAllNullProperties() {
+		SignedRequest signedRequest = new SignedRequest();
+		signedRequest.setType(null);
+		signedRequest.setRemoteIpAddress("not an address");
+
+		assertEquals("type may not be null, keyId may not be null, keyPair may not be null, "
+				+ "signature may not be null, remoteIpAddress must match \"" + SignedRequest.REMOTE_IP_ADDRESS_PATTERN
+				+ "\"",
+			Preconditions.checkSignedRequest(signedRequest));
+	}
+
+	@Test
+	public void shouldCheckAddressWhereItIs() {
+		SignedRequest signedRequest = new SignedRequest();
+		String missing = "keyId may not be null, keyPair may not be null, signature may not be null";
+
+		String header = "not an address, 192.0.2.1";
+		signedRequest.setRemoteIpAddress(header, header.indexOf("192"), header.length());
+		assertEquals(missing, Preconditions.checkSignedRequest(signedRequest));
+
+		signedRequest.setRemoteIpAddress(header, 0, header.indexOf(','));
+		assertEquals(missing + ", remoteIpAddress must match \"" + SignedRequest.REMOTE_IP_ADDRESS_PATTERN + "\"",
+			Preconditions.checkSignedRequest(signedRequest));
+		assertEquals("not an address", signedRequest.getRemoteIpAddress());
+	}
+
+	@Test
+	public void shouldAcceptValidStatement() {
+		CFPolicyStatement statement = new CFPolicyStatement();
+		assertNull(Preconditions.checkStatement(statement));
+
+		statement.setIpAddress("2001:db8::/32");
+		assertNull(Preconditions.checkStatement(statement));
+
+		statement.setIpAddress("192.0.2.D/24");
+		assertEquals("ipAddress must match \"" + CFPolicyStatement.IP_ADDRESS_PATTERN + "\"",
+			Preconditions.checkStatement(statement));
+	}
+
+	@Test
+	public void shouldAgreeWithPatterns() {
+		String[] examples = {"192.0.2.1", "192.0.2.1/24", "1.2.3", "1.2.3.4.5", "1234.1.1.1", "::", "::1", "fe80::1%eth0",
+			"fe80::1%", "fe80::1%e%0", "192.0.2.1%eth0", "2001:db8::/32", "2001:db8::/1234", "/24", "1.2.3.4/",
+			"1.2.3.4//24", "g::1", "::ffff:192.0.2.1", "", "1.2.3.4 ", "١.2.3.4"};
+		for (String example : examples) {
+			checkAgreement(example);
+		}
+
+		Random random = new Random(42);
+		String alphabet = "0123456789abcdefgABCDEFG.:/%_-";
+		for (int i = 0; i < 50000; i++) {
+			int length = random.nextInt(12);
+			StringBuilder sb = new StringBuilder();
+			for (int j = 0; j < length; j++) {
+				sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			checkAgreement(sb.toString());
+		}
+	}
+
+	private void checkAgreement(final String value) {
+		assertEquals("remote ip:" + value, REMOTE_IP_ADDRESS.matcher(value).matches(),
+			Preconditions.isAddress(value, 0, value.length(), true));
+		assertEquals("ip address:" + value, IP_ADDRESS.matcher(value).matches(), Preconditions.isCidr(value));
+	}
+}
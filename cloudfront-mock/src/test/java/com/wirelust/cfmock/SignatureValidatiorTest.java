@@ -8,13 +8,22 @@ import java.lang.reflect.Modifier;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.amazonaws.services.cloudfront.CloudFrontCookieSigner;
 import com.amazonaws.services.cloudfront.CloudFrontUrlSigner;
+import com.amazonaws.services.cloudfront.util.SignerUtils;
+import com.wirelust.cfmock.cache.ValidationCache;
 import com.wirelust.cfmock.exceptions.CFMockException;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -32,6 +41,7 @@ public class SignatureValidatiorTest {
 
 	URL pemUrl;
 	File keyFile;
+	CFKeyPair keyPair;
 	String keyPairId = "test-keypair";
 	Date expiresDate;
 	String testUrl = "http://localhost/test/url.html";
@@ -41,10 +51,16 @@ public class SignatureValidatiorTest {
 		pemUrl = this.getClass().getClassLoader().getResource("keys/private_key.pem");
 		if (pemUrl != null) {
 			keyFile = new File(pemUrl.toURI());
+			keyPair = CFKeyPair.load(keyPairId, keyFile);
 		}
 		expiresDate = new Date(new Date().getTime() + EXPIRES_IN);
 	}
 
+	@After
+	public void cleanup() {
+		SignatureValidator.setClock(Clock.systemUTC());
+	}
+
 	@Test
 	public void shouldBeAbleToValidateSignedURL() throws Exception {
 		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
@@ -52,7 +68,7 @@ public class SignatureValidatiorTest {
 
 		String signature = getQueryParam(signedUrl, SignatureValidator.PARAM_SIGNATURE);
 
-		assertTrue(SignatureValidator.validateSignature(testUrl, keyFile, keyPairId, expiresDate, signature));
+		assertTrue(SignatureValidator.validateSignature(testUrl, keyPair, keyPairId, expiresDate, signature));
 	}
 
 	@Test
@@ -66,7 +82,7 @@ public class SignatureValidatiorTest {
 		signedRequest.setType(SignedRequest.Type.REQUEST);
 		signedRequest.setUrl(testUrl);
 		signedRequest.setExpires(expiresDate);
-		signedRequest.setKeyFile(keyFile);
+		signedRequest.setKeyPair(keyPair);
 		signedRequest.setKeyId(keyPairId);
 		signedRequest.setSignature(signature);
 
@@ -88,10 +104,75 @@ public class SignatureValidatiorTest {
 		statement.setIpAddress("0.0.0.0/0");
 		policy.addStatement(statement);
 
-		assertTrue(SignatureValidator.validateSignature(testUrl, null, keyFile, keyPairId, policy, signature));
+		assertTrue(SignatureValidator.validateSignature(testUrl, null, keyPair, keyPairId, policy, signature));
 	}
 
 
+	@Test
+	public void shouldBeAbleToValidateRawCustomPolicy() throws Exception {
+		// the json is not byte identical to what the AWS SDK would generate for this statement
+		String rawPolicy = "{ \"Statement\" : [ { \"Resource\" : \"" + testUrl + "\", \"Condition\" : "
+			+ "{ \"DateLessThan\" : { \"AWS:EpochTime\" : " + expiresDate.getTime() / 1000 + " } } } ] }";
+		byte[] rawPolicyBytes = rawPolicy.getBytes(StandardCharsets.UTF_8);
+
+		String signature = SignerUtils.makeBytesUrlSafe(
+			SignerUtils.signWithSha1RSA(rawPolicyBytes, SignerUtils.loadPrivateKey(keyFile)));
+
+		CFPolicy policy = new CFPolicy();
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setDateLessThan(expiresDate);
+		statement.setResource(testUrl);
+		policy.addStatement(statement);
+
+		assertTrue(SignatureValidator.validateSignature(testUrl, null, keyPair, keyPairId, policy, rawPolicyBytes,
+			signature));
+
+		rawPolicyBytes[rawPolicyBytes.length - 2] = '}';
+		assertFalse(SignatureValidator.validateSignature(testUrl, null, keyPair, keyPairId, policy, rawPolicyBytes,
+			signature));
+	}
+
+	@Test
+	public void shouldVerifyRawPolicyBeforeParsingIt() throws Exception {
+		String rawPolicy = "{ \"Statement\" : [ { \"Resource\" : \"" + testUrl + "\", \"Condition\" : "
+			+ "{ \"DateLessThan\" : { \"AWS:EpochTime\" : " + expiresDate.getTime() / 1000 + " } } } ] }";
+		byte[] rawPolicyBytes = rawPolicy.getBytes(StandardCharsets.UTF_8);
+		String signature = SignerUtils.makeBytesUrlSafe(
+			SignerUtils.signWithSha1RSA(rawPolicyBytes, SignerUtils.loadPrivateKey(keyFile)));
+
+		// bytes that are not even json are rejected by the signature, not the parser
+		SignedRequest unsigned = new SignedRequest();
+		unsigned.setType(SignedRequest.Type.COOKIE);
+		unsigned.setKeyPair(keyPair);
+		unsigned.setKeyId(keyPairId);
+		unsigned.setUrl(testUrl);
+		unsigned.setRawPolicy("not a policy".getBytes(StandardCharsets.UTF_8));
+		unsigned.setSignature(signature);
+		assertFalse(SignatureValidator.validateSignature(unsigned));
+		assertNull(unsigned.getCompiledPolicy());
+
+		ValidationCache cache = SignatureValidator.getValidationCache();
+		cache.invalidateAll();
+		SignedRequest signedRequest = new SignedRequest();
+		signedRequest.setType(SignedRequest.Type.COOKIE);
+		signedRequest.setKeyPair(keyPair);
+		signedRequest.setKeyId(keyPairId);
+		signedRequest.setUrl(testUrl);
+		signedRequest.setRawPolicy(rawPolicyBytes);
+		signedRequest.setSignature(signature);
+		assertTrue(SignatureValidator.validateSignature(signedRequest));
+		assertNotNull(signedRequest.getCompiledPolicy());
+		assertEquals(testUrl, signedRequest.getPolicy().getStatements().get(0).getResource());
+
+		// the verification was remembered for requests reusing the compiled policy
+		long misses = cache.getMissCount();
+		long hits = cache.getHitCount();
+		assertTrue(SignatureValidator.validateSignature(testUrl, null, keyPair, keyPairId,
+			signedRequest.getCompiledPolicy(), signature));
+		assertEquals(misses, cache.getMissCount());
+		assertEquals(hits + 1, cache.getHitCount());
+	}
+
 	@Test
 	public void shouldValidateParametersForSignedRequest() throws Exception {
 		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
@@ -113,10 +194,10 @@ public class SignatureValidatiorTest {
 			SignatureValidator.validateSignature(signedRequest);
 			Assert.fail();
 		} catch (CFMockException e) {
-			assertTrue(e.getMessage().contains("keyFile may not be null"));
+			assertTrue(e.getMessage().contains("keyPair may not be null"));
 		}
 
-		signedRequest.setKeyFile(keyFile);
+		signedRequest.setKeyPair(keyPair);
 		signedRequest.setUrl(testUrl);
 		signedRequest.setExpires(expiresDate);
 		signedRequest.setKeyId(keyPairId);
@@ -124,6 +205,33 @@ public class SignatureValidatiorTest {
 		assertTrue(SignatureValidator.validateSignature(signedRequest));
 	}
 
+	@Test
+	public void shouldCheckAndVerifySeparately() throws Exception {
+		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
+			null, keyFile, testUrl, keyPairId, expiresDate);
+
+		SignedRequest signedRequest = new SignedRequest();
+		signedRequest.setType(SignedRequest.Type.REQUEST);
+		signedRequest.setKeyPair(keyPair);
+		signedRequest.setUrl(testUrl);
+		signedRequest.setKeyId(keyPairId);
+		signedRequest.setSignature(getQueryParam(signedUrl, SignatureValidator.PARAM_SIGNATURE));
+		try {
+			SignatureValidator.checkRequest(signedRequest);
+			Assert.fail();
+		} catch (CFMockException e) {
+			assertTrue(e.getMessage().contains("either expires or policy must be set"));
+		}
+
+		signedRequest.setExpires(expiresDate);
+		SignatureValidator.checkRequest(signedRequest);
+		assertTrue(SignatureValidator.verifySignature(signedRequest));
+
+		signedRequest.setUrl(testUrl + "?other");
+		SignatureValidator.checkRequest(signedRequest);
+		assertFalse(SignatureValidator.verifySignature(signedRequest));
+	}
+
 	@Test
 	public void shouldValidateParametersForSignedCookieWithCannedPolicy() throws Exception {
 		CloudFrontCookieSigner.CookiesForCannedPolicy cfcp = CloudFrontCookieSigner.getCookiesForCannedPolicy(null,
@@ -131,7 +239,7 @@ public class SignatureValidatiorTest {
 
 		SignedRequest signedRequest = new SignedRequest();
 		signedRequest.setType(SignedRequest.Type.COOKIE);
-		signedRequest.setKeyFile(keyFile);
+		signedRequest.setKeyPair(keyPair);
 		signedRequest.setUrl(testUrl);
 
 		try {
@@ -169,7 +277,7 @@ public class SignatureValidatiorTest {
 
 		SignedRequest signedRequest = new SignedRequest();
 		signedRequest.setType(SignedRequest.Type.COOKIE);
-		signedRequest.setKeyFile(keyFile);
+		signedRequest.setKeyPair(keyPair);
 		signedRequest.setUrl(testUrl);
 
 		try {
@@ -209,18 +317,18 @@ public class SignatureValidatiorTest {
 			SignatureValidator.validateSignature(signedRequest);
 			Assert.fail();
 		} catch (CFMockException e) {
-			assertTrue(e.getMessage().contains("Only one policy statement supported"));
+			assertTrue(e.getMessage().contains("Policy must have at least one statement"));
 		}
 
 		cfPolicy.addStatement(cfPolicyStatement);
 		cfPolicy.addStatement(cfPolicyStatement);
 
-		// two statements
+		// two statements without the raw policy
 		try {
 			SignatureValidator.validateSignature(signedRequest);
 			Assert.fail();
 		} catch (CFMockException e) {
-			assertTrue(e.getMessage().contains("Only one policy statement supported"));
+			assertTrue(e.getMessage().contains("more than one statement"));
 		}
 
 		cfPolicy.setStatements(null);
@@ -270,16 +378,210 @@ public class SignatureValidatiorTest {
 				statement.getDateLessThan(), statement.getDateGreaterThan(), null);
 		String signature = cookiesForCustomPolicy.getSignature().getValue();
 
-		assertTrue(SignatureValidator.validateSignature("http://localhost/1234", null, keyFile, keyPairId, cfPolicy,
+		assertTrue(SignatureValidator.validateSignature("http://localhost/1234", null, keyPair, keyPairId, cfPolicy,
 			signature));
 
-		assertTrue(SignatureValidator.validateSignature("https://localhost/1234", null, keyFile, keyPairId, cfPolicy,
+		assertTrue(SignatureValidator.validateSignature("https://localhost/1234", null, keyPair, keyPairId, cfPolicy,
 			signature));
 
-		assertFalse(SignatureValidator.validateSignature("http://google.com/1234", null, keyFile, keyPairId, cfPolicy,
+		assertFalse(SignatureValidator.validateSignature("http://google.com/1234", null, keyPair, keyPairId, cfPolicy,
 			signature));
 	}
 
+	@Test
+	public void shouldBeAbleToReuseCompiledPolicy() throws Exception {
+
+		CFPolicy cfPolicy = new CFPolicy();
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setDateLessThan(expiresDate);
+		statement.setResource("http*://localhost/*");
+		statement.setIpAddress("192.0.2.0/24");
+		cfPolicy.addStatement(statement);
+
+		CloudFrontCookieSigner.CookiesForCustomPolicy cookiesForCustomPolicy = CloudFrontCookieSigner
+			.getCookiesForCustomPolicy(null, null, keyFile, statement.getResource(), keyPairId,
+				statement.getDateLessThan(), null, statement.getIpAddress());
+		String signature = cookiesForCustomPolicy.getSignature().getValue();
+
+		CompiledPolicy compiledPolicy = SignatureValidator.compilePolicy(cfPolicy, null);
+
+		SignedRequest signedRequest = new SignedRequest();
+		signedRequest.setKeyPair(keyPair);
+		signedRequest.setKeyId(keyPairId);
+		signedRequest.setUrl("http://localhost/1234");
+		signedRequest.setRemoteIpAddress("192.0.2.34");
+		signedRequest.setCompiledPolicy(compiledPolicy);
+		signedRequest.setSignature(signature);
+		assertTrue(SignatureValidator.validateSignature(signedRequest));
+
+		assertTrue(SignatureValidator.validateSignature("https://localhost/5678", "192.0.2.1", keyPair, keyPairId,
+			compiledPolicy, signature));
+		assertFalse(SignatureValidator.validateSignature("http://google.com/1234", "192.0.2.1", keyPair, keyPairId,
+			compiledPolicy, signature));
+		assertFalse(SignatureValidator.validateSignature("http://localhost/1234", "10.10.10.10", keyPair, keyPairId,
+			compiledPolicy, signature));
+		assertEquals(expiresDate.getTime() / 1000, compiledPolicy.getExpiresAt());
+
+		// an address in a forwarded header is matched without being copied out
+		String header = "10.10.10.10, 192.0.2.34";
+		signedRequest.setRemoteIpAddress(header, header.indexOf("192"), header.length());
+		assertTrue(SignatureValidator.validateSignature(signedRequest));
+		assertNull(signedRequest.remoteIpAddress);
+		signedRequest.setRemoteIpAddress(header, 0, header.indexOf(','));
+		assertFalse(SignatureValidator.validateSignature(signedRequest));
+	}
+
+	@Test
+	public void shouldNotCompileInvalidSubnet() throws Exception {
+
+		CFPolicy cfPolicy = new CFPolicy();
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setDateLessThan(expiresDate);
+		statement.setIpAddress("192.0.2.0/99");
+		cfPolicy.addStatement(statement);
+
+		try {
+			SignatureValidator.compilePolicy(cfPolicy, null);
+			fail();
+		} catch (CFMockException e) {
+			assertTrue(e.getMessage().contains("invalid ipAddress"));
+		}
+	}
+
+	@Test
+	public void shouldValidateWithBeanValidationWhenStrict() throws Exception {
+
+		CFPolicy cfPolicy = new CFPolicy();
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setDateLessThan(expiresDate);
+		statement.setIpAddress("192.0.2.D/24");
+		cfPolicy.addStatement(statement);
+
+		SignedRequest signedRequest = new SignedRequest();
+		signedRequest.setKeyId(keyPairId);
+		signedRequest.setRemoteIpAddress("192.0.2.34");
+		signedRequest.setPolicy(cfPolicy);
+		signedRequest.setSignature("signature");
+
+		SignatureValidator.setStrictValidation(true);
+		try {
+			assertTrue(SignatureValidator.isStrictValidation());
+			try {
+				SignatureValidator.validateSignature(signedRequest);
+				fail();
+			} catch (CFMockException e) {
+				assertTrue(e.getMessage().contains("keyPair may not be null"));
+			}
+
+			signedRequest.setKeyPair(keyPair);
+			try {
+				SignatureValidator.validateSignature(signedRequest);
+				fail();
+			} catch (CFMockException e) {
+				assertTrue(e.getMessage().contains("ipAddress must match"));
+			}
+		} finally {
+			SignatureValidator.setStrictValidation(false);
+		}
+	}
+
+	@Test
+	public void shouldBeAbleToValidateMultipleStatements() throws Exception {
+		long expires = expiresDate.getTime() / 1000;
+		String rawPolicy = "{\"Statement\":["
+			+ "{\"Resource\":\"http://localhost/books/*\",\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":"
+			+ expires + "}}},"
+			+ "{\"Resource\":\"http://localhost/music/*.mp3\",\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":"
+			+ expires + "},\"IpAddress\":{\"AWS:SourceIp\":\"192.0.2.0/24\"}}}]}";
+		byte[] rawPolicyBytes = rawPolicy.getBytes(StandardCharsets.UTF_8);
+		String signature = SignerUtils.makeBytesUrlSafe(SignerUtils.signWithSha1RSA(rawPolicyBytes,
+			SignerUtils.loadPrivateKey(keyFile)));
+
+		CFPolicy cfPolicy = new CFPolicy();
+		CFPolicyStatement books = new CFPolicyStatement();
+		books.setResource("http://localhost/books/*");
+		books.setDateLessThan(new Date(expires * 1000));
+		cfPolicy.addStatement(books);
+		CFPolicyStatement music = new CFPolicyStatement();
+		music.setResource("http://localhost/music/*.mp3");
+		music.setDateLessThan(new Date(expires * 1000));
+		music.setIpAddress("192.0.2.0/24");
+		cfPolicy.addStatement(music);
+
+		CompiledPolicy compiledPolicy = SignatureValidator.compilePolicy(cfPolicy, rawPolicyBytes);
+
+		assertTrue(SignatureValidator.validateSignature("http://localhost/books/moby-dick.html", "10.10.10.10",
+			keyPair, keyPairId, compiledPolicy, signature));
+		assertTrue(SignatureValidator.validateSignature("http://localhost/music/song.mp3", "192.0.2.1",
+			keyPair, keyPairId, compiledPolicy, signature));
+		assertFalse(SignatureValidator.validateSignature("http://localhost/music/song.mp3", "10.10.10.10",
+			keyPair, keyPairId, compiledPolicy, signature));
+		assertFalse(SignatureValidator.validateSignature("http://localhost/music/song.ogg", "192.0.2.1",
+			keyPair, keyPairId, compiledPolicy, signature));
+		assertFalse(SignatureValidator.validateSignature("http://localhost/videos/film.mp4", "192.0.2.1",
+			keyPair, keyPairId, compiledPolicy, signature));
+	}
+
+	@Test
+	public void shouldValidateBatchInOrder() throws Exception {
+
+		CFPolicy cfPolicy = new CFPolicy();
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setDateLessThan(expiresDate);
+		statement.setResource("http*://localhost/*");
+		cfPolicy.addStatement(statement);
+
+		String customSignature = CloudFrontCookieSigner.getCookiesForCustomPolicy(null, null, keyFile,
+			statement.getResource(), keyPairId, expiresDate, null, null).getSignature().getValue();
+		String cannedSignature = getQueryParam(CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
+			null, keyFile, testUrl, keyPairId, expiresDate), SignatureValidator.PARAM_SIGNATURE);
+
+		List<SignedRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			SignedRequest signedRequest = new SignedRequest();
+			signedRequest.setKeyPair(keyPair);
+			signedRequest.setKeyId(keyPairId);
+			switch (i % 4) {
+				case 0:
+					signedRequest.setUrl("http://localhost/" + i);
+					signedRequest.setPolicy(cfPolicy);
+					signedRequest.setSignature(customSignature);
+					break;
+				case 1:
+					signedRequest.setUrl("http://google.com/" + i);
+					signedRequest.setPolicy(cfPolicy);
+					signedRequest.setSignature(customSignature);
+					break;
+				case 2:
+					signedRequest.setUrl(testUrl);
+					signedRequest.setExpires(expiresDate);
+					signedRequest.setSignature(cannedSignature);
+					break;
+				default:
+					signedRequest.setUrl(testUrl);
+					signedRequest.setSignature(cannedSignature);
+			}
+			requests.add(signedRequest);
+		}
+
+		List<ValidationResult> results = SignatureValidator.validateAll(requests, 4);
+
+		assertEquals(requests.size(), results.size());
+		for (int i = 0; i < results.size(); i++) {
+			ValidationResult result = results.get(i);
+			assertSame(requests.get(i), result.getRequest());
+			assertEquals("request:" + i, i % 4 == 0 || i % 4 == 2, result.isValid());
+			assertEquals("request:" + i, i % 4 == 3, result.isError());
+		}
+		assertTrue(results.get(3).getError().getMessage().contains("either expires or policy must be set"));
+		assertEquals(results.size(), SignatureValidator.validateAll(requests).size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRequireBatchParallelism() {
+		SignatureValidator.validateAll(new ArrayList<SignedRequest>(), 0);
+	}
+
 	@Test
 	public void shouldFailWithBadIPAddress() throws Exception {
 
@@ -294,7 +596,7 @@ public class SignatureValidatiorTest {
 		cfPolicy.addStatement(statement);
 
 		SignedRequest signedRequest = new SignedRequest();
-		signedRequest.setKeyFile(keyFile);
+		signedRequest.setKeyPair(keyPair);
 		signedRequest.setKeyId(keyPairId);
 		signedRequest.setRemoteIpAddress("192.0.2.34");
 		signedRequest.setPolicy(cfPolicy);
@@ -322,7 +624,7 @@ public class SignatureValidatiorTest {
 		cfPolicy.addStatement(statement);
 
 		SignedRequest signedRequest = new SignedRequest();
-		signedRequest.setKeyFile(keyFile);
+		signedRequest.setKeyPair(keyPair);
 		signedRequest.setKeyId(keyPairId);
 		signedRequest.setRemoteIpAddress("192.0.2.34");
 		signedRequest.setPolicy(cfPolicy);
@@ -331,6 +633,32 @@ public class SignatureValidatiorTest {
 		assertTrue(SignatureValidator.validateSignature(signedRequest));
 	}
 
+	@Test
+	public void shouldBeAbleToMatchIPv6Address() throws Exception {
+
+		CloudFrontCookieSigner.CookiesForCustomPolicy cfcp = CloudFrontCookieSigner.getCookiesForCustomPolicy(null,
+			null, keyFile, null, keyPairId, expiresDate, null, "2001:db8::/32");
+
+
+		CFPolicy cfPolicy = new CFPolicy();
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setDateLessThan(expiresDate);
+		statement.setIpAddress("2001:db8::/32");
+		cfPolicy.addStatement(statement);
+
+		SignedRequest signedRequest = new SignedRequest();
+		signedRequest.setKeyPair(keyPair);
+		signedRequest.setKeyId(keyPairId);
+		signedRequest.setRemoteIpAddress("2001:db8:1234::5");
+		signedRequest.setPolicy(cfPolicy);
+		signedRequest.setSignature(cfcp.getSignature().getValue());
+
+		assertTrue(SignatureValidator.validateSignature(signedRequest));
+
+		signedRequest.setRemoteIpAddress("2001:db9::5");
+		assertFalse(SignatureValidator.validateSignature(signedRequest));
+	}
+
 	@Test
 	public void shouldNotBeAbleToMatchIPAddress() throws Exception {
 
@@ -345,7 +673,7 @@ public class SignatureValidatiorTest {
 		cfPolicy.addStatement(statement);
 
 		SignedRequest signedRequest = new SignedRequest();
-		signedRequest.setKeyFile(keyFile);
+		signedRequest.setKeyPair(keyPair);
 		signedRequest.setKeyId(keyPairId);
 		signedRequest.setRemoteIpAddress("10.10.10.10");
 		signedRequest.setPolicy(cfPolicy);
@@ -360,7 +688,7 @@ public class SignatureValidatiorTest {
 			long expires = new Date().getTime()/1000 - 2000;
 
 			SignedRequest signedRequest = new SignedRequest();
-			signedRequest.setKeyFile(keyFile);
+			signedRequest.setKeyPair(keyPair);
 			signedRequest.setKeyId(keyPairId);
 			signedRequest.setSignature("");
 			signedRequest.setExpires(new Date(expires));
@@ -373,6 +701,75 @@ public class SignatureValidatiorTest {
 		}
 	}
 
+	@Test
+	public void shouldCheckExpiryAgainstClock() throws Exception {
+		String signedUrl = CloudFrontUrlSigner.getSignedURLWithCannedPolicy(null,
+			null, keyFile, testUrl, keyPairId, expiresDate);
+		String signature = getQueryParam(signedUrl, SignatureValidator.PARAM_SIGNATURE);
+		long expires = expiresDate.getTime() / 1000;
+
+		SignatureValidator.setClock(Clock.fixed(Instant.ofEpochSecond(expires), ZoneOffset.UTC));
+		assertTrue(SignatureValidator.validateSignature(testUrl, keyPair, keyPairId, expires, signature));
+
+		SignatureValidator.setClock(Clock.fixed(Instant.ofEpochSecond(expires + 1), ZoneOffset.UTC));
+		try {
+			SignatureValidator.validateSignature(testUrl, keyPair, keyPairId, expires, signature);
+			Assert.fail();
+		} catch (CFMockException e) {
+			assertEquals(Constants.SIGNATURE_IS_EXPIRED, e.getMessage());
+		}
+	}
+
+	@Test
+	public void shouldCheckPolicyStartAgainstClock() throws Exception {
+		CFPolicy cfPolicy = new CFPolicy();
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setResource(testUrl);
+		statement.setDateLessThan(expiresDate);
+		statement.setDateGreaterThanEpochSeconds(statement.getDateLessThanEpochSeconds() - 60);
+		cfPolicy.addStatement(statement);
+
+		String signature = CloudFrontCookieSigner.getCookiesForCustomPolicy(null, null, keyFile,
+			statement.getResource(), keyPairId, statement.getDateLessThan(), statement.getDateGreaterThan(), null)
+			.getSignature().getValue();
+
+		SignatureValidator.setClock(Clock.fixed(Instant.ofEpochSecond(statement.getDateGreaterThanEpochSeconds()),
+			ZoneOffset.UTC));
+		assertTrue(SignatureValidator.validateSignature(testUrl, null, keyPair, keyPairId, cfPolicy, signature));
+
+		SignatureValidator.setClock(Clock.fixed(Instant.ofEpochSecond(statement.getDateGreaterThanEpochSeconds() - 1),
+			ZoneOffset.UTC));
+		try {
+			SignatureValidator.validateSignature(testUrl, null, keyPair, keyPairId, cfPolicy, signature);
+			Assert.fail();
+		} catch (CFMockException e) {
+			assertTrue(e.getMessage().contains("Signature is not valid until"));
+		}
+	}
+
+	@Test
+	public void shouldKeepDatesAsEpochSeconds() {
+		CFPolicyStatement statement = new CFPolicyStatement();
+		assertNull(statement.getDateLessThan());
+		assertEquals(Constants.NO_EPOCH_TIME, statement.getDateLessThanEpochSeconds());
+
+		statement.setDateLessThan(new Date(1467000000999L));
+		assertEquals(1467000000L, statement.getDateLessThanEpochSeconds());
+		assertEquals(new Date(1467000000000L), statement.getDateLessThan());
+
+		SignedRequest signedRequest = new SignedRequest();
+		assertNull(signedRequest.getExpires());
+		signedRequest.setExpiresEpochSeconds(1467000000L);
+		assertEquals(new Date(1467000000000L), signedRequest.getExpires());
+		signedRequest.setExpires(null);
+		assertEquals(Constants.NO_EPOCH_TIME, signedRequest.getExpiresEpochSeconds());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldNotAllowNullClock() {
+		SignatureValidator.setClock(null);
+	}
+
 	/**
 	 * This method simply instantiates a private constructor to ensure code coverage for it so the
 	 * coverage reports aren't diminished
@@ -0,0 +1,73 @@
+package com.wirelust.cfmock;
+
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+
+import com.amazonaws.services.cloudfront.util.SignerUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class SignatureVerifierTest {
+
+	private static final String POLICY = "{\"Statement\": [{\"Resource\":\"http://localhost/*\","
+		+ "\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":1467000000}}}]}";
+
+	File privateKeyFile;
+	PublicKey publicKey;
+
+	@Before
+	public void init() throws Exception {
+		privateKeyFile = new File(getClass().getClassLoader().getResource("keys/private_key.pem").toURI());
+		publicKey = CFKeyPair.load("public", new File(getClass().getClassLoader()
+			.getResource("keys/public_key.pem").toURI())).getPublicKey();
+	}
+
+	/**
+	 * This method simply instantiates a private constructor to ensure code coverage for it so the
+	 * coverage reports aren't diminished
+	 */
+	@Test
+	public void testConstructorIsPrivate() throws Exception {
+		Constructor<SignatureVerifier> constructor = SignatureVerifier.class.getDeclaredConstructor();
+		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void shouldVerifySignedPolicy() throws Exception {
+		String signature = sign(POLICY);
+
+		assertTrue(SignatureVerifier.verify(POLICY.getBytes(StandardCharsets.UTF_8), signature, publicKey));
+	}
+
+	@Test
+	public void shouldNotVerifyTamperedPolicy() throws Exception {
+		String signature = sign(POLICY);
+		String tampered = POLICY.replace("localhost", "localhost2");
+
+		assertFalse(SignatureVerifier.verify(tampered.getBytes(StandardCharsets.UTF_8), signature, publicKey));
+	}
+
+	@Test
+	public void shouldNotVerifyGarbageSignature() {
+		assertFalse(SignatureVerifier.verify(POLICY.getBytes(StandardCharsets.UTF_8), "not-a-signature", publicKey));
+	}
+
+	private String sign(final String policy) throws Exception {
+		byte[] signature = SignerUtils.signWithSha1RSA(policy.getBytes(StandardCharsets.UTF_8),
+			SignerUtils.loadPrivateKey(privateKeyFile));
+		return SignerUtils.makeBytesUrlSafe(signature);
+	}
+}
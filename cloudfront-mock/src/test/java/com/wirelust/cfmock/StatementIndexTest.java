@@ -0,0 +1,136 @@
+package com.wirelust.cfmock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class StatementIndexTest {
+
+	long now;
+	long expires;
+
+	@Before
+	public void init() {
+		now = System.currentTimeMillis() / 1000;
+		expires = now + 3600;
+	}
+
+	@Test
+	public void shouldFindStatementByResource() {
+		List<CompiledPolicy.CompiledStatement> statements = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			statements.add(statement("http://localhost/content/" + i + "/*", null, Constants.NO_EPOCH_TIME));
+		}
+		StatementIndex index = new StatementIndex(statements);
+
+		assertEquals("http://localhost/content/42/*",
+			index.find("http://localhost/content/42/chapter.html", null, now).getStatement().getResource());
+		assertEquals("http://localhost/content/999/*",
+			index.find("http://localhost/content/999/", null, now).getStatement().getResource());
+		assertNull(index.find("http://localhost/content/1000/chapter.html", null, now));
+		assertNull(index.find("http://localhost/other/1/chapter.html", null, now));
+		assertNull(index.find("", null, now));
+		assertNull(index.find(null, null, now));
+	}
+
+	@Test
+	public void shouldAlwaysCheckStatementsStartingWithWildcards() {
+		List<CompiledPolicy.CompiledStatement> statements = new ArrayList<>();
+		statements.add(statement("http://localhost/a/*", null, Constants.NO_EPOCH_TIME));
+		statements.add(statement("http*://*/b/*", null, Constants.NO_EPOCH_TIME));
+		statements.add(statement(null, "192.0.2.0/24", Constants.NO_EPOCH_TIME));
+		StatementIndex index = new StatementIndex(statements);
+
+		assertEquals("http*://*/b/*", index.find("https://localhost/b/1", "10.0.0.1", now).getStatement()
+			.getResource());
+		assertNull(index.find("https://localhost/c/1", "10.0.0.1", now));
+		assertEquals("192.0.2.0/24", index.find("https://localhost/c/1", "192.0.2.1", now).getStatement()
+			.getIpAddress());
+	}
+
+	@Test
+	public void shouldSkipStatementsThatAreNotValid() {
+		List<CompiledPolicy.CompiledStatement> statements = new ArrayList<>();
+		statements.add(statement("http://localhost/*", null, now + 60));
+		statements.add(statement("http://localhost/a/*", "192.0.2.0/24", Constants.NO_EPOCH_TIME));
+		CompiledPolicy.CompiledStatement expired = statement("http://localhost/a/b/*", null, Constants.NO_EPOCH_TIME);
+		statements.add(expired);
+		StatementIndex index = new StatementIndex(statements);
+
+		assertNull(index.find("http://localhost/x", null, now));
+		assertEquals("http://localhost/*", index.find("http://localhost/x", null, now + 120).getStatement()
+			.getResource());
+		assertNull(index.find("http://localhost/a/b/c", "10.0.0.1", expires + 1));
+		assertEquals("http://localhost/a/b/*", index.find("http://localhost/a/b/c", "10.0.0.1", now).getStatement()
+			.getResource());
+	}
+
+	@Test
+	public void shouldIndexLongResources() throws Exception {
+		char[] path = new char[16 * 1024];
+		Arrays.fill(path, 'a');
+		String resource = "http://x/" + new String(path);
+		List<CompiledPolicy.CompiledStatement> statements = new ArrayList<>();
+		statements.add(statement(resource, null, Constants.NO_EPOCH_TIME));
+		statements.add(statement(resource + "/*", null, Constants.NO_EPOCH_TIME));
+
+		// built and searched on a small stack, nothing recurses once per character
+		AtomicReference<Object> result = new AtomicReference<>();
+		Thread thread = new Thread(null, () -> {
+			try {
+				StatementIndex index = new StatementIndex(statements);
+				result.set(Arrays.asList(index.find(resource, null, now), index.find(resource + "/b", null, now),
+					index.find(resource.substring(0, resource.length() - 1) + "b", null, now)));
+			} catch (Throwable t) {
+				result.set(t);
+			}
+		}, "small-stack", 128 * 1024);
+		thread.start();
+		thread.join();
+
+		if (result.get() instanceof Throwable) {
+			throw new AssertionError("unable to use the index", (Throwable)result.get());
+		}
+		List<?> found = (List<?>)result.get();
+		assertSame(statements.get(0), found.get(0));
+		assertSame(statements.get(1), found.get(1));
+		assertNull(found.get(2));
+	}
+
+	@Test
+	public void shouldCheckShorterPrefixesFirst() {
+		List<CompiledPolicy.CompiledStatement> statements = new ArrayList<>();
+		statements.add(statement("http://localhost/a/b/*", null, Constants.NO_EPOCH_TIME));
+		statements.add(statement("http://localhost/a/*", null, Constants.NO_EPOCH_TIME));
+		statements.add(statement("http://localhost/b/*", null, Constants.NO_EPOCH_TIME));
+		StatementIndex index = new StatementIndex(statements);
+
+		assertSame(statements.get(1), index.find("http://localhost/a/b/c", null, now));
+		assertSame(statements.get(2), index.find("http://localhost/b/c", null, now));
+		assertNull(index.find("http://localhost/c/d", null, now));
+		assertNull(index.find("http://localhost/", null, now));
+	}
+
+	private CompiledPolicy.CompiledStatement statement(final String resource, final String ipAddress,
+													   final long dateGreaterThan) {
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setResource(resource);
+		statement.setIpAddress(ipAddress);
+		statement.setDateLessThanEpochSeconds(expires);
+		statement.setDateGreaterThanEpochSeconds(dateGreaterThan);
+		return new CompiledPolicy.CompiledStatement(statement);
+	}
+}
@@ -0,0 +1,216 @@
+package com.wirelust.cfmock.cache;
+
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class BoundedCacheTest {
+
+	private static final long TTL = 1000;
+
+	long now;
+	BoundedCache<String, String> cache;
+
+	@Before
+	public void init() {
+		now = 1000000;
+		cache = new BoundedCache<String, String>(10, TTL) {
+			@Override
+			protected long now() {
+				return now;
+			}
+		};
+	}
+
+	@Test
+	public void shouldCountHitsAndMisses() {
+		assertNull(cache.get("key"));
+		cache.put("key", "value");
+
+		assertEquals("value", cache.get("key"));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void shouldExpireAfterTtl() {
+		cache.put("key", "value");
+
+		now += TTL - 1;
+		assertTrue(cache.contains("key"));
+
+		now += 1;
+		assertFalse(cache.contains("key"));
+		assertEquals(1, cache.getExpirationCount());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void shouldExpireBeforeTtlWhenRequested() {
+		cache.put("key", "value", now + 10);
+
+		now += 10;
+		assertNull(cache.get("key"));
+	}
+
+	@Test
+	public void shouldNotCacheAlreadyExpiredEntries() {
+		cache.put("key", "value", now - 1);
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void shouldEvictLeastRecentlyUsed() {
+		for (int i = 0; i < 10; i++) {
+			cache.put("key" + i, "value" + i);
+			now++;
+		}
+		// touch the oldest entry so it is no longer the least recently used
+		assertEquals("value0", cache.get("key0"));
+		now++;
+
+		cache.put("key10", "value10");
+
+		assertTrue(cache.size() <= 10);
+		assertTrue(cache.getEvictionCount() > 0);
+		assertTrue(cache.contains("key0"));
+		assertTrue(cache.contains("key10"));
+		assertFalse(cache.contains("key1"));
+	}
+
+	@Test
+	public void shouldEvictExpiredEntriesFirst() {
+		for (int i = 0; i < 10; i++) {
+			cache.put("key" + i, "value" + i, now + 10 + i);
+		}
+		now += 15;
+
+		cache.put("key10", "value10");
+
+		assertEquals(0, cache.getEvictionCount());
+		assertEquals(6, cache.getExpirationCount());
+		assertEquals(5, cache.size());
+	}
+
+	@Test
+	public void shouldNeverExceedMaxSizeUnderConcurrentPuts() throws Exception {
+		BoundedCache<Integer, String> concurrent = new BoundedCache<>(100, TimeUnit.MINUTES.toMillis(1));
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger keys = new AtomicInteger();
+		AtomicInteger largest = new AtomicInteger();
+		for (int t = 0; t < threads; t++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int i = 0; i < 20000; i++) {
+					concurrent.put(keys.incrementAndGet(), "value");
+					largest.accumulateAndGet(concurrent.size(), Math::max);
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+		assertTrue("largest size:" + largest.get(), largest.get() <= 100);
+		assertTrue(concurrent.size() <= 100);
+		assertTrue(concurrent.getWeight() <= 100);
+		assertTrue(concurrent.getEvictionCount() >= 160000 - 100 - concurrent.getRejectionCount());
+	}
+
+	@Test
+	public void shouldBoundTotalWeight() {
+		BoundedCache<String, String> weighted = new BoundedCache<>(10, String::length, TTL, Clock.systemUTC());
+
+		assertTrue(weighted.put("a", "aaaa", Long.MAX_VALUE));
+		assertTrue(weighted.put("b", "bbbb", Long.MAX_VALUE));
+		assertEquals(8, weighted.getWeight());
+
+		// too heavy to ever fit
+		assertFalse(weighted.put("c", "ccccccccccc", Long.MAX_VALUE));
+		assertEquals(1, weighted.getRejectionCount());
+
+		assertTrue(weighted.put("d", "dddd", Long.MAX_VALUE));
+		assertEquals(8, weighted.getWeight());
+		assertEquals(2, weighted.size());
+		assertFalse(weighted.contains("a"));
+
+		// replacing an entry gives back the weight of the old value
+		assertTrue(weighted.put("d", "dd", Long.MAX_VALUE));
+		assertEquals(6, weighted.getWeight());
+
+		weighted.invalidateAll();
+		assertEquals(0, weighted.getWeight());
+	}
+
+	@Test
+	public void shouldNotQueueReplacedEntriesForever() {
+		for (int i = 0; i < 100000; i++) {
+			cache.put("key" + (i % 3), "value" + i);
+		}
+		assertEquals(3, cache.size());
+		assertEquals(3, cache.getWeight());
+		assertEquals(0, cache.getEvictionCount());
+		assertEquals("value99999", cache.get("key0"));
+	}
+
+	@Test
+	public void shouldLoadMissingValues() {
+		assertEquals("loaded:key", cache.get("key", k -> "loaded:" + k));
+		assertEquals("loaded:key", cache.get("key", k -> "reloaded:" + k));
+		assertNull(cache.get("nothing", k -> null));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void shouldInvalidate() {
+		cache.put("key1", "value");
+		cache.put("key2", "value");
+
+		cache.invalidate("key1");
+		assertFalse(cache.contains("key1"));
+
+		cache.invalidateAll();
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void shouldRejectInvalidBounds() {
+		try {
+			new BoundedCache<String, String>(0, TTL);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("maxSize"));
+		}
+		try {
+			new BoundedCache<String, String>(1, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("ttlMillis"));
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.wirelust.cfmock.cache;
+
+import java.io.File;
+
+import com.wirelust.cfmock.CFKeyPair;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class NegativeCacheTest {
+
+	File keyFile;
+	CFKeyPair keyPair;
+	NegativeCache negativeCache;
+
+	@Before
+	public void init() throws Exception {
+		keyFile = new File(getClass().getClassLoader().getResource("keys/private_key.pem").toURI());
+		keyPair = CFKeyPair.load("key1", keyFile);
+		negativeCache = new NegativeCache();
+	}
+
+	@Test
+	public void shouldRememberRejectedStatus() {
+		negativeCache.reject(NegativeCache.key(keyPair, "key1", "signature", null, "1467000000"), 403);
+
+		assertEquals(Integer.valueOf(403),
+			negativeCache.getRejection(NegativeCache.key(keyPair, "key1", "signature", null, "1467000000")));
+		assertEquals(1, negativeCache.getHitCount());
+	}
+
+	@Test
+	public void shouldNotMatchDifferentCredentials() {
+		negativeCache.reject(NegativeCache.key(keyPair, "key1", "signature", null, "1467000000"), 403);
+
+		assertNull(negativeCache.getRejection(NegativeCache.key(keyPair, "key1", "signature2", null, "1467000000")));
+		assertNull(negativeCache.getRejection(NegativeCache.key(keyPair, "key1", "signature", "policy", "1467000000")));
+		assertNull(negativeCache.getRejection(NegativeCache.key(keyPair, "key1", "signature", null, null)));
+	}
+
+	@Test
+	public void shouldNotMatchReloadedKeyPair() {
+		negativeCache.reject(NegativeCache.key(null, "key1", "signature"), 400);
+
+		assertEquals(Integer.valueOf(400), negativeCache.getRejection(NegativeCache.key(null, "key1", "signature")));
+		assertNull(negativeCache.getRejection(NegativeCache.key(keyPair, "key1", "signature")));
+		assertNull(negativeCache.getRejection(NegativeCache.key(CFKeyPair.load("key1", keyFile), "key1",
+			"signature")));
+	}
+
+	@Test
+	public void shouldNotRememberOversizedCredentials() {
+		StringBuilder signature = new StringBuilder();
+		for (int i = 0; i <= NegativeCache.MAX_KEY_LENGTH; i++) {
+			signature.append('a');
+		}
+		NegativeCache.Key key = NegativeCache.key(keyPair, "key1", signature.toString());
+		assertNull(key);
+
+		negativeCache.reject(key, 403);
+		assertNull(negativeCache.getRejection(key));
+		assertEquals(0, negativeCache.size());
+	}
+
+	@Test
+	public void shouldStayWithinMaxSize() {
+		negativeCache = new NegativeCache(100, 10000);
+		for (int i = 0; i < 1000; i++) {
+			negativeCache.reject(NegativeCache.key(keyPair, "key1", "signature" + i), 403);
+		}
+
+		assertEquals(true, negativeCache.size() <= 100);
+	}
+}
@@ -0,0 +1,90 @@
+package com.wirelust.cfmock.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Date;
+
+import com.wirelust.cfmock.CFPolicy;
+import com.wirelust.cfmock.CFPolicyStatement;
+import com.wirelust.cfmock.CompiledPolicy;
+import com.wirelust.cfmock.SignatureValidator;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class PolicyCacheTest {
+
+	PolicyCache policyCache;
+
+	@Before
+	public void init() {
+		policyCache = new PolicyCache();
+	}
+
+	@Test
+	public void shouldReturnCachedPolicy() {
+		assertNull(policyCache.get("policy"));
+
+		CompiledPolicy compiledPolicy = compile(3600000, "http://localhost/*");
+		assertTrue(policyCache.put("policy", compiledPolicy));
+
+		assertSame(compiledPolicy, policyCache.get("policy"));
+		assertEquals(1, policyCache.getHitCount());
+		assertEquals(1, policyCache.getMissCount());
+	}
+
+	@Test
+	public void shouldNotCacheExpiredPolicy() {
+		assertFalse(policyCache.put("policy", compile(-1000, "http://localhost/*")));
+
+		assertNull(policyCache.get("policy"));
+		assertEquals(0, policyCache.size());
+	}
+
+	@Test
+	public void shouldWeighPoliciesBySize() {
+		CompiledPolicy small = compile(3600000, "http://localhost/*");
+		CompiledPolicy large = compile(3600000, "http://localhost/" + repeat('a', 4000) + "*");
+		assertTrue(PolicyCache.weigh(large) >= PolicyCache.weigh(small) + 4000 * 6);
+
+		// room for a few small policies but only one large one
+		policyCache = new PolicyCache(PolicyCache.weigh(large) + 2 * PolicyCache.weigh(small), 60000,
+			Clock.systemUTC());
+		assertTrue(policyCache.put("large1", large));
+		assertTrue(policyCache.put("small1", small));
+		assertTrue(policyCache.put("small2", small));
+		assertTrue(policyCache.put("large2", large));
+
+		assertTrue(policyCache.getBytes() <= policyCache.getMaxBytes());
+		assertSame(large, policyCache.get("large2"));
+		assertNull(policyCache.get("large1"));
+	}
+
+	private CompiledPolicy compile(final long expiresIn, final String resource) {
+		CFPolicy policy = new CFPolicy();
+		CFPolicyStatement statement = new CFPolicyStatement();
+		statement.setResource(resource);
+		statement.setDateLessThan(new Date(System.currentTimeMillis() + expiresIn));
+		policy.addStatement(statement);
+		String json = "{\"Statement\":[{\"Resource\":\"" + resource + "\"}]}";
+		return SignatureValidator.compilePolicy(policy, json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String repeat(final char c, final int count) {
+		StringBuilder builder = new StringBuilder(count);
+		for (int i = 0; i < count; i++) {
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+}
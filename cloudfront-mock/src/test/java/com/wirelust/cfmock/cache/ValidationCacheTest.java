@@ -0,0 +1,104 @@
+package com.wirelust.cfmock.cache;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.amazonaws.services.cloudfront.util.SignerUtils;
+import com.wirelust.cfmock.CFKeyPair;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class ValidationCacheTest {
+
+	private static final String POLICY = "{\"Statement\":[{\"Resource\":\"http://localhost/test\","
+		+ "\"Condition\":{\"DateLessThan\":{\"AWS:EpochTime\":1467000000}}}]}";
+
+	File keyFile;
+	CFKeyPair keyPair;
+	String signature;
+	ValidationCache validationCache;
+	long expiresAt;
+
+	@Before
+	public void init() throws Exception {
+		keyFile = new File(getClass().getClassLoader().getResource("keys/private_key.pem").toURI());
+		keyPair = CFKeyPair.load("key1", keyFile);
+		signature = SignerUtils.makeBytesUrlSafe(SignerUtils.signWithSha1RSA(POLICY.getBytes(StandardCharsets.UTF_8),
+			keyPair.getPrivateKey()));
+		validationCache = new ValidationCache();
+		expiresAt = System.currentTimeMillis() + 60000;
+	}
+
+	@Test
+	public void shouldCacheSuccessfulVerification() {
+		assertTrue(validationCache.verify(keyPair, POLICY.getBytes(StandardCharsets.UTF_8), signature, expiresAt));
+		assertTrue(validationCache.verify(keyPair, POLICY.getBytes(StandardCharsets.UTF_8), signature, expiresAt));
+
+		assertEquals(1, validationCache.size());
+		assertEquals(1, validationCache.getHitCount());
+		assertEquals(1, validationCache.getMissCount());
+	}
+
+	@Test
+	public void shouldNotCacheFailedVerification() {
+		byte[] tampered = POLICY.replace("test", "tset").getBytes(StandardCharsets.UTF_8);
+
+		assertFalse(validationCache.verify(keyPair, tampered, signature, expiresAt));
+		assertFalse(validationCache.verify(keyPair, tampered, signature, expiresAt));
+
+		assertEquals(0, validationCache.size());
+	}
+
+	@Test
+	public void shouldNotCacheExpiredPolicy() {
+		assertTrue(validationCache.verify(keyPair, POLICY.getBytes(StandardCharsets.UTF_8), signature,
+			System.currentTimeMillis() - 1000));
+
+		assertEquals(0, validationCache.size());
+	}
+
+	@Test
+	public void shouldNotShareEntriesBetweenKeyPairs() {
+		CFKeyPair reloaded = CFKeyPair.load("key1", keyFile);
+
+		assertTrue(validationCache.verify(keyPair, POLICY.getBytes(StandardCharsets.UTF_8), signature, expiresAt));
+		assertTrue(validationCache.verify(reloaded, POLICY.getBytes(StandardCharsets.UTF_8), signature, expiresAt));
+
+		assertEquals(0, validationCache.getHitCount());
+		assertEquals(2, validationCache.size());
+	}
+
+	@Test
+	public void shouldNotBeAffectedByCallerChangingPolicyBuffer() {
+		byte[] policy = POLICY.getBytes(StandardCharsets.UTF_8);
+		assertTrue(validationCache.verify(keyPair, policy, signature, expiresAt));
+
+		policy[policy.length - 3] = '{';
+		assertFalse(validationCache.verify(keyPair, policy, signature, expiresAt));
+		assertTrue(validationCache.verify(keyPair, POLICY.getBytes(StandardCharsets.UTF_8), signature, expiresAt));
+	}
+
+	@Test
+	public void shouldVerifyPolicyAtStartOfBuffer() {
+		byte[] policy = POLICY.getBytes(StandardCharsets.UTF_8);
+		byte[] buffer = Arrays.copyOf(policy, policy.length + 10);
+		Arrays.fill(buffer, policy.length, buffer.length, (byte)'x');
+
+		assertTrue(validationCache.verify(keyPair, buffer, policy.length, signature, expiresAt));
+		assertTrue(validationCache.verify(keyPair, policy, signature, expiresAt));
+		assertEquals(1, validationCache.getHitCount());
+
+		assertFalse(validationCache.verify(keyPair, buffer, policy.length + 1, signature, expiresAt));
+		assertEquals(1, validationCache.size());
+	}
+}
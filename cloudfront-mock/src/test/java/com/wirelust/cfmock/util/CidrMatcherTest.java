@@ -0,0 +1,116 @@
+package com.wirelust.cfmock.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class CidrMatcherTest {
+
+	@Test
+	public void shouldMatchIpv4Range() {
+		CidrMatcher matcher = CidrMatcher.compile("192.0.2.0/24");
+
+		assertTrue(matcher.matches("192.0.2.0"));
+		assertTrue(matcher.matches("192.0.2.34"));
+		assertTrue(matcher.matches("192.0.2.255"));
+		assertTrue(matcher.matches(" 192.0.2.34 "));
+		assertFalse(matcher.matches("192.0.3.34"));
+		assertFalse(matcher.matches("10.10.10.10"));
+	}
+
+	@Test
+	public void shouldMatchEdgePrefixes() {
+		assertTrue(CidrMatcher.compile("0.0.0.0/0").matches("203.0.113.9"));
+		assertFalse(CidrMatcher.compile("0.0.0.0/0").matches("2001:db8::1"));
+		assertTrue(CidrMatcher.compile("192.0.2.1/32").matches("192.0.2.1"));
+		assertFalse(CidrMatcher.compile("192.0.2.1/32").matches("192.0.2.2"));
+		assertTrue(CidrMatcher.compile("192.0.2.1").matches("192.0.2.1"));
+		assertTrue(CidrMatcher.compile("10.0.0.0/9").matches("10.127.255.255"));
+		assertFalse(CidrMatcher.compile("10.0.0.0/9").matches("10.128.0.0"));
+		assertTrue(CidrMatcher.compile("::/0").matches("2001:db8::1"));
+		assertTrue(CidrMatcher.compile("::/0").matches("192.0.2.1"));
+	}
+
+	@Test
+	public void shouldMatchIpv6Range() {
+		CidrMatcher matcher = CidrMatcher.compile("2001:db8:abcd::/48");
+
+		assertTrue(matcher.matches("2001:db8:abcd::1"));
+		assertTrue(matcher.matches("2001:0db8:abcd:ffff:ffff:ffff:ffff:ffff"));
+		assertTrue(matcher.matches("2001:DB8:ABCD:12::"));
+		assertTrue(matcher.matches("2001:db8:abcd::1%eth0"));
+		assertFalse(matcher.matches("2001:db8:abce::1"));
+		assertFalse(matcher.matches("192.0.2.1"));
+
+		CidrMatcher low = CidrMatcher.compile("2001:db8::1:0/112");
+		assertTrue(low.matches("2001:db8::1:ffff"));
+		assertFalse(low.matches("2001:db8::2:0"));
+	}
+
+	@Test
+	public void shouldMatchIpv4MappedAddresses() {
+		assertTrue(CidrMatcher.compile("192.0.2.0/24").matches("::ffff:192.0.2.7"));
+		assertTrue(CidrMatcher.compile("::ffff:192.0.2.0/120").matches("192.0.2.7"));
+		assertTrue(CidrMatcher.compile("::ffff:c000:200/120").matches("192.0.2.7"));
+		assertFalse(CidrMatcher.compile("192.0.2.0/24").matches("::192.0.2.7"));
+	}
+
+	@Test
+	public void shouldMatchPartOfSequence() {
+		String header = "198.51.100.1, 192.0.2.34";
+		CidrMatcher matcher = CidrMatcher.compile("192.0.2.0/24");
+
+		assertFalse(matcher.matches(header, 0, 12));
+		assertTrue(matcher.matches(header, 13, header.length()));
+	}
+
+	@Test
+	public void shouldNotMatchInvalidAddresses() {
+		CidrMatcher matcher = CidrMatcher.compile("::/0");
+
+		assertFalse(matcher.matches((CharSequence)null));
+		assertFalse(matcher.matches(""));
+		assertFalse(matcher.matches("192.0.2"));
+		assertFalse(matcher.matches("192.0.2.256"));
+		assertFalse(matcher.matches("192.0.2.1.5"));
+		assertFalse(matcher.matches("1:2:3:4:5:6:7:8:9"));
+		assertFalse(matcher.matches("1:2:3:4:5:6:7"));
+		assertFalse(matcher.matches("1::2::3"));
+		assertFalse(matcher.matches(":1:2:3:4:5:6:7"));
+		assertFalse(matcher.matches("1:2:3:4:5:6:7:"));
+		assertFalse(matcher.matches("12345::"));
+		assertFalse(matcher.matches("g::"));
+		assertFalse(matcher.matches("1:2:3:4:5:6:7::8"));
+		assertTrue(matcher.matches("::"));
+		assertTrue(matcher.matches("1:2:3:4:5:6:7::"));
+		assertTrue(matcher.matches("1:2:3:4:5:6:192.0.2.1"));
+	}
+
+	@Test
+	public void shouldNotCompileInvalidRanges() {
+		String[] invalid = {"192.0.2.0/33", "192.0.2.0/", "192.0.2.D/24", "2001:db8::/129", "2001:db8:::/32",
+			"192.0.2.0/2a"};
+		for (String cidr : invalid) {
+			try {
+				CidrMatcher.compile(cidr);
+				fail(cidr);
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage().contains(cidr));
+			}
+		}
+		try {
+			CidrMatcher.compile(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("cidr may not be null", e.getMessage());
+		}
+	}
+}
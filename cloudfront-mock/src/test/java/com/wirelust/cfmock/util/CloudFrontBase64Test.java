@@ -0,0 +1,99 @@
+package com.wirelust.cfmock.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import com.amazonaws.services.cloudfront.util.SignerUtils;
+import com.amazonaws.util.Base64;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class CloudFrontBase64Test {
+
+	/**
+	 * This method simply instantiates a private constructor to ensure code coverage for it so the
+	 * coverage reports aren't diminished
+	 */
+	@Test
+	public void testConstructorIsPrivate() throws Exception {
+		Constructor<CloudFrontBase64> constructor = CloudFrontBase64.class.getDeclaredConstructor();
+		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void shouldMatchAwsSdkEncoding() {
+		Random random = new Random(42);
+		for (int length = 0; length < 300; length++) {
+			byte[] bytes = new byte[length];
+			random.nextBytes(bytes);
+
+			String encoded = SignerUtils.makeBytesUrlSafe(bytes);
+			assertEquals(encoded, CloudFrontBase64.encode(bytes));
+			assertArrayEquals(bytes, CloudFrontBase64.decode(encoded));
+			assertArrayEquals(bytes, CloudFrontBase64.decode(Base64.encodeAsString(bytes)));
+		}
+	}
+
+	@Test
+	public void shouldDecodeWithoutPadding() {
+		assertEquals("a", decode("YQ"));
+		assertEquals("ab", decode("YWI"));
+		assertEquals("abc", decode("YWJj"));
+		assertEquals("a", decode("YQ__"));
+		assertEquals("ab", decode("YWI="));
+		assertEquals("", decode(""));
+	}
+
+	@Test
+	public void shouldDecodeIntoBuffer() {
+		byte[] buffer = new byte[10];
+		StringBuilder encoded = new StringBuilder("YWJj");
+
+		assertEquals(3, CloudFrontBase64.decode(encoded, buffer, 5));
+		assertEquals("abc", new String(buffer, 5, 3, StandardCharsets.UTF_8));
+		assertEquals(3, CloudFrontBase64.decodedLength(encoded));
+
+		try {
+			CloudFrontBase64.decode(encoded, buffer, 8);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("too small"));
+		}
+	}
+
+	@Test
+	public void shouldRejectInvalidValues() {
+		assertInvalid("Y", "invalid base64 length");
+		assertInvalid("YQ_", "invalid base64 padding");
+		assertInvalid("Y___", "unexpected padding at:1");
+		assertInvalid("Y_Q_", "unexpected padding");
+		assertInvalid("YW J", "invalid base64 character at:2");
+		assertInvalid("YW\u00e9J", "invalid base64 character at:2");
+	}
+
+	private static String decode(final String encoded) {
+		return new String(CloudFrontBase64.decode(encoded), StandardCharsets.UTF_8);
+	}
+
+	private static void assertInvalid(final String encoded, final String message) {
+		try {
+			CloudFrontBase64.decode(encoded);
+			fail("expected " + encoded + " to be rejected");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(message));
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.wirelust.cfmock.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class CoarseClockTest {
+
+	@Test
+	public void shouldRefreshTimeFromSource() throws Exception {
+		AtomicLong time = new AtomicLong(1000);
+		try (CoarseClock clock = new CoarseClock(new SourceClock(time), 1)) {
+			assertEquals(1000, clock.millis());
+
+			time.set(2000);
+			long deadline = System.currentTimeMillis() + 5000;
+			while (clock.millis() != 2000 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(1);
+			}
+			assertEquals(2000, clock.millis());
+			assertEquals(2000, clock.instant().toEpochMilli());
+		}
+	}
+
+	@Test
+	public void shouldStopRefreshingWhenClosed() throws Exception {
+		AtomicLong time = new AtomicLong(1000);
+		CoarseClock clock = new CoarseClock(new SourceClock(time), 1);
+		clock.close();
+		Thread.sleep(20);
+
+		time.set(2000);
+		Thread.sleep(20);
+		assertTrue(clock.millis() < 2000);
+	}
+
+	@Test
+	public void shouldShareTimeWithZonedClock() {
+		AtomicLong time = new AtomicLong(1000);
+		try (CoarseClock clock = new CoarseClock(new SourceClock(time), 1000)) {
+			assertSame(clock, clock.withZone(ZoneOffset.UTC));
+
+			ZoneId zone = ZoneId.of("Europe/London");
+			Clock zoned = clock.withZone(zone);
+			assertEquals(zone, zoned.getZone());
+			assertEquals(1000, zoned.millis());
+			assertSame(clock, zoned.withZone(ZoneOffset.UTC));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldNotAllowZeroResolution() {
+		new CoarseClock(Clock.systemUTC(), 0);
+	}
+
+	private static final class SourceClock extends Clock {
+		private final AtomicLong time;
+
+		SourceClock(final AtomicLong time) {
+			this.time = time;
+		}
+
+		@Override
+		public long millis() {
+			return time.get();
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(time.get());
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(final ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
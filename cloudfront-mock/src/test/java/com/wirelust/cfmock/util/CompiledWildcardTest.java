@@ -0,0 +1,104 @@
+package com.wirelust.cfmock.util;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class CompiledWildcardTest {
+
+	@Test
+	public void shouldMatchWithoutWildcards() {
+		CompiledWildcard wildcard = CompiledWildcard.compile("http://localhost/a.html");
+
+		assertTrue(wildcard.matches("http://localhost/a.html"));
+		assertFalse(wildcard.matches("http://localhost/a.htm"));
+		assertFalse(wildcard.matches("http://localhost/a.html2"));
+		assertFalse(wildcard.matches("http://localhost/aXhtml"));
+	}
+
+	@Test
+	public void shouldMatchStars() {
+		CompiledWildcard wildcard = CompiledWildcard.compile("http*://*/content/*/chapter_*.xhtml");
+
+		assertTrue(wildcard.matches("http://localhost/content/moby-dick/chapter_001.xhtml"));
+		assertTrue(wildcard.matches("https://localhost:8443/content/a/b/c/chapter_.xhtml"));
+		assertFalse(wildcard.matches("http://localhost/content/moby-dick/chapter_001.html"));
+		assertFalse(wildcard.matches("ftp://localhost/content/moby-dick/chapter_001.xhtml"));
+
+		assertTrue(CompiledWildcard.compile("*").matches(""));
+		assertTrue(CompiledWildcard.compile("**").matches("anything"));
+		assertTrue(CompiledWildcard.compile("a*a").matches("aa"));
+		assertFalse(CompiledWildcard.compile("a*a").matches("a"));
+		assertTrue(CompiledWildcard.compile("*ab*ab*").matches("xabxxab"));
+		assertFalse(CompiledWildcard.compile("*ab*ab*").matches("xabx"));
+	}
+
+	@Test
+	public void shouldMatchQuestionMarks() {
+		assertTrue(CompiledWildcard.compile("a?c").matches("abc"));
+		assertFalse(CompiledWildcard.compile("a?c").matches("ac"));
+		assertTrue(CompiledWildcard.compile("*a?c*").matches("xxaacxx"));
+		assertTrue(CompiledWildcard.compile("*?").matches("x"));
+		assertFalse(CompiledWildcard.compile("*?").matches(""));
+	}
+
+	@Test
+	public void shouldMatchRegexCharactersLiterally() {
+		assertTrue(CompiledWildcard.compile("a.b[c]").matches("a.b[c]"));
+		assertFalse(CompiledWildcard.compile("a.b").matches("axb"));
+	}
+
+	@Test
+	public void shouldMatchTheSameAsRegex() {
+		Random random = new Random(42);
+		String alphabet = "ab/.";
+		String patternAlphabet = "ab/.*?";
+
+		for (int i = 0; i < 20000; i++) {
+			String pattern = randomString(random, patternAlphabet, 8);
+			String input = randomString(random, alphabet, 12);
+
+			boolean expected = Pattern.compile(WildcardMatcher.wildcardToRegex(pattern)).matcher(input).matches();
+			assertEquals("pattern:" + pattern + " input:" + input, expected,
+				CompiledWildcard.compile(pattern).matches(input));
+			assertEquals("pattern:" + pattern + " input:" + input, expected,
+				CompiledWildcard.compile(pattern).matches(new StringBuilder(input)));
+		}
+	}
+
+	@Test
+	public void shouldCacheCompiledPatterns() {
+		assertSame(WildcardMatcher.compile("http*://localhost/*"), WildcardMatcher.compile("http*://localhost/*"));
+	}
+
+	@Test
+	public void shouldNotCompileNull() {
+		try {
+			CompiledWildcard.compile(null);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("pattern may not be null", e.getMessage());
+		}
+	}
+
+	private String randomString(final Random random, final String alphabet, final int maxLength) {
+		int length = random.nextInt(maxLength + 1);
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return sb.toString();
+	}
+}
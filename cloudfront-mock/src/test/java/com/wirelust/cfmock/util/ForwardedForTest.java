@@ -0,0 +1,94 @@
+package com.wirelust.cfmock.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18-Oct-2026
+ *
+ * @author T. Curran
+ */
+public class ForwardedForTest {
+
+	/**
+	 * This method simply instantiates a private constructor to ensure code coverage for it so the
+	 * coverage reports aren't diminished
+	 */
+	@Test
+	public void testConstructorIsPrivate() throws Exception {
+		Constructor<ForwardedFor> constructor = ForwardedFor.class.getDeclaredConstructor();
+		assertTrue(Modifier.isPrivate(constructor.getModifiers()));
+		constructor.setAccessible(true);
+		constructor.newInstance();
+	}
+
+	@Test
+	public void shouldReturnSingleAddress() {
+		String header = "192.0.2.34";
+		assertSame(header, ForwardedFor.clientAddress(header, 1));
+		assertEquals("2001:db8::1", ForwardedFor.clientAddress(" 2001:db8::1 ", 1));
+	}
+
+	@Test
+	public void shouldPickTrustedHop() {
+		String header = "203.0.113.7, 198.51.100.1,192.0.2.34";
+
+		assertEquals("192.0.2.34", ForwardedFor.clientAddress(header, 1));
+		assertEquals("198.51.100.1", ForwardedFor.clientAddress(header, 2));
+		assertEquals("203.0.113.7", ForwardedFor.clientAddress(header, 3));
+		assertEquals("203.0.113.7", ForwardedFor.clientAddress(header, 10));
+	}
+
+	@Test
+	public void shouldRemovePorts() {
+		assertEquals("192.0.2.34", ForwardedFor.clientAddress("192.0.2.34:8080", 1));
+		assertEquals("2001:db8::1", ForwardedFor.clientAddress("[2001:db8::1]:8080", 1));
+		assertEquals("2001:db8::1", ForwardedFor.clientAddress("[2001:db8::1]", 1));
+		assertEquals("2001:db8::1", ForwardedFor.clientAddress("192.0.2.34:80, 2001:db8::1", 1));
+	}
+
+	@Test
+	public void shouldFindAddressInPlace() {
+		String header = "203.0.113.7, [2001:db8::1]:8080";
+
+		long range = ForwardedFor.clientAddressRange(header, 1);
+		assertEquals(header.indexOf("2001"), ForwardedFor.start(range));
+		assertEquals(header.indexOf(']'), ForwardedFor.end(range));
+		assertTrue(CidrMatcher.compile("2001:db8::/32").matches(header, ForwardedFor.start(range),
+			ForwardedFor.end(range)));
+
+		range = ForwardedFor.clientAddressRange(header, 2);
+		assertEquals(0, ForwardedFor.start(range));
+		assertEquals(header.indexOf(','), ForwardedFor.end(range));
+		assertTrue(CidrMatcher.compile("203.0.113.0/24").matches(header, ForwardedFor.start(range),
+			ForwardedFor.end(range)));
+
+		assertEquals(ForwardedFor.NONE, ForwardedFor.clientAddressRange(null, 1));
+		assertEquals(ForwardedFor.NONE, ForwardedFor.clientAddressRange(" , ", 1));
+	}
+
+	@Test
+	public void shouldHandleEmptyHeaders() {
+		assertNull(ForwardedFor.clientAddress(null, 1));
+		assertNull(ForwardedFor.clientAddress("", 1));
+		assertNull(ForwardedFor.clientAddress("192.0.2.34, ", 1));
+	}
+
+	@Test
+	public void shouldRequireATrustedHop() {
+		try {
+			ForwardedFor.clientAddress("192.0.2.34", 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("trustedHops must be at least 1", e.getMessage());
+		}
+	}
+}